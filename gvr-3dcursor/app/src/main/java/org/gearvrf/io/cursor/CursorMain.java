@@ -38,6 +38,7 @@ import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRScript;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.ZipLoader;
+import org.gearvrf.assetbundle.AssetBundleLoader;
 import org.gearvrf.io.cursor.AssetHolder.AssetObjectTuple;
 import org.gearvrf.io.cursor3d.Cursor;
 import org.gearvrf.io.cursor3d.CursorActivationListener;
@@ -116,7 +117,7 @@ public class CursorMain extends GVRMain {
     final float SETTINGS_TEXT_OFFSET = -9.0f;
     private static int LIGHT_BLUE_COLOR;
 
-    private static final String MESH_FILE = "meshes.zip";
+    private static final String MESH_FILE = "meshes.gvrb";
     private static final String TEXTURE_FILE = "textures.zip";
 
     private static final float[] Y_AXIS = {0.0f, 1.0f, 0.0f};
@@ -213,7 +214,7 @@ public class CursorMain extends GVRMain {
         textureMap = new HashMap<String, Future<GVRTexture>>();
         addSurroundings(gvrContext, mainScene);
         try {
-            ZipLoader.load(gvrContext, MESH_FILE, new ZipLoader
+            AssetBundleLoader.load(gvrContext, MESH_FILE, new ZipLoader
                     .ZipEntryProcessor<Future<GVRMesh>>() {
                 @Override
                 public Future<GVRMesh> getItem(GVRContext context, GVRAndroidResource resource) {
@@ -11,43 +11,38 @@
 
 package com.samsung.accessibility.focus;
 
-import java.util.ArrayList;
-
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVREyePointeeHolder;
 import org.gearvrf.GVRPicker;
+import org.gearvrf.focus.FocusIndex;
 
 public final class FocusableController {
 
-    public static ArrayList<FocusableSceneObject> interactiveObjects = new ArrayList<FocusableSceneObject>();
+    public static FocusIndex<FocusableSceneObject> interactiveObjects = new FocusIndex<FocusableSceneObject>();
 
     public static void process(GVRContext context) {
 
         GVREyePointeeHolder[] eyePointeeHolders = GVRPicker.pickScene(context
                 .getMainScene());
 
-        ArrayList<FocusableSceneObject> needToDisableFocus = new ArrayList<FocusableSceneObject>();
-
-        for (FocusableSceneObject obj : interactiveObjects) {
-            needToDisableFocus.add(obj);
-        }
+        interactiveObjects.beginFrame();
 
         if (eyePointeeHolders.length == 0) {
             // GazeController.disableInteractiveCursor();
         } else {
             for (GVREyePointeeHolder holder : eyePointeeHolders) {
-                for (FocusableSceneObject object : interactiveObjects) {
-                    if (holder.getOwnerObject().equals(object)) {
-                        object.setFocus(true);
-                        object.dispatchInFocus();
-                        needToDisableFocus.remove(object);
-                    }
+                FocusableSceneObject object = interactiveObjects
+                        .hit(holder.getOwnerObject());
+                if (object != null) {
+                    object.setFocus(true);
+                    object.dispatchInFocus();
                 }
             }
         }
 
-        for (FocusableSceneObject obj : needToDisableFocus) {
-            obj.setFocus(false);
+        for (int i = interactiveObjects.nextLost(0); i >= 0; i = interactiveObjects
+                .nextLost(i + 1)) {
+            interactiveObjects.get(i).setFocus(false);
         }
 
     }
@@ -58,11 +53,11 @@ public final class FocusableController {
                 .getMainScene());
 
         for (GVREyePointeeHolder holder : eyePointeeHolders) {
-            for (FocusableSceneObject object : interactiveObjects) {
-                if (holder.getOwnerObject().equals(object)) {
-                    object.dispatchInClick();
-                    return true;
-                }
+            FocusableSceneObject object = interactiveObjects.find(holder
+                    .getOwnerObject());
+            if (object != null) {
+                object.dispatchInClick();
+                return true;
             }
         }
 
@@ -17,8 +17,8 @@ import android.util.Log;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 
-import com.samsung.accessibility.focus.VRTouchPadGestureDetector;
-import com.samsung.accessibility.focus.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class MainActivity extends GVRActivity implements
         VRTouchPadGestureDetector.OnTouchPadGestureListener {
@@ -19,13 +19,11 @@ import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.animation.GVRRelativeMotionAnimation;
 import org.gearvrf.animation.GVRRotationByAxisAnimation;
+import org.gearvrf.easing.Easing;
 import com.samsung.accessibility.R;
 import com.samsung.accessibility.focus.FocusableSceneObject;
 import com.samsung.accessibility.focus.OnClickListener;
 import com.samsung.accessibility.focus.OnFocusListener;
-import com.samsung.accessibility.interpolator.InterpolatorBackEaseIn;
-import com.samsung.accessibility.interpolator.InterpolatorBackEaseOut;
-import com.samsung.accessibility.interpolator.InterpolatorStrongEaseInOut;
 import com.samsung.accessibility.util.Utils;
 
 public class CursorSceneItem extends FocusableSceneObject {
@@ -89,13 +87,13 @@ public class CursorSceneItem extends FocusableSceneObject {
                 float[] hit = getEyePointeeHolder().getHit();
                 new GVRRelativeMotionAnimation(this, duration, newPosition[0] - initialPosition[0], newPosition[1] - initialPosition[1],
                         newPosition[2] - initialPosition[2]).start(getGVRContext().getAnimationEngine())
-                        .setInterpolator(InterpolatorBackEaseOut.getInstance()).setOnFinish(new GVROnFinish() {
+                        .setInterpolator(Easing.BACK_OUT).setOnFinish(new GVROnFinish() {
 
                             @Override
                             public void finished(GVRAnimation animation) {
                                 new GVRRotationByAxisAnimation(CursorSceneItem.this, duration * 3, 180, 0, 1, 0)
                                         .start(getGVRContext().getAnimationEngine())
-                                        .setInterpolator(InterpolatorStrongEaseInOut.getInstance()).setOnFinish(new GVROnFinish() {
+                                        .setInterpolator(Easing.QUINT_IN_OUT).setOnFinish(new GVROnFinish() {
 
                                             @Override
                                             public void finished(GVRAnimation animation) {
@@ -103,7 +101,7 @@ public class CursorSceneItem extends FocusableSceneObject {
                                                         - newPosition[0],
                                                         initialPosition[1] - newPosition[1], initialPosition[2] - newPosition[2])
                                                         .start(getGVRContext().getAnimationEngine())
-                                                        .setInterpolator(InterpolatorBackEaseIn.getInstance())
+                                                        .setInterpolator(Easing.BACK_IN)
                                                         .setOnFinish(new GVROnFinish() {
 
                                                             @Override
@@ -119,13 +117,13 @@ public class CursorSceneItem extends FocusableSceneObject {
             } else {
                 new GVRRelativeMotionAnimation(this, duration, newPosition[0] - initialPosition[0], newPosition[1] - initialPosition[1],
                         newPosition[2] - initialPosition[2]).start(getGVRContext().getAnimationEngine())
-                        .setInterpolator(InterpolatorBackEaseOut.getInstance()).setOnFinish(new GVROnFinish() {
+                        .setInterpolator(Easing.BACK_OUT).setOnFinish(new GVROnFinish() {
 
                             @Override
                             public void finished(GVRAnimation animation) {
                                 new GVRRotationByAxisAnimation(CursorSceneItem.this, duration * 3, -180, 0, 1, 0)
                                         .start(getGVRContext().getAnimationEngine())
-                                        .setInterpolator(InterpolatorStrongEaseInOut.getInstance()).setOnFinish(new GVROnFinish() {
+                                        .setInterpolator(Easing.QUINT_IN_OUT).setOnFinish(new GVROnFinish() {
 
                                             @Override
                                             public void finished(GVRAnimation animation) {
@@ -133,7 +131,7 @@ public class CursorSceneItem extends FocusableSceneObject {
                                                         - newPosition[0],
                                                         initialPosition[1] - newPosition[1], initialPosition[2] - newPosition[2])
                                                         .start(getGVRContext().getAnimationEngine())
-                                                        .setInterpolator(InterpolatorBackEaseIn.getInstance())
+                                                        .setInterpolator(Easing.BACK_IN)
                                                         .setOnFinish(new GVROnFinish() {
 
                                                             @Override
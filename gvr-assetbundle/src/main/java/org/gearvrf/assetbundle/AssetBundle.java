@@ -0,0 +1,233 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Read-only view of an asset bundle, normally memory mapped, in which any
+ * entry can be found and read without touching the others.
+ *
+ * Layout, big-endian:
+ * <pre>
+ * int    magic 'GVRB', version, entry count, slot count
+ * int    slots[slot count]       open addressing table of entry indices, -1 if empty
+ * entry  entries[entry count]    in packing order
+ * byte   names[]                 UTF-8
+ * byte   data[]
+ *
+ * entry: long name hash, int name offset, int name length,
+ *        int data offset, int stored length, int length, int format
+ * </pre>
+ * Offsets are from the start of the bundle. Names are looked up by their
+ * 64-bit FNV-1a hash, starting at slot {@code hash & (slot count - 1)}. The
+ * slot count is a power of two greater than the entry count.
+ * Plain Java, so it can be read on a desktop JVM.
+ */
+public class AssetBundle {
+
+    public static final int MAGIC = 0x47565242;
+    public static final int VERSION = 1;
+
+    /** Entry data is stored as is. */
+    public static final int STORED = 0;
+    /** Entry data is one LZ4 block. */
+    public static final int LZ4 = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 32;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int slotMask;
+    private final int entriesOffset;
+
+    /**
+     * Maps {@code length} bytes of {@code channel} from {@code offset}. The
+     * mapping stays valid after the channel is closed.
+     */
+    public static AssetBundle map(FileChannel channel, long offset, long length)
+            throws IOException {
+        return new AssetBundle(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    public AssetBundle(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not an asset bundle");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported asset bundle version " + buffer.getInt(4));
+        }
+        entryCount = buffer.getInt(8);
+        int slotCount = buffer.getInt(12);
+        /*
+         * At least one slot must stay empty, or a lookup of a missing name
+         * would have nowhere to stop.
+         */
+        if (Integer.bitCount(slotCount) != 1 || slotCount <= entryCount) {
+            throw new IOException("corrupt asset bundle table of contents");
+        }
+        slotMask = slotCount - 1;
+        entriesOffset = HEADER_SIZE + slotCount * 4;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * @return the index of the entry called {@code name}, or -1.
+     */
+    public int find(String name) {
+        long hash = hash(name);
+        int slot = (int) hash & slotMask;
+        for (int probe = 0; probe <= slotMask; ++probe, slot = (slot + 1) & slotMask) {
+            int index = buffer.getInt(HEADER_SIZE + slot * 4);
+            if (index < 0) {
+                return -1;
+            }
+            if (buffer.getLong(entryAt(index)) == hash && getName(index).equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public String getName(int index) {
+        int entry = entryAt(index);
+        byte[] name = new byte[buffer.getInt(entry + 12)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(buffer.getInt(entry + 8));
+        view.get(name);
+        return new String(name, UTF_8);
+    }
+
+    /**
+     * @return the size of the entry once read.
+     */
+    public int getLength(int index) {
+        return buffer.getInt(entryAt(index) + 24);
+    }
+
+    public int getFormat(int index) {
+        return buffer.getInt(entryAt(index) + 28);
+    }
+
+    /**
+     * @return a stream over the entry's contents. Stored entries are read
+     *         straight from the mapping; compressed entries are decoded
+     *         into memory first.
+     */
+    public InputStream open(int index) throws IOException {
+        if (getFormat(index) == STORED) {
+            return new BufferInputStream(storedData(index));
+        }
+        return new ByteArrayInputStream(read(index));
+    }
+
+    public byte[] read(int index) throws IOException {
+        byte[] data = new byte[getLength(index)];
+        ByteBuffer stored = storedData(index);
+        switch (getFormat(index)) {
+        case STORED:
+            stored.get(data);
+            break;
+        case LZ4:
+            Lz4.decompress(stored, data, data.length);
+            break;
+        default:
+            throw new IOException("unknown format " + getFormat(index) + " for "
+                    + getName(index));
+        }
+        return data;
+    }
+
+    private ByteBuffer storedData(int index) {
+        int entry = entryAt(index);
+        int offset = buffer.getInt(entry + 16);
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + buffer.getInt(entry + 20));
+        view.position(offset);
+        return view.slice();
+    }
+
+    private int entryAt(int index) {
+        if (index < 0 || index >= entryCount) {
+            throw new IndexOutOfBoundsException("entry " + index + " of " + entryCount);
+        }
+        return entriesOffset + index * ENTRY_SIZE;
+    }
+
+    /**
+     * @return the 64-bit FNV-1a hash of {@code name}'s UTF-8 bytes.
+     */
+    public static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /*
+     * Reads a buffer without copying it first.
+     */
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.ZipLoader;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drop-in replacement for {@link ZipLoader#load} that reads an
+ * {@link AssetBundle} mapped straight out of the APK. The bundle must be
+ * stored uncompressed, which the build arranges with
+ * {@code aaptOptions.noCompress 'gvrb'}.
+ */
+public class AssetBundleLoader {
+
+    public static AssetBundle open(Context context, String assetName) throws IOException {
+        AssetFileDescriptor descriptor = context.getAssets().openFd(assetName);
+        FileInputStream stream = descriptor.createInputStream();
+        try {
+            return AssetBundle.map(stream.getChannel(), descriptor.getStartOffset(),
+                    descriptor.getLength());
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Hands every entry of the bundle to {@code processor}, in packing
+     * order, without reading any entry's data up front.
+     */
+    public static <T> List<T> load(GVRContext gvrContext, String assetName,
+            ZipLoader.ZipEntryProcessor<T> processor) throws IOException {
+        AssetBundle bundle = open(gvrContext.getContext(), assetName);
+        List<T> result = new ArrayList<T>(bundle.size());
+        for (int i = 0; i < bundle.size(); ++i) {
+            GVRAndroidResource resource = new GVRAndroidResource(bundle.getName(i),
+                    bundle.open(i));
+            result.add(processor.getItem(gvrContext, resource));
+        }
+        return result;
+    }
+}
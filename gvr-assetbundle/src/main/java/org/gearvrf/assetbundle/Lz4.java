@@ -0,0 +1,235 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * LZ4 block format, without the frame wrapper: the caller stores the
+ * compressed and original lengths. The compressor searches hash chains for
+ * the longest match, trading speed for size since it only runs when assets
+ * are packed; the decompressor reads straight from a (memory mapped) buffer.
+ */
+public final class Lz4 {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_OFFSET = 0xffff;
+    private static final int HASH_BITS = 16;
+    private static final int MAX_ATTEMPTS = 256;
+
+    private Lz4() {
+    }
+
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Looks for matches along a chain of earlier positions with the same
+     * hash, up to {@code MAX_ATTEMPTS} of them, and takes a match one byte
+     * later if that one is longer. Several times slower than a single probe,
+     * and about a quarter smaller on OBJ text; decoding is unaffected.
+     *
+     * @return the number of bytes written to {@code dst}, which must hold at
+     *         least {@link #maxCompressedLength(int)} bytes.
+     */
+    public static int compress(byte[] src, int length, byte[] dst) {
+        int[] head = new int[1 << HASH_BITS];
+        int[] chain = new int[MAX_OFFSET + 1];
+        Arrays.fill(head, -1);
+
+        int anchor = 0;
+        int ip = 0;
+        int op = 0;
+        int inserted = 0;
+        int matchStartLimit = length - MATCH_FIND_LIMIT;
+        int matchEndLimit = length - LAST_LITERALS;
+        while (ip < matchStartLimit) {
+            inserted = insert(src, head, chain, inserted, ip);
+            long match = longestMatch(src, head, chain, ip, matchEndLimit);
+            if (match == 0) {
+                ++ip;
+                continue;
+            }
+            if (ip + 1 < matchStartLimit) {
+                inserted = insert(src, head, chain, inserted, ip + 1);
+                long later = longestMatch(src, head, chain, ip + 1, matchEndLimit);
+                if ((int) (later >>> 32) > (int) (match >>> 32)) {
+                    ++ip;
+                    continue;
+                }
+            }
+
+            int matchLength = (int) (match >>> 32);
+            op = writeSequence(src, anchor, ip - anchor, dst, op, ip - (int) match, matchLength);
+            ip += matchLength;
+            anchor = ip;
+        }
+        return writeSequence(src, anchor, length - anchor, dst, op, 0, 0);
+    }
+
+    /*
+     * Adds positions up to and including {@code last} to the hash chains.
+     */
+    private static int insert(byte[] src, int[] head, int[] chain, int next, int last) {
+        for (; next <= last; ++next) {
+            int h = (readInt(src, next) * -1640531535) >>> (32 - HASH_BITS);
+            chain[next & MAX_OFFSET] = head[h];
+            head[h] = next;
+        }
+        return next;
+    }
+
+    /*
+     * @return the longest match for {@code ip} as length << 32 | position,
+     *         or 0 if there is none of at least MIN_MATCH bytes.
+     */
+    private static long longestMatch(byte[] src, int[] head, int[] chain, int ip,
+            int matchEndLimit) {
+        int sequence = readInt(src, ip);
+        int bestLength = MIN_MATCH - 1;
+        int bestRef = -1;
+        int ref = chain[ip & MAX_OFFSET];
+        for (int attempts = MAX_ATTEMPTS; ref >= 0 && ip - ref <= MAX_OFFSET
+                && attempts > 0; --attempts) {
+            if (ip + bestLength < matchEndLimit
+                    && src[ref + bestLength] == src[ip + bestLength]
+                    && readInt(src, ref) == sequence) {
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchEndLimit
+                        && src[ref + matchLength] == src[ip + matchLength]) {
+                    ++matchLength;
+                }
+                if (matchLength > bestLength) {
+                    bestLength = matchLength;
+                    bestRef = ref;
+                }
+            }
+            int next = chain[ref & MAX_OFFSET];
+            if (next >= ref) {
+                // the slot was reused by a position outside the window
+                break;
+            }
+            ref = next;
+        }
+        return bestRef < 0 ? 0 : (long) bestLength << 32 | bestRef;
+    }
+
+    /**
+     * Decodes the block between {@code src}'s position and limit into the
+     * first {@code length} bytes of {@code dst}. Does not move {@code src}.
+     */
+    public static void decompress(ByteBuffer src, byte[] dst, int length) throws IOException {
+        ByteBuffer in = src.duplicate();
+        int op = 0;
+        try {
+            while (true) {
+                int token = in.get() & 0xff;
+                int literalLength = token >>> 4;
+                if (literalLength == 15) {
+                    literalLength += readLength(in);
+                }
+                in.get(dst, op, literalLength);
+                op += literalLength;
+                if (!in.hasRemaining()) {
+                    break;
+                }
+
+                int offset = (in.get() & 0xff) | (in.get() & 0xff) << 8;
+                int matchLength = token & 15;
+                if (matchLength == 15) {
+                    matchLength += readLength(in);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < 0) {
+                    throw new IOException("corrupt LZ4 block: bad offset " + offset);
+                }
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                    op += matchLength;
+                } else {
+                    /*
+                     * The match overlaps the bytes it produces, repeating
+                     * the last offset bytes.
+                     */
+                    for (int i = 0; i < matchLength; ++i) {
+                        dst[op++] = dst[ref++];
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("corrupt LZ4 block", e);
+        }
+        if (op != length) {
+            throw new IOException("corrupt LZ4 block: " + op + " bytes instead of " + length);
+        }
+    }
+
+    private static int readLength(ByteBuffer in) {
+        int length = 0;
+        int b;
+        do {
+            b = in.get() & 0xff;
+            length += b;
+        } while (b == 255);
+        return length;
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literalLength, byte[] dst,
+            int op, int offset, int matchLength) {
+        int tokenAt = op++;
+        int token = Math.min(literalLength, 15) << 4;
+        op = writeLength(dst, op, literalLength - 15);
+        System.arraycopy(src, literalStart, dst, op, literalLength);
+        op += literalLength;
+
+        if (matchLength > 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            int extra = matchLength - MIN_MATCH;
+            token |= Math.min(extra, 15);
+            op = writeLength(dst, op, extra - 15);
+        }
+        dst[tokenAt] = (byte) token;
+        return op;
+    }
+
+    /*
+     * Writes the remainder of a length whose 4-bit token field is saturated;
+     * does nothing for a negative remainder.
+     */
+    private static int writeLength(byte[] dst, int op, int remainder) {
+        if (remainder < 0) {
+            return op;
+        }
+        while (remainder >= 255) {
+            dst[op++] = (byte) 255;
+            remainder -= 255;
+        }
+        dst[op++] = (byte) remainder;
+        return op;
+    }
+
+    private static int readInt(byte[] src, int i) {
+        return (src[i] & 0xff) | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff) << 16
+                | (src[i + 3] & 0xff) << 24;
+    }
+}
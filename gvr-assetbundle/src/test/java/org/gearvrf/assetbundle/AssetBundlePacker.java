@@ -0,0 +1,176 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Build-time tool that converts a zip of assets into an {@link AssetBundle},
+ * keeping the zip's entry order. Each entry is stored LZ4 compressed if that
+ * saves at least {@link #MIN_SAVING} of its size, and as is otherwise (JPEG
+ * and PNG files rarely shrink). It lives with the tests so it is never
+ * packaged into an app.
+ *
+ * Usage: {@code java org.gearvrf.assetbundle.AssetBundlePacker in.zip out.gvrb}
+ */
+public class AssetBundlePacker {
+
+    public static final float MIN_SAVING = 0.1f;
+
+    private final List<String> names = new ArrayList<String>();
+    private final List<byte[]> contents = new ArrayList<byte[]>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: AssetBundlePacker <in.zip> <out.gvrb>");
+            System.exit(1);
+        }
+        AssetBundlePacker packer = new AssetBundlePacker();
+        packer.addZip(new FileInputStream(args[0]));
+        OutputStream out = new FileOutputStream(args[1]);
+        try {
+            packer.write(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    public void add(String name, byte[] content) {
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("duplicate entry " + name);
+        }
+        names.add(name);
+        contents.add(content);
+    }
+
+    /**
+     * Adds every file in the zip; closes {@code in}.
+     */
+    public void addZip(InputStream in) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in);
+        try {
+            ZipEntry entry;
+            byte[] buffer = new byte[8192];
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                int count;
+                while ((count = zip.read(buffer)) > 0) {
+                    content.write(buffer, 0, count);
+                }
+                add(entry.getName(), content.toByteArray());
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        int entryCount = names.size();
+        int slotCount = slotCount(entryCount);
+
+        byte[][] nameBytes = new byte[entryCount][];
+        long[] hashes = new long[entryCount];
+        int namesLength = 0;
+        for (int i = 0; i < entryCount; ++i) {
+            nameBytes[i] = names.get(i).getBytes("UTF-8");
+            hashes[i] = AssetBundle.hash(names.get(i));
+            namesLength += nameBytes[i].length;
+        }
+
+        int[] slots = new int[slotCount];
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < entryCount; ++i) {
+            int slot = (int) hashes[i] & (slotCount - 1);
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = i;
+        }
+
+        byte[][] stored = new byte[entryCount][];
+        int[] formats = new int[entryCount];
+        for (int i = 0; i < entryCount; ++i) {
+            byte[] content = contents.get(i);
+            byte[] compressed = new byte[Lz4.maxCompressedLength(content.length)];
+            int compressedLength = Lz4.compress(content, content.length, compressed);
+            if (compressedLength <= content.length * (1 - MIN_SAVING)) {
+                stored[i] = Arrays.copyOf(compressed, compressedLength);
+                formats[i] = AssetBundle.LZ4;
+            } else {
+                stored[i] = content;
+                formats[i] = AssetBundle.STORED;
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(AssetBundle.MAGIC);
+        data.writeInt(AssetBundle.VERSION);
+        data.writeInt(entryCount);
+        data.writeInt(slotCount);
+        for (int slot : slots) {
+            data.writeInt(slot);
+        }
+
+        int nameOffset = AssetBundle.HEADER_SIZE + slotCount * 4 + entryCount
+                * AssetBundle.ENTRY_SIZE;
+        int dataOffset = nameOffset + namesLength;
+        for (int i = 0; i < entryCount; ++i) {
+            data.writeLong(hashes[i]);
+            data.writeInt(nameOffset);
+            data.writeInt(nameBytes[i].length);
+            data.writeInt(dataOffset);
+            data.writeInt(stored[i].length);
+            data.writeInt(contents.get(i).length);
+            data.writeInt(formats[i]);
+            nameOffset += nameBytes[i].length;
+            dataOffset += stored[i].length;
+        }
+        for (byte[] name : nameBytes) {
+            data.write(name);
+        }
+        for (byte[] bytes : stored) {
+            data.write(bytes);
+        }
+        data.flush();
+    }
+
+    /**
+     * @return the smallest power of two at least twice {@code entryCount},
+     *         which keeps the table at most half full and always leaves an
+     *         empty slot to end a lookup.
+     */
+    static int slotCount(int entryCount) {
+        int slotCount = Integer.highestOneBit(Math.max(1, entryCount * 2 - 1)) << 1;
+        if (slotCount <= entryCount) {
+            throw new IllegalArgumentException("too many entries: " + entryCount);
+        }
+        return slotCount;
+    }
+}
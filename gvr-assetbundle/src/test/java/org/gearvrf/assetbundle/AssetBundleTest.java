@@ -0,0 +1,312 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Packs bundles with {@link AssetBundlePacker} and reads them back through
+ * {@link AssetBundle}: lookups, both entry formats, and the table checks
+ * that keep a lookup from running forever. The shipped bundles are checked
+ * too. With -Dbenchmark=true they are also compared with
+ * {@code ZipInputStream} over the same assets for time until the first
+ * asset and until all of them are read.
+ */
+public class AssetBundleTest {
+
+    private static final String[] SHIPPED = new String[] {
+            "../../gvr-3dcursor/app/src/main/assets/meshes.gvrb",
+            "../../gvr-performance/app/src/main/assets/textures.gvrb"
+    };
+    private static final int RUNS = 20;
+
+    private static AssetBundle pack(AssetBundlePacker packer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        packer.write(out);
+        return new AssetBundle(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static byte[] text(int length) {
+        byte[] text = new byte[length];
+        String line = "v 0.125 -1.5 2.0\nvn 0 1 0\nf 1/1/1 2/2/2 3/3/3\n";
+        for (int i = 0; i < length; ++i) {
+            text[i] = (byte) line.charAt(i % line.length());
+        }
+        return text;
+    }
+
+    private static byte[] noise(int length, long seed) {
+        byte[] noise = new byte[length];
+        new Random(seed).nextBytes(noise);
+        return noise;
+    }
+
+    private static byte[] drain(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) > 0) {
+            out.write(buffer, 0, count);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void readsBackEveryEntry() throws IOException {
+        String[] names = new String[] {
+                "mesh.obj", "texture.jpg", "empty", "dir/caf\u00e9.txt"
+        };
+        byte[][] contents = new byte[][] {
+                text(20000), noise(20000, 1), new byte[0], text(7)
+        };
+        AssetBundlePacker packer = new AssetBundlePacker();
+        for (int i = 0; i < names.length; ++i) {
+            packer.add(names[i], contents[i]);
+        }
+        AssetBundle bundle = pack(packer);
+
+        assertEquals(names.length, bundle.size());
+        for (int i = 0; i < names.length; ++i) {
+            assertEquals(names[i], bundle.getName(i));
+            assertEquals(i, bundle.find(names[i]));
+            assertEquals(contents[i].length, bundle.getLength(i));
+            assertArrayEquals(contents[i], bundle.read(i));
+            assertArrayEquals(contents[i], drain(bundle.open(i)));
+        }
+        assertEquals(AssetBundle.LZ4, bundle.getFormat(0));
+        assertEquals(AssetBundle.STORED, bundle.getFormat(1));
+        assertEquals(AssetBundle.STORED, bundle.getFormat(2));
+        assertEquals(-1, bundle.find("missing"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateNames() {
+        AssetBundlePacker packer = new AssetBundlePacker();
+        packer.add("a", new byte[1]);
+        packer.add("a", new byte[2]);
+    }
+
+    @Test
+    public void tableAlwaysKeepsAnEmptySlot() throws IOException {
+        for (int entries = 0; entries <= 300; ++entries) {
+            int slots = AssetBundlePacker.slotCount(entries);
+            assertEquals(1, Integer.bitCount(slots));
+            assertTrue(entries + " entries in " + slots + " slots", slots > entries);
+            assertTrue(slots >= 2 * entries);
+        }
+
+        for (int entries = 0; entries <= 64; ++entries) {
+            AssetBundlePacker packer = new AssetBundlePacker();
+            for (int i = 0; i < entries; ++i) {
+                packer.add("entry" + i, new byte[] {
+                        (byte) i
+                });
+            }
+            AssetBundle bundle = pack(packer);
+            for (int i = 0; i < entries; ++i) {
+                assertEquals(i, bundle.find("entry" + i));
+            }
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(-1, bundle.find("missing" + i));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsFullTable() throws IOException {
+        // one entry in one slot leaves nowhere for a lookup to stop
+        ByteBuffer buffer = ByteBuffer.allocate(AssetBundle.HEADER_SIZE + 4
+                + AssetBundle.ENTRY_SIZE);
+        buffer.putInt(AssetBundle.MAGIC).putInt(AssetBundle.VERSION).putInt(1).putInt(1);
+        buffer.putInt(0);
+        new AssetBundle(buffer);
+    }
+
+    @Test
+    public void lookupStopsOnCorruptTable() throws IOException {
+        // two slots, both claiming entry 0: no empty slot, yet a valid header
+        int entriesOffset = AssetBundle.HEADER_SIZE + 2 * 4;
+        int namesOffset = entriesOffset + AssetBundle.ENTRY_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(namesOffset + 1);
+        buffer.putInt(AssetBundle.MAGIC).putInt(AssetBundle.VERSION).putInt(1).putInt(2);
+        buffer.putInt(0).putInt(0);
+        buffer.putLong(AssetBundle.hash("a")).putInt(namesOffset).putInt(1)
+                .putInt(namesOffset + 1).putInt(0).putInt(0).putInt(AssetBundle.STORED);
+        buffer.put((byte) 'a');
+        AssetBundle bundle = new AssetBundle(buffer);
+
+        assertEquals(0, bundle.find("a"));
+        assertEquals(-1, bundle.find("b"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        new AssetBundle(ByteBuffer.wrap("PK\003\004 not a bundle".getBytes("US-ASCII")));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherVersions() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(AssetBundle.HEADER_SIZE + 8);
+        buffer.putInt(AssetBundle.MAGIC).putInt(AssetBundle.VERSION + 1).putInt(0).putInt(2);
+        new AssetBundle(buffer);
+    }
+
+    @Test
+    public void shippedBundlesAreWhatThePackerWrites() throws IOException {
+        for (String path : SHIPPED) {
+            File file = new File(path);
+            Assume.assumeTrue(path + " not found", file.isFile());
+            AssetBundle bundle = map(file);
+
+            AssetBundlePacker packer = new AssetBundlePacker();
+            for (int i = 0; i < bundle.size(); ++i) {
+                assertEquals(path, i, bundle.find(bundle.getName(i)));
+                packer.add(bundle.getName(i), bundle.read(i));
+            }
+            ByteArrayOutputStream repacked = new ByteArrayOutputStream();
+            packer.write(repacked);
+            assertEquals(path, file.length(), repacked.size());
+            assertArrayEquals(path, drain(new FileInputStream(file)), repacked.toByteArray());
+        }
+    }
+
+    @Test
+    public void benchmarkAgainstZipInputStream() throws IOException {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+        for (String path : SHIPPED) {
+            File bundleFile = new File(path);
+            Assume.assumeTrue(path + " not found", bundleFile.isFile());
+            File zipFile = File.createTempFile("assets", ".zip");
+            try {
+                AssetBundle bundle = map(bundleFile);
+                ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(zipFile));
+                long assetBytes = 0;
+                for (int i = 0; i < bundle.size(); ++i) {
+                    byte[] content = bundle.read(i);
+                    zip.putNextEntry(new ZipEntry(bundle.getName(i)));
+                    zip.write(content);
+                    zip.closeEntry();
+                    assetBytes += content.length;
+                }
+                zip.close();
+
+                long[] zipBest = new long[] {
+                        Long.MAX_VALUE, Long.MAX_VALUE
+                };
+                long[] bundleBest = new long[] {
+                        Long.MAX_VALUE, Long.MAX_VALUE
+                };
+                for (int run = 0; run < RUNS; ++run) {
+                    long[] times = new long[2];
+                    assertEquals(assetBytes, readZip(zipFile, times));
+                    keepBest(zipBest, times);
+                    assertEquals(assetBytes, readBundle(bundleFile, times));
+                    keepBest(bundleBest, times);
+                }
+
+                System.out.println(String.format(
+                        "%s: %d bytes of assets, %d byte zip, %d byte bundle%n"
+                                + "  ZipInputStream  first %8.3f ms  all %8.3f ms%n"
+                                + "  AssetBundle     first %8.3f ms  all %8.3f ms",
+                        bundleFile.getName(), assetBytes, zipFile.length(),
+                        bundleFile.length(), zipBest[0] / 1e6, zipBest[1] / 1e6,
+                        bundleBest[0] / 1e6, bundleBest[1] / 1e6));
+            } finally {
+                zipFile.delete();
+            }
+        }
+    }
+
+    private static AssetBundle map(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            return AssetBundle.map(channel, 0, channel.size());
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long readZip(File file, long[] times) throws IOException {
+        long start = System.nanoTime();
+        long total = 0;
+        ZipInputStream zip = new ZipInputStream(new FileInputStream(file));
+        try {
+            while (zip.getNextEntry() != null) {
+                total += count(zip);
+                if (times[0] == 0) {
+                    times[0] = System.nanoTime() - start;
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        times[1] = System.nanoTime() - start;
+        return total;
+    }
+
+    private static long readBundle(File file, long[] times) throws IOException {
+        long start = System.nanoTime();
+        long total = 0;
+        AssetBundle bundle = map(file);
+        for (int i = 0; i < bundle.size(); ++i) {
+            InputStream entry = bundle.open(i);
+            total += count(entry);
+            entry.close();
+            if (i == 0) {
+                times[0] = System.nanoTime() - start;
+            }
+        }
+        times[1] = System.nanoTime() - start;
+        return total;
+    }
+
+    private static long count(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int count;
+        while ((count = in.read(buffer)) > 0) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static void keepBest(long[] best, long[] times) {
+        best[0] = Math.min(best[0], times[0]);
+        best[1] = Math.min(best[1], times[1]);
+        times[0] = 0;
+        times[1] = 0;
+    }
+}
@@ -0,0 +1,141 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.assetbundle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Round trips {@link Lz4} blocks through the compressor and decompressor,
+ * including the cases the format treats specially: blocks too short to hold
+ * a match, long literal and match lengths, and matches that overlap the
+ * bytes they produce.
+ */
+public class Lz4Test {
+
+    private static byte[] compress(byte[] src) {
+        byte[] dst = new byte[Lz4.maxCompressedLength(src.length)];
+        return Arrays.copyOf(dst, Lz4.compress(src, src.length, dst));
+    }
+
+    private static void assertRoundTrip(byte[] src) throws IOException {
+        byte[] compressed = compress(src);
+        assertTrue(compressed.length <= Lz4.maxCompressedLength(src.length));
+        byte[] decompressed = new byte[src.length];
+        Lz4.decompress(ByteBuffer.wrap(compressed), decompressed, src.length);
+        assertArrayEquals(src, decompressed);
+    }
+
+    @Test
+    public void roundTripsShortBlocks() throws IOException {
+        Random random = new Random(3);
+        for (int length = 0; length < 40; ++length) {
+            byte[] zeros = new byte[length];
+            byte[] noise = new byte[length];
+            random.nextBytes(noise);
+            assertRoundTrip(zeros);
+            assertRoundTrip(noise);
+        }
+    }
+
+    @Test
+    public void roundTripsLongRuns() throws IOException {
+        // a single byte repeated: one long match overlapping its own output
+        byte[] run = new byte[100000];
+        Arrays.fill(run, (byte) 'x');
+        assertRoundTrip(run);
+        assertTrue(compress(run).length < 500);
+
+        byte[] pattern = new byte[100000];
+        for (int i = 0; i < pattern.length; ++i) {
+            pattern[i] = (byte) "abc".charAt(i % 3);
+        }
+        assertRoundTrip(pattern);
+    }
+
+    @Test
+    public void roundTripsMixedContent() throws IOException {
+        // text with long literal stretches, repeats near and past the 64 KB window
+        Random random = new Random(5);
+        byte[] mixed = new byte[300000];
+        int i = 0;
+        while (i < mixed.length) {
+            int length = Math.min(mixed.length - i, 1 + random.nextInt(600));
+            if (random.nextBoolean() || i < 70000) {
+                for (int k = 0; k < length; ++k) {
+                    mixed[i + k] = (byte) random.nextInt(256);
+                }
+            } else {
+                int from = random.nextBoolean() ? i - 1 - random.nextInt(100)
+                        : i - 60000 - random.nextInt(10000);
+                for (int k = 0; k < length; ++k) {
+                    mixed[i + k] = mixed[from + k];
+                }
+            }
+            i += length;
+        }
+        assertRoundTrip(mixed);
+    }
+
+    @Test
+    public void compressesObjText() throws IOException {
+        StringBuilder obj = new StringBuilder();
+        Random random = new Random(9);
+        for (int i = 0; i < 5000; ++i) {
+            obj.append(String.format("v %.4f %.4f %.4f%n", random.nextFloat(),
+                    random.nextFloat(), random.nextFloat()));
+        }
+        for (int i = 0; i < 5000; ++i) {
+            int a = 1 + random.nextInt(5000);
+            obj.append("f ").append(a).append('/').append(a).append('/').append(a).append(' ')
+                    .append(a + 1).append('/').append(a + 1).append('/').append(a + 1)
+                    .append('\n');
+        }
+        byte[] text = obj.toString().getBytes("US-ASCII");
+        assertRoundTrip(text);
+        assertTrue(compress(text).length < text.length * 0.6);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsBadOffset() throws IOException {
+        // one literal, then a match reaching back past the start
+        byte[] block = new byte[] {
+                0x10, 'a', 0x05, 0x00, 0x00
+        };
+        Lz4.decompress(ByteBuffer.wrap(block), new byte[100], 100);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsWrongLength() throws IOException {
+        byte[] src = new byte[1000];
+        Lz4.decompress(ByteBuffer.wrap(compress(src)), new byte[1001], 1001);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedBlock() throws IOException {
+        byte[] src = new byte[1000];
+        byte[] compressed = compress(src);
+        Lz4.decompress(ByteBuffer.wrap(compressed, 0, compressed.length - 2), new byte[1000],
+                1000);
+    }
+}
@@ -0,0 +1,135 @@
+package org.gearvrf.gvrbullet;
+
+/**
+ * Dense copy of the transforms last pushed to the scene graph. Positions and
+ * orientations live in parallel float arrays indexed like the bodies, and each
+ * {@link #update(float[], float[], int)} lists the bodies whose transform moved
+ * since the previous one, so resting and sleeping bodies cost no scene graph
+ * update. Does not touch the native world, so it can be driven on a desktop
+ * JVM.
+ */
+public class BodyTransformBuffer {
+
+    /*
+     * Smallest position or quaternion component change considered movement.
+     */
+    private static final float EPSILON = 1e-5f;
+
+    private float[] positions;
+    private float[] rotations;
+    private int[] moved;
+    private int movedCount;
+    private int count;
+
+    public BodyTransformBuffer(int capacity) {
+        positions = new float[capacity * 3];
+        rotations = new float[capacity * 4];
+        moved = new int[capacity];
+    }
+
+    /**
+     * Copies the transforms of bodies {@code [0..count)}, laid out as
+     * {@code x, y, z} in {@code newPositions} and {@code w, x, y, z} in
+     * {@code newRotations}, into the buffer in a single pass.
+     *
+     * @return the number of bodies that moved; their indices are available
+     *         through {@link #getMoved(int)}.
+     */
+    public int update(float[] newPositions, float[] newRotations, int count) {
+        ensureCapacity(count);
+        for (int i = this.count; i < count; ++i) {
+            /*
+             * Newly added bodies always get one update.
+             */
+            positions[i * 3] = Float.NaN;
+        }
+        this.count = count;
+        movedCount = 0;
+
+        for (int i = 0; i < count; ++i) {
+            int p = i * 3;
+            int r = i * 4;
+
+            float px = positions[p];
+            float py = positions[p + 1];
+            float pz = positions[p + 2];
+            float qw = rotations[r];
+            float qx = rotations[r + 1];
+            float qy = rotations[r + 2];
+            float qz = rotations[r + 3];
+
+            System.arraycopy(newPositions, p, positions, p, 3);
+            System.arraycopy(newRotations, r, rotations, r, 4);
+
+            if (px != px
+                    || Math.abs(positions[p] - px) > EPSILON
+                    || Math.abs(positions[p + 1] - py) > EPSILON
+                    || Math.abs(positions[p + 2] - pz) > EPSILON
+                    || Math.abs(rotations[r] - qw) > EPSILON
+                    || Math.abs(rotations[r + 1] - qx) > EPSILON
+                    || Math.abs(rotations[r + 2] - qy) > EPSILON
+                    || Math.abs(rotations[r + 3] - qz) > EPSILON) {
+                moved[movedCount++] = i;
+            }
+        }
+        return movedCount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getMovedCount() {
+        return movedCount;
+    }
+
+    /**
+     * @return the body index of the {@code n}-th moved body of the last
+     *         update.
+     */
+    public int getMoved(int n) {
+        return moved[n];
+    }
+
+    public float getPositionX(int index) {
+        return positions[index * 3];
+    }
+
+    public float getPositionY(int index) {
+        return positions[index * 3 + 1];
+    }
+
+    public float getPositionZ(int index) {
+        return positions[index * 3 + 2];
+    }
+
+    public float getRotationW(int index) {
+        return rotations[index * 4];
+    }
+
+    public float getRotationX(int index) {
+        return rotations[index * 4 + 1];
+    }
+
+    public float getRotationY(int index) {
+        return rotations[index * 4 + 2];
+    }
+
+    public float getRotationZ(int index) {
+        return rotations[index * 4 + 3];
+    }
+
+    private void ensureCapacity(int count) {
+        if (moved.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, moved.length * 2);
+        float[] newPositions = new float[capacity * 3];
+        float[] newRotations = new float[capacity * 4];
+        System.arraycopy(positions, 0, newPositions, 0, positions.length);
+        System.arraycopy(rotations, 0, newRotations, 0, rotations.length);
+        positions = newPositions;
+        rotations = newRotations;
+        moved = new int[capacity];
+    }
+}
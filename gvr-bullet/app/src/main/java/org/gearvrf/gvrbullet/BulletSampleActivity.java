@@ -6,10 +6,25 @@ import android.os.Bundle;
 
 public class BulletSampleActivity extends GVRActivity {
 
+    private BulletSampleMain mMain = null;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setMain(new BulletSampleMain(), "gvr.xml");
+        mMain = new BulletSampleMain();
+        setMain(mMain, "gvr.xml");
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        mMain.onPause();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mMain.onResume();
     }
 
 }
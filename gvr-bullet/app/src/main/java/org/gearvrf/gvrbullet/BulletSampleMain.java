@@ -1,8 +1,6 @@
 package org.gearvrf.gvrbullet;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.gearvrf.FutureWrapper;
 import org.gearvrf.GVRAndroidResource;
@@ -12,6 +10,7 @@ import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRMain;
+import org.gearvrf.GVRTransform;
 import org.siprop.bullet.Bullet;
 import org.siprop.bullet.Geometry;
 import org.siprop.bullet.MotionState;
@@ -32,10 +31,24 @@ public class BulletSampleMain extends GVRMain {
 
     private Bullet mBullet = null;
 
-    private Map<RigidBody, GVRSceneObject> rigidBodiesSceneMap = new HashMap<RigidBody, GVRSceneObject>();
+    private BulletWorld mWorld = null;
+
+    private FixedStepScheduler mScheduler = null;
+
+    /*
+     * Transforms driven by the bodies of mWorld, at matching indices.
+     */
+    private GVRTransform[] boundTransforms = new GVRTransform[32];
+    private int boundCount = 0;
+    private BodyTransformBuffer bodyTransforms = new BodyTransformBuffer(32);
+    private float[] interpolatedPositions = new float[0];
+    private float[] interpolatedRotations = new float[0];
 
     private static final float CUBE_MASS = 0.5f;
 
+    private static final float TIME_STEP = 1.0f / 60.0f;
+    private static final int MAX_SUB_STEPS = 10;
+
     @Override
     public void onInit(GVRContext gvrContext) throws Throwable {
         mGVRContext = gvrContext;
@@ -63,6 +76,7 @@ public class BulletSampleMain extends GVRMain {
         mBullet.createPhysicsWorld(new Vector3(-480.0f, -480.0f, -480.0f),
                 new Vector3(480.0f, 480.0f, 480.0f), 1024, new Vector3(0.0f,
                         -9.8f, 0.0f));
+        mWorld = new BulletWorld(mBullet);
 
         /*
          * Create the ground. A simple textured quad. In bullet it will be a
@@ -118,23 +132,69 @@ public class BulletSampleMain extends GVRMain {
          * Throw a sphere from top
          */
         addSphere(scene, 1.0f, 1.5f, 100.0f, -10.0f, 20.0f);
+
+        interpolatedPositions = new float[boundCount * 3];
+        interpolatedRotations = new float[boundCount * 4];
+
+        /*
+         * From here on the Bullet world belongs to the scheduler's thread.
+         */
+        mScheduler = new FixedStepScheduler(mWorld, TIME_STEP, MAX_SUB_STEPS);
+        mScheduler.start();
+    }
+
+    public void onPause() {
+        if (mScheduler != null) {
+            mScheduler.stop();
+        }
+    }
+
+    public void onResume() {
+        if (mScheduler != null) {
+            mScheduler.start();
+        }
     }
 
     @Override
     public void onStep() {
-        mBullet.doSimulation(1.0f / 60.0f, 10);
-        for (RigidBody body : rigidBodiesSceneMap.keySet()) {
-            if (body.geometry.shape.getType() == ShapeType.SPHERE_SHAPE_PROXYTYPE
-                    || body.geometry.shape.getType() == ShapeType.BOX_SHAPE_PROXYTYPE) {
-                rigidBodiesSceneMap
-                        .get(body)
-                        .getTransform()
-                        .setPosition(
-                                body.motionState.resultSimulation.originPoint.x,
-                                body.motionState.resultSimulation.originPoint.y,
-                                body.motionState.resultSimulation.originPoint.z);
-            }
+        TransformSnapshot snapshot = mScheduler.acquireSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        snapshot.interpolate(snapshot.getAlpha(System.nanoTime()),
+                interpolatedPositions, interpolatedRotations);
+
+        BodyTransformBuffer buffer = bodyTransforms;
+        int moved = buffer.update(interpolatedPositions,
+                interpolatedRotations, snapshot.getCount());
+        for (int n = 0; n < moved; ++n) {
+            int i = buffer.getMoved(n);
+            GVRTransform transform = boundTransforms[i];
+            transform.setPosition(buffer.getPositionX(i),
+                    buffer.getPositionY(i), buffer.getPositionZ(i));
+            transform.setRotation(buffer.getRotationW(i),
+                    buffer.getRotationX(i), buffer.getRotationY(i),
+                    buffer.getRotationZ(i));
+        }
+    }
+
+    /*
+     * Lets the simulation drive the transform of sceneObject. Only boxes and
+     * spheres are tracked, as before.
+     */
+    private void bind(RigidBody body, GVRSceneObject sceneObject) {
+        int type = body.geometry.shape.getType();
+        if (type != ShapeType.SPHERE_SHAPE_PROXYTYPE
+                && type != ShapeType.BOX_SHAPE_PROXYTYPE) {
+            return;
+        }
+        if (boundCount == boundTransforms.length) {
+            GVRTransform[] transforms = new GVRTransform[boundCount * 2];
+            System.arraycopy(boundTransforms, 0, transforms, 0, boundCount);
+            boundTransforms = transforms;
         }
+        boundTransforms[mWorld.addBody(body)] = sceneObject.getTransform();
+        ++boundCount;
     }
 
     private GVRSceneObject quadWithTexture(float width, float height,
@@ -181,7 +241,7 @@ public class BulletSampleMain extends GVRMain {
 
         cubeObject.getTransform().setPosition(x, y, z);
         scene.addSceneObject(cubeObject);
-        rigidBodiesSceneMap.put(boxBody, cubeObject);
+        bind(boxBody, cubeObject);
     }
 
     /*
@@ -203,7 +263,7 @@ public class BulletSampleMain extends GVRMain {
 
         sphereObject.getTransform().setPosition(x, y, z);
         scene.addSceneObject(sphereObject);
-        rigidBodiesSceneMap.put(sphereBody, sphereObject);
+        bind(sphereBody, sphereObject);
     }
 
 }
@@ -0,0 +1,114 @@
+package org.gearvrf.gvrbullet;
+
+import org.siprop.bullet.Bullet;
+import org.siprop.bullet.MotionState;
+import org.siprop.bullet.RigidBody;
+import org.siprop.bullet.Transform;
+import org.siprop.bullet.util.Matrix3x3;
+import org.siprop.bullet.util.Point3;
+
+/**
+ * {@link SimulationWorld} over the default Bullet physics world, exposing the
+ * bodies added through {@link #addBody(RigidBody)}.
+ */
+public class BulletWorld implements SimulationWorld {
+
+    private final Bullet bullet;
+    private RigidBody[] bodies = new RigidBody[32];
+    private int bodyCount = 0;
+
+    public BulletWorld(Bullet bullet) {
+        this.bullet = bullet;
+    }
+
+    /**
+     * Must not be called once the world is being stepped.
+     *
+     * @return the index of the body's transform in
+     *         {@link #readTransforms(float[], float[])}.
+     */
+    public int addBody(RigidBody body) {
+        if (bodyCount == bodies.length) {
+            RigidBody[] grown = new RigidBody[bodyCount * 2];
+            System.arraycopy(bodies, 0, grown, 0, bodyCount);
+            bodies = grown;
+        }
+        bodies[bodyCount] = body;
+        return bodyCount++;
+    }
+
+    @Override
+    public void step(float timeStep) {
+        bullet.doSimulation(timeStep, 1);
+    }
+
+    @Override
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    @Override
+    public void readTransforms(float[] positions, float[] rotations) {
+        for (int i = 0; i < bodyCount; ++i) {
+            MotionState state = bodies[i].motionState;
+            Transform result = state.resultSimulation;
+            Point3 origin = result.originPoint;
+            if (isUnset(result.basis) && state.worldTransform != null) {
+                /*
+                 * Not simulated yet; report where the body was created.
+                 */
+                origin = state.worldTransform.originPoint;
+            }
+            positions[i * 3] = origin.x;
+            positions[i * 3 + 1] = origin.y;
+            positions[i * 3 + 2] = origin.z;
+            toQuaternion(result.basis, rotations, i * 4);
+        }
+    }
+
+    /**
+     * Writes the unit quaternion (w, x, y, z) of a row-major rotation basis to
+     * {@code out[offset..offset + 4)}. A basis the simulation has not filled
+     * in yet is all zeros and maps to the identity.
+     */
+    private static void toQuaternion(Matrix3x3 m, float[] out, int offset) {
+        float trace = m.xx + m.yy + m.zz;
+        float w, x, y, z;
+        if (isUnset(m)) {
+            w = 1;
+            x = y = z = 0;
+        } else if (trace > 0) {
+            float s = (float) Math.sqrt(trace + 1.0f) * 2;
+            w = 0.25f * s;
+            x = (m.zy - m.yz) / s;
+            y = (m.xz - m.zx) / s;
+            z = (m.yx - m.xy) / s;
+        } else if (m.xx > m.yy && m.xx > m.zz) {
+            float s = (float) Math.sqrt(1.0f + m.xx - m.yy - m.zz) * 2;
+            w = (m.zy - m.yz) / s;
+            x = 0.25f * s;
+            y = (m.xy + m.yx) / s;
+            z = (m.xz + m.zx) / s;
+        } else if (m.yy > m.zz) {
+            float s = (float) Math.sqrt(1.0f + m.yy - m.xx - m.zz) * 2;
+            w = (m.xz - m.zx) / s;
+            x = (m.xy + m.yx) / s;
+            y = 0.25f * s;
+            z = (m.yz + m.zy) / s;
+        } else {
+            float s = (float) Math.sqrt(1.0f + m.zz - m.xx - m.yy) * 2;
+            w = (m.yx - m.xy) / s;
+            x = (m.xz + m.zx) / s;
+            y = (m.yz + m.zy) / s;
+            z = 0.25f * s;
+        }
+        out[offset] = w;
+        out[offset + 1] = x;
+        out[offset + 2] = y;
+        out[offset + 3] = z;
+    }
+
+    private static boolean isUnset(Matrix3x3 m) {
+        return m.xx == 0 && m.yy == 0 && m.zz == 0 && m.xy == 0 && m.yx == 0;
+    }
+}
@@ -0,0 +1,202 @@
+package org.gearvrf.gvrbullet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a {@link SimulationWorld} at a fixed rate on its own thread,
+ * independent of the render frame rate. Elapsed time is collected in an
+ * accumulator and consumed in whole steps; if the world falls more than
+ * {@code maxSubSteps} behind, the backlog is dropped instead of caught up.
+ *
+ * After each batch of steps the body transforms are published through a
+ * lock-free triple buffer, so {@link #acquireSnapshot()} on the render thread
+ * never waits for the simulation and the simulation never waits for a frame.
+ *
+ * {@link #advance(long)} does one scheduling pass against a supplied clock and
+ * can be called directly, without {@link #start()}, to drive the scheduler
+ * from a test.
+ */
+public class FixedStepScheduler implements Runnable {
+
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final SimulationWorld world;
+    private final float timeStep;
+    private final long stepNanos;
+    private final int maxSubSteps;
+
+    private final TransformSnapshot[] snapshots = new TransformSnapshot[] {
+            new TransformSnapshot(), new TransformSnapshot(), new TransformSnapshot()
+    };
+    /*
+     * Index of the snapshot between writer and reader, plus FRESH if the
+     * reader has not picked it up yet.
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+    private boolean published = false;
+
+    private long lastNanos;
+    private long simulationNanos;
+    private long accumulatorNanos;
+    private boolean clockStarted = false;
+    private long droppedNanos;
+    private long stepCount;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public FixedStepScheduler(SimulationWorld world, float timeStep, int maxSubSteps) {
+        this.world = world;
+        this.timeStep = timeStep;
+        this.stepNanos = (long) (timeStep * 1000000000.0);
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        clockStarted = false;
+        thread = new Thread(this, "FixedStepScheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the stepping thread and waits for it to finish its current step.
+     * The simulation resumes from the same state on the next {@link #start()},
+     * without catching up on the time it was stopped.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            long now = System.nanoTime();
+            advance(now);
+            long wait = stepNanos - accumulatorNanos;
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * Runs as many whole steps as the time since the previous call allows and
+     * publishes the result. The first call only publishes the initial state.
+     *
+     * @return the number of steps run.
+     */
+    public int advance(long nowNanos) {
+        if (!clockStarted) {
+            clockStarted = true;
+            lastNanos = nowNanos;
+            accumulatorNanos = 0;
+            simulationNanos = nowNanos;
+            if (!published) {
+                TransformSnapshot snapshot = beginWrite();
+                world.readTransforms(snapshot.previousPositions, snapshot.previousRotations);
+                copyPreviousToCurrent(snapshot);
+                publish(snapshot);
+            }
+            return 0;
+        }
+
+        accumulatorNanos += nowNanos - lastNanos;
+        lastNanos = nowNanos;
+
+        int steps = (int) Math.min(accumulatorNanos / stepNanos, maxSubSteps);
+        if (steps == 0) {
+            return 0;
+        }
+
+        TransformSnapshot snapshot = beginWrite();
+        for (int i = 0; i < steps; ++i) {
+            if (i == steps - 1) {
+                world.readTransforms(snapshot.previousPositions, snapshot.previousRotations);
+            }
+            world.step(timeStep);
+        }
+        world.readTransforms(snapshot.currentPositions, snapshot.currentRotations);
+
+        stepCount += steps;
+        accumulatorNanos -= steps * stepNanos;
+        simulationNanos += steps * stepNanos;
+        if (accumulatorNanos >= stepNanos) {
+            droppedNanos += accumulatorNanos;
+            accumulatorNanos = 0;
+            simulationNanos = nowNanos;
+        }
+        publish(snapshot);
+        return steps;
+    }
+
+    /**
+     * Returns the newest published snapshot. The snapshot stays valid until
+     * the next call; only one thread may call this.
+     *
+     * @return {@code null} until the scheduler has published once.
+     */
+    public TransformSnapshot acquireSnapshot() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        TransformSnapshot snapshot = snapshots[front];
+        return snapshot.stepNanos == 0 ? null : snapshot;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * @return simulated time discarded because the world fell more than
+     *         {@code maxSubSteps} behind.
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+
+    private TransformSnapshot beginWrite() {
+        TransformSnapshot snapshot = snapshots[back];
+        snapshot.ensureCapacity(world.getBodyCount());
+        return snapshot;
+    }
+
+    private void publish(TransformSnapshot snapshot) {
+        snapshot.timeNanos = simulationNanos;
+        snapshot.stepNanos = stepNanos;
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+        published = true;
+    }
+
+    private static void copyPreviousToCurrent(TransformSnapshot snapshot) {
+        System.arraycopy(snapshot.previousPositions, 0, snapshot.currentPositions, 0,
+                snapshot.count * 3);
+        System.arraycopy(snapshot.previousRotations, 0, snapshot.currentRotations, 0,
+                snapshot.count * 4);
+    }
+}
@@ -0,0 +1,22 @@
+package org.gearvrf.gvrbullet;
+
+/**
+ * What {@link FixedStepScheduler} needs from a physics world. Only called from
+ * the scheduler's thread once it has been started.
+ */
+public interface SimulationWorld {
+
+    /**
+     * Advances the world by exactly {@code timeStep} seconds.
+     */
+    void step(float timeStep);
+
+    int getBodyCount();
+
+    /**
+     * Writes the transform of every body, {@code x, y, z} to
+     * {@code positions[i * 3]} and the unit quaternion {@code w, x, y, z} to
+     * {@code rotations[i * 4]}.
+     */
+    void readTransforms(float[] positions, float[] rotations);
+}
@@ -0,0 +1,91 @@
+package org.gearvrf.gvrbullet;
+
+/**
+ * Body transforms before and after one fixed step, published by
+ * {@link FixedStepScheduler}. The render thread draws the state
+ * {@link #getAlpha(long)} of the way between them, which trails the
+ * simulation by one step but never extrapolates.
+ */
+public class TransformSnapshot {
+
+    float[] previousPositions = new float[0];
+    float[] previousRotations = new float[0];
+    float[] currentPositions = new float[0];
+    float[] currentRotations = new float[0];
+    int count;
+    long timeNanos;
+    long stepNanos;
+
+    void ensureCapacity(int count) {
+        this.count = count;
+        if (currentPositions.length >= count * 3) {
+            return;
+        }
+        previousPositions = new float[count * 3];
+        previousRotations = new float[count * 4];
+        currentPositions = new float[count * 3];
+        currentRotations = new float[count * 4];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} the current state belongs to.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * @return the interpolation factor for a frame rendered at
+     *         {@code nowNanos}, in [0, 1].
+     */
+    public float getAlpha(long nowNanos) {
+        float alpha = (float) (nowNanos - timeNanos) / stepNanos;
+        return alpha < 0 ? 0 : alpha > 1 ? 1 : alpha;
+    }
+
+    /**
+     * Writes the transforms {@code alpha} of the way from the previous to the
+     * current state, in the layout of {@link SimulationWorld#readTransforms}.
+     * Rotations are normalized linear blends along the shorter arc.
+     */
+    public void interpolate(float alpha, float[] positions, float[] rotations) {
+        float beta = 1 - alpha;
+        for (int i = 0, n = count * 3; i < n; ++i) {
+            positions[i] = previousPositions[i] * beta + currentPositions[i] * alpha;
+        }
+        for (int r = 0, n = count * 4; r < n; r += 4) {
+            float w0 = previousRotations[r];
+            float x0 = previousRotations[r + 1];
+            float y0 = previousRotations[r + 2];
+            float z0 = previousRotations[r + 3];
+            float w1 = currentRotations[r];
+            float x1 = currentRotations[r + 1];
+            float y1 = currentRotations[r + 2];
+            float z1 = currentRotations[r + 3];
+
+            float a = alpha;
+            if (w0 * w1 + x0 * x1 + y0 * y1 + z0 * z1 < 0) {
+                a = -a;
+            }
+            float w = w0 * beta + w1 * a;
+            float x = x0 * beta + x1 * a;
+            float y = y0 * beta + y1 * a;
+            float z = z0 * beta + z1 * a;
+            float length = (float) Math.sqrt(w * w + x * x + y * y + z * z);
+            if (length > 0) {
+                w /= length;
+                x /= length;
+                y /= length;
+                z /= length;
+            }
+            rotations[r] = w;
+            rotations[r + 1] = x;
+            rotations[r + 2] = y;
+            rotations[r + 3] = z;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.gearvrf.gvrbullet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link BodyTransformBuffer} reads the packed layout of
+ * {@link SimulationWorld#readTransforms}, reports each body that moved
+ * exactly once, and that writing back only the reported bodies keeps a copy
+ * of the scene graph in step with the simulation.
+ *
+ * With -Dbenchmark=true it also times an update for 1k, 5k and 20k bodies
+ * with a quarter of them moving, and prints the result.
+ */
+public class BodyTransformBufferTest {
+
+    private static final int[] BENCHMARK_BODIES = {
+            1000, 5000, 20000
+    };
+    private static final int BENCHMARK_FRAMES = 2000;
+
+    @Test
+    public void readsThePackedLayout() {
+        float[] positions = {
+                1, 2, 3, 4, 5, 6
+        };
+        float[] rotations = {
+                1, 0, 0, 0, 0.5f, 0.5f, -0.5f, 0.5f
+        };
+        BodyTransformBuffer buffer = new BodyTransformBuffer(2);
+        buffer.update(positions, rotations, 2);
+
+        assertEquals(2, buffer.getCount());
+        assertEquals(4, buffer.getPositionX(1), 0);
+        assertEquals(5, buffer.getPositionY(1), 0);
+        assertEquals(6, buffer.getPositionZ(1), 0);
+        assertEquals(0.5f, buffer.getRotationW(1), 0);
+        assertEquals(0.5f, buffer.getRotationX(1), 0);
+        assertEquals(-0.5f, buffer.getRotationY(1), 0);
+        assertEquals(0.5f, buffer.getRotationZ(1), 0);
+        assertEquals(1, buffer.getPositionX(0), 0);
+        assertEquals(1, buffer.getRotationW(0), 0);
+    }
+
+    @Test
+    public void reportsOnlyBodiesThatMoved() {
+        float[] positions = new float[4 * 3];
+        float[] rotations = identities(4);
+        BodyTransformBuffer buffer = new BodyTransformBuffer(4);
+
+        // every body gets its first update
+        assertEquals(4, buffer.update(positions, rotations, 4));
+        for (int n = 0; n < 4; ++n) {
+            assertEquals(n, buffer.getMoved(n));
+        }
+        assertEquals(0, buffer.update(positions, rotations, 4));
+
+        positions[1 * 3 + 2] = 0.5f;
+        rotations[3 * 4 + 2] = 0.1f;
+        positions[2 * 3] = 1e-6f;
+        assertEquals(2, buffer.update(positions, rotations, 4));
+        assertEquals(1, buffer.getMoved(0));
+        assertEquals(3, buffer.getMoved(1));
+        assertEquals(2, buffer.getMovedCount());
+    }
+
+    @Test
+    public void growsAndUpdatesNewBodiesOnce() {
+        float[] positions = new float[3 * 3];
+        float[] rotations = identities(3);
+        positions[0] = 7;
+        BodyTransformBuffer buffer = new BodyTransformBuffer(1);
+        assertEquals(1, buffer.update(positions, rotations, 1));
+
+        assertEquals(2, buffer.update(positions, rotations, 3));
+        assertEquals(1, buffer.getMoved(0));
+        assertEquals(2, buffer.getMoved(1));
+        assertEquals(7, buffer.getPositionX(0), 0);
+        assertEquals(0, buffer.update(positions, rotations, 3));
+    }
+
+    @Test
+    public void writeBackKeepsTheSceneInStep() {
+        int count = 200;
+        Random random = new Random(9);
+        float[] positions = new float[count * 3];
+        float[] rotations = identities(count);
+        float[] scenePositions = new float[count * 3];
+        float[] sceneRotations = new float[count * 4];
+        int[] writes = new int[count];
+        BodyTransformBuffer buffer = new BodyTransformBuffer(16);
+
+        for (int frame = 0; frame < 100; ++frame) {
+            for (int i = 0; i < count; i += 1 + random.nextInt(8)) {
+                positions[i * 3 + random.nextInt(3)] += random.nextFloat() - 0.5f;
+                rotations[i * 4 + random.nextInt(4)] = random.nextFloat();
+            }
+            int moved = buffer.update(positions, rotations, count);
+            for (int n = 0; n < moved; ++n) {
+                int i = buffer.getMoved(n);
+                ++writes[i];
+                scenePositions[i * 3] = buffer.getPositionX(i);
+                scenePositions[i * 3 + 1] = buffer.getPositionY(i);
+                scenePositions[i * 3 + 2] = buffer.getPositionZ(i);
+                sceneRotations[i * 4] = buffer.getRotationW(i);
+                sceneRotations[i * 4 + 1] = buffer.getRotationX(i);
+                sceneRotations[i * 4 + 2] = buffer.getRotationY(i);
+                sceneRotations[i * 4 + 3] = buffer.getRotationZ(i);
+            }
+            for (int i = 0; i < count * 3; ++i) {
+                assertEquals(positions[i], scenePositions[i], 1e-5f);
+            }
+            for (int i = 0; i < count * 4; ++i) {
+                assertEquals(rotations[i], sceneRotations[i], 1e-5f);
+            }
+        }
+
+        int total = 0;
+        for (int i = 0; i < count; ++i) {
+            total += writes[i];
+        }
+        assertTrue("wrote " + total, total < count * 100 / 2);
+    }
+
+    @Test
+    public void benchmarkUpdate() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        for (int bodies : BENCHMARK_BODIES) {
+            float[] positions = new float[bodies * 3];
+            float[] rotations = identities(bodies);
+            BodyTransformBuffer buffer = new BodyTransformBuffer(bodies);
+            buffer.update(positions, rotations, bodies);
+
+            long best = Long.MAX_VALUE;
+            long moved = 0;
+            for (int frame = 0; frame < BENCHMARK_FRAMES; ++frame) {
+                // a different quarter of the bodies moves each frame
+                for (int i = frame & 3; i < bodies; i += 4) {
+                    positions[i * 3 + 1] -= 0.01f;
+                }
+                long start = System.nanoTime();
+                moved += buffer.update(positions, rotations, bodies);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.println(String.format(
+                    "BodyTransformBuffer %6d bodies  %8.1f us per update  %6d moved",
+                    bodies, best / 1000.0, moved / BENCHMARK_FRAMES));
+            assertEquals(bodies / 4, moved / BENCHMARK_FRAMES);
+        }
+    }
+
+    private static float[] identities(int count) {
+        float[] rotations = new float[count * 4];
+        for (int i = 0; i < count; ++i) {
+            rotations[i * 4] = 1;
+        }
+        return rotations;
+    }
+}
@@ -0,0 +1,246 @@
+package org.gearvrf.gvrbullet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Drives {@link FixedStepScheduler} with a fake world whose bodies sit at
+ * x = steps taken + body index, so every snapshot tells how many steps came
+ * before it. Most tests call {@link FixedStepScheduler#advance(long)} with a
+ * made-up clock; the last ones run the real thread.
+ */
+public class FixedStepSchedulerTest {
+
+    // exact in a float and in nanoseconds
+    private static final float TIME_STEP = 1 / 64f;
+    private static final long STEP_NANOS = 15625000L;
+    private static final long MILLIS = 1000000L;
+    private static final long T0 = 5000000000L;
+    private static final int BODIES = 3;
+
+    /*
+     * Records the thread it is stepped on; steps are counted atomically so
+     * the test thread can watch the scheduler's.
+     */
+    private static class FakeWorld implements SimulationWorld {
+        final AtomicInteger steps = new AtomicInteger();
+        volatile Thread stepThread;
+        volatile float timeStep;
+
+        @Override
+        public void step(float timeStep) {
+            this.timeStep = timeStep;
+            stepThread = Thread.currentThread();
+            steps.incrementAndGet();
+        }
+
+        @Override
+        public int getBodyCount() {
+            return BODIES;
+        }
+
+        @Override
+        public void readTransforms(float[] positions, float[] rotations) {
+            int steps = this.steps.get();
+            for (int i = 0; i < BODIES; ++i) {
+                positions[i * 3] = steps + i;
+                positions[i * 3 + 1] = 0;
+                positions[i * 3 + 2] = -i;
+                rotations[i * 4] = 1;
+                rotations[i * 4 + 1] = 0;
+                rotations[i * 4 + 2] = 0;
+                rotations[i * 4 + 3] = 0;
+            }
+        }
+    }
+
+    @Test
+    public void firstAdvanceOnlyPublishes() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        assertNull(scheduler.acquireSnapshot());
+
+        assertEquals(0, scheduler.advance(T0));
+        assertEquals(0, world.steps.get());
+        TransformSnapshot snapshot = scheduler.acquireSnapshot();
+        assertNotNull(snapshot);
+        assertEquals(BODIES, snapshot.getCount());
+        assertEquals(T0, snapshot.getTimeNanos());
+
+        float[] positions = new float[BODIES * 3];
+        float[] rotations = new float[BODIES * 4];
+        snapshot.interpolate(0.5f, positions, rotations);
+        assertEquals(2, positions[2 * 3], 0);
+        assertEquals(-2, positions[2 * 3 + 2], 0);
+        assertEquals(1, rotations[4], 0);
+    }
+
+    @Test
+    public void accumulatesPartialSteps() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        scheduler.advance(T0);
+
+        assertEquals(0, scheduler.advance(T0 + 10 * MILLIS));
+        assertEquals(1, scheduler.advance(T0 + 20 * MILLIS));
+        assertEquals(0, scheduler.advance(T0 + 30 * MILLIS));
+        // 14.375 ms carried over plus 10 ms
+        assertEquals(1, scheduler.advance(T0 + 40 * MILLIS));
+        assertEquals(2, scheduler.advance(T0 + 72 * MILLIS));
+        assertEquals(4, scheduler.getStepCount());
+        assertEquals(4, world.steps.get());
+        assertEquals(TIME_STEP, world.timeStep, 0);
+        assertEquals(0, scheduler.getDroppedNanos());
+        assertEquals(T0 + 4 * STEP_NANOS, scheduler.acquireSnapshot().getTimeNanos());
+    }
+
+    @Test
+    public void clampsToMaxSubStepsAndDropsTheBacklog() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        scheduler.advance(T0);
+
+        // a one second hitch
+        long hitch = T0 + 1000000000L;
+        assertEquals(4, scheduler.advance(hitch));
+        assertEquals(1000000000L - 4 * STEP_NANOS, scheduler.getDroppedNanos());
+        assertEquals(hitch, scheduler.acquireSnapshot().getTimeNanos());
+
+        // and then it runs at the normal rate again
+        assertEquals(0, scheduler.advance(hitch + STEP_NANOS / 2));
+        assertEquals(1, scheduler.advance(hitch + STEP_NANOS));
+        assertEquals(5, world.steps.get());
+    }
+
+    @Test
+    public void snapshotHoldsTheLastStep() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 8);
+        scheduler.advance(T0);
+        assertEquals(3, scheduler.advance(T0 + 3 * STEP_NANOS));
+
+        TransformSnapshot snapshot = scheduler.acquireSnapshot();
+        float[] positions = new float[BODIES * 3];
+        float[] rotations = new float[BODIES * 4];
+        snapshot.interpolate(0, positions, rotations);
+        assertEquals(2, positions[0], 0);
+        assertEquals(3, positions[3], 0);
+        snapshot.interpolate(1, positions, rotations);
+        assertEquals(3, positions[0], 0);
+        snapshot.interpolate(0.25f, positions, rotations);
+        assertEquals(2.25f, positions[0], 1e-6f);
+    }
+
+    @Test
+    public void alphaFollowsTheClockAndIsClamped() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        scheduler.advance(T0);
+        scheduler.advance(T0 + STEP_NANOS);
+        TransformSnapshot snapshot = scheduler.acquireSnapshot();
+        long time = snapshot.getTimeNanos();
+
+        assertEquals(0, snapshot.getAlpha(time), 0);
+        assertEquals(0.5f, snapshot.getAlpha(time + STEP_NANOS / 2), 1e-6f);
+        assertEquals(1, snapshot.getAlpha(time + 3 * STEP_NANOS), 0);
+        assertEquals(0, snapshot.getAlpha(time - STEP_NANOS), 0);
+    }
+
+    @Test
+    public void rotationsBlendAlongTheShorterArc() {
+        TransformSnapshot snapshot = new TransformSnapshot();
+        snapshot.ensureCapacity(1);
+        float s = (float) Math.sqrt(0.5);
+        // 0 and 90 degrees about y, the second with its sign flipped
+        snapshot.previousRotations = new float[] {
+                1, 0, 0, 0
+        };
+        snapshot.currentRotations = new float[] {
+                -s, 0, -s, 0
+        };
+        float[] positions = new float[3];
+        float[] rotations = new float[4];
+        snapshot.interpolate(0.5f, positions, rotations);
+
+        float half = (float) Math.toRadians(22.5);
+        assertEquals(Math.cos(half), rotations[0], 1e-3f);
+        assertEquals(Math.sin(half), rotations[2], 1e-3f);
+        assertEquals(1, rotations[0] * rotations[0] + rotations[2] * rotations[2], 1e-5f);
+    }
+
+    @Test
+    public void acquiredSnapshotIsNotOverwritten() {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        scheduler.advance(T0);
+        scheduler.advance(T0 + STEP_NANOS);
+        TransformSnapshot held = scheduler.acquireSnapshot();
+        assertSame(held, scheduler.acquireSnapshot());
+
+        // the writer cycles through the other two buffers
+        for (int i = 2; i < 10; ++i) {
+            scheduler.advance(T0 + i * STEP_NANOS);
+        }
+        assertEquals(1, held.currentPositions[0], 0);
+        assertEquals(T0 + STEP_NANOS, held.getTimeNanos());
+
+        TransformSnapshot newest = scheduler.acquireSnapshot();
+        assertNotSame(held, newest);
+        assertEquals(9, newest.currentPositions[0], 0);
+    }
+
+    @Test
+    public void stepsOnItsOwnThreadUntilStopped() throws InterruptedException {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 4);
+        scheduler.start();
+        awaitSteps(world, 3);
+        scheduler.stop();
+
+        assertEquals("FixedStepScheduler", world.stepThread.getName());
+        assertNotNull(scheduler.acquireSnapshot());
+        int steps = world.steps.get();
+        Thread.sleep(50);
+        assertEquals(steps, world.steps.get());
+        // stopping twice is harmless
+        scheduler.stop();
+    }
+
+    @Test
+    public void restartDoesNotCatchUp() throws InterruptedException {
+        FakeWorld world = new FakeWorld();
+        FixedStepScheduler scheduler = new FixedStepScheduler(world, TIME_STEP, 1000);
+        scheduler.start();
+        awaitSteps(world, 1);
+        scheduler.stop();
+        Thread.sleep(200);
+
+        int before = world.steps.get();
+        long start = System.nanoTime();
+        scheduler.start();
+        awaitSteps(world, before + 1);
+        scheduler.stop();
+        long elapsed = System.nanoTime() - start;
+
+        // catching up on the pause would be a dozen steps at once
+        int steps = world.steps.get() - before;
+        assertTrue(steps + " steps in " + elapsed + " ns", steps <= elapsed / STEP_NANOS + 1);
+        assertEquals(0, scheduler.getDroppedNanos());
+    }
+
+    private static void awaitSteps(FakeWorld world, int steps) throws InterruptedException {
+        long deadline = System.nanoTime() + 5000000000L;
+        while (world.steps.get() < steps) {
+            assertTrue("no step within 5 s", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
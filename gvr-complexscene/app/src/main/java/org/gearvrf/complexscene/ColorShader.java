@@ -5,20 +5,28 @@ import org.gearvrf.GVRCustomMaterialShaderId;
 import org.gearvrf.GVRMaterialMap;
 import org.gearvrf.GVRMaterialShaderManager;
 
+/**
+ * Flat color per vertex, carried in the normal attribute so that batched
+ * instances keep their own color, tinted by {@link #COLOR_KEY}.
+ */
 public class ColorShader {
 
     public static final String COLOR_KEY = "color";
 
     private static final String VERTEX_SHADER = "attribute vec4 a_position;\n"
+            + "attribute vec3 a_normal;\n" //
             + "uniform mat4 u_mvp;\n" //
+            + "varying vec3 v_color;\n" //
             + "void main() {\n" //
+            + "  v_color = a_normal;\n" //
             + "  gl_Position = u_mvp * a_position;\n" //
             + "}\n";
 
     private static final String FRAGMENT_SHADER = "precision mediump float;\n"
             + "uniform vec4 u_color;\n" //
+            + "varying vec3 v_color;\n" //
             + "void main() {\n" //
-            + "  gl_FragColor = u_color;\n" //
+            + "  gl_FragColor = vec4(v_color, 1.0) * u_color;\n" //
             + "}\n";
 
     private GVRCustomMaterialShaderId mShaderId;
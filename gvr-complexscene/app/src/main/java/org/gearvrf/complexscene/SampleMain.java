@@ -16,6 +16,8 @@
 package org.gearvrf.complexscene;
 
 import android.graphics.Color;
+import android.opengl.Matrix;
+import android.util.Log;
 
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
@@ -27,9 +29,12 @@ import org.gearvrf.GVRScript;
 import org.gearvrf.debug.GVRConsole;
 
 import java.io.IOException;
+import java.util.List;
 
 public class SampleMain extends GVRScript {
 
+    private static final String TAG = "SampleMain";
+
     private GVRContext mGVRContext;
 
     private GVRConsole console;
@@ -62,17 +67,31 @@ public class SampleMain extends GVRScript {
             GVRMesh mesh = mGVRContext.loadMesh(new GVRAndroidResource(mGVRContext,
                     "bunny.obj"));
             
+            /*
+             * The bunnies never move or change material, so they are baked
+             * into a few merged meshes instead of one draw call each.
+             */
+            StaticBatcher batcher = new StaticBatcher(mesh.getVertices(),
+                    mesh.getTriangles());
+            float[] modelMatrix = new float[16];
             final int OBJECTS_CNT = 5;
             for (int x=-OBJECTS_CNT; x<=OBJECTS_CNT; ++x) {
                 for (int y=-OBJECTS_CNT; y<=OBJECTS_CNT; ++y) {
-                    GVRSceneObject sceneObject = getColorMesh(1.0f, mesh);
-                    sceneObject.getTransform().setPosition(1.0f*x, 1.0f*y, -5.0f);
-                    sceneObject.getTransform().setScale(0.5f, 0.5f, 1.0f);
-                    scene.addSceneObject(sceneObject); 
+                    Matrix.setIdentityM(modelMatrix, 0);
+                    Matrix.translateM(modelMatrix, 0, 1.0f*x, 1.0f*y, -5.0f);
+                    Matrix.scaleM(modelMatrix, 0, 0.5f, 0.5f, 1.0f);
+                    batcher.add(modelMatrix, 1.0f, 0.0f, 1.0f);
                 }
 
             }
 
+            List<StaticBatcher.Batch> batches = batcher.build();
+            for (StaticBatcher.Batch batch : batches) {
+                scene.addSceneObject(getBatchObject(batch));
+            }
+            Log.d(TAG, batcher.getInstanceCount() + " instances in "
+                    + batches.size() + " draw calls");
+
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -89,15 +108,18 @@ public class SampleMain extends GVRScript {
     public void onStep() {
     }
 
-    private GVRSceneObject getColorMesh(float scale, GVRMesh mesh) {
+    private GVRSceneObject getBatchObject(StaticBatcher.Batch batch) {
+        GVRMesh mesh = new GVRMesh(mGVRContext);
+        mesh.setVertices(batch.positions);
+        mesh.setNormals(batch.colors);
+        mesh.setTriangles(batch.indices);
+
         GVRMaterial material = new GVRMaterial(mGVRContext,
                 mColorShader.getShaderId());
         material.setVec4(ColorShader.COLOR_KEY, 1.0f,
-                0.0f, 1.0f, 1.0f);
+                1.0f, 1.0f, 1.0f);
 
-        GVRSceneObject meshObject = null;
-        meshObject = new GVRSceneObject(mGVRContext, mesh);
-        meshObject.getTransform().setScale(scale, scale, scale);
+        GVRSceneObject meshObject = new GVRSceneObject(mGVRContext, mesh);
         meshObject.getRenderData().setMaterial(material);
 
         return meshObject;
@@ -0,0 +1,164 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.complexscene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges many placements of one static mesh into as few vertex/index buffers
+ * as 16-bit indices allow. Each instance's model matrix is baked into its
+ * vertex positions and its color is repeated on each of its vertices, so one
+ * draw per batch reproduces what one draw per instance used to.
+ *
+ * Works on plain float and char arrays laid out like {@code GVRMesh}
+ * (positions {@code x, y, z}, triangles as unsigned 16-bit indices), so it can
+ * be run on a desktop JVM.
+ */
+public class StaticBatcher {
+
+    /**
+     * Vertices addressable by a 16-bit index.
+     */
+    public static final int MAX_VERTICES = 1 << 16;
+
+    /**
+     * One merged buffer. {@code colors} holds {@code r, g, b} per vertex,
+     * parallel to {@code positions}.
+     */
+    public static class Batch {
+        public final float[] positions;
+        public final float[] colors;
+        public final char[] indices;
+        public final int instanceCount;
+        /**
+         * {@code minX, minY, minZ, maxX, maxY, maxZ} of the baked positions.
+         */
+        public final float[] bounds = new float[] {
+                Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE,
+                -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE
+        };
+
+        Batch(int vertexCount, int indexCount, int instanceCount) {
+            positions = new float[vertexCount * 3];
+            colors = new float[vertexCount * 3];
+            indices = new char[indexCount];
+            this.instanceCount = instanceCount;
+        }
+
+        public int getVertexCount() {
+            return positions.length / 3;
+        }
+    }
+
+    private final float[] meshPositions;
+    private final char[] meshIndices;
+    private final int meshVertexCount;
+    private final int instancesPerBatch;
+
+    private final List<float[]> matrices = new ArrayList<float[]>();
+    private final List<float[]> colors = new ArrayList<float[]>();
+
+    /**
+     * @param positions
+     *            the shared mesh's vertices, {@code x, y, z} each.
+     * @param indices
+     *            the shared mesh's triangles.
+     */
+    public StaticBatcher(float[] positions, char[] indices) {
+        meshVertexCount = positions.length / 3;
+        if (meshVertexCount == 0 || meshVertexCount > MAX_VERTICES) {
+            throw new IllegalArgumentException("cannot batch a mesh of " + meshVertexCount
+                    + " vertices");
+        }
+        meshPositions = positions;
+        meshIndices = indices;
+        instancesPerBatch = MAX_VERTICES / meshVertexCount;
+    }
+
+    /**
+     * Adds one placement of the mesh.
+     *
+     * @param modelMatrix
+     *            column-major 4x4 matrix, as returned by
+     *            {@code GVRTransform.getModelMatrix()}; copied.
+     */
+    public void add(float[] modelMatrix, float red, float green, float blue) {
+        matrices.add(modelMatrix.clone());
+        colors.add(new float[] {
+                red, green, blue
+        });
+    }
+
+    public int getInstanceCount() {
+        return matrices.size();
+    }
+
+    /**
+     * Bakes every instance added so far. Instances fill a batch in the order
+     * they were added until the next one would overflow a 16-bit index.
+     */
+    public List<Batch> build() {
+        List<Batch> batches = new ArrayList<Batch>();
+        for (int first = 0; first < matrices.size(); first += instancesPerBatch) {
+            int count = Math.min(instancesPerBatch, matrices.size() - first);
+            Batch batch = new Batch(count * meshVertexCount, count * meshIndices.length, count);
+            for (int i = 0; i < count; ++i) {
+                bake(batch, i, matrices.get(first + i), colors.get(first + i));
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private void bake(Batch batch, int slot, float[] m, float[] color) {
+        int vertexBase = slot * meshVertexCount;
+        float[] positions = batch.positions;
+        float[] colors = batch.colors;
+        float[] bounds = batch.bounds;
+
+        for (int v = 0; v < meshVertexCount; ++v) {
+            float x = meshPositions[v * 3];
+            float y = meshPositions[v * 3 + 1];
+            float z = meshPositions[v * 3 + 2];
+            int out = (vertexBase + v) * 3;
+
+            float tx = m[0] * x + m[4] * y + m[8] * z + m[12];
+            float ty = m[1] * x + m[5] * y + m[9] * z + m[13];
+            float tz = m[2] * x + m[6] * y + m[10] * z + m[14];
+            positions[out] = tx;
+            positions[out + 1] = ty;
+            positions[out + 2] = tz;
+
+            colors[out] = color[0];
+            colors[out + 1] = color[1];
+            colors[out + 2] = color[2];
+
+            if (tx < bounds[0]) bounds[0] = tx;
+            if (ty < bounds[1]) bounds[1] = ty;
+            if (tz < bounds[2]) bounds[2] = tz;
+            if (tx > bounds[3]) bounds[3] = tx;
+            if (ty > bounds[4]) bounds[4] = ty;
+            if (tz > bounds[5]) bounds[5] = tz;
+        }
+
+        char[] indices = batch.indices;
+        int indexBase = slot * meshIndices.length;
+        for (int i = 0; i < meshIndices.length; ++i) {
+            indices[indexBase + i] = (char) (meshIndices[i] + vertexBase);
+        }
+    }
+}
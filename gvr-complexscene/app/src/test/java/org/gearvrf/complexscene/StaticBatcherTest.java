@@ -0,0 +1,283 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.complexscene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks {@link StaticBatcher} against bunny.obj as the app loads it: the
+ * merged vertex and index counts, the 16-bit split, the baked bounds and the
+ * position/color/index layout. With -Dbenchmark=true it also times the
+ * merge of 1000 instances.
+ */
+public class StaticBatcherTest {
+
+    private static final String BUNNY = "src/main/assets/bunny.obj";
+    private static final int BUNNY_TRIANGLES = 4968;
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    private static float[] bunnyPositions;
+    private static char[] bunnyIndices;
+
+    /**
+     * Reads bunny.obj the way the asset loader builds a {@code GVRMesh}: one
+     * vertex per distinct position/texture/normal corner, so the counts here
+     * are the ones {@code SampleMain} hands to the batcher.
+     */
+    @BeforeClass
+    public static void loadBunny() throws IOException {
+        List<float[]> objPositions = new ArrayList<float[]>();
+        Map<String, Integer> corners = new HashMap<String, Integer>();
+        List<Float> positions = new ArrayList<Float>();
+        List<Integer> indices = new ArrayList<Integer>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(BUNNY), "US-ASCII"));
+        try {
+            for (String line; (line = reader.readLine()) != null;) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields[0].equals("v")) {
+                    objPositions.add(new float[] {
+                            Float.parseFloat(fields[1]), Float.parseFloat(fields[2]),
+                            Float.parseFloat(fields[3])
+                    });
+                } else if (fields[0].equals("f")) {
+                    assertEquals(line, 4, fields.length);
+                    for (int i = 1; i < 4; ++i) {
+                        Integer index = corners.get(fields[i]);
+                        if (index == null) {
+                            index = corners.size();
+                            corners.put(fields[i], index);
+                            float[] p = objPositions.get(
+                                    Integer.parseInt(fields[i].split("/")[0]) - 1);
+                            positions.add(p[0]);
+                            positions.add(p[1]);
+                            positions.add(p[2]);
+                        }
+                        indices.add(index);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        bunnyPositions = new float[positions.size()];
+        for (int i = 0; i < bunnyPositions.length; ++i) {
+            bunnyPositions[i] = positions.get(i);
+        }
+        bunnyIndices = new char[indices.size()];
+        for (int i = 0; i < bunnyIndices.length; ++i) {
+            bunnyIndices[i] = (char) indices.get(i).intValue();
+        }
+    }
+
+    private static int bunnyVertices() {
+        return bunnyPositions.length / 3;
+    }
+
+    private static float[] placement(int x, int y) {
+        // SampleMain's translate(x, y, -5) then scale(0.5, 0.5, 1)
+        float[] m = new float[16];
+        m[0] = 0.5f;
+        m[5] = 0.5f;
+        m[10] = 1.0f;
+        m[12] = x;
+        m[13] = y;
+        m[14] = -5.0f;
+        m[15] = 1.0f;
+        return m;
+    }
+
+    @Test
+    public void bunnyLoadsAsOneVertexPerCorner() {
+        // every corner of bunny.obj has its own normal
+        assertEquals(BUNNY_TRIANGLES * 3, bunnyIndices.length);
+        assertEquals(BUNNY_TRIANGLES * 3, bunnyVertices());
+    }
+
+    @Test
+    public void sampleGridSplitsAtSixteenBitIndices() {
+        StaticBatcher batcher = new StaticBatcher(bunnyPositions, bunnyIndices);
+        for (int x = -5; x <= 5; ++x) {
+            for (int y = -5; y <= 5; ++y) {
+                batcher.add(placement(x, y), 1.0f, 0.0f, 1.0f);
+            }
+        }
+        List<StaticBatcher.Batch> batches = batcher.build();
+
+        int perBatch = StaticBatcher.MAX_VERTICES / bunnyVertices();
+        assertEquals((121 + perBatch - 1) / perBatch, batches.size());
+        int instances = 0;
+        for (StaticBatcher.Batch batch : batches) {
+            assertTrue(batch.getVertexCount() <= StaticBatcher.MAX_VERTICES);
+            assertEquals(batch.instanceCount * bunnyVertices(), batch.getVertexCount());
+            assertEquals(batch.instanceCount * bunnyIndices.length, batch.indices.length);
+            instances += batch.instanceCount;
+        }
+        assertEquals(121, instances);
+        assertEquals(121 % perBatch, batches.get(batches.size() - 1).instanceCount);
+    }
+
+    @Test
+    public void fillsBatchesUpToTheIndexLimit() {
+        float[] triangle = new float[] {
+                0, 0, 0, 1, 0, 0, 0, 1, 0
+        };
+        StaticBatcher batcher = new StaticBatcher(triangle, new char[] {
+                0, 1, 2
+        });
+        int perBatch = StaticBatcher.MAX_VERTICES / 3;
+        for (int i = 0; i < 2 * perBatch + 1; ++i) {
+            batcher.add(placement(0, 0), 1, 1, 1);
+        }
+        List<StaticBatcher.Batch> batches = batcher.build();
+
+        assertEquals(3, batches.size());
+        assertEquals(perBatch, batches.get(0).instanceCount);
+        assertEquals(perBatch, batches.get(1).instanceCount);
+        assertEquals(1, batches.get(2).instanceCount);
+        char[] indices = batches.get(0).indices;
+        assertEquals(3 * perBatch - 1, indices[indices.length - 1]);
+    }
+
+    @Test
+    public void largestMeshFillsOneBatch() {
+        float[] positions = new float[StaticBatcher.MAX_VERTICES * 3];
+        char[] indices = new char[] {
+                0, 1, (char) (StaticBatcher.MAX_VERTICES - 1)
+        };
+        StaticBatcher batcher = new StaticBatcher(positions, indices);
+        batcher.add(placement(0, 0), 1, 1, 1);
+        batcher.add(placement(0, 0), 1, 1, 1);
+        List<StaticBatcher.Batch> batches = batcher.build();
+
+        assertEquals(2, batches.size());
+        assertEquals(StaticBatcher.MAX_VERTICES - 1, batches.get(1).indices[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMeshOverSixteenBits() {
+        new StaticBatcher(new float[(StaticBatcher.MAX_VERTICES + 1) * 3], new char[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyMesh() {
+        new StaticBatcher(new float[0], new char[0]);
+    }
+
+    @Test
+    public void boundsCoverBakedBunnies() {
+        float[] mesh = new float[] {
+                Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE,
+                -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE
+        };
+        for (int i = 0; i < bunnyPositions.length; ++i) {
+            mesh[i % 3] = Math.min(mesh[i % 3], bunnyPositions[i]);
+            mesh[3 + i % 3] = Math.max(mesh[3 + i % 3], bunnyPositions[i]);
+        }
+
+        StaticBatcher batcher = new StaticBatcher(bunnyPositions, bunnyIndices);
+        batcher.add(placement(-2, 3), 1, 1, 1);
+        batcher.add(placement(4, -1), 1, 1, 1);
+        float[] bounds = batcher.build().get(0).bounds;
+
+        float delta = 1e-5f;
+        assertEquals(0.5f * mesh[0] - 2, bounds[0], delta);
+        assertEquals(0.5f * mesh[1] - 1, bounds[1], delta);
+        assertEquals(mesh[2] - 5, bounds[2], delta);
+        assertEquals(0.5f * mesh[3] + 4, bounds[3], delta);
+        assertEquals(0.5f * mesh[4] + 3, bounds[4], delta);
+        assertEquals(mesh[5] - 5, bounds[5], delta);
+    }
+
+    @Test
+    public void laysOutPositionsColorsAndIndicesPerInstance() {
+        StaticBatcher batcher = new StaticBatcher(bunnyPositions, bunnyIndices);
+        float[] first = placement(1, 2);
+        batcher.add(first, 1.0f, 0.0f, 1.0f);
+        batcher.add(placement(-3, 0), 0.25f, 0.5f, 0.75f);
+        // the batcher keeps its own copy
+        first[12] = 100;
+        StaticBatcher.Batch batch = batcher.build().get(0);
+
+        int vertices = bunnyVertices();
+        assertEquals(2, batch.instanceCount);
+        assertEquals(2 * vertices * 3, batch.positions.length);
+        assertEquals(batch.positions.length, batch.colors.length);
+        for (int v = 0; v < vertices; ++v) {
+            int a = v * 3;
+            int b = (vertices + v) * 3;
+            assertEquals(0.5f * bunnyPositions[a] + 1, batch.positions[a], 1e-6f);
+            assertEquals(0.5f * bunnyPositions[a + 1] + 2, batch.positions[a + 1], 1e-6f);
+            assertEquals(bunnyPositions[a + 2] - 5, batch.positions[a + 2], 1e-6f);
+            assertEquals(0.5f * bunnyPositions[a] - 3, batch.positions[b], 1e-6f);
+
+            assertEquals(1.0f, batch.colors[a], 0f);
+            assertEquals(0.0f, batch.colors[a + 1], 0f);
+            assertEquals(1.0f, batch.colors[a + 2], 0f);
+            assertEquals(0.25f, batch.colors[b], 0f);
+            assertEquals(0.5f, batch.colors[b + 1], 0f);
+            assertEquals(0.75f, batch.colors[b + 2], 0f);
+        }
+        for (int i = 0; i < bunnyIndices.length; ++i) {
+            assertEquals(bunnyIndices[i], batch.indices[i]);
+            assertEquals(bunnyIndices[i] + vertices, batch.indices[bunnyIndices.length + i]);
+        }
+    }
+
+    @Test
+    public void benchmarkThousandBunnies() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        StaticBatcher batcher = new StaticBatcher(bunnyPositions, bunnyIndices);
+        for (int i = 0; i < 1000; ++i) {
+            batcher.add(placement(i % 32, i / 32), 1.0f, 0.0f, 1.0f);
+        }
+
+        List<StaticBatcher.Batch> batches = batcher.build();
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        int runs = 0;
+        long end = System.nanoTime() + BENCHMARK_NANOS;
+        while (runs < 3 || System.nanoTime() < end) {
+            long start = System.nanoTime();
+            batches = batcher.build();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+            ++runs;
+        }
+
+        assertEquals(1000, batcher.getInstanceCount());
+        System.out.println(String.format(
+                "StaticBatcher: 1000 x %d vertices -> %d batches, build best %.2f ms, mean %.2f ms",
+                bunnyVertices(), batches.size(), best / 1e6, total / 1e6 / runs));
+    }
+}
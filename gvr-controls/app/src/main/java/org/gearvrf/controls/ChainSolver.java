@@ -0,0 +1,301 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.controls;
+
+import java.util.Arrays;
+
+/**
+ * A chain of segments, segment 0 leading, solved over packed arrays. Link
+ * {@code i} joins segment {@code i} to segment {@code i + 1}; its length is
+ * scaled by the follower's scale. Each follower faces its leader with a yaw
+ * about the y axis, in degrees.
+ *
+ * Two solvers are offered: {@link #follow(float)}, where followers ease
+ * toward their leaders once stretched past the link length, which is how the
+ * worm moves; and {@link #reach(float, float, float, int, float)}, FABRIK,
+ * which holds every link at its length and can pin the tail to an anchor.
+ *
+ * The solvers record which segments changed, so the caller can write back
+ * only those; see {@link #getChanges(int)}. Nothing is allocated after
+ * construction.
+ */
+public class ChainSolver {
+
+    public static final int POSITION_CHANGED = 1;
+    public static final int YAW_CHANGED = 2;
+
+    private final int count;
+    private final float[] positions;
+    private final float[] yaws;
+    private final float[] scales;
+    private final float[] lengths;
+    private final float[] speeds;
+    private final int[] changes;
+
+    private boolean anchored;
+    private float anchorX, anchorY, anchorZ;
+
+    public ChainSolver(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        this.count = count;
+        positions = new float[count * 3];
+        yaws = new float[count];
+        scales = new float[count];
+        lengths = new float[count];
+        speeds = new float[count];
+        changes = new int[count];
+        Arrays.fill(scales, 1f);
+        // so the first facing is always written
+        Arrays.fill(yaws, Float.NaN);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param length
+     *            rest length of the link, before the follower's scale
+     * @param speed
+     *            fraction of the gap {@link #follow(float)} closes per step,
+     *            before its speed scale
+     */
+    public void setLink(int link, float length, float speed) {
+        lengths[link] = length;
+        speeds[link] = speed;
+    }
+
+    /**
+     * @return the length the solvers hold the link to: its rest length times
+     *         the follower's scale
+     */
+    public float getLinkLength(int link) {
+        return lengths[link] * scales[link + 1];
+    }
+
+    public void setPosition(int segment, float x, float y, float z) {
+        int i = segment * 3;
+        positions[i] = x;
+        positions[i + 1] = y;
+        positions[i + 2] = z;
+    }
+
+    public float getPositionX(int segment) {
+        return positions[segment * 3];
+    }
+
+    public float getPositionY(int segment) {
+        return positions[segment * 3 + 1];
+    }
+
+    public float getPositionZ(int segment) {
+        return positions[segment * 3 + 2];
+    }
+
+    public void setScale(int segment, float scale) {
+        scales[segment] = scale;
+    }
+
+    /**
+     * @return the yaw that faces the segment toward its leader, in degrees;
+     *         NaN before the segment has been faced
+     */
+    public float getYaw(int segment) {
+        return yaws[segment];
+    }
+
+    /**
+     * @return {@link #POSITION_CHANGED} and {@link #YAW_CHANGED} bits for what
+     *         the solvers changed since {@link #clearChanges()}
+     */
+    public int getChanges(int segment) {
+        return changes[segment];
+    }
+
+    public void clearChanges() {
+        Arrays.fill(changes, 0);
+    }
+
+    /**
+     * Pins the last segment for {@link #reach(float, float, float, int, float)}.
+     */
+    public void setAnchor(float x, float y, float z) {
+        anchored = true;
+        anchorX = x;
+        anchorY = y;
+        anchorZ = z;
+    }
+
+    public void clearAnchor() {
+        anchored = false;
+    }
+
+    /**
+     * Eases every follower stretched past its link toward its leader, front
+     * to back, and faces the followers if any of them moved.
+     *
+     * @param speedScale
+     *            multiplies every link's speed
+     * @return whether any segment moved
+     */
+    public boolean follow(float speedScale) {
+        boolean moved = false;
+        float[] p = positions;
+        for (int s = 1, i = 3; s < count; ++s, i += 3) {
+            float dx = p[i - 3] - p[i];
+            float dy = p[i - 2] - p[i + 1];
+            float dz = p[i - 1] - p[i + 2];
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (distance > getLinkLength(s - 1)) {
+                float speed = speeds[s - 1] * speedScale;
+                p[i] += dx * speed;
+                p[i + 1] += dy * speed;
+                p[i + 2] += dz * speed;
+                changes[s] |= POSITION_CHANGED;
+                moved = true;
+            }
+        }
+        if (moved) {
+            face();
+        }
+        return moved;
+    }
+
+    /**
+     * Moves the leading segment to the target and lays the rest of the chain
+     * out behind it with every link at its length. Without an anchor one
+     * pass does it; with one, the passes alternate ends until the lead is
+     * within the tolerance of the target or the iterations run out. An
+     * anchored chain too short for the target is stretched straight toward
+     * it.
+     *
+     * @return the distance left between the leading segment and the target
+     */
+    public float reach(float x, float y, float z, int iterations, float tolerance) {
+        int last = count - 1;
+        if (!anchored) {
+            place(0, x, y, z);
+            forward();
+            face();
+            return 0f;
+        }
+
+        float total = 0f;
+        for (int s = 1; s < count; ++s) {
+            total += getLinkLength(s - 1);
+        }
+        float dx = x - anchorX;
+        float dy = y - anchorY;
+        float dz = z - anchorZ;
+        float reach = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (reach >= total) {
+            // out of reach: a straight line from the anchor toward the target
+            place(last, anchorX, anchorY, anchorZ);
+            if (reach > 0f) {
+                float k = 1f / reach;
+                float along = 0f;
+                for (int s = last - 1; s >= 0; --s) {
+                    along += getLinkLength(s);
+                    place(s, anchorX + dx * k * along, anchorY + dy * k * along, anchorZ
+                            + dz * k * along);
+                }
+            }
+            face();
+            return reach - total;
+        }
+
+        float error = distance(0, x, y, z);
+        for (int n = 0; n < iterations && error > tolerance; ++n) {
+            place(0, x, y, z);
+            forward();
+            place(last, anchorX, anchorY, anchorZ);
+            backward();
+            error = distance(0, x, y, z);
+        }
+        face();
+        return error;
+    }
+
+    /*
+     * Lays each segment at its link length from its leader, front to back.
+     */
+    private void forward() {
+        for (int s = 1; s < count; ++s) {
+            constrain(s, s - 1, getLinkLength(s - 1));
+        }
+    }
+
+    /*
+     * Lays each segment at its link length from its follower, back to front.
+     */
+    private void backward() {
+        for (int s = count - 2; s >= 0; --s) {
+            constrain(s, s + 1, getLinkLength(s));
+        }
+    }
+
+    /*
+     * Moves {@code segment} along the line from {@code fixed} to
+     * {@code length} away from it.
+     */
+    private void constrain(int segment, int fixed, float length) {
+        float[] p = positions;
+        int i = segment * 3;
+        int f = fixed * 3;
+        float dx = p[i] - p[f];
+        float dy = p[i + 1] - p[f + 1];
+        float dz = p[i + 2] - p[f + 2];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance == 0f) {
+            // coincident: no direction to keep, so trail along z
+            place(segment, p[f], p[f + 1], p[f + 2] + length);
+            return;
+        }
+        float k = length / distance;
+        place(segment, p[f] + dx * k, p[f + 1] + dy * k, p[f + 2] + dz * k);
+    }
+
+    private void place(int segment, float x, float y, float z) {
+        int i = segment * 3;
+        if (positions[i] != x || positions[i + 1] != y || positions[i + 2] != z) {
+            positions[i] = x;
+            positions[i + 1] = y;
+            positions[i + 2] = z;
+            changes[segment] |= POSITION_CHANGED;
+        }
+    }
+
+    private float distance(int segment, float x, float y, float z) {
+        int i = segment * 3;
+        float dx = x - positions[i];
+        float dy = y - positions[i + 1];
+        float dz = z - positions[i + 2];
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private void face() {
+        float[] p = positions;
+        for (int s = 1, i = 3; s < count; ++s, i += 3) {
+            float yaw = (float) Math.toDegrees(Math.atan2(p[i - 3] - p[i], p[i - 1] - p[i + 2]));
+            if (yaw != yaws[s]) {
+                yaws[s] = yaw;
+                changes[s] |= YAW_CHANGED;
+            }
+        }
+    }
+}
@@ -22,13 +22,14 @@ import android.view.MotionEvent;
 import org.gearvrf.GVRActivity;
 import org.gearvrf.controls.input.GamepadInput;
 import org.gearvrf.controls.input.TouchPadInput;
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector;
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class MainActivity extends GVRActivity implements
-        VRSamplesTouchPadGesturesDetector.OnTouchPadGestureListener {
+        VRTouchPadGestureDetector.OnTouchPadGestureListener,
+        VRTouchPadGestureDetector.OnTouchPadSwipingListener {
 
-    private VRSamplesTouchPadGesturesDetector mDetector = null;
+    private VRTouchPadGestureDetector mDetector = null;
     private Main main;
     private static final int TAP_INTERVAL = 300;
     private long mLatestTap = 0;
@@ -38,7 +39,8 @@ public class MainActivity extends GVRActivity implements
         super.onCreate(icicle);
         main = new Main();
         setMain(main, "gvr.xml");
-        mDetector = new VRSamplesTouchPadGesturesDetector(this, this);
+        mDetector = new VRTouchPadGestureDetector(this, this);
+        mDetector.setOnSwipingListener(this);
     }
 
     @Override
@@ -31,13 +31,14 @@ import org.gearvrf.controls.anim.ScaleWorm;
 import org.gearvrf.controls.input.GamepadInput;
 import org.gearvrf.controls.input.TouchPadInput;
 import org.gearvrf.controls.model.Apple;
+import org.gearvrf.scenenode.GVRSceneNode;
 import org.gearvrf.controls.util.ColorControls;
 import org.gearvrf.controls.util.ColorControls.Color;
 import org.gearvrf.controls.util.Constants;
 import org.gearvrf.controls.util.MathUtils;
 import org.gearvrf.controls.util.RenderingOrder;
 import org.gearvrf.controls.util.Util;
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class Worm extends GVRSceneObject {
 
@@ -45,17 +46,13 @@ public class Worm extends GVRSceneObject {
     private static final float SHADOW_MIDDLE_OFFSET = 0.8f;
     private static final float SHADOW_HEAD_OFFSET = 0.9f;
     // private static final float MINIMUM_DISTANCE_FACTOR = 0.5f;
-    // Chain Data
-    private final float CHAIN_DISTANCE_HEAD_MIDDLE = 0.575f;
-    private final float CHAIN_DISTANCE_MIDDLE_END = 0.475f;
-
-    private final float CHAIN_SPEED_HEAD_MIDDLE = 0.055f;
-    private final float CHAIN_SPEED_MIDDLE_END = 0.065f;
     private final float WORM_INITIAL_Z = -3;
     private final float WORM_INITIAL_Y = -0.9f;
 
     private float DISTANCE_TO_EAT_APPLE = 0.50f;
     private WormBasePart head, middle, end;
+    private WormChain chain;
+    private GVRSceneNode cameraNode;
 
     public GVRSceneObject wormParent;
     private boolean isRotatingWorm = false;
@@ -114,6 +111,9 @@ public class Worm extends GVRSceneObject {
         
         addChildObject(middle);
         addChildObject(end);
+
+        chain = new WormChain(new GVRSceneNode(wormParent), new GVRSceneNode(middle),
+                new GVRSceneNode(end));
     }
     
     public void enableShadow() {
@@ -168,54 +168,12 @@ public class Worm extends GVRSceneObject {
 
         if (!ScaleWorm.animPlaying) {
 
-            if (MathUtils.distance(wormParent, middle) > CHAIN_DISTANCE_HEAD_MIDDLE
-                    * middle.getTransform().getScaleX()) {
-
-                float chainSpeed = CHAIN_SPEED_HEAD_MIDDLE
-                        * (float) Util.distance(wormParent.getTransform(), getGVRContext()
-                                .getMainScene().getMainCameraRig().getTransform());
-
-                middle.getTransform().setRotationByAxis(
-                        MathUtils.getYRotationAngle(middle, wormParent), 0, 1, 0);
-                end.getTransform().setRotationByAxis(MathUtils.getYRotationAngle(end, middle), 0, 1, 0);
-
-                float newX = middle.getTransform().getPositionX()
-                        + (wormParent.getTransform().getPositionX() -
-                        middle.getTransform().getPositionX()) * chainSpeed;
-
-                float newY = middle.getTransform().getPositionY()
-                        + (wormParent.getTransform().getPositionY() -
-                        middle.getTransform().getPositionY()) * chainSpeed;
-
-                float newZ = middle.getTransform().getPositionZ()
-                        + (wormParent.getTransform().getPositionZ() -
-                        middle.getTransform().getPositionZ()) * chainSpeed;
-
-                middle.getTransform().setPosition(newX, newY, newZ);
-            }
-
-            if (MathUtils.distance(middle, end) > CHAIN_DISTANCE_MIDDLE_END
-                    * end.getTransform().getScaleX()) {
-
-                float chainSpeed = CHAIN_SPEED_MIDDLE_END
-                        * (float) Util.distance(wormParent.getTransform(), getGVRContext()
-                                .getMainScene().getMainCameraRig().getTransform());
-
-                middle.getTransform().setRotationByAxis(
-                        MathUtils.getYRotationAngle(middle, wormParent), 0, 1, 0);
-                end.getTransform().setRotationByAxis(MathUtils.getYRotationAngle(end, middle), 0, 1, 0);
-
-                float newX = end.getTransform().getPositionX() + (middle.getTransform().getPositionX() -
-                        end.getTransform().getPositionX()) * chainSpeed;
-
-                float newY = end.getTransform().getPositionY() + (middle.getTransform().getPositionY() -
-                        end.getTransform().getPositionY()) * chainSpeed;
-
-                float newZ = end.getTransform().getPositionZ() + (middle.getTransform().getPositionZ() -
-                        end.getTransform().getPositionZ()) * chainSpeed;
-
-                end.getTransform().setPosition(newX, newY, newZ);
+            GVRSceneObject camera = getGVRContext().getMainScene().getMainCameraRig()
+                    .getOwnerObject();
+            if (cameraNode == null || cameraNode.getSceneObject() != camera) {
+                cameraNode = new GVRSceneNode(camera);
             }
+            chain.step(cameraNode);
         }
     }
 
@@ -344,7 +302,7 @@ public class Worm extends GVRSceneObject {
 
         if (!ScaleWorm.animPlaying) {
 
-            SwipeDirection swipeDirection = TouchPadInput.getCurrent().swipeDirection;
+            SwipeDirection swipeDirection = TouchPadInput.getCurrent().getSwipeDirection();
 
             float duration = 0.6f;
             float movement = 0.75f;
@@ -0,0 +1,112 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.controls;
+
+import org.gearvrf.scenenode.SceneNode;
+
+/**
+ * Follow-the-leader movement of the worm body: each segment chases the one
+ * ahead of it, faster the further the worm is from the camera. Written
+ * against {@link SceneNode} so it can be stepped headless.
+ *
+ * A step reads each segment's position and scale once, solves the whole
+ * chain in a {@link ChainSolver}, and writes back only the segments that
+ * moved or turned. The chain owns the followers' rotations.
+ */
+public class WormChain {
+
+    private static final float CHAIN_DISTANCE_HEAD_MIDDLE = 0.575f;
+    private static final float CHAIN_DISTANCE_MIDDLE_END = 0.475f;
+
+    private static final float CHAIN_SPEED_HEAD_MIDDLE = 0.055f;
+    private static final float CHAIN_SPEED_MIDDLE_END = 0.065f;
+
+    private final SceneNode[] segments;
+    private final ChainSolver solver;
+
+    public WormChain(SceneNode head, SceneNode middle, SceneNode end) {
+        this(new SceneNode[] {
+                head, middle, end
+        }, new float[] {
+                CHAIN_DISTANCE_HEAD_MIDDLE, CHAIN_DISTANCE_MIDDLE_END
+        }, new float[] {
+                CHAIN_SPEED_HEAD_MIDDLE, CHAIN_SPEED_MIDDLE_END
+        });
+    }
+
+    /**
+     * @param lengths
+     *            rest length of each link, {@code segments.length - 1} of
+     *            them
+     * @param speeds
+     *            fraction of the gap closed per step and unit of camera
+     *            distance, per link
+     */
+    public WormChain(SceneNode[] segments, float[] lengths, float[] speeds) {
+        if (lengths.length != segments.length - 1 || speeds.length != lengths.length) {
+            throw new IllegalArgumentException("need one length and speed per link");
+        }
+        this.segments = segments.clone();
+        solver = new ChainSolver(segments.length);
+        for (int link = 0; link < lengths.length; ++link) {
+            solver.setLink(link, lengths[link], speeds[link]);
+        }
+    }
+
+    public ChainSolver getSolver() {
+        return solver;
+    }
+
+    public void step(SceneNode camera) {
+        load();
+
+        float dx = solver.getPositionX(0) - camera.getPositionX();
+        float dy = solver.getPositionY(0) - camera.getPositionY();
+        float dz = solver.getPositionZ(0) - camera.getPositionZ();
+        solver.follow((float) Math.sqrt(dx * dx + dy * dy + dz * dz));
+
+        store();
+    }
+
+    /*
+     * Followers can be moved by animations between steps, so positions are
+     * taken fresh each step. Only followers' scales matter.
+     */
+    private void load() {
+        SceneNode head = segments[0];
+        solver.setPosition(0, head.getPositionX(), head.getPositionY(), head.getPositionZ());
+        for (int s = 1; s < segments.length; ++s) {
+            SceneNode segment = segments[s];
+            solver.setPosition(s, segment.getPositionX(), segment.getPositionY(),
+                    segment.getPositionZ());
+            solver.setScale(s, segment.getScaleX());
+        }
+    }
+
+    private void store() {
+        for (int s = 0; s < segments.length; ++s) {
+            int changes = solver.getChanges(s);
+            if ((changes & ChainSolver.POSITION_CHANGED) != 0) {
+                segments[s].setPosition(solver.getPositionX(s), solver.getPositionY(s),
+                        solver.getPositionZ(s));
+            }
+            if ((changes & ChainSolver.YAW_CHANGED) != 0) {
+                segments[s].setRotationByAxis(solver.getYaw(s), 0, 1, 0);
+            }
+        }
+        solver.clearChanges();
+    }
+}
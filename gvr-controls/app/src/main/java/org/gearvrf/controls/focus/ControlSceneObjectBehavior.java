@@ -22,38 +22,35 @@ import org.gearvrf.controls.cursor.ControlGazeController;
 import org.gearvrf.controls.input.GamepadInput;
 import org.gearvrf.controls.input.GamepadMap;
 import org.gearvrf.controls.input.TouchPadInput;
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
-
-import java.util.ArrayList;
+import org.gearvrf.focus.FocusIndex;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class ControlSceneObjectBehavior {
 
-    public static ArrayList<ControlSceneObject> interactiveObjects = new ArrayList<ControlSceneObject>();
+    public static FocusIndex<ControlSceneObject> interactiveObjects = new FocusIndex<ControlSceneObject>();
 
     public static void process(GVRContext context) {
 
         GVREyePointeeHolder[] eyePointeeHolders = GVRPicker.pickScene(context.getMainScene());
-        ArrayList<ControlSceneObject> needToDisableFocus = new ArrayList<ControlSceneObject>();
-        for (ControlSceneObject obj : interactiveObjects) {
-            obj.onStep();
-            needToDisableFocus.add(obj);
+        for (int i = 0, size = interactiveObjects.size(); i < size; i++) {
+            interactiveObjects.get(i).onStep();
         }
 
+        interactiveObjects.beginFrame();
+
         if (eyePointeeHolders.length == 0) {
             ControlGazeController.disableInteractiveCursor();
         } else {
             for (GVREyePointeeHolder eph : eyePointeeHolders) {
-                for (ControlSceneObject object : interactiveObjects) {
-                    if (eph.getOwnerObject().equals(object)) {
-                        object.setFocus(true);
-                        needToDisableFocus.remove(object);
-                    }
+                ControlSceneObject object = interactiveObjects.hit(eph.getOwnerObject());
+                if (object != null) {
+                    object.setFocus(true);
                 }
             }
         }
 
-        for (ControlSceneObject obj : needToDisableFocus) {
-            obj.setFocus(false);
+        for (int i = interactiveObjects.nextLost(0); i >= 0; i = interactiveObjects.nextLost(i + 1)) {
+            interactiveObjects.get(i).setFocus(false);
         }
 
         processTap(context);
@@ -61,7 +58,8 @@ public class ControlSceneObjectBehavior {
 
     private static void processTap(GVRContext context) {
 
-        for (ControlSceneObject object : interactiveObjects) {
+        for (int i = interactiveObjects.nextHit(0); i >= 0; i = interactiveObjects.nextHit(i + 1)) {
+            ControlSceneObject object = interactiveObjects.get(i);
             if (object.hasFocus()) {
 
                 checkInput(object);
@@ -70,7 +68,7 @@ public class ControlSceneObjectBehavior {
     }
 
     private static void checkInput(ControlSceneObject object) {
-        if (TouchPadInput.getCurrent().buttonState.isSingleTap()) {
+        if (TouchPadInput.getCurrent().getButtonState().isSingleTap()) {
             object.singleTap();
 
         }
@@ -138,20 +136,20 @@ public class ControlSceneObjectBehavior {
     private static void handleTouchPad(ControlSceneObject object) {
         if (object.touchAndGesturelistener != null) {
 
-            if (TouchPadInput.getCurrent().buttonState.isLongPressed()) {
+            if (TouchPadInput.getCurrent().getButtonState().isLongPressed()) {
                 object.touchAndGesturelistener.longPressed();
             }
-            if (TouchPadInput.getCurrent().buttonState.isDown()) {
+            if (TouchPadInput.getCurrent().getButtonState().isDown()) {
                 object.touchAndGesturelistener.down();
             }
-            if (TouchPadInput.getCurrent().buttonState.isUp()) {
+            if (TouchPadInput.getCurrent().getButtonState().isUp()) {
                 object.touchAndGesturelistener.up();
             }
-            if (TouchPadInput.getCurrent().buttonState.isPressed()) {
+            if (TouchPadInput.getCurrent().getButtonState().isPressed()) {
                 object.touchAndGesturelistener.pressed();
             }
-            if (TouchPadInput.getCurrent().swipeDirection != SwipeDirection.Ignore) {
-                object.touchAndGesturelistener.swipe(TouchPadInput.getCurrent().swipeDirection);
+            if (TouchPadInput.getCurrent().getSwipeDirection() != SwipeDirection.Ignore) {
+                object.touchAndGesturelistener.swipe(TouchPadInput.getCurrent().getSwipeDirection());
             }
         }
 
@@ -15,7 +15,7 @@
 
 package org.gearvrf.controls.focus;
 
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class TouchAndGestureImpl implements TouchAndGesture {
 
@@ -17,9 +17,10 @@ package org.gearvrf.controls.input;
 
 public class Button {
 
-    protected boolean down;
-    protected boolean up;
-    protected boolean pressed;
+    // written only by the input classes in this package, once per frame
+    boolean down;
+    boolean up;
+    boolean pressed;
 
     public boolean isDown() {
         return down;
@@ -33,10 +34,4 @@ public class Button {
         return pressed;
     }
 
-    protected void replicateValues(Button button) {
-        this.down = button.down;
-        this.up = button.up;
-        this.pressed = button.pressed;
-    }
-
 }
@@ -19,74 +19,114 @@ import android.view.InputDevice;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 
-import java.util.ArrayList;
-
+/**
+ * Gamepad state for the GL thread. The input methods run on the UI thread and
+ * only publish records into a {@link InputEventRing}; {@link #process()}
+ * drains it once per frame, so every getter returns the same answer for the
+ * rest of that frame, and a press and release that land in the same frame
+ * still show up as both a down and an up.
+ */
 public final class GamepadInput {
 
-    private static GamepadMap newGamepadMap = new GamepadMap();
-
-    private static GamepadMap oldGamepadMap = new GamepadMap();
+    private static final int RING_CAPACITY = 1024;
 
-    public static void process() {
+    private static final int AXES_RAW = 0;
+    private static final int AXES_CENTERED = 1;
 
-        newGamepadMap.resetIntermadiateState();
+    private static final InputEventRing events = new InputEventRing(RING_CAPACITY);
 
-        for (Integer key : oldGamepadMap.buttonsKeyCode) {
-            Button oldButton = oldGamepadMap.buttons.get(key);
-            Button newButton = newGamepadMap.buttons.get(key);
+    // only process() writes this, on the GL thread
+    private static final GamepadMap gamepadMap = new GamepadMap();
 
-            updateIntermiteStates(newButton, oldButton);
+    private static final InputEventRing.Handler applyEvent = new InputEventRing.Handler() {
+        @Override
+        public void onEvent(int type, int code, int action, float[] axes, long timestamp) {
+            if (type == InputEventRing.TYPE_KEY) {
+                applyKey(code, action);
+            } else if (type == InputEventRing.TYPE_AXES) {
+                applyAxes(code, axes);
+            }
         }
+    };
+
+    public static void process() {
+
+        gamepadMap.resetIntermadiateState();
+
+        events.drain(applyEvent);
     }
 
-    private static void updateIntermiteStates(Button newButton, Button oldButton) {
+    private static void applyKey(int keyCode, int action) {
+        Button button = gamepadMap.buttons.get(keyCode);
+        if (button == null) {
+            return;
+        }
 
-        if (oldButton.pressed != newButton.pressed) {
-            newButton.down = newButton.pressed;
-            newButton.up = !newButton.pressed;
+        if (action == KeyEvent.ACTION_DOWN) {
+            if (!button.pressed) {
+                button.down = true;
+            }
+            button.pressed = true;
         }
+        if (action == KeyEvent.ACTION_UP) {
+            if (button.pressed) {
+                button.up = true;
+            }
+            button.pressed = false;
+        }
+    }
 
-        oldButton.replicateValues(newButton);
+    private static void applyAxes(int code, float[] axes) {
+        if (code == AXES_RAW) {
+            gamepadMap.axisX = axes[0];
+            gamepadMap.axisY = axes[1];
+            gamepadMap.axisHatX = axes[2];
+            gamepadMap.axisHatY = axes[3];
+            gamepadMap.axisRX = axes[4];
+            gamepadMap.axisRY = axes[5];
+        } else {
+            gamepadMap.centeredAxisX = axes[0];
+            gamepadMap.centeredAxisY = axes[1];
+            gamepadMap.centeredAxisHatX = axes[2];
+            gamepadMap.centeredAxisHatY = axes[3];
+            gamepadMap.centeredAxisRX = axes[4];
+            gamepadMap.centeredAxisRY = axes[5];
+        }
     }
 
     public static void input(MotionEvent event) {
 
-        newGamepadMap.axisX = event.getAxisValue(MotionEvent.AXIS_X);
-        newGamepadMap.axisY = event.getAxisValue(MotionEvent.AXIS_Y);
-        newGamepadMap.axisHatX = event.getAxisValue(MotionEvent.AXIS_HAT_X);
-        newGamepadMap.axisHatY = event.getAxisValue(MotionEvent.AXIS_HAT_Y);
-        newGamepadMap.axisRX = event.getAxisValue(MotionEvent.AXIS_RX);
-        newGamepadMap.axisRY = event.getAxisValue(MotionEvent.AXIS_RY);
+        events.publishAxes(AXES_RAW,
+                event.getAxisValue(MotionEvent.AXIS_X),
+                event.getAxisValue(MotionEvent.AXIS_Y),
+                event.getAxisValue(MotionEvent.AXIS_HAT_X),
+                event.getAxisValue(MotionEvent.AXIS_HAT_Y),
+                event.getAxisValue(MotionEvent.AXIS_RX),
+                event.getAxisValue(MotionEvent.AXIS_RY),
+                event.getEventTime());
 
     }
 
     public static void input(KeyEvent event) {
 
-        if (event.getAction() == KeyEvent.ACTION_DOWN) {
-            newGamepadMap.buttons.get(event.getKeyCode()).pressed = true;
-
-        }
-        if (event.getAction() == KeyEvent.ACTION_UP) {
-            newGamepadMap.buttons.get(event.getKeyCode()).pressed = false;
-
-        }
+        events.publishKey(event.getKeyCode(), event.getAction(), event.getEventTime());
 
     }
 
     public static boolean getKeyDown(int key) {
-        return newGamepadMap.buttons.get(key).down;
+        return gamepadMap.buttons.get(key).down;
     }
 
     public static boolean getKeyUp(int key) {
-        return newGamepadMap.buttons.get(key).up;
+        return gamepadMap.buttons.get(key).up;
     }
 
     public static boolean getKey(int key) {
-        return newGamepadMap.buttons.get(key).pressed;
+        return gamepadMap.buttons.get(key).pressed;
     }
 
     public static Button getButton(int key) {
-        return newGamepadMap.buttons.get(key);
+        return gamepadMap.buttons.get(key);
     }
 
     // getCenteredAxis() and some other code are referenced from:
@@ -144,14 +184,9 @@ public final class GamepadInput {
         float ry = getCenteredAxis(event, mInputDevice, MotionEvent.AXIS_RY,
                 historyPos);
 
-        newGamepadMap.centeredAxisX = x;
-        newGamepadMap.centeredAxisY = y;
-
-        newGamepadMap.centeredAxisHatX = hatx;
-        newGamepadMap.centeredAxisHatY = haty;
-
-        newGamepadMap.centeredAxisRX = rx;
-        newGamepadMap.centeredAxisRY = ry;
+        long timestamp = historyPos < 0 ? event.getEventTime()
+                : event.getHistoricalEventTime(historyPos);
+        events.publishAxes(AXES_CENTERED, x, y, hatx, haty, rx, ry, timestamp);
 
         return true;
     }
@@ -159,17 +194,17 @@ public final class GamepadInput {
     public static float getAxis(int axis) {
         switch (axis) {
             case MotionEvent.AXIS_X:
-                return newGamepadMap.axisX;
+                return gamepadMap.axisX;
             case MotionEvent.AXIS_Y:
-                return newGamepadMap.axisY;
+                return gamepadMap.axisY;
             case MotionEvent.AXIS_HAT_X:
-                return newGamepadMap.axisHatX;
+                return gamepadMap.axisHatX;
             case MotionEvent.AXIS_HAT_Y:
-                return newGamepadMap.axisHatY;
+                return gamepadMap.axisHatY;
             case MotionEvent.AXIS_RX:
-                return newGamepadMap.axisRX;
+                return gamepadMap.axisRX;
             case MotionEvent.AXIS_RY:
-                return newGamepadMap.axisRY;
+                return gamepadMap.axisRY;
             default:
                 return 0f;
         }
@@ -178,24 +213,31 @@ public final class GamepadInput {
     public static float getCenteredAxis(int axis) {
         switch (axis) {
             case MotionEvent.AXIS_X:
-                return newGamepadMap.centeredAxisX;
+                return gamepadMap.centeredAxisX;
             case MotionEvent.AXIS_Y:
-                return newGamepadMap.centeredAxisY;
+                return gamepadMap.centeredAxisY;
             case MotionEvent.AXIS_HAT_X:
-                return newGamepadMap.centeredAxisHatX;
+                return gamepadMap.centeredAxisHatX;
             case MotionEvent.AXIS_HAT_Y:
-                return newGamepadMap.centeredAxisHatY;
+                return gamepadMap.centeredAxisHatY;
             case MotionEvent.AXIS_RX:
-                return newGamepadMap.centeredAxisRX;
+                return gamepadMap.centeredAxisRX;
             case MotionEvent.AXIS_RY:
-                return newGamepadMap.centeredAxisRY;
+                return gamepadMap.centeredAxisRY;
             default:
                 return 0f;
         }
     }
 
-    public static ArrayList<Integer> getKeyCodeMap() {
-        return newGamepadMap.buttonsKeyCode;
+    public static int[] getKeyCodes() {
+        return GamepadMap.KEY_CODES.clone();
+    }
+
+    /**
+     * @return how many input records were lost to a full ring.
+     */
+    public static long getDroppedEventCount() {
+        return events.getDroppedCount();
     }
 
 }
@@ -1,8 +1,7 @@
-/* Copyright 2015 Samsung Electronics import android.util.SparseArray;
-import android.view.KeyEvent;
-
-import java.util.ArrayList;
-t use this file except in compliance with the License.
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
  *
  *     http://www.apache.org/licenses/LICENSE-2.0
@@ -19,8 +18,6 @@ package org.gearvrf.controls.input;
 import android.util.SparseArray;
 import android.view.KeyEvent;
 
-import java.util.ArrayList;
-
 public class GamepadMap {
 
     public static final int KEYCODE_BUTTON_L1 = KeyEvent.KEYCODE_BUTTON_L1;
@@ -52,7 +49,19 @@ public class GamepadMap {
     public float centeredAxisRX;
     public float centeredAxisRY;
 
-    protected ArrayList<Integer> buttonsKeyCode;
+    protected static final int[] KEY_CODES = {
+            KeyEvent.KEYCODE_BUTTON_L1, KeyEvent.KEYCODE_BUTTON_R1,
+            KeyEvent.KEYCODE_BUTTON_X, KeyEvent.KEYCODE_BUTTON_Y,
+            KeyEvent.KEYCODE_BUTTON_A, KeyEvent.KEYCODE_BUTTON_B,
+
+            KeyEvent.KEYCODE_DPAD_LEFT, KeyEvent.KEYCODE_DPAD_RIGHT,
+            KeyEvent.KEYCODE_DPAD_UP, KeyEvent.KEYCODE_DPAD_DOWN,
+
+            KeyEvent.KEYCODE_BUTTON_SELECT, KeyEvent.KEYCODE_BUTTON_START,
+
+            KeyEvent.KEYCODE_BACK
+    };
+
     public SparseArray<Button> buttons = new SparseArray<Button>();
 
     public GamepadMap() {
@@ -62,40 +71,16 @@ public class GamepadMap {
 
     public void init() {
 
-        populateKeys();
-
-        for (int i : buttonsKeyCode) {
-            buttons.append(i, new Button());
-
+        for (int keyCode : KEY_CODES) {
+            buttons.append(keyCode, new Button());
         }
 
     }
 
-    private void populateKeys() {
-        buttonsKeyCode = new ArrayList<Integer>();
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_L1);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_R1);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_X);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_Y);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_A);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_B);
-
-        buttonsKeyCode.add(KeyEvent.KEYCODE_DPAD_LEFT);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_DPAD_RIGHT);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_DPAD_UP);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_DPAD_DOWN);
-
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_SELECT);
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BUTTON_START);
-
-        buttonsKeyCode.add(KeyEvent.KEYCODE_BACK);
-
-    }
-
     public void resetIntermadiateState() {
 
-        for (Integer key : buttonsKeyCode) {
-            Button button = buttons.get(key);
+        for (int i = 0; i < buttons.size(); ++i) {
+            Button button = buttons.valueAt(i);
             button.down = false;
             button.up = false;
         }
@@ -0,0 +1,197 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.controls.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer/single-consumer ring of input records, handing
+ * events from the UI thread to the GL thread without locks or allocation.
+ * Each record is a type, a code, an action, {@link #AXIS_COUNT} axis values
+ * and a timestamp, stored in parallel primitive arrays.
+ *
+ * The producer fills a slot and then publishes it by advancing the tail with
+ * an ordered store; the consumer reads the tail, reads the slots before it
+ * and hands them back by advancing the head the same way. A full ring drops
+ * the new record and counts it rather than block the UI thread.
+ *
+ * Exactly one thread may call the {@code publish} methods and exactly one
+ * (other) thread may call {@link #drain(Handler)}.
+ */
+public final class InputEventRing {
+
+    public static final int TYPE_KEY = 0;
+    public static final int TYPE_AXES = 1;
+    public static final int TYPE_TOUCH = 2;
+    public static final int TYPE_GESTURE = 3;
+
+    public static final int AXIS_COUNT = 6;
+
+    public interface Handler {
+        /**
+         * Called on the consumer thread for each record, in publishing order.
+         * {@code axes} is only valid for the duration of the call.
+         */
+        void onEvent(int type, int code, int action, float[] axes, long timestamp);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] codes;
+    private final int[] actions;
+    private final float[] axes;
+    private final long[] timestamps;
+
+    // next slot to read, written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // next slot to write, written by the producer
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // producer-local copy of head, refreshed only when the ring looks full
+    private long cachedHead;
+    // consumer-local scratch passed to the handler
+    private final float[] record = new float[AXIS_COUNT];
+
+    /**
+     * @param capacity
+     *            rounded up to a power of two.
+     */
+    public InputEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        types = new int[size];
+        codes = new int[size];
+        actions = new int[size];
+        axes = new float[size * AXIS_COUNT];
+        timestamps = new long[size];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return how many records were dropped because the ring was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public boolean publishKey(int keyCode, int action, long timestamp) {
+        int slot = claim();
+        if (slot < 0) {
+            return false;
+        }
+        write(slot, TYPE_KEY, keyCode, action, timestamp);
+        clearAxes(slot);
+        tail.lazySet(tail.get() + 1);
+        return true;
+    }
+
+    /**
+     * Publishes six axis values: x, y, hat x, hat y, rx, ry.
+     */
+    public boolean publishAxes(int code, float x, float y, float hatX, float hatY, float rx,
+            float ry, long timestamp) {
+        int slot = claim();
+        if (slot < 0) {
+            return false;
+        }
+        write(slot, TYPE_AXES, code, 0, timestamp);
+        int base = slot * AXIS_COUNT;
+        axes[base] = x;
+        axes[base + 1] = y;
+        axes[base + 2] = hatX;
+        axes[base + 3] = hatY;
+        axes[base + 4] = rx;
+        axes[base + 5] = ry;
+        tail.lazySet(tail.get() + 1);
+        return true;
+    }
+
+    public boolean publishTouch(int action, float x, float y, long timestamp) {
+        int slot = claim();
+        if (slot < 0) {
+            return false;
+        }
+        write(slot, TYPE_TOUCH, 0, action, timestamp);
+        clearAxes(slot);
+        axes[slot * AXIS_COUNT] = x;
+        axes[slot * AXIS_COUNT + 1] = y;
+        tail.lazySet(tail.get() + 1);
+        return true;
+    }
+
+    public boolean publishGesture(int gesture, int argument, long timestamp) {
+        int slot = claim();
+        if (slot < 0) {
+            return false;
+        }
+        write(slot, TYPE_GESTURE, gesture, argument, timestamp);
+        clearAxes(slot);
+        tail.lazySet(tail.get() + 1);
+        return true;
+    }
+
+    /*
+     * Returns the slot for the next record, or -1 if the ring is full.
+     */
+    private int claim() {
+        long position = tail.get();
+        if (position - cachedHead > mask) {
+            cachedHead = head.get();
+            if (position - cachedHead > mask) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+        }
+        return (int) position & mask;
+    }
+
+    private void write(int slot, int type, int code, int action, long timestamp) {
+        types[slot] = type;
+        codes[slot] = code;
+        actions[slot] = action;
+        timestamps[slot] = timestamp;
+    }
+
+    private void clearAxes(int slot) {
+        int base = slot * AXIS_COUNT;
+        for (int i = 0; i < AXIS_COUNT; ++i) {
+            axes[base + i] = 0f;
+        }
+    }
+
+    /**
+     * Hands every record published so far to {@code handler} and frees their
+     * slots. Records published during the drain are left for the next call,
+     * so one drain per frame sees a consistent cut of the input.
+     *
+     * @return the number of records drained.
+     */
+    public int drain(Handler handler) {
+        long position = head.get();
+        long end = tail.get();
+        for (long i = position; i < end; ++i) {
+            int slot = (int) i & mask;
+            System.arraycopy(axes, slot * AXIS_COUNT, record, 0, AXIS_COUNT);
+            handler.onEvent(types[slot], codes[slot], actions[slot], record, timestamps[slot]);
+        }
+        head.lazySet(end);
+        return (int) (end - position);
+    }
+}
@@ -15,110 +15,113 @@
 
 package org.gearvrf.controls.input;
 
-import android.view.KeyEvent;
+import android.os.SystemClock;
 import android.view.MotionEvent;
 
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
+/**
+ * Touch pad state for the GL thread, fed through an {@link InputEventRing}
+ * the same way as {@link GamepadInput}. Taps, long presses and swipes are
+ * visible for exactly the frame whose {@link #process()} drained them.
+ */
 public class TouchPadInput {
 
-    private static TouchPadInputMap newTouchPadMap = new TouchPadInputMap();
-    private static TouchPadInputMap oldTouchPadMap = new TouchPadInputMap();
-
-    public static void process() {
-        newTouchPadMap.resetIntermadiateState();
-
-        Button oldButton = oldTouchPadMap.buttonState;
-        Button newButton = newTouchPadMap.buttonState;
+    private static final int RING_CAPACITY = 1024;
 
-        updateIntermediateStates(newButton, oldButton);
+    private static final int GESTURE_SWIPE = 0;
+    private static final int GESTURE_SINGLE_TAP = 1;
+    private static final int GESTURE_LONG_PRESS = 2;
 
-    }
-
-    public static TouchPadInputMap getCurrent() {
+    private static final SwipeDirection[] SWIPE_DIRECTIONS = SwipeDirection.values();
 
-        return newTouchPadMap;
-    }
+    private static final InputEventRing events = new InputEventRing(RING_CAPACITY);
 
-    private static void updateIntermediateStates(Button newButton, Button oldButton) {
+    // only process() writes this, on the GL thread
+    private static final TouchPadInputMap touchPadMap = new TouchPadInputMap();
 
-        if (oldButton.pressed != newButton.pressed) {
-            newButton.down = newButton.pressed;
-            newButton.up = !newButton.pressed;
+    private static final InputEventRing.Handler applyEvent = new InputEventRing.Handler() {
+        @Override
+        public void onEvent(int type, int code, int action, float[] axes, long timestamp) {
+            if (type == InputEventRing.TYPE_TOUCH) {
+                applyTouch(action, axes[0], axes[1]);
+            } else if (type == InputEventRing.TYPE_GESTURE) {
+                applyGesture(code, action);
+            }
         }
+    };
 
-        updateSwipe();
+    public static void process() {
+        touchPadMap.resetIntermadiateState();
+        touchPadMap.buttonState.singleTaped = false;
+        touchPadMap.buttonState.longPressed = false;
+        touchPadMap.swipeDirection = SwipeDirection.Ignore;
 
-        updateLongPress();
+        events.drain(applyEvent);
+    }
 
-        updateTap();
+    public static TouchPadInputMap getCurrent() {
 
-        oldButton.replicateValues(newButton);
+        return touchPadMap;
     }
 
-    private static void updateLongPress() {
-        if (newTouchPadMap.buttonState.longPressed == oldTouchPadMap.buttonState.longPressed) {
-            if (newTouchPadMap.buttonState.longPressed) {
+    private static void applyTouch(int action, float x, float y) {
+        Button button = touchPadMap.buttonState;
 
-                newTouchPadMap.buttonState.longPressed = false;
-            }
+        touchPadMap.axisX = x;
+        touchPadMap.axisY = y;
 
+        if (action == MotionEvent.ACTION_DOWN) {
+            if (!button.pressed) {
+                button.down = true;
+            }
+            button.pressed = true;
         }
-        oldTouchPadMap.buttonState.longPressed = newTouchPadMap.buttonState.longPressed;
-    }
-
-    private static void updateTap() {
-        if (newTouchPadMap.buttonState.singleTaped == oldTouchPadMap.buttonState.singleTaped) {
-            if (newTouchPadMap.buttonState.singleTaped) {
-
-                newTouchPadMap.buttonState.singleTaped = false;
+        if (action == MotionEvent.ACTION_UP) {
+            if (button.pressed) {
+                button.up = true;
             }
-
+            button.pressed = false;
         }
-        oldTouchPadMap.buttonState.singleTaped = newTouchPadMap.buttonState.singleTaped;
     }
 
-    private static void updateSwipe() {
-        if (newTouchPadMap.swipeDirection == oldTouchPadMap.swipeDirection) {
-            if (newTouchPadMap.swipeDirection != SwipeDirection.Ignore) {
-
-                newTouchPadMap.swipeDirection = SwipeDirection.Ignore;
-            }
-
+    private static void applyGesture(int gesture, int argument) {
+        switch (gesture) {
+            case GESTURE_SWIPE:
+                touchPadMap.swipeDirection = SWIPE_DIRECTIONS[argument];
+                break;
+            case GESTURE_SINGLE_TAP:
+                touchPadMap.buttonState.singleTaped = true;
+                break;
+            case GESTURE_LONG_PRESS:
+                touchPadMap.buttonState.longPressed = true;
+                break;
         }
-        oldTouchPadMap.swipeDirection = newTouchPadMap.swipeDirection;
-
     }
 
     public static void input(MotionEvent event) {
 
         // https://github.com/Samsung/GearVRf/issues/231
-        newTouchPadMap.axisX = event.getAxisValue(MotionEvent.AXIS_X);
-        newTouchPadMap.axisY = event.getAxisValue(MotionEvent.AXIS_Y);
-
-        if (event.getAction() == KeyEvent.ACTION_DOWN) {
-            newTouchPadMap.buttonState.pressed = true;
-
-        }
-        if (event.getAction() == KeyEvent.ACTION_UP) {
-            newTouchPadMap.buttonState.pressed = false;
-
-        }
+        events.publishTouch(event.getAction(),
+                event.getAxisValue(MotionEvent.AXIS_X),
+                event.getAxisValue(MotionEvent.AXIS_Y),
+                event.getEventTime());
 
     }
 
     public static void onSwipe(SwipeDirection swipeDirection) {
-        newTouchPadMap.swipeDirection = swipeDirection;
+        events.publishGesture(GESTURE_SWIPE, swipeDirection.ordinal(),
+                SystemClock.uptimeMillis());
 
     }
 
     public static void onSingleTap() {
-        newTouchPadMap.buttonState.singleTaped = true;
+        events.publishGesture(GESTURE_SINGLE_TAP, 0, SystemClock.uptimeMillis());
 
     }
 
     public static void onLongPress() {
-        newTouchPadMap.buttonState.longPressed = true;
+        events.publishGesture(GESTURE_LONG_PRESS, 0, SystemClock.uptimeMillis());
 
     }
 
@@ -15,16 +15,40 @@
 
 package org.gearvrf.controls.input;
 
-import org.gearvrf.controls.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
+/**
+ * The touch pad state {@link TouchPadInput#process()} applied this frame.
+ * Only the input classes in this package write it; everyone else gets the
+ * getters.
+ */
 public class TouchPadInputMap {
 
-    public float axisX;
-    public float axisY;
-    public TouchPress buttonState = new TouchPress();
-    public SwipeDirection swipeDirection = SwipeDirection.Ignore;
+    float axisX;
+    float axisY;
+    final TouchPress buttonState = new TouchPress();
+    SwipeDirection swipeDirection = SwipeDirection.Ignore;
+
+    TouchPadInputMap() {
+    }
+
+    public float getAxisX() {
+        return axisX;
+    }
+
+    public float getAxisY() {
+        return axisY;
+    }
+
+    public TouchPress getButtonState() {
+        return buttonState;
+    }
+
+    public SwipeDirection getSwipeDirection() {
+        return swipeDirection;
+    }
 
-    public void resetIntermadiateState() {
+    void resetIntermadiateState() {
         buttonState.down = false;
         buttonState.up = false;
 
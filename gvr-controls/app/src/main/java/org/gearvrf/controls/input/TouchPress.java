@@ -18,8 +18,8 @@ package org.gearvrf.controls.input;
 public class TouchPress extends Button{
     
 
-    protected boolean longPressed;
-    protected boolean singleTaped;
+    boolean longPressed;
+    boolean singleTaped;
     
     public boolean isSingleTap() {
         return singleTaped;
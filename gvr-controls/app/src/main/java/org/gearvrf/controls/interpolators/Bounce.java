@@ -1,52 +0,0 @@
-/* Copyright 2015 Samsung Electronics Co., LTD
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package org.gearvrf.controls.interpolators;
-
-import org.gearvrf.animation.GVRInterpolator;
-
-public class Bounce implements GVRInterpolator {
-
-    private static Bounce sInstance = null;
-
-    /** Get the (lazy-created) singleton */
-    public static synchronized Bounce getInstance() {
-        if (sInstance == null) {
-            sInstance = new Bounce();
-        }
-        return sInstance;
-    }
-
-    @Override
-    public float mapRatio(float ratio) {
-
-        float t = ratio;
-        float b = 0;
-        float c = 1;
-        float d = 1;
-
-        if ((t /= d) < (1 / 2.75f)) {
-            return c * (7.5625f * t * t) + b;
-        } else if (t < (2 / 2.75f)) {
-            return c * (7.5625f * (t -= (1.5f / 2.75f)) * t + .75f) + b;
-        } else if (t < (2.5 / 2.75)) {
-            return c * (7.5625f * (t -= (2.25f / 2.75f)) * t + .9375f) + b;
-        } else {
-            return c * (7.5625f * (t -= (2.625f / 2.75f)) * t + .984375f) + b;
-        }
-
-    }
-
-}
@@ -35,17 +35,11 @@ import org.gearvrf.controls.Main;
 import org.gearvrf.controls.R;
 import org.gearvrf.controls.WormShadow;
 import org.gearvrf.controls.anim.AnimationsTime;
-import org.gearvrf.controls.interpolators.Bounce;
-import org.gearvrf.controls.interpolators.CircularIn;
-import org.gearvrf.controls.interpolators.CircularOut;
-import org.gearvrf.controls.interpolators.ExpoIn;
-import org.gearvrf.controls.interpolators.ExpoOut;
-import org.gearvrf.controls.interpolators.QuadIn;
-import org.gearvrf.controls.interpolators.QuadOut;
 import org.gearvrf.controls.shaders.ColorSwapShader;
 import org.gearvrf.controls.util.Constants;
 import org.gearvrf.controls.util.RenderingOrder;
 import org.gearvrf.controls.util.Util;
+import org.gearvrf.easing.Easing;
 
 import java.util.ArrayList;
 
@@ -135,31 +129,31 @@ public class Apple extends GVRSceneObject {
         switch (motion) {
 
             case Bouncing:
-                interpolator = new Bounce();
+                interpolator = Easing.BOUNCE_OUT.baked();
 
                 break;
             case CircularIn:
-                interpolator = new CircularIn();
+                interpolator = Easing.CIRC_IN;
 
                 break;
             case CircularOut:
-                interpolator = new CircularOut();
+                interpolator = Easing.CIRC_OUT;
 
                 break;
             case ExpoIn:
-                interpolator = new ExpoIn();
+                interpolator = Easing.EXPO_IN.baked();
 
                 break;
             case ExpoOut:
-                interpolator = new ExpoOut();
+                interpolator = Easing.EXPO_OUT.baked();
 
                 break;
             case QuadIn:
-                interpolator = new QuadIn();
+                interpolator = Easing.QUAD_IN;
 
                 break;
             case QuadOut:
-                interpolator = new QuadOut();
+                interpolator = Easing.QUAD_OUT;
 
                 break;
             default:
@@ -108,7 +108,7 @@ public class TouchPad extends GVRSceneObject {
     }
 
     private void updateIndicatorTap() {
-        if (TouchPadInput.getCurrent().buttonState.isSingleTap()) {
+        if (TouchPadInput.getCurrent().getButtonState().isSingleTap()) {
 
             indicator.pressed();
 
@@ -120,13 +120,13 @@ public class TouchPad extends GVRSceneObject {
 
     private void updateLongPress() {
 
-        if (TouchPadInput.getCurrent().buttonState.isLongPressed()) {
+        if (TouchPadInput.getCurrent().getButtonState().isLongPressed()) {
 
             indicatorLongPress.pressed();
 
         }
         
-        if (TouchPadInput.getCurrent().buttonState.isUp()) {
+        if (TouchPadInput.getCurrent().getButtonState().isUp()) {
 
             indicatorLongPress.pressedRelese();
 
@@ -136,7 +136,7 @@ public class TouchPad extends GVRSceneObject {
 
     private void updateArrows() {
 
-        switch (TouchPadInput.getCurrent().swipeDirection) {
+        switch (TouchPadInput.getCurrent().getSwipeDirection()) {
             case Up:
                 aroowUp.animateArrowOn();
                 break;
@@ -0,0 +1,342 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.gearvrf.scenenode.SceneNode;
+import org.gearvrf.scenenode.SimSceneNode;
+import org.junit.Test;
+
+/**
+ * Checks {@link WormChain} and {@link ChainSolver}: that the worm moves as it
+ * did when every step went through the scene nodes, and that FABRIK keeps its
+ * links at length and reaches, or stretches toward, its target. With
+ * -Dbenchmark=true it also times both ways of stepping chains of 10, 100 and
+ * 1000 segments chasing a circling head and counts the transform reads and
+ * writes each makes per step.
+ *
+ * The old per-node step is kept here, generalized from three segments to
+ * any number the way it was written: every link that stretches refaces
+ * every follower.
+ */
+public class WormChainTest {
+
+    private static final int[] SIZES = { 10, 100, 1000 };
+    private static final int STEPS = 2000;
+    private static final float SCALE = .4f;
+    private static final float TOLERANCE = 1e-4f;
+
+    private static final int BENCHMARK_MILLIS = 200;
+
+    /*
+     * The worm's three segments, stepped both ways side by side.
+     */
+    @Test
+    public void wormMovesAsPerNodeStepDid() {
+        SimSceneNode camera = new SimSceneNode();
+        SimSceneNode[] before = chain(3);
+        SimSceneNode[] after = chain(3);
+        LegacyChain legacy = new LegacyChain(before, lengths(3), speeds(3));
+        WormChain chain = new WormChain(after[0], after[1], after[2]);
+
+        for (int step = 0; step < STEPS; ++step) {
+            moveHead(before[0], step);
+            moveHead(after[0], step);
+            legacy.step(camera);
+            chain.step(camera);
+            for (int s = 1; s < 3; ++s) {
+                assertEquals(before[s].getPositionX(), after[s].getPositionX(), 1e-6f);
+                assertEquals(before[s].getPositionY(), after[s].getPositionY(), 1e-6f);
+                assertEquals(before[s].getPositionZ(), after[s].getPositionZ(), 1e-6f);
+            }
+        }
+        // only the middle is compared: the solver faces the end toward the
+        // middle's new position, where the old step used the one before
+        assertEquals(yaw(before[1]), yaw(after[1]), 1e-3f);
+    }
+
+    @Test
+    public void fabrikHoldsLinksAndReaches() {
+        Random random = new Random(1);
+        for (int size : new int[] { 10, 100 }) {
+            ChainSolver solver = new ChainSolver(size);
+            float total = 0;
+            for (int link = 0; link < size - 1; ++link) {
+                float length = .1f + random.nextFloat() * .2f;
+                solver.setLink(link, length, 0);
+                total += length;
+            }
+            for (int s = 0; s < size; ++s) {
+                solver.setPosition(s, random.nextFloat(), random.nextFloat(), random.nextFloat());
+            }
+
+            // free reach: one pass puts the lead on the target
+            assertEquals(0, solver.reach(3, 1, -2, 1, 0), 0);
+            assertEquals(3, solver.getPositionX(0), 0);
+            assertTrue(linkError(solver) <= TOLERANCE);
+
+            // anchored reach within the chain's length
+            solver.setAnchor(0, 0, 0);
+            float left = solver.reach(total * .3f, total * .2f, -total * .1f, 50, 1e-3f);
+            assertTrue("left " + left, left <= 1e-3f);
+            assertEquals(0, solver.getPositionX(size - 1), 0);
+            assertTrue(linkError(solver) <= TOLERANCE);
+
+            // out of reach: stretched straight toward the target
+            left = solver.reach(total * 2, 0, 0, 50, 1e-3f);
+            assertEquals(total, left, TOLERANCE * total);
+            assertEquals(total, solver.getPositionX(0), TOLERANCE * total);
+            assertEquals(0, solver.getPositionY(0), TOLERANCE);
+            solver.clearAnchor();
+        }
+    }
+
+    /*
+     * Once moving, the solver reads the head and camera and writes only what
+     * changed; the old step read every node for every stretched link.
+     */
+    @Test
+    public void solverTouchesFewerTransforms() {
+        for (int size : new int[] { 10, 100 }) {
+            SimSceneNode camera = new SimSceneNode();
+            SimSceneNode[] before = chain(size);
+            SimSceneNode[] after = chain(size);
+            LegacyChain legacy = new LegacyChain(before, lengths(size), speeds(size));
+            WormChain chain = new WormChain(after, lengths(size), speeds(size));
+            for (int step = 0; step < 200; ++step) {
+                step(legacy, null, before, camera, step);
+                step(null, chain, after, camera, step);
+            }
+
+            long[] legacyTraffic = traffic(legacy, null, before, camera);
+            long[] solverTraffic = traffic(null, chain, after, camera);
+            assertTrue(solverTraffic[0] <= legacyTraffic[0]);
+            assertTrue(solverTraffic[1] <= legacyTraffic[1]);
+            assertTrue(solverTraffic[1] <= 2 * size);
+        }
+    }
+
+    @Test
+    public void benchmarkStep() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        System.out.println(String.format("%-9s %14s %14s %8s %23s %23s", "", "steps/s", "",
+                "", "reads/step", "writes/step"));
+        System.out.println(String.format("%-9s %14s %14s %8s %11s %11s %11s %11s",
+                "segments", "per node", "solver", "", "per node", "solver", "per node",
+                "solver"));
+        for (int size : SIZES) {
+            benchmark(size, BENCHMARK_MILLIS);
+        }
+    }
+
+    private static void benchmark(int size, int millis) {
+        SimSceneNode camera = new SimSceneNode();
+        SimSceneNode[] before = chain(size);
+        SimSceneNode[] after = chain(size);
+        LegacyChain legacy = new LegacyChain(before, lengths(size), speeds(size));
+        WormChain chain = new WormChain(after, lengths(size), speeds(size));
+
+        double legacyRate = rate(legacy, null, before, camera, millis);
+        double solverRate = rate(null, chain, after, camera, millis);
+
+        // traffic of one step, once the chain is moving
+        long[] legacyTraffic = traffic(legacy, null, before, camera);
+        long[] solverTraffic = traffic(null, chain, after, camera);
+
+        System.out.println(String.format("%-9d %,14.0f %,14.0f %7.1fx %,11d %,11d %,11d %,11d",
+                size, legacyRate, solverRate, solverRate / legacyRate, legacyTraffic[0],
+                solverTraffic[0], legacyTraffic[1], solverTraffic[1]));
+    }
+
+    private static double rate(LegacyChain legacy, WormChain chain, SimSceneNode[] nodes,
+            SimSceneNode camera, int millis) {
+        int step = 0;
+        // a few steps to get the chain moving; the old step runs 1000
+        // segments at tens of steps a second
+        for (int i = 0; i < 20; ++i) {
+            step(legacy, chain, nodes, camera, step++);
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1000000L;
+        while (System.nanoTime() < end) {
+            step(legacy, chain, nodes, camera, step++);
+            ++count;
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static long[] traffic(LegacyChain legacy, WormChain chain, SimSceneNode[] nodes,
+            SimSceneNode camera) {
+        moveHead(nodes[0], 0);
+        camera.resetCounters();
+        for (SimSceneNode node : nodes) {
+            node.resetCounters();
+        }
+        if (legacy != null) {
+            legacy.step(camera);
+        } else {
+            chain.step(camera);
+        }
+        long reads = camera.getReadCount();
+        long writes = camera.getWriteCount();
+        for (SimSceneNode node : nodes) {
+            reads += node.getReadCount();
+            writes += node.getWriteCount();
+        }
+        return new long[] { reads, writes };
+    }
+
+    private static void step(LegacyChain legacy, WormChain chain, SimSceneNode[] nodes,
+            SimSceneNode camera, int step) {
+        moveHead(nodes[0], step);
+        if (legacy != null) {
+            legacy.step(camera);
+        } else {
+            chain.step(camera);
+        }
+    }
+
+    /*
+     * Segments trailing the head in a line, at their link lengths.
+     */
+    private static SimSceneNode[] chain(int size) {
+        float[] lengths = lengths(size);
+        SimSceneNode[] nodes = new SimSceneNode[size];
+        float z = -3;
+        for (int s = 0; s < size; ++s) {
+            nodes[s] = new SimSceneNode();
+            nodes[s].setScale(SCALE, SCALE, SCALE);
+            if (s > 0) {
+                z += lengths[s - 1] * SCALE;
+            }
+            nodes[s].setPosition(0, -.9f, z);
+        }
+        return nodes;
+    }
+
+    /*
+     * The head circles three units ahead of the camera, weaving as it goes.
+     */
+    private static void moveHead(SceneNode head, int step) {
+        double angle = step * .02;
+        head.setPosition((float) (2 * Math.sin(angle)), -.9f,
+                (float) (-3 - 2 * Math.cos(angle) + .3 * Math.sin(angle * 7)));
+    }
+
+    private static float[] lengths(int size) {
+        float[] lengths = new float[size - 1];
+        for (int link = 0; link < lengths.length; ++link) {
+            lengths[link] = link % 2 == 0 ? .575f : .475f;
+        }
+        return lengths;
+    }
+
+    private static float[] speeds(int size) {
+        float[] speeds = new float[size - 1];
+        for (int link = 0; link < speeds.length; ++link) {
+            speeds[link] = link % 2 == 0 ? .055f : .065f;
+        }
+        return speeds;
+    }
+
+    private static float linkError(ChainSolver solver) {
+        float error = 0;
+        for (int s = 1; s < solver.getCount(); ++s) {
+            float dx = solver.getPositionX(s) - solver.getPositionX(s - 1);
+            float dy = solver.getPositionY(s) - solver.getPositionY(s - 1);
+            float dz = solver.getPositionZ(s) - solver.getPositionZ(s - 1);
+            float length = solver.getLinkLength(s - 1);
+            error = Math.max(error,
+                    Math.abs((float) Math.sqrt(dx * dx + dy * dy + dz * dz) - length) / length);
+        }
+        return error;
+    }
+
+    /*
+     * Yaw in degrees of a rotation about y.
+     */
+    private static float yaw(SceneNode node) {
+        return (float) Math.toDegrees(2 * Math.atan2(node.getRotationY(), node.getRotationW()));
+    }
+
+    /*
+     * WormChain as it was before ChainSolver: every value read from and
+     * written to the nodes as it's needed.
+     */
+    private static class LegacyChain {
+
+        private final SceneNode[] segments;
+        private final float[] lengths;
+        private final float[] speeds;
+
+        LegacyChain(SceneNode[] segments, float[] lengths, float[] speeds) {
+            this.segments = segments;
+            this.lengths = lengths;
+            this.speeds = speeds;
+        }
+
+        void step(SceneNode camera) {
+            SceneNode head = segments[0];
+            for (int s = 1; s < segments.length; ++s) {
+                SceneNode leader = segments[s - 1];
+                SceneNode follower = segments[s];
+                if (distance(leader, follower) > lengths[s - 1] * follower.getScaleX()) {
+
+                    float chainSpeed = speeds[s - 1] * distance(head, camera);
+
+                    faceSegments();
+                    follow(follower, leader, chainSpeed);
+                }
+            }
+        }
+
+        private void faceSegments() {
+            for (int s = 1; s < segments.length; ++s) {
+                segments[s].setRotationByAxis(getYRotationAngle(segments[s], segments[s - 1]),
+                        0, 1, 0);
+            }
+        }
+
+        private static void follow(SceneNode follower, SceneNode leader, float chainSpeed) {
+            float x = follower.getPositionX();
+            float y = follower.getPositionY();
+            float z = follower.getPositionZ();
+
+            follower.setPosition(x + (leader.getPositionX() - x) * chainSpeed,
+                    y + (leader.getPositionY() - y) * chainSpeed,
+                    z + (leader.getPositionZ() - z) * chainSpeed);
+        }
+
+        private static float distance(SceneNode a, SceneNode b) {
+            float dx = a.getPositionX() - b.getPositionX();
+            float dy = a.getPositionY() - b.getPositionY();
+            float dz = a.getPositionZ() - b.getPositionZ();
+            return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        private static float getYRotationAngle(SceneNode rotatingObject, SceneNode targetObject) {
+            return (float) Math.toDegrees(Math.atan2(
+                    targetObject.getPositionX() - rotatingObject.getPositionX(),
+                    targetObject.getPositionZ() - rotatingObject.getPositionZ()));
+        }
+    }
+}
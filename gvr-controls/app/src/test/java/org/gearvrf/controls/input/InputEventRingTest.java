@@ -0,0 +1,301 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.controls.input;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link InputEventRing} on one thread: every record type comes back
+ * as published, a full ring drops and counts, and a drain hands over only
+ * what was published before it. With -Dbenchmark=true it also stresses it
+ * with a producer thread standing in for the UI thread and a consumer
+ * draining at 60 Hz like the GL thread. Every stress record carries its
+ * sequence number in all of its fields, so the consumer can tell a lost,
+ * repeated or reordered record from a torn one, where some fields come from
+ * one publish and some from another.
+ *
+ * The paced run must not drop anything; the flat out run retries when the
+ * ring is full, to push the memory ordering as hard as the machine allows.
+ */
+public class InputEventRingTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+    private static final long STRESS_NANOS = 1000000000L;
+    private static final int STRESS_RATE = 10000;
+    private static final int STRESS_CAPACITY = 1024;
+
+    /*
+     * Keeps a copy of every record it is handed.
+     */
+    private static class Recorder implements InputEventRing.Handler {
+        final List<long[]> records = new ArrayList<long[]>();
+        final List<float[]> axes = new ArrayList<float[]>();
+
+        @Override
+        public void onEvent(int type, int code, int action, float[] axes, long timestamp) {
+            records.add(new long[] {
+                    type, code, action, timestamp
+            });
+            this.axes.add(axes.clone());
+        }
+    }
+
+    @Test
+    public void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(2, new InputEventRing(0).capacity());
+        assertEquals(2, new InputEventRing(2).capacity());
+        assertEquals(4, new InputEventRing(3).capacity());
+        assertEquals(1024, new InputEventRing(1024).capacity());
+        assertEquals(2048, new InputEventRing(1025).capacity());
+    }
+
+    @Test
+    public void deliversEveryTypeAsPublished() {
+        InputEventRing ring = new InputEventRing(8);
+        assertTrue(ring.publishKey(21, 1, 100L));
+        assertTrue(ring.publishAxes(3, 1f, 2f, 3f, 4f, 5f, 6f, 200L));
+        assertTrue(ring.publishTouch(2, 0.5f, -0.5f, 300L));
+        assertTrue(ring.publishGesture(7, 9, 400L));
+
+        Recorder recorder = new Recorder();
+        assertEquals(4, ring.drain(recorder));
+
+        assertArrayEquals(new long[] {
+                InputEventRing.TYPE_KEY, 21, 1, 100L
+        }, recorder.records.get(0));
+        assertArrayEquals(new long[] {
+                InputEventRing.TYPE_AXES, 3, 0, 200L
+        }, recorder.records.get(1));
+        assertArrayEquals(new long[] {
+                InputEventRing.TYPE_TOUCH, 0, 2, 300L
+        }, recorder.records.get(2));
+        assertArrayEquals(new long[] {
+                InputEventRing.TYPE_GESTURE, 7, 9, 400L
+        }, recorder.records.get(3));
+
+        assertArrayEquals(new float[6], recorder.axes.get(0), 0f);
+        assertArrayEquals(new float[] {
+                1f, 2f, 3f, 4f, 5f, 6f
+        }, recorder.axes.get(1), 0f);
+        assertArrayEquals(new float[] {
+                0.5f, -0.5f, 0f, 0f, 0f, 0f
+        }, recorder.axes.get(2), 0f);
+        assertArrayEquals(new float[6], recorder.axes.get(3), 0f);
+
+        assertEquals(0, ring.drain(recorder));
+    }
+
+    @Test
+    public void reusedSlotsDoNotKeepOldAxes() {
+        InputEventRing ring = new InputEventRing(2);
+        Recorder recorder = new Recorder();
+        for (int i = 0; i < 5; ++i) {
+            assertTrue(ring.publishAxes(i, 1f, 1f, 1f, 1f, 1f, 1f, i));
+            assertTrue(ring.publishKey(i, 0, i));
+            ring.drain(recorder);
+        }
+        for (int i = 1; i < recorder.axes.size(); i += 2) {
+            assertArrayEquals(new float[6], recorder.axes.get(i), 0f);
+        }
+    }
+
+    @Test
+    public void fullRingDropsAndCounts() {
+        InputEventRing ring = new InputEventRing(4);
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(ring.publishKey(i, 0, i));
+        }
+        assertFalse(ring.publishKey(4, 0, 4));
+        assertFalse(ring.publishAxes(5, 0f, 0f, 0f, 0f, 0f, 0f, 5));
+        assertFalse(ring.publishTouch(0, 0f, 0f, 6));
+        assertFalse(ring.publishGesture(7, 0, 7));
+        assertEquals(4, ring.getDroppedCount());
+
+        Recorder recorder = new Recorder();
+        assertEquals(4, ring.drain(recorder));
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(i, recorder.records.get(i)[1]);
+        }
+        assertTrue(ring.publishKey(8, 0, 8));
+        assertEquals(4, ring.getDroppedCount());
+    }
+
+    @Test
+    public void drainLeavesLaterRecordsForTheNextCall() {
+        final InputEventRing ring = new InputEventRing(8);
+        ring.publishKey(1, 0, 1L);
+        ring.publishKey(2, 0, 2L);
+        final List<Integer> codes = new ArrayList<Integer>();
+
+        // publishing from inside the handler stands in for the UI thread racing a drain
+        int drained = ring.drain(new InputEventRing.Handler() {
+            @Override
+            public void onEvent(int type, int code, int action, float[] axes, long timestamp) {
+                codes.add(code);
+                ring.publishKey(code + 10, 0, timestamp + 10);
+            }
+        });
+        assertEquals(2, drained);
+        assertEquals(2, codes.size());
+
+        Recorder recorder = new Recorder();
+        assertEquals(2, ring.drain(recorder));
+        assertEquals(11, recorder.records.get(0)[1]);
+        assertEquals(12, recorder.records.get(1)[1]);
+    }
+
+    @Test
+    public void stressPaced() throws InterruptedException {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        stress("paced", STRESS_RATE, false);
+    }
+
+    @Test
+    public void stressFlatOut() throws InterruptedException {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        stress("flat out", 0, true);
+    }
+
+    /*
+     * A rate of 0 means as fast as possible.
+     */
+    private static void stress(String name, final int rate, final boolean retry)
+            throws InterruptedException {
+        final InputEventRing ring = new InputEventRing(STRESS_CAPACITY);
+        final long[] published = new long[1];
+
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                long sequence = 0;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now - start >= STRESS_NANOS) {
+                        break;
+                    }
+                    if (rate > 0 && sequence * 1000000000L / rate > now - start) {
+                        Thread.yield();
+                        continue;
+                    }
+                    if (publish(ring, sequence)) {
+                        ++sequence;
+                    } else if (!retry) {
+                        // dropped: the consumer will see the gap
+                        ++sequence;
+                    }
+                }
+                published[0] = sequence;
+            }
+        }, "producer");
+
+        Checker checker = new Checker();
+        long start = System.nanoTime();
+        long maxDrain = 0;
+        producer.start();
+        long frame = start;
+        while (producer.isAlive()) {
+            frame += FRAME_NANOS;
+            sleep(frame - System.nanoTime());
+            maxDrain = Math.max(maxDrain, ring.drain(checker));
+        }
+        producer.join();
+        ring.drain(checker);
+        long elapsed = System.nanoTime() - start;
+
+        long dropped = retry ? 0 : ring.getDroppedCount();
+        System.out.println(String.format(
+                "InputEventRing %-9s %9d published %9d received %6d dropped %6d bad"
+                        + "   %8.0f events/s  max %d per frame",
+                name, published[0], checker.next, dropped, checker.errors,
+                checker.next * 1e9 / elapsed, maxDrain));
+
+        assertEquals(checker.firstError, 0, checker.errors);
+        assertEquals(0, dropped);
+        assertEquals(published[0], checker.next);
+        assertTrue(published[0] > 0);
+    }
+
+    private static boolean publish(InputEventRing ring, long sequence) {
+        int code = (int) sequence;
+        if ((sequence & 1) == 0) {
+            return ring.publishKey(code, action(sequence), timestamp(sequence));
+        }
+        return ring.publishAxes(code, axis(sequence, 0), axis(sequence, 1), axis(sequence, 2),
+                axis(sequence, 3), axis(sequence, 4), axis(sequence, 5), timestamp(sequence));
+    }
+
+    private static int action(long sequence) {
+        return (int) (sequence * 0x9e3779b1L);
+    }
+
+    private static long timestamp(long sequence) {
+        return sequence ^ 0x5deece66dL;
+    }
+
+    /*
+     * Exact in a float: below 2^24.
+     */
+    private static float axis(long sequence, int index) {
+        return (float) ((sequence + index) & 0xffffff);
+    }
+
+    private static class Checker implements InputEventRing.Handler {
+        long next;
+        long errors;
+        String firstError;
+
+        @Override
+        public void onEvent(int type, int code, int action, float[] axes, long timestamp) {
+            long sequence = timestamp ^ 0x5deece66dL;
+            boolean good = sequence == next && code == (int) sequence
+                    && action == ((sequence & 1) == 0 ? action(sequence) : 0)
+                    && type == ((sequence & 1) == 0 ? InputEventRing.TYPE_KEY
+                            : InputEventRing.TYPE_AXES);
+            for (int i = 0; good && i < InputEventRing.AXIS_COUNT; ++i) {
+                good = axes[i] == (type == InputEventRing.TYPE_KEY ? 0f : axis(sequence, i));
+            }
+            if (!good) {
+                if (firstError == null) {
+                    firstError = "bad record at " + next + ": sequence " + sequence + " code "
+                            + code + " action " + action;
+                }
+                ++errors;
+            }
+            next = sequence + 1;
+        }
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
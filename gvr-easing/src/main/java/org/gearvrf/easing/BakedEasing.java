@@ -0,0 +1,73 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.easing;
+
+import org.gearvrf.animation.GVRInterpolator;
+
+/**
+ * An {@link Easing} sampled at evenly spaced points and linearly
+ * interpolated between them. Ratios outside [0, 1] are clamped.
+ *
+ * Get one from {@link Easing#baked()} or {@link Easing#baked(int)}.
+ */
+public final class BakedEasing implements GVRInterpolator {
+
+    private final Easing source;
+    private final int resolution;
+    private final float[] table;
+
+    BakedEasing(Easing source, int resolution) {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("resolution must be at least 1");
+        }
+        this.source = source;
+        this.resolution = resolution;
+        table = new float[resolution + 1];
+        for (int i = 0; i <= resolution; ++i) {
+            table[i] = source.evaluate((float) i / resolution);
+        }
+    }
+
+    public Easing getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of intervals the curve was sampled into.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public float mapRatio(float ratio) {
+        float position = ratio * resolution;
+        if (!(position > 0)) {
+            return table[0];
+        }
+        int index = (int) position;
+        if (index >= resolution) {
+            return table[resolution];
+        }
+        float low = table[index];
+        return low + (table[index + 1] - low) * (position - index);
+    }
+
+    @Override
+    public String toString() {
+        return source + " baked " + resolution;
+    }
+}
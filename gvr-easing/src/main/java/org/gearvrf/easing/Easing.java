@@ -0,0 +1,446 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.easing;
+
+import org.gearvrf.animation.GVRInterpolator;
+
+/**
+ * Robert Penner's easing equations, plus CSS-style cubic Bezier curves, as
+ * shared {@link GVRInterpolator}s. Every curve maps 0 to 0 and 1 to 1 and is
+ * stateless, so the constants can be handed to any number of animations at
+ * once instead of allocating an interpolator per animation.
+ *
+ * Each curve can also be {@linkplain #baked() baked} into a lookup table,
+ * trading a little accuracy for not calling {@code pow}, {@code sin} or a
+ * Bezier solver on every frame. That pays off for sine, expo, elastic,
+ * bounce and the Bezier curves; the polynomials and back are as cheap
+ * evaluated directly, and circ is vertical at its ends, where a table
+ * follows it poorly. See {@link EasingBenchmark} for the numbers.
+ */
+public abstract class Easing implements GVRInterpolator {
+
+    /** Table size used by {@link #baked()}. */
+    public static final int DEFAULT_RESOLUTION = 256;
+
+    private static final float PI = (float) Math.PI;
+    private static final float BACK_OVERSHOOT = 1.70158f;
+    private static final float ELASTIC_PERIOD = .3f;
+
+    public static final Easing LINEAR = new Easing("linear") {
+        @Override
+        public float evaluate(float t) {
+            return t;
+        }
+    };
+
+    public static final Easing QUAD_IN = new Easing("quad in") {
+        @Override
+        public float evaluate(float t) {
+            return t * t;
+        }
+    };
+
+    public static final Easing QUAD_OUT = new Easing("quad out") {
+        @Override
+        public float evaluate(float t) {
+            return -t * (t - 2);
+        }
+    };
+
+    public static final Easing QUAD_IN_OUT = new Easing("quad in out") {
+        @Override
+        public float evaluate(float t) {
+            if ((t *= 2) < 1) {
+                return .5f * t * t;
+            }
+            return -.5f * ((--t) * (t - 2) - 1);
+        }
+    };
+
+    public static final Easing CUBIC_IN = new Easing("cubic in") {
+        @Override
+        public float evaluate(float t) {
+            return t * t * t;
+        }
+    };
+
+    public static final Easing CUBIC_OUT = new Easing("cubic out") {
+        @Override
+        public float evaluate(float t) {
+            return (t -= 1) * t * t + 1;
+        }
+    };
+
+    public static final Easing CUBIC_IN_OUT = new Easing("cubic in out") {
+        @Override
+        public float evaluate(float t) {
+            if ((t *= 2) < 1) {
+                return .5f * t * t * t;
+            }
+            return .5f * ((t -= 2) * t * t + 2);
+        }
+    };
+
+    public static final Easing QUART_IN = new Easing("quart in") {
+        @Override
+        public float evaluate(float t) {
+            return t * t * t * t;
+        }
+    };
+
+    public static final Easing QUART_OUT = new Easing("quart out") {
+        @Override
+        public float evaluate(float t) {
+            return -((t -= 1) * t * t * t - 1);
+        }
+    };
+
+    public static final Easing QUART_IN_OUT = new Easing("quart in out") {
+        @Override
+        public float evaluate(float t) {
+            if ((t *= 2) < 1) {
+                return .5f * t * t * t * t;
+            }
+            return -.5f * ((t -= 2) * t * t * t - 2);
+        }
+    };
+
+    public static final Easing QUINT_IN = new Easing("quint in") {
+        @Override
+        public float evaluate(float t) {
+            return t * t * t * t * t;
+        }
+    };
+
+    public static final Easing QUINT_OUT = new Easing("quint out") {
+        @Override
+        public float evaluate(float t) {
+            return (t -= 1) * t * t * t * t + 1;
+        }
+    };
+
+    public static final Easing QUINT_IN_OUT = new Easing("quint in out") {
+        @Override
+        public float evaluate(float t) {
+            if ((t *= 2) < 1) {
+                return .5f * t * t * t * t * t;
+            }
+            return .5f * ((t -= 2) * t * t * t * t + 2);
+        }
+    };
+
+    public static final Easing SINE_IN = new Easing("sine in") {
+        @Override
+        public float evaluate(float t) {
+            return 1 - (float) Math.cos(t * PI / 2);
+        }
+    };
+
+    public static final Easing SINE_OUT = new Easing("sine out") {
+        @Override
+        public float evaluate(float t) {
+            return (float) Math.sin(t * PI / 2);
+        }
+    };
+
+    public static final Easing SINE_IN_OUT = new Easing("sine in out") {
+        @Override
+        public float evaluate(float t) {
+            return -.5f * ((float) Math.cos(PI * t) - 1);
+        }
+    };
+
+    public static final Easing EXPO_IN = new Easing("expo in") {
+        @Override
+        public float evaluate(float t) {
+            return t == 0 ? 0 : (float) Math.pow(2, 10 * (t - 1));
+        }
+    };
+
+    public static final Easing EXPO_OUT = new Easing("expo out") {
+        @Override
+        public float evaluate(float t) {
+            return t == 1 ? 1 : 1 - (float) Math.pow(2, -10 * t);
+        }
+    };
+
+    public static final Easing EXPO_IN_OUT = new Easing("expo in out") {
+        @Override
+        public float evaluate(float t) {
+            if (t == 0 || t == 1) {
+                return t;
+            }
+            if ((t *= 2) < 1) {
+                return .5f * (float) Math.pow(2, 10 * (t - 1));
+            }
+            return .5f * (2 - (float) Math.pow(2, -10 * (t - 1)));
+        }
+    };
+
+    public static final Easing CIRC_IN = new Easing("circ in") {
+        @Override
+        public float evaluate(float t) {
+            return 1 - (float) Math.sqrt(1 - t * t);
+        }
+    };
+
+    public static final Easing CIRC_OUT = new Easing("circ out") {
+        @Override
+        public float evaluate(float t) {
+            return (float) Math.sqrt(1 - (t -= 1) * t);
+        }
+    };
+
+    public static final Easing CIRC_IN_OUT = new Easing("circ in out") {
+        @Override
+        public float evaluate(float t) {
+            if ((t *= 2) < 1) {
+                return -.5f * ((float) Math.sqrt(1 - t * t) - 1);
+            }
+            return .5f * ((float) Math.sqrt(1 - (t -= 2) * t) + 1);
+        }
+    };
+
+    public static final Easing BACK_IN = new Easing("back in") {
+        @Override
+        public float evaluate(float t) {
+            return t * t * ((BACK_OVERSHOOT + 1) * t - BACK_OVERSHOOT);
+        }
+    };
+
+    public static final Easing BACK_OUT = new Easing("back out") {
+        @Override
+        public float evaluate(float t) {
+            return (t -= 1) * t * ((BACK_OVERSHOOT + 1) * t + BACK_OVERSHOOT) + 1;
+        }
+    };
+
+    public static final Easing BACK_IN_OUT = new Easing("back in out") {
+        @Override
+        public float evaluate(float t) {
+            float s = BACK_OVERSHOOT * 1.525f;
+            if ((t *= 2) < 1) {
+                return .5f * (t * t * ((s + 1) * t - s));
+            }
+            return .5f * ((t -= 2) * t * ((s + 1) * t + s) + 2);
+        }
+    };
+
+    public static final Easing ELASTIC_IN = new Easing("elastic in") {
+        @Override
+        public float evaluate(float t) {
+            if (t == 0 || t == 1) {
+                return t;
+            }
+            float p = ELASTIC_PERIOD;
+            float s = p / 4;
+            return -(float) Math.pow(2, 10 * (t -= 1)) * (float) Math.sin((t - s) * (2 * PI) / p);
+        }
+    };
+
+    public static final Easing ELASTIC_OUT = new Easing("elastic out") {
+        @Override
+        public float evaluate(float t) {
+            if (t == 0 || t == 1) {
+                return t;
+            }
+            float p = ELASTIC_PERIOD;
+            float s = p / 4;
+            return (float) Math.pow(2, -10 * t) * (float) Math.sin((t - s) * (2 * PI) / p) + 1;
+        }
+    };
+
+    public static final Easing ELASTIC_IN_OUT = new Easing("elastic in out") {
+        @Override
+        public float evaluate(float t) {
+            if (t == 0 || t == 1) {
+                return t;
+            }
+            float p = ELASTIC_PERIOD * 1.5f;
+            float s = p / 4;
+            if ((t *= 2) < 1) {
+                return -.5f * (float) Math.pow(2, 10 * (t -= 1))
+                        * (float) Math.sin((t - s) * (2 * PI) / p);
+            }
+            return .5f * (float) Math.pow(2, -10 * (t -= 1))
+                    * (float) Math.sin((t - s) * (2 * PI) / p) + 1;
+        }
+    };
+
+    public static final Easing BOUNCE_IN = new Easing("bounce in") {
+        @Override
+        public float evaluate(float t) {
+            return 1 - bounceOut(1 - t);
+        }
+    };
+
+    public static final Easing BOUNCE_OUT = new Easing("bounce out") {
+        @Override
+        public float evaluate(float t) {
+            return bounceOut(t);
+        }
+    };
+
+    public static final Easing BOUNCE_IN_OUT = new Easing("bounce in out") {
+        @Override
+        public float evaluate(float t) {
+            if (t < .5f) {
+                return .5f * (1 - bounceOut(1 - t * 2));
+            }
+            return .5f * bounceOut(t * 2 - 1) + .5f;
+        }
+    };
+
+    /** The CSS {@code ease} timing function. */
+    public static final Easing EASE = cubicBezier(.25f, .1f, .25f, 1);
+    /** The CSS {@code ease-in} timing function. */
+    public static final Easing EASE_IN = cubicBezier(.42f, 0, 1, 1);
+    /** The CSS {@code ease-out} timing function. */
+    public static final Easing EASE_OUT = cubicBezier(0, 0, .58f, 1);
+    /** The CSS {@code ease-in-out} timing function. */
+    public static final Easing EASE_IN_OUT = cubicBezier(.42f, 0, .58f, 1);
+
+    private final String name;
+    private BakedEasing baked;
+
+    protected Easing(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param t
+     *            progress, from 0 to 1.
+     * @return eased progress: 0 at 0 and 1 at 1, possibly overshooting in
+     *         between.
+     */
+    public abstract float evaluate(float t);
+
+    @Override
+    public float mapRatio(float ratio) {
+        return evaluate(ratio);
+    }
+
+    /**
+     * The curve sampled into a {@link #DEFAULT_RESOLUTION} table, built on
+     * first use and shared from then on.
+     */
+    public synchronized BakedEasing baked() {
+        if (baked == null) {
+            baked = new BakedEasing(this, DEFAULT_RESOLUTION);
+        }
+        return baked;
+    }
+
+    /**
+     * The curve sampled into a table of {@code resolution} intervals. Not
+     * cached; keep the result.
+     */
+    public BakedEasing baked(int resolution) {
+        return new BakedEasing(this, resolution);
+    }
+
+    /**
+     * A cubic Bezier from (0, 0) to (1, 1) with control points (x1, y1) and
+     * (x2, y2), the way CSS {@code cubic-bezier()} defines it.
+     *
+     * @throws IllegalArgumentException
+     *             if x1 or x2 is outside [0, 1], which would make the curve
+     *             go back in time.
+     */
+    public static Easing cubicBezier(float x1, float y1, float x2, float y2) {
+        return new CubicBezier(x1, y1, x2, y2);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static float bounceOut(float t) {
+        if (t < 1 / 2.75f) {
+            return 7.5625f * t * t;
+        } else if (t < 2 / 2.75f) {
+            return 7.5625f * (t -= 1.5f / 2.75f) * t + .75f;
+        } else if (t < 2.5f / 2.75f) {
+            return 7.5625f * (t -= 2.25f / 2.75f) * t + .9375f;
+        } else {
+            return 7.5625f * (t -= 2.625f / 2.75f) * t + .984375f;
+        }
+    }
+
+    private static class CubicBezier extends Easing {
+        private static final float EPSILON = 1e-6f;
+
+        // x(s) = ((ax * s + bx) * s + cx) * s, likewise y
+        private final float ax, bx, cx;
+        private final float ay, by, cy;
+
+        CubicBezier(float x1, float y1, float x2, float y2) {
+            super("cubic-bezier(" + x1 + ", " + y1 + ", " + x2 + ", " + y2 + ")");
+            if (x1 < 0 || x1 > 1 || x2 < 0 || x2 > 1) {
+                throw new IllegalArgumentException("x1 and x2 must be within [0, 1]");
+            }
+            cx = 3 * x1;
+            bx = 3 * (x2 - x1) - cx;
+            ax = 1 - cx - bx;
+            cy = 3 * y1;
+            by = 3 * (y2 - y1) - cy;
+            ay = 1 - cy - by;
+        }
+
+        @Override
+        public float evaluate(float t) {
+            float s = solve(t);
+            return ((ay * s + by) * s + cy) * s;
+        }
+
+        /*
+         * The curve parameter where x(s) == t: a few Newton steps, falling
+         * back to bisection where the slope is too flat for them.
+         */
+        private float solve(float t) {
+            float s = t;
+            for (int i = 0; i < 8; ++i) {
+                float error = ((ax * s + bx) * s + cx) * s - t;
+                if (Math.abs(error) < EPSILON) {
+                    return s;
+                }
+                float slope = (3 * ax * s + 2 * bx) * s + cx;
+                if (Math.abs(slope) < EPSILON) {
+                    break;
+                }
+                s -= error / slope;
+            }
+
+            float low = 0;
+            float high = 1;
+            s = t;
+            while (high - low > EPSILON) {
+                float x = ((ax * s + bx) * s + cx) * s;
+                if (Math.abs(x - t) < EPSILON) {
+                    break;
+                }
+                if (x < t) {
+                    low = s;
+                } else {
+                    high = s;
+                }
+                s = (low + high) / 2;
+            }
+            return s;
+        }
+    }
+}
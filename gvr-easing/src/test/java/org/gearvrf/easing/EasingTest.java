@@ -0,0 +1,261 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.easing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.gearvrf.animation.GVRInterpolator;
+import org.junit.Test;
+
+/**
+ * Checks {@link Easing}: that the curves the samples' own interpolator
+ * classes used to compute come out the same, that every curve starts at 0
+ * and ends at 1, and that the {@linkplain Easing#baked() baked} tables stay
+ * within {@link #TOLERANCE} of the analytic curves, and the ones the samples
+ * bake within {@link #CALL_SITE_TOLERANCE}. With -Dbenchmark=true it also
+ * times analytic and baked evaluation of each curve.
+ */
+public class EasingTest {
+
+    /**
+     * Largest error allowed for a {@link Easing#DEFAULT_RESOLUTION} table,
+     * as a fraction of the animation's travel.
+     */
+    private static final float TOLERANCE = .01f;
+
+    /**
+     * Largest change the default tables make to the curves the samples bake:
+     * bounce is off by 2.6e-3 at its cusps, expo by 9.2e-4 at its step at 0.
+     */
+    private static final float CALL_SITE_TOLERANCE = 3e-3f;
+
+    /*
+     * The curves the samples' animations use through baked().
+     */
+    private static final Easing[] CALL_SITE_CURVES = { Easing.BOUNCE_OUT, Easing.EXPO_IN,
+            Easing.EXPO_OUT, Easing.EXPO_IN_OUT };
+
+    private static final int BENCHMARK_MILLIS = 10;
+
+    private static final Easing[] CURVES = { Easing.LINEAR, Easing.QUAD_IN, Easing.QUAD_OUT,
+            Easing.QUAD_IN_OUT, Easing.CUBIC_IN, Easing.CUBIC_OUT, Easing.CUBIC_IN_OUT,
+            Easing.QUART_IN, Easing.QUART_OUT, Easing.QUART_IN_OUT, Easing.QUINT_IN,
+            Easing.QUINT_OUT, Easing.QUINT_IN_OUT, Easing.SINE_IN, Easing.SINE_OUT,
+            Easing.SINE_IN_OUT, Easing.EXPO_IN, Easing.EXPO_OUT, Easing.EXPO_IN_OUT,
+            Easing.CIRC_IN, Easing.CIRC_OUT, Easing.CIRC_IN_OUT, Easing.BACK_IN,
+            Easing.BACK_OUT, Easing.BACK_IN_OUT, Easing.ELASTIC_IN, Easing.ELASTIC_OUT,
+            Easing.ELASTIC_IN_OUT, Easing.BOUNCE_IN, Easing.BOUNCE_OUT, Easing.BOUNCE_IN_OUT,
+            Easing.EASE, Easing.EASE_IN, Easing.EASE_OUT, Easing.EASE_IN_OUT };
+
+    /*
+     * The interpolator classes the curves replace, in the order of legacy().
+     */
+    private static final String[] LEGACY_NAMES = { "Bounce", "CircularIn", "CircularOut",
+            "ExpoIn", "ExpoOut", "QuadIn", "QuadOut", "ElasticInterpolator",
+            "FloatEffectInterpolator", "InterpolatorCubicEasyOut", "InterpolatorExpoEaseInOut",
+            "InterpolatorQuartEasyOut", "InterpolatorQuintEasyOut", "InterpolatorBackEaseIn",
+            "InterpolatorBackEaseOut", "InterpolatorStrongEaseInOut" };
+
+    private static final Easing[] LEGACY_CURVES = { Easing.BOUNCE_OUT, Easing.CIRC_IN,
+            Easing.CIRC_OUT, Easing.EXPO_IN, Easing.EXPO_OUT, Easing.QUAD_IN, Easing.QUAD_OUT,
+            Easing.ELASTIC_OUT, Easing.QUAD_IN_OUT, Easing.CUBIC_OUT, Easing.EXPO_IN_OUT,
+            Easing.QUART_OUT, Easing.QUINT_OUT, Easing.BACK_IN, Easing.BACK_OUT,
+            Easing.QUINT_IN_OUT };
+
+    private static final int SAMPLES = 100000;
+
+    @Test
+    public void matchesReplacedInterpolators() {
+        for (int i = 0; i < LEGACY_NAMES.length; ++i) {
+            for (int s = 0; s <= SAMPLES; ++s) {
+                float t = (float) s / SAMPLES;
+                assertEquals(LEGACY_NAMES[i] + " at " + t, legacy(i, t),
+                        LEGACY_CURVES[i].mapRatio(t), 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    public void curvesRunFromZeroToOne() {
+        for (Easing curve : CURVES) {
+            assertEquals(curve.toString(), 0, curve.evaluate(0), 0);
+            assertEquals(curve.toString(), 1, curve.evaluate(1), 0);
+        }
+    }
+
+    /*
+     * Circ is vertical at an end, so its table error isn't bounded; it isn't
+     * meant for baking.
+     */
+    @Test
+    public void bakedTablesStayNearCurves() {
+        System.out.println(String.format("%-36s %10s %10s %10s", "LUT error", "64", "256",
+                "1024"));
+        for (Easing curve : CURVES) {
+            float[] errors = new float[3];
+            for (int r = 0; r < errors.length; ++r) {
+                errors[r] = maxError(curve, curve.baked(64 << (2 * r)));
+            }
+            System.out.println(String.format("%-36s %10.2e %10.2e %10.2e", curve, errors[0],
+                    errors[1], errors[2]));
+            if (!curve.toString().startsWith("circ")) {
+                assertTrue(curve + " off by " + errors[1], errors[1] <= TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void callSiteTablesStayNearCurves() {
+        for (Easing curve : CALL_SITE_CURVES) {
+            float error = maxError(curve, curve.baked());
+            assertTrue(curve + " off by " + error, error <= CALL_SITE_TOLERANCE);
+        }
+    }
+
+    @Test
+    public void benchmarkEvaluation() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        Random random = new Random(1);
+        float[] ratios = new float[1 << 16];
+        for (int i = 0; i < ratios.length; ++i) {
+            ratios[i] = random.nextFloat();
+        }
+        System.out.println(String.format("%-36s %16s %16s", "evaluations/s", "analytic",
+                "baked"));
+        for (Easing curve : CURVES) {
+            double analytic = rate(curve, ratios, BENCHMARK_MILLIS);
+            double baked = rate(curve.baked(), ratios, BENCHMARK_MILLIS);
+            System.out.println(String.format("%-36s %,16.0f %,16.0f  %5.2fx", curve, analytic,
+                    baked, baked / analytic));
+        }
+    }
+
+    /*
+     * Compares at the sample points and halfway between them, where linear
+     * interpolation is furthest off.
+     */
+    private static float maxError(Easing curve, BakedEasing baked) {
+        float error = 0;
+        int steps = baked.getResolution() * 16;
+        for (int s = 0; s <= steps; ++s) {
+            float t = (float) s / steps;
+            error = Math.max(error, Math.abs(baked.mapRatio(t) - curve.evaluate(t)));
+        }
+        return error;
+    }
+
+    private static double rate(GVRInterpolator interpolator, float[] ratios, int millis) {
+        // warm up so the timed loop runs compiled code
+        float sink = 0;
+        for (int i = 0; i < 20; ++i) {
+            for (float ratio : ratios) {
+                sink += interpolator.mapRatio(ratio);
+            }
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1000000L;
+        while (System.nanoTime() < end) {
+            for (float ratio : ratios) {
+                sink += interpolator.mapRatio(ratio);
+            }
+            count += ratios.length;
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /*
+     * The formulas of the classes in LEGACY_NAMES, as they were.
+     */
+    private static float legacy(int which, float t) {
+        float b = 0;
+        float c = 1;
+        float d = 1;
+        switch (which) {
+            case 0:
+                if ((t /= d) < (1 / 2.75f)) {
+                    return c * (7.5625f * t * t) + b;
+                } else if (t < (2 / 2.75f)) {
+                    return c * (7.5625f * (t -= (1.5f / 2.75f)) * t + .75f) + b;
+                } else if (t < (2.5 / 2.75)) {
+                    return c * (7.5625f * (t -= (2.25f / 2.75f)) * t + .9375f) + b;
+                } else {
+                    return c * (7.5625f * (t -= (2.625f / 2.75f)) * t + .984375f) + b;
+                }
+            case 1:
+                return -c * ((float) Math.sqrt(1 - (t /= d) * t) - 1) + b;
+            case 2:
+                return c * (float) Math.sqrt(1 - (t = t / d - 1) * t) + b;
+            case 3:
+                return (t == 0) ? b : c * (float) Math.pow(2, 10 * (t / d - 1)) + b;
+            case 4:
+                return (t == d) ? b + c : c * (-(float) Math.pow(2, -10 * t / d) + 1) + b;
+            case 5:
+                return c * (t /= d) * t + b;
+            case 6:
+                return -c * (t /= d) * (t - 2) + b;
+            case 7: {
+                if (t == 0)
+                    return b;
+                if ((t /= d) == 1)
+                    return b + c;
+                float p = d * .3f;
+                float a = c;
+                float s = p / 4;
+                return (a * (float) Math.pow(2, -10 * t)
+                        * (float) Math.sin((t * d - s) * (2 * (float) Math.PI) / p) + c + b);
+            }
+            case 8:
+                if ((t /= d / 2) < 1)
+                    return c / 2 * t * t + b;
+                return -c / 2 * ((--t) * (t - 2) - 1) + b;
+            case 9:
+                return c * ((t = t / d - 1) * t * t + 1) + b;
+            case 10:
+                if (t == 0)
+                    return b;
+                if (t == d)
+                    return b + c;
+                if ((t /= d / 2) < 1)
+                    return c / 2 * (float) Math.pow(2, 10 * (t - 1)) + b;
+                return c / 2 * (-(float) Math.pow(2, -10 * --t) + 2) + b;
+            case 11:
+                return -c * ((t = t / d - 1) * t * t * t - 1) + b;
+            case 12:
+                return c * ((t = t / d - 1) * t * t * t * t + 1) + b;
+            case 13: {
+                float overshoot = 1.70158f;
+                return t * t * ((overshoot + 1) * t - overshoot);
+            }
+            case 14: {
+                float overshoot = 1.70158f;
+                return ((t = t - 1) * t * ((overshoot + 1) * t + overshoot) + 1);
+            }
+            default: {
+                float r = (t < 0.5) ? t * 2 : (1 - t) * 2;
+                r *= r * r * r * r;
+                return (t < 0.5) ? r / 2 : 1 - (r / 2);
+            }
+        }
+    }
+}
@@ -30,6 +30,9 @@ import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRMain;
+import org.gearvrf.profiler.FPSCounter;
+import org.gearvrf.shadowstate.GVRStateWriter;
+import org.gearvrf.shadowstate.ShadowState;
 
 
 import android.util.Log;
@@ -41,6 +44,15 @@ public class SampleCubeMain extends GVRMain {
     private GVRSceneObject mFrontFace = null;
     private GVRSceneObject mFrontFace2 = null;
     private GVRSceneObject mFrontFace3 = null;
+
+    /*
+     * Opacity is decided every frame but only changes reach the material.
+     */
+    private final ShadowState mShadowState = new ShadowState(
+            new GVRStateWriter());
+    private int mFrontFaceOpacitySlot;
+    private int mFrontFace2OpacitySlot;
+    private int mFrontFace3OpacitySlot;
     private static final float SCALE_FACTOR = 2.0f;
     @Override
     public void onInit(GVRContext gvrContext) {
@@ -76,6 +88,13 @@ public class SampleCubeMain extends GVRMain {
         mFrontFace3.getTransform().setPosition(0.0f, 0.0f,
                 -CUBE_WIDTH * 0.5f * 3.0f);
 
+        mFrontFaceOpacitySlot = mShadowState.registerOpacity(mFrontFace
+                .getRenderData().getMaterial());
+        mFrontFace2OpacitySlot = mShadowState.registerOpacity(mFrontFace2
+                .getRenderData().getMaterial());
+        mFrontFace3OpacitySlot = mShadowState.registerOpacity(mFrontFace3
+                .getRenderData().getMaterial());
+
         GVRSceneObject backFace = new GVRSceneObject(gvrContext, futureMesh,
                 gvrContext.loadFutureTexture(new GVRAndroidResource(
                         mGVRContext, R.drawable.back)));
@@ -164,22 +183,25 @@ public class SampleCubeMain extends GVRMain {
     @Override
     public void onStep() {
         FPSCounter.tick();
-        mFrontFace.getRenderData().getMaterial().setOpacity(1.0f);
-        mFrontFace2.getRenderData().getMaterial().setOpacity(1.0f);
-        mFrontFace3.getRenderData().getMaterial().setOpacity(1.0f);
+        float frontFaceOpacity = 1.0f;
+        float frontFace2Opacity = 1.0f;
+        float frontFace3Opacity = 1.0f;
         GVREyePointeeHolder[] eyePointeeHolders = GVRPicker
                 .pickScene(mGVRContext.getMainScene());
         for (GVREyePointeeHolder eyePointeeHolder : eyePointeeHolders) {
             if (eyePointeeHolder.getOwnerObject().equals(mFrontFace)) {
-                mFrontFace.getRenderData().getMaterial().setOpacity(0.5f);
+                frontFaceOpacity = 0.5f;
             }
             if (eyePointeeHolder.getOwnerObject().equals(mFrontFace2)) {
-                mFrontFace2.getRenderData().getMaterial().setOpacity(0.5f);
+                frontFace2Opacity = 0.5f;
             }
             if (eyePointeeHolder.getOwnerObject().equals(mFrontFace3)) {
-                mFrontFace3.getRenderData().getMaterial().setOpacity(0.5f);
+                frontFace3Opacity = 0.5f;
             }
         }
+        mShadowState.setOpacity(mFrontFaceOpacitySlot, frontFaceOpacity);
+        mShadowState.setOpacity(mFrontFace2OpacitySlot, frontFace2Opacity);
+        mShadowState.setOpacity(mFrontFace3OpacitySlot, frontFace3Opacity);
     }
 
 
@@ -20,6 +20,8 @@ import java.util.List;
 
 import org.gearvrf.*;
 import org.gearvrf.GVRPicker.GVRPickedObject;
+import org.gearvrf.shadowstate.GVRStateWriter;
+import org.gearvrf.shadowstate.ShadowState;
 import org.gearvrf.utility.Log;
 
 public class SampleMain extends GVRScript {
@@ -39,6 +41,14 @@ public class SampleMain extends GVRScript {
     private ColorShader mColorShader = null;
     private List<GVRSceneObject> mObjects = new ArrayList<GVRSceneObject>();
 
+    /*
+     * Colors are decided every frame but only changes reach the materials.
+     */
+    private final ShadowState mShadowState = new ShadowState(
+            new GVRStateWriter());
+    private int[] mColorSlots = null;
+    private boolean[] mPicked = null;
+
     private GVRActivity mActivity;
 
     SampleMain(GVRActivity activity) {
@@ -155,30 +165,38 @@ public class SampleMain extends GVRScript {
         attachBoundingBoxEyePointee(object);
         mainScene.addSceneObject(object);
         mObjects.add(object);
+
+        mColorSlots = new int[mObjects.size()];
+        mPicked = new boolean[mObjects.size()];
+        for (int i = 0; i < mColorSlots.length; i++) {
+            mColorSlots[i] = mShadowState.registerVec4(mObjects.get(i)
+                    .getRenderData().getMaterial(), ColorShader.COLOR_KEY);
+        }
     }
 
     @Override
     public void onStep() {
-        for (GVRSceneObject object : mObjects) {
-            object.getRenderData()
-                    .getMaterial()
-                    .setVec4(ColorShader.COLOR_KEY, UNPICKED_COLOR_R,
-                            UNPICKED_COLOR_G, UNPICKED_COLOR_B,
-                            UNPICKED_COLOR_A);
+        for (int i = 0; i < mPicked.length; i++) {
+            mPicked[i] = false;
         }
         for (GVRPickedObject pickedObject : GVRPicker.findObjects(mGVRContext
                 .getMainScene())) {
-            for (GVRSceneObject object : mObjects) {
-                if (pickedObject.getHitObject().equals(object)) {
-                    object.getRenderData()
-                            .getMaterial()
-                            .setVec4(ColorShader.COLOR_KEY, PICKED_COLOR_R,
-                                    PICKED_COLOR_G, PICKED_COLOR_B,
-                                    PICKED_COLOR_A);
+            for (int i = 0; i < mObjects.size(); i++) {
+                if (pickedObject.getHitObject().equals(mObjects.get(i))) {
+                    mPicked[i] = true;
                     break;
                 }
             }
         }
+        for (int i = 0; i < mColorSlots.length; i++) {
+            if (mPicked[i]) {
+                mShadowState.setVec4(mColorSlots[i], PICKED_COLOR_R,
+                        PICKED_COLOR_G, PICKED_COLOR_B, PICKED_COLOR_A);
+            } else {
+                mShadowState.setVec4(mColorSlots[i], UNPICKED_COLOR_R,
+                        UNPICKED_COLOR_G, UNPICKED_COLOR_B, UNPICKED_COLOR_A);
+            }
+        }
     }
 
     private GVRSceneObject getColorBoard(float width, float height) {
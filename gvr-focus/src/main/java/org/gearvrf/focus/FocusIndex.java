@@ -0,0 +1,140 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.focus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+
+/**
+ * Registry of focusable objects keyed by identity, with per-frame hit
+ * tracking. A picked owner resolves to its focusable in O(1), and objects
+ * that lost the gaze this frame are found by diffing two reusable bitsets, so
+ * a frame allocates nothing once the registry has reached its size.
+ *
+ * Typical frame:
+ *
+ * <pre>
+ * index.beginFrame();
+ * for (holder : picked) {
+ *     T object = index.hit(holder.getOwnerObject());
+ *     ...
+ * }
+ * for (int i = index.nextLost(0); i &gt;= 0; i = index.nextLost(i + 1)) {
+ *     index.get(i) ...
+ * }
+ * </pre>
+ */
+public final class FocusIndex<T> {
+
+    private final ArrayList<T> objects = new ArrayList<T>();
+    private final IdentityHashMap<Object, Integer> indices = new IdentityHashMap<Object, Integer>();
+    private BitSet hits = new BitSet();
+    private BitSet previousHits = new BitSet();
+    private final BitSet lost = new BitSet();
+
+    public void add(T object) {
+        if (indices.containsKey(object)) {
+            return;
+        }
+        indices.put(object, objects.size());
+        objects.add(object);
+    }
+
+    /**
+     * Removes {@code object}, moving the last entry into its slot.
+     */
+    public boolean remove(T object) {
+        Integer index = indices.remove(object);
+        if (index == null) {
+            return false;
+        }
+        int last = objects.size() - 1;
+        T moved = objects.remove(last);
+        if (index != last) {
+            objects.set(index, moved);
+            indices.put(moved, index);
+            hits.set(index, hits.get(last));
+            previousHits.set(index, previousHits.get(last));
+        }
+        hits.clear(last);
+        previousHits.clear(last);
+        return true;
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    public T get(int index) {
+        return objects.get(index);
+    }
+
+    /**
+     * @return the registered object {@code owner} refers to, or {@code null}.
+     */
+    public T find(Object owner) {
+        Integer index = indices.get(owner);
+        return index == null ? null : objects.get(index);
+    }
+
+    /**
+     * Starts a new pick pass; hits of the finished pass become the baseline
+     * for {@link #nextLost(int)}.
+     */
+    public void beginFrame() {
+        BitSet swap = previousHits;
+        previousHits = hits;
+        hits = swap;
+        hits.clear();
+    }
+
+    /**
+     * Records that {@code owner} was picked this frame.
+     *
+     * @return the registered object, or {@code null} if {@code owner} is not
+     *         registered or was already hit this frame.
+     */
+    public T hit(Object owner) {
+        Integer index = indices.get(owner);
+        if (index == null || hits.get(index)) {
+            return null;
+        }
+        hits.set(index);
+        return objects.get(index);
+    }
+
+    public boolean isHit(int index) {
+        return hits.get(index);
+    }
+
+    public int nextHit(int fromIndex) {
+        return hits.nextSetBit(fromIndex);
+    }
+
+    /**
+     * Iterates objects hit in the previous frame but not in this one. Only
+     * valid after all {@link #hit(Object)} calls of the frame.
+     */
+    public int nextLost(int fromIndex) {
+        if (fromIndex == 0) {
+            lost.clear();
+            lost.or(previousHits);
+            lost.andNot(hits);
+        }
+        return lost.nextSetBit(fromIndex);
+    }
+}
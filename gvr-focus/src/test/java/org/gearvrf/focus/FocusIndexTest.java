@@ -0,0 +1,270 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.focus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link FocusIndex} against the gaze loop the focus controllers used
+ * to run, which compared every picked holder with every registered object
+ * and rebuilt a list of objects to unfocus each frame: the same objects end
+ * up focused after every frame, removal keeps the hits of the entry it moves,
+ * and a frame over 10,000 registered objects allocates nothing. With
+ * -Dbenchmark=true it also times a frame both ways.
+ */
+public class FocusIndexTest {
+
+    private static final int OBJECTS = 10000;
+    private static final int PICKED = 3;
+    private static final int FRAMES = 2000;
+
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    @Test
+    public void addFindAndRemove() {
+        FocusIndex<Focusable> index = new FocusIndex<Focusable>();
+        Focusable a = new Focusable();
+        Focusable b = new Focusable();
+        Focusable c = new Focusable();
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        index.add(a);
+        assertEquals(3, index.size());
+        assertSame(b, index.find(b));
+        assertNull(index.find(new Object()));
+
+        index.beginFrame();
+        assertSame(c, index.hit(c));
+        assertNull(index.hit(c));
+        assertTrue(index.remove(a));
+        assertFalse(index.remove(a));
+        assertNull(index.find(a));
+        assertEquals(2, index.size());
+        // c moved into a's slot and kept its hit
+        assertSame(c, index.get(0));
+        assertTrue(index.isHit(0));
+        assertFalse(index.isHit(1));
+        assertEquals(0, index.nextHit(0));
+        assertEquals(-1, index.nextHit(1));
+    }
+
+    @Test
+    public void lostIsHitLastFrameOnly() {
+        FocusIndex<Focusable> index = new FocusIndex<Focusable>();
+        Focusable[] objects = objects(index, 5);
+        index.beginFrame();
+        index.hit(objects[1]);
+        index.hit(objects[3]);
+        assertEquals(-1, index.nextLost(0));
+
+        index.beginFrame();
+        index.hit(objects[3]);
+        index.hit(objects[4]);
+        assertEquals(1, index.nextLost(0));
+        assertEquals(-1, index.nextLost(2));
+    }
+
+    /*
+     * Random picks, including owners that aren't registered, with the odd
+     * object removed and a new one added. A pick never repeats a holder, as
+     * GVRPicker.pickScene returns each one once.
+     */
+    @Test
+    public void focusMatchesPerHolderLoop() {
+        Random random = new Random(1);
+        ArrayList<Focusable> legacyObjects = new ArrayList<Focusable>();
+        FocusIndex<Focusable> index = new FocusIndex<Focusable>();
+        Focusable[] before = new Focusable[OBJECTS];
+        Focusable[] after = new Focusable[OBJECTS];
+        for (int i = 0; i < OBJECTS; ++i) {
+            before[i] = new Focusable();
+            after[i] = new Focusable();
+            legacyObjects.add(before[i]);
+            index.add(after[i]);
+        }
+        Object stranger = new Object();
+        Object[] legacyPicked = new Object[PICKED + 1];
+        Object[] picked = new Object[PICKED + 1];
+
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            if (frame % 100 == 99) {
+                int i = random.nextInt(OBJECTS);
+                legacyObjects.remove(before[i]);
+                index.remove(after[i]);
+                before[i] = new Focusable();
+                after[i] = new Focusable();
+                legacyObjects.add(before[i]);
+                index.add(after[i]);
+            }
+            int count = random.nextInt(PICKED + 2);
+            int first = random.nextInt(40);
+            for (int p = 0; p < count; ++p) {
+                int i = p == 0 && random.nextInt(8) == 0 ? -1 : first + p;
+                legacyPicked[p] = i < 0 ? stranger : before[i];
+                picked[p] = i < 0 ? stranger : after[i];
+            }
+            legacyFrame(legacyObjects, legacyPicked, count);
+            frame(index, picked, count);
+            for (int i = 0; i < OBJECTS; ++i) {
+                assertEquals("frame " + frame + " object " + i, before[i].focused,
+                        after[i].focused);
+                assertEquals(before[i].inFocus, after[i].inFocus);
+            }
+        }
+    }
+
+    @Test
+    public void frameDoesNotAllocate() {
+        FocusIndex<Focusable> index = new FocusIndex<Focusable>();
+        Focusable[] objects = objects(index, OBJECTS);
+        Object[] picked = new Object[PICKED];
+        Random random = new Random(2);
+        // warm up first, so what's measured is compiled code
+        for (int pass = 0; pass < 2; ++pass) {
+            long before = allocatedBytes();
+            for (int frame = 0; frame < FRAMES; ++frame) {
+                for (int p = 0; p < PICKED; ++p) {
+                    picked[p] = objects[random.nextInt(OBJECTS)];
+                }
+                frame(index, picked, PICKED);
+            }
+            long allocated = allocatedBytes() - before;
+            if (pass > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkFrame() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        ArrayList<Focusable> legacyObjects = new ArrayList<Focusable>();
+        FocusIndex<Focusable> index = new FocusIndex<Focusable>();
+        Focusable[] objects = objects(index, OBJECTS);
+        for (Focusable object : objects) {
+            legacyObjects.add(object);
+        }
+        Object[][] picks = new Object[64][PICKED];
+        Random random = new Random(3);
+        for (Object[] pick : picks) {
+            for (int p = 0; p < PICKED; ++p) {
+                pick[p] = objects[random.nextInt(OBJECTS)];
+            }
+        }
+
+        long frames = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            legacyFrame(legacyObjects, picks[(int) (frames++ & 63)], PICKED);
+        }
+        double legacyRate = frames / ((System.nanoTime() - start) / 1e9);
+
+        frames = 0;
+        start = System.nanoTime();
+        end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            frame(index, picks[(int) (frames++ & 63)], PICKED);
+        }
+        double rate = frames / ((System.nanoTime() - start) / 1e9);
+
+        System.out.println(String.format("%,d objects, %d picked: per holder %,.0f frames/s,"
+                + " index %,.0f frames/s", OBJECTS, PICKED, legacyRate, rate));
+    }
+
+    private static Focusable[] objects(FocusIndex<Focusable> index, int count) {
+        Focusable[] objects = new Focusable[count];
+        for (int i = 0; i < count; ++i) {
+            objects[i] = new Focusable();
+            index.add(objects[i]);
+        }
+        return objects;
+    }
+
+    /*
+     * FocusableController.process as it is now.
+     */
+    private static void frame(FocusIndex<Focusable> index, Object[] picked, int count) {
+        index.beginFrame();
+        for (int p = 0; p < count; ++p) {
+            Focusable object = index.hit(picked[p]);
+            if (object != null) {
+                object.setFocus(true);
+                object.dispatchInFocus();
+            }
+        }
+        for (int i = index.nextLost(0); i >= 0; i = index.nextLost(i + 1)) {
+            index.get(i).setFocus(false);
+        }
+    }
+
+    /*
+     * FocusableController.process as it was.
+     */
+    private static void legacyFrame(ArrayList<Focusable> objects, Object[] picked, int count) {
+        ArrayList<Focusable> needToDisableFocus = new ArrayList<Focusable>();
+        for (Focusable obj : objects) {
+            needToDisableFocus.add(obj);
+        }
+        for (int p = 0; p < count; ++p) {
+            for (Focusable object : objects) {
+                if (picked[p].equals(object)) {
+                    object.setFocus(true);
+                    object.dispatchInFocus();
+                    needToDisableFocus.remove(object);
+                }
+            }
+        }
+        for (Focusable obj : needToDisableFocus) {
+            obj.setFocus(false);
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+     * A focusable scene object's focus handling: unfocusing an object that
+     * isn't focused does nothing.
+     */
+    private static class Focusable {
+        boolean focused;
+        int inFocus;
+
+        void setFocus(boolean focus) {
+            focused = focus;
+        }
+
+        void dispatchInFocus() {
+            ++inFocus;
+        }
+    }
+}
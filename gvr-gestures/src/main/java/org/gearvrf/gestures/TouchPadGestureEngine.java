@@ -0,0 +1,394 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.gestures;
+
+/**
+ * Touch pad gesture recognition over raw, timestamped touch samples: tap,
+ * confirmed single tap, double tap, long press, drag and swipe, the last
+ * with its fling velocity and a 4- or 8-way direction.
+ *
+ * Distances are compared squared and directions are sorted into sectors by
+ * comparing the two components against precomputed tangents, so there is no
+ * square root or trigonometry per sample, and nothing is allocated after
+ * construction.
+ *
+ * Time-based gestures fire from {@link #update(long)}, which every sample
+ * also calls first; a host with a timer should call it again at
+ * {@link #getNextDeadline()}. Plain Java, so recorded traces can be replayed
+ * on a desktop JVM.
+ */
+public final class TouchPadGestureEngine {
+
+    // the same values as MotionEvent's
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+
+    /*
+     * Counter-clockwise from +x, with up meaning toward smaller y as on a
+     * screen. 4-way recognition only returns the even ones.
+     */
+    public static final int DIRECTION_RIGHT = 0;
+    public static final int DIRECTION_UP_RIGHT = 1;
+    public static final int DIRECTION_UP = 2;
+    public static final int DIRECTION_UP_LEFT = 3;
+    public static final int DIRECTION_LEFT = 4;
+    public static final int DIRECTION_DOWN_LEFT = 5;
+    public static final int DIRECTION_DOWN = 6;
+    public static final int DIRECTION_DOWN_RIGHT = 7;
+
+    public static final int DEFAULT_TOUCH_SLOP = 16;
+    public static final int DEFAULT_DOUBLE_TAP_SLOP = 100;
+    public static final int DEFAULT_SWIPE_MIN_DISTANCE = 80;
+    public static final int DEFAULT_MIN_FLING_VELOCITY = 50;
+    public static final int DEFAULT_LONG_PRESS_TIMEOUT = 500;
+    public static final int DEFAULT_DOUBLE_TAP_TIMEOUT = 300;
+
+    // tan(22.5) and tan(67.5): the 8-way sector edges
+    private static final float TAN_22_5 = 0.41421356f;
+    private static final float TAN_67_5 = 2.41421356f;
+
+    private static final int VELOCITY_SAMPLES = 8;
+    private static final long VELOCITY_WINDOW = 100;
+
+    public interface Listener {
+        /**
+         * A press and release that stayed in place, or a short flick. Called
+         * on release with where the touch started.
+         */
+        void onTap(float x, float y, long time);
+
+        /**
+         * A tap that was not followed by a second one within the double tap
+         * timeout. Only reported while double taps are enabled.
+         */
+        void onSingleTapConfirmed(float x, float y, long time);
+
+        /**
+         * The second press of a double tap, with where the first one started.
+         * The second release is not reported as a tap.
+         */
+        void onDoubleTap(float x, float y, long time);
+
+        void onLongPress(float x, float y, long time);
+
+        /**
+         * Each move once the touch has left the slop region.
+         *
+         * @param totalX
+         *            the displacement from where the touch started.
+         * @param deltaX
+         *            the displacement since the previous move.
+         */
+        void onDrag(float totalX, float totalY, float deltaX, float deltaY, long time);
+
+        /**
+         * A release, fast enough to be a fling, further than the swipe
+         * distance from where the touch started.
+         *
+         * @param velocityX
+         *            in units per second.
+         */
+        void onSwipe(int direction, float velocityX, float velocityY, long time);
+    }
+
+    private final Listener listener;
+
+    private float touchSlopSquared = square(DEFAULT_TOUCH_SLOP);
+    private float doubleTapSlopSquared = square(DEFAULT_DOUBLE_TAP_SLOP);
+    private float swipeMinDistanceSquared = square(DEFAULT_SWIPE_MIN_DISTANCE);
+    private float minFlingVelocitySquared = square(DEFAULT_MIN_FLING_VELOCITY);
+    private long longPressTimeout = DEFAULT_LONG_PRESS_TIMEOUT;
+    private long doubleTapTimeout = 0;
+    private boolean eightWay;
+
+    private boolean down;
+    private float downX;
+    private float downY;
+    private float lastX;
+    private float lastY;
+    private boolean outsideTapRegion;
+    private boolean longPressed;
+    private boolean doubleTapping;
+    private long longPressDeadline = -1;
+
+    private float tapX;
+    private float tapY;
+    private long tapTime;
+    private long confirmDeadline = -1;
+
+    private final float[] sampleX = new float[VELOCITY_SAMPLES];
+    private final float[] sampleY = new float[VELOCITY_SAMPLES];
+    private final long[] sampleTime = new long[VELOCITY_SAMPLES];
+    private int sampleCount;
+    private float velocityX;
+    private float velocityY;
+
+    public TouchPadGestureEngine(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setTouchSlop(float slop) {
+        touchSlopSquared = square(slop);
+    }
+
+    public void setDoubleTapSlop(float slop) {
+        doubleTapSlopSquared = square(slop);
+    }
+
+    public void setSwipeMinDistance(float distance) {
+        swipeMinDistanceSquared = square(distance);
+    }
+
+    public void setMinFlingVelocity(float velocity) {
+        minFlingVelocitySquared = square(velocity);
+    }
+
+    /**
+     * @param timeout
+     *            0 turns long press recognition off.
+     */
+    public void setLongPressTimeout(long timeout) {
+        longPressTimeout = timeout;
+    }
+
+    /**
+     * @param timeout
+     *            0, the default, turns double tap recognition off, and with
+     *            it {@link Listener#onSingleTapConfirmed}.
+     */
+    public void setDoubleTapTimeout(long timeout) {
+        doubleTapTimeout = timeout;
+        if (timeout <= 0) {
+            confirmDeadline = -1;
+        }
+    }
+
+    public void setEightWay(boolean eightWay) {
+        this.eightWay = eightWay;
+    }
+
+    /**
+     * Feeds one sample. Actions other than the four above are ignored.
+     */
+    public void onTouch(int action, float x, float y, long time) {
+        update(time);
+        switch (action) {
+            case ACTION_DOWN:
+                onDown(x, y, time);
+                break;
+            case ACTION_MOVE:
+                onMove(x, y, time);
+                break;
+            case ACTION_UP:
+                onUp(x, y, time);
+                break;
+            case ACTION_CANCEL:
+                down = false;
+                doubleTapping = false;
+                longPressDeadline = -1;
+                break;
+        }
+    }
+
+    /**
+     * Fires the long press and the single tap confirmation if they are due.
+     */
+    public void update(long now) {
+        if (longPressDeadline >= 0 && now >= longPressDeadline) {
+            long time = longPressDeadline;
+            longPressDeadline = -1;
+            longPressed = true;
+            listener.onLongPress(downX, downY, time);
+        }
+        if (confirmDeadline >= 0 && now >= confirmDeadline) {
+            long time = confirmDeadline;
+            confirmDeadline = -1;
+            listener.onSingleTapConfirmed(tapX, tapY, time);
+        }
+    }
+
+    /**
+     * @return when {@link #update(long)} next has something to do, or -1.
+     */
+    public long getNextDeadline() {
+        if (longPressDeadline < 0) {
+            return confirmDeadline;
+        }
+        if (confirmDeadline < 0) {
+            return longPressDeadline;
+        }
+        return Math.min(longPressDeadline, confirmDeadline);
+    }
+
+    public boolean isDown() {
+        return down;
+    }
+
+    private void onDown(float x, float y, long time) {
+        if (confirmDeadline >= 0) {
+            confirmDeadline = -1;
+            if (time - tapTime <= doubleTapTimeout
+                    && distanceSquared(x, y, tapX, tapY) <= doubleTapSlopSquared) {
+                doubleTapping = true;
+                listener.onDoubleTap(tapX, tapY, time);
+            } else {
+                listener.onSingleTapConfirmed(tapX, tapY, time);
+            }
+        }
+
+        down = true;
+        downX = lastX = x;
+        downY = lastY = y;
+        outsideTapRegion = false;
+        longPressed = false;
+        longPressDeadline = longPressTimeout > 0 ? time + longPressTimeout : -1;
+        sampleCount = 0;
+        addSample(x, y, time);
+    }
+
+    private void onMove(float x, float y, long time) {
+        if (!down) {
+            return;
+        }
+        addSample(x, y, time);
+        if (!outsideTapRegion && distanceSquared(x, y, downX, downY) > touchSlopSquared) {
+            outsideTapRegion = true;
+            longPressDeadline = -1;
+        }
+        if (outsideTapRegion && !longPressed && !doubleTapping) {
+            listener.onDrag(x - downX, y - downY, x - lastX, y - lastY, time);
+        }
+        lastX = x;
+        lastY = y;
+    }
+
+    private void onUp(float x, float y, long time) {
+        if (!down) {
+            return;
+        }
+        addSample(x, y, time);
+        down = false;
+        longPressDeadline = -1;
+        if (doubleTapping) {
+            doubleTapping = false;
+            return;
+        }
+        if (longPressed) {
+            return;
+        }
+
+        if (!outsideTapRegion) {
+            tap(time);
+            return;
+        }
+        computeVelocity();
+        if (velocityX * velocityX + velocityY * velocityY <= minFlingVelocitySquared) {
+            return;
+        }
+        float dx = x - downX;
+        float dy = y - downY;
+        if (dx * dx + dy * dy > swipeMinDistanceSquared) {
+            listener.onSwipe(eightWay ? direction8(dx, dy) : direction4(dx, dy), velocityX,
+                    velocityY, time);
+        } else {
+            // a flick too short to be a swipe is a tap that slipped
+            tap(time);
+        }
+    }
+
+    private void tap(long time) {
+        listener.onTap(downX, downY, time);
+        if (doubleTapTimeout > 0) {
+            tapX = downX;
+            tapY = downY;
+            tapTime = time;
+            confirmDeadline = time + doubleTapTimeout;
+        }
+    }
+
+    private void addSample(float x, float y, long time) {
+        int i = sampleCount++ % VELOCITY_SAMPLES;
+        sampleX[i] = x;
+        sampleY[i] = y;
+        sampleTime[i] = time;
+    }
+
+    /*
+     * From the oldest sample in the window to the newest.
+     */
+    private void computeVelocity() {
+        int newest = (sampleCount - 1) % VELOCITY_SAMPLES;
+        int oldest = newest;
+        int available = Math.min(sampleCount, VELOCITY_SAMPLES);
+        for (int n = 1; n < available; ++n) {
+            int i = (newest - n + VELOCITY_SAMPLES) % VELOCITY_SAMPLES;
+            if (sampleTime[newest] - sampleTime[i] > VELOCITY_WINDOW) {
+                break;
+            }
+            oldest = i;
+        }
+        long elapsed = sampleTime[newest] - sampleTime[oldest];
+        if (elapsed <= 0) {
+            velocityX = velocityY = 0;
+            return;
+        }
+        velocityX = (sampleX[newest] - sampleX[oldest]) * 1000f / elapsed;
+        velocityY = (sampleY[newest] - sampleY[oldest]) * 1000f / elapsed;
+    }
+
+    /**
+     * @return {@link #DIRECTION_RIGHT}, {@link #DIRECTION_UP},
+     *         {@link #DIRECTION_LEFT} or {@link #DIRECTION_DOWN}; a vector
+     *         exactly on a diagonal counts as vertical.
+     */
+    public static int direction4(float dx, float dy) {
+        if (Math.abs(dy) >= Math.abs(dx)) {
+            return dy > 0 ? DIRECTION_DOWN : DIRECTION_UP;
+        }
+        return dx > 0 ? DIRECTION_RIGHT : DIRECTION_LEFT;
+    }
+
+    /**
+     * @return one of the eight directions, each covering 45 degrees centered
+     *         on it.
+     */
+    public static int direction8(float dx, float dy) {
+        float ax = Math.abs(dx);
+        float ay = Math.abs(dy);
+        if (ay <= ax * TAN_22_5) {
+            return dx > 0 ? DIRECTION_RIGHT : DIRECTION_LEFT;
+        }
+        if (ay >= ax * TAN_67_5) {
+            return dy > 0 ? DIRECTION_DOWN : DIRECTION_UP;
+        }
+        if (dy < 0) {
+            return dx > 0 ? DIRECTION_UP_RIGHT : DIRECTION_UP_LEFT;
+        }
+        return dx > 0 ? DIRECTION_DOWN_RIGHT : DIRECTION_DOWN_LEFT;
+    }
+
+    private static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x1 - x2;
+        float dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    private static float square(float value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,320 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.gestures;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+
+/**
+ * Gear VR touch pad gestures for an activity: feed it every
+ * {@link MotionEvent} from {@code onTouchEvent()} and it reports taps, long
+ * presses, swipes and, with the optional listeners, double taps and swiping
+ * in progress. Recognition is done by a {@link TouchPadGestureEngine}; this
+ * class only unpacks the events, runs the engine's timer on a
+ * {@link Handler}, and maps directions onto the touch pad's axes.
+ *
+ * Shared by every sample that used to carry its own copy.
+ */
+public class VRTouchPadGestureDetector implements TouchPadGestureEngine.Listener {
+
+    /*
+     * Down events older than this start reporting a direction to
+     * OnTouchPadSwipingListener.
+     */
+    private static final int MIN_MOVE_TIME = 250;
+
+    /**
+     * Forward and Backward run along the touch pad, toward the front and the
+     * back of the headset. Ignore is only reported while swiping sideways.
+     */
+    public enum SwipeDirection {
+        Backward, Forward, Down, Up, Ignore
+    }
+
+    /**
+     * The listener that is used to notify when gestures occur.
+     */
+    public interface OnTouchPadGestureListener {
+        /**
+         * Notified when a tap occurs with the up {@link MotionEvent} that
+         * triggered it.
+         *
+         * @param e
+         *            The up motion event that completed the first tap
+         * @return true if the event is consumed, else false
+         */
+        boolean onSingleTap(MotionEvent e);
+
+        /**
+         * Notified when a long press occurs with the initial on down
+         * {@link MotionEvent} that triggered it.
+         *
+         * @param e
+         *            The initial on down motion event that started the
+         *            longpress.
+         */
+        void onLongPress(MotionEvent e);
+
+        /**
+         * Notified when a swipe occurs.
+         *
+         * @param e
+         *            The first down motion event that started the fling.
+         * @param swipeDirection
+         *            The direction of swipe.
+         * @param velocityX
+         *            The velocity of this fling measured in pixels per second
+         *            along the x axis.
+         * @param velocityY
+         *            The velocity of this fling measured in pixels per second
+         *            along the y axis.
+         * @return true if the event is consumed, else false
+         */
+        boolean onSwipe(MotionEvent e, SwipeDirection swipeDirection,
+                float velocityX, float velocityY);
+    }
+
+    /**
+     * The listener that is used to notify when a double-tap or a confirmed
+     * single-tap occur.
+     */
+    public interface OnTouchPadDoubleTapListener {
+        /**
+         * Notified when a single-tap occurs.
+         *
+         * @param e
+         *            The down motion event of the single-tap.
+         * @return true if the event is consumed, else false
+         */
+        boolean onSingleTapConfirmed(MotionEvent e);
+
+        /**
+         * Notified when a double-tap occurs.
+         *
+         * @param e
+         *            The down motion event of the first tap of the double-tap.
+         * @return true if the event is consumed, else false
+         */
+        boolean onDoubleTap(MotionEvent e);
+    }
+
+    /**
+     * The listener that is used to follow a swipe while the finger is still
+     * down.
+     */
+    public interface OnTouchPadSwipingListener {
+        /**
+         * Notified on every move once the finger has left the tap region.
+         *
+         * @param e
+         *            The down motion event that started the swipe.
+         * @param e2
+         *            The current move motion event.
+         * @param distanceX
+         *            The distance along the x axis since the previous call,
+         *            from the current position to the previous one.
+         * @param distanceY
+         *            The same along the y axis.
+         * @param swipeDirection
+         *            Up or Down once the finger has been down for a while and
+         *            is moving vertically, else Ignore.
+         */
+        void onSwiping(MotionEvent e, MotionEvent e2, float distanceX,
+                float distanceY, SwipeDirection swipeDirection);
+
+        /**
+         * Notified when the direction reported to
+         * {@link #onSwiping(MotionEvent, MotionEvent, float, float, SwipeDirection)}
+         * changes.
+         */
+        void onSwipeOppositeLastDirection();
+    }
+
+    private final TouchPadGestureEngine engine = new TouchPadGestureEngine(this);
+    private final Handler handler;
+    private final OnTouchPadGestureListener gestureListener;
+    private OnTouchPadDoubleTapListener doubleTapListener;
+    private OnTouchPadSwipingListener swipingListener;
+
+    private MotionEvent downEvent;
+    private MotionEvent currentEvent;
+    private SwipeDirection lastDirection = SwipeDirection.Ignore;
+    private boolean handled;
+
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            engine.update(SystemClock.uptimeMillis());
+            schedule();
+        }
+    };
+
+    /**
+     * Uses the platform's default slops and timeouts, unscaled.
+     */
+    public VRTouchPadGestureDetector(OnTouchPadGestureListener listener) {
+        this(null, listener, new Handler());
+    }
+
+    public VRTouchPadGestureDetector(Context context, OnTouchPadGestureListener listener) {
+        this(context, listener, new Handler());
+    }
+
+    public VRTouchPadGestureDetector(Context context, OnTouchPadGestureListener listener,
+            Handler handler) {
+        this.gestureListener = listener;
+        this.handler = handler;
+        if (context != null) {
+            ViewConfiguration configuration = ViewConfiguration.get(context);
+            engine.setTouchSlop(configuration.getScaledTouchSlop());
+            engine.setDoubleTapSlop(configuration.getScaledDoubleTapSlop());
+            engine.setMinFlingVelocity(configuration.getScaledMinimumFlingVelocity());
+        }
+        engine.setLongPressTimeout(ViewConfiguration.getLongPressTimeout());
+    }
+
+    /**
+     * Double taps are only recognized while a listener is set; otherwise the
+     * second tap is reported as a tap of its own.
+     */
+    public void setOnDoubleTapListener(OnTouchPadDoubleTapListener onDoubleTapListener) {
+        doubleTapListener = onDoubleTapListener;
+        engine.setDoubleTapTimeout(onDoubleTapListener != null
+                ? ViewConfiguration.getDoubleTapTimeout() : 0);
+    }
+
+    public void setOnSwipingListener(OnTouchPadSwipingListener onSwipingListener) {
+        swipingListener = onSwipingListener;
+    }
+
+    public void setLongPressEnabled(boolean enabled) {
+        engine.setLongPressTimeout(enabled ? ViewConfiguration.getLongPressTimeout() : 0);
+    }
+
+    /**
+     * Analyzes the given motion event and if applicable triggers the
+     * appropriate callbacks on the listeners.
+     *
+     * @param ev
+     *            The current motion event.
+     * @return true if a listener consumed the event, else false.
+     */
+    public boolean onTouchEvent(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            if (downEvent != null) {
+                downEvent.recycle();
+            }
+            downEvent = MotionEvent.obtain(ev);
+        }
+
+        handled = false;
+        currentEvent = ev;
+        if (action == MotionEvent.ACTION_MOVE) {
+            for (int i = 0; i < ev.getHistorySize(); ++i) {
+                engine.onTouch(action, ev.getHistoricalX(i), ev.getHistoricalY(i),
+                        ev.getHistoricalEventTime(i));
+            }
+        }
+        engine.onTouch(action, ev.getX(), ev.getY(), ev.getEventTime());
+        currentEvent = null;
+
+        schedule();
+        return handled;
+    }
+
+    private void schedule() {
+        handler.removeCallbacks(tick);
+        long deadline = engine.getNextDeadline();
+        if (deadline >= 0) {
+            handler.postAtTime(tick, deadline);
+        }
+    }
+
+    @Override
+    public void onTap(float x, float y, long time) {
+        if (gestureListener != null) {
+            handled |= gestureListener.onSingleTap(currentEvent != null ? currentEvent
+                    : downEvent);
+        }
+    }
+
+    @Override
+    public void onSingleTapConfirmed(float x, float y, long time) {
+        if (doubleTapListener != null) {
+            handled |= doubleTapListener.onSingleTapConfirmed(downEvent);
+        }
+    }
+
+    @Override
+    public void onDoubleTap(float x, float y, long time) {
+        if (doubleTapListener != null) {
+            handled |= doubleTapListener.onDoubleTap(downEvent);
+        }
+    }
+
+    @Override
+    public void onLongPress(float x, float y, long time) {
+        if (gestureListener != null) {
+            gestureListener.onLongPress(downEvent);
+        }
+    }
+
+    @Override
+    public void onDrag(float totalX, float totalY, float deltaX, float deltaY, long time) {
+        if (swipingListener == null) {
+            return;
+        }
+        if (time - downEvent.getEventTime() > MIN_MOVE_TIME) {
+            SwipeDirection direction = toSwipeDirection(
+                    TouchPadGestureEngine.direction4(totalX, totalY), true);
+            if (direction != lastDirection) {
+                swipingListener.onSwipeOppositeLastDirection();
+            }
+            lastDirection = direction;
+        }
+        swipingListener.onSwiping(downEvent, currentEvent, -deltaX, -deltaY, lastDirection);
+    }
+
+    @Override
+    public void onSwipe(int direction, float velocityX, float velocityY, long time) {
+        if (gestureListener != null) {
+            handled |= gestureListener.onSwipe(downEvent, toSwipeDirection(direction, false),
+                    velocityX, velocityY);
+        }
+    }
+
+    /*
+     * Swiping toward the front of the headset moves toward smaller x.
+     */
+    private static SwipeDirection toSwipeDirection(int direction, boolean verticalOnly) {
+        switch (direction) {
+            case TouchPadGestureEngine.DIRECTION_UP:
+                return SwipeDirection.Up;
+            case TouchPadGestureEngine.DIRECTION_DOWN:
+                return SwipeDirection.Down;
+            case TouchPadGestureEngine.DIRECTION_LEFT:
+                return verticalOnly ? SwipeDirection.Ignore : SwipeDirection.Forward;
+            case TouchPadGestureEngine.DIRECTION_RIGHT:
+                return verticalOnly ? SwipeDirection.Ignore : SwipeDirection.Backward;
+            default:
+                return SwipeDirection.Ignore;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.gestures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link TouchPadGestureEngine}: replays touch traces, each a list of
+ * {action, x, y, time} samples at the touch pad's event rate, and compares
+ * the gestures recognized against the expected ones; checks the 4-way
+ * sectors against the atan2 classification the per-sample detectors used to
+ * do, and that replaying allocates nothing. With -Dbenchmark=true it also
+ * times both classifications.
+ */
+public class TouchPadGestureEngineTest {
+
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    private static final int D = TouchPadGestureEngine.ACTION_DOWN;
+    private static final int U = TouchPadGestureEngine.ACTION_UP;
+    private static final int M = TouchPadGestureEngine.ACTION_MOVE;
+
+    private static final String[] NAMES = { "clean tap", "long press", "swipe forward",
+            "swipe backward", "swipe up", "swipe down", "short flick", "slow drag",
+            "double tap", "diagonal swipe" };
+
+    private static final String[] EXPECTED = { "tap", "long", "swipe 4", "swipe 0", "swipe 2",
+            "swipe 6", "tap", "", "tap double", "swipe 1" };
+
+    private static final int[][] TRACES = {
+            { D, 640, 400, 0, M, 642, 401, 16, M, 643, 401, 33, U, 643, 401, 70 },
+            { D, 640, 400, 0, M, 641, 400, 100, M, 643, 402, 300, M, 642, 402, 500,
+                    M, 642, 401, 650, U, 642, 401, 700 },
+            swipe(900, 400, 500, 410, 7),
+            swipe(500, 400, 900, 390, 7),
+            swipe(640, 600, 650, 250, 6),
+            swipe(640, 250, 630, 600, 6),
+            { D, 640, 400, 0, M, 655, 400, 16, M, 675, 401, 33, U, 690, 401, 40 },
+            { D, 640, 400, 0, M, 660, 400, 400, M, 700, 400, 800, M, 740, 400, 1200,
+                    M, 780, 400, 1600, M, 800, 400, 2000, M, 800, 400, 2200, U, 800, 400, 2300 },
+            { D, 640, 400, 0, U, 641, 400, 60, D, 645, 402, 160, U, 645, 402, 220 },
+            swipe(500, 600, 800, 300, 6) };
+
+    /*
+     * A straight, evenly sampled swipe at 60 Hz.
+     */
+    private static int[] swipe(int x0, int y0, int x1, int y1, int moves) {
+        int[] trace = new int[(moves + 2) * 4];
+        int n = 0;
+        for (int i = 0; i <= moves + 1; ++i) {
+            int step = Math.min(i, moves);
+            trace[n++] = i == 0 ? D : i == moves + 1 ? U : M;
+            trace[n++] = x0 + (x1 - x0) * step / moves;
+            trace[n++] = y0 + (y1 - y0) * step / moves;
+            trace[n++] = i * 16;
+        }
+        return trace;
+    }
+
+    @Test
+    public void recognizesTraces() {
+        Recorder recorder = new Recorder();
+        TouchPadGestureEngine engine = new TouchPadGestureEngine(recorder);
+        for (int t = 0; t < TRACES.length; ++t) {
+            engine.setEightWay(NAMES[t].startsWith("diagonal"));
+            engine.setDoubleTapTimeout(NAMES[t].startsWith("double")
+                    ? TouchPadGestureEngine.DEFAULT_DOUBLE_TAP_TIMEOUT : 0);
+            recorder.clear();
+            replay(engine, TRACES[t], 0);
+            assertEquals(NAMES[t], EXPECTED[t], recorder.toString());
+        }
+    }
+
+    @Test
+    public void sectorsMatchAtan2() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000000; ++i) {
+            float dx = random.nextFloat() * 2000 - 1000;
+            float dy = random.nextFloat() * 2000 - 1000;
+            // on the diagonals the two round differently
+            if (Math.abs(Math.abs(dx) - Math.abs(dy)) > 1e-3f) {
+                assertEquals(dx + ", " + dy, legacyDirection(dx, dy),
+                        TouchPadGestureEngine.direction4(dx, dy));
+            }
+        }
+    }
+
+    @Test
+    public void replayDoesNotAllocate() {
+        Recorder recorder = new Recorder();
+        recorder.counting = true;
+        TouchPadGestureEngine engine = new TouchPadGestureEngine(recorder);
+        engine.setDoubleTapTimeout(TouchPadGestureEngine.DEFAULT_DOUBLE_TAP_TIMEOUT);
+        long offset = replayAll(engine, 0, 2000);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        replayAll(engine, offset, 1000);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(allocated + " bytes allocated", allocated < 1024);
+        assertTrue(recorder.gestures > 0);
+    }
+
+    @Test
+    public void benchmarkClassification() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        Recorder recorder = new Recorder();
+        recorder.counting = true;
+        TouchPadGestureEngine engine = new TouchPadGestureEngine(recorder);
+        engine.setDoubleTapTimeout(TouchPadGestureEngine.DEFAULT_DOUBLE_TAP_TIMEOUT);
+        long events = 0;
+        long offset = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            offset = replayAll(engine, offset, 1);
+            for (int[] trace : TRACES) {
+                events += trace.length / 4;
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("engine        %,14.0f events/s  (%d gestures)",
+                events / elapsed, recorder.gestures));
+
+        Random random = new Random(1);
+        float[] dx = new float[100000];
+        float[] dy = new float[dx.length];
+        for (int i = 0; i < dx.length; ++i) {
+            dx[i] = random.nextFloat() * 2000 - 1000;
+            dy[i] = random.nextFloat() * 2000 - 1000;
+        }
+        System.out.println(String.format("sectors       %,14.0f classifications/s",
+                rate(dx, dy, false)));
+        System.out.println(String.format("sqrt + atan2  %,14.0f classifications/s",
+                rate(dx, dy, true)));
+    }
+
+    /*
+     * Every trace back to back, shifted so the timeline keeps moving.
+     */
+    private static long replayAll(TouchPadGestureEngine engine, long offset, int rounds) {
+        for (int r = 0; r < rounds; ++r) {
+            for (int[] trace : TRACES) {
+                replay(engine, trace, offset);
+                offset += trace[trace.length - 1] + 1000;
+            }
+        }
+        return offset;
+    }
+
+    private static void replay(TouchPadGestureEngine engine, int[] trace, long offset) {
+        for (int i = 0; i < trace.length; i += 4) {
+            engine.onTouch(trace[i], trace[i + 1], trace[i + 2], offset + trace[i + 3]);
+        }
+        // let pending timeouts expire
+        engine.update(offset + trace[trace.length - 1] + 1000);
+    }
+
+    private static double rate(float[] dx, float[] dy, boolean legacy) {
+        long count = 0;
+        int sink = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < dx.length; ++i) {
+                sink += legacy ? legacyDirection(dx[i], dy[i])
+                        : TouchPadGestureEngine.direction4(dx[i], dy[i]);
+            }
+            count += dx.length;
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /*
+     * The classification the copied detectors did in onFling, including the
+     * distance they computed first, mapped onto the engine's directions.
+     */
+    private static int legacyDirection(float deltaX, float deltaY) {
+        double distance = Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY, 2));
+        if (distance < 0) {
+            return -1;
+        }
+        double angle = Math.toDegrees(Math.atan2(deltaY, deltaX)) + 180 + 45;
+        if (angle > 360)
+            angle -= 360;
+        if (angle < 90) {
+            return TouchPadGestureEngine.DIRECTION_LEFT;
+        } else if (angle < 180) {
+            return TouchPadGestureEngine.DIRECTION_UP;
+        } else if (angle < 270) {
+            return TouchPadGestureEngine.DIRECTION_RIGHT;
+        }
+        return TouchPadGestureEngine.DIRECTION_DOWN;
+    }
+
+    private static class Recorder implements TouchPadGestureEngine.Listener {
+        final StringBuilder log = new StringBuilder();
+        boolean counting;
+        long gestures;
+
+        void clear() {
+            log.setLength(0);
+        }
+
+        private void record(String gesture) {
+            record(gesture, -1);
+        }
+
+        /*
+         * Appends the direction after the gesture unless it's negative;
+         * nothing is built while counting.
+         */
+        private void record(String gesture, int direction) {
+            if (counting) {
+                ++gestures;
+                return;
+            }
+            if (log.length() > 0) {
+                log.append(' ');
+            }
+            log.append(gesture);
+            if (direction >= 0) {
+                log.append(' ').append(direction);
+            }
+        }
+
+        @Override
+        public void onTap(float x, float y, long time) {
+            record("tap");
+        }
+
+        @Override
+        public void onSingleTapConfirmed(float x, float y, long time) {
+        }
+
+        @Override
+        public void onDoubleTap(float x, float y, long time) {
+            record("double");
+        }
+
+        @Override
+        public void onLongPress(float x, float y, long time) {
+            record("long");
+        }
+
+        @Override
+        public void onDrag(float totalX, float totalY, float deltaX, float deltaY, long time) {
+        }
+
+        @Override
+        public void onSwipe(int direction, float velocityX, float velocityY, long time) {
+            record("swipe", direction);
+        }
+
+        @Override
+        public String toString() {
+            return log.toString();
+        }
+    }
+}
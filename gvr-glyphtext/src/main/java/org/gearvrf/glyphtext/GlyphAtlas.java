@@ -0,0 +1,95 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.glyphtext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+
+import org.gearvrf.GVRBitmapTexture;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRTexture;
+
+/**
+ * Rasterizes {@link GlyphLayout#GLYPHS} once into a single-row texture, using
+ * the same paint as the video samples' TextFactory, so time labels can be
+ * drawn without creating a bitmap per update.
+ */
+public class GlyphAtlas {
+    /*
+     * Matches the 23 pixel high bitmap TextFactory draws into.
+     */
+    static final int CELL_HEIGHT = 23;
+    private static final float TEXT_SIZE = 24.0f;
+
+    private final GVRTexture mTexture;
+    private final int mCellWidth;
+    private final float mColonWidth;
+
+    public GlyphAtlas(GVRContext gvrContext) {
+        Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+        p.setTextSize(TEXT_SIZE);
+        p.setTextAlign(Align.CENTER);
+        p.setColor(Color.WHITE);
+
+        float[] widths = new float[GlyphLayout.GLYPH_COUNT];
+        p.getTextWidths(GlyphLayout.GLYPHS, widths);
+        float cellWidth = 0.0f;
+        for (float width : widths) {
+            cellWidth = Math.max(cellWidth, width);
+        }
+        mCellWidth = (int) Math.ceil(cellWidth);
+        mColonWidth = widths[GlyphLayout.COLON];
+
+        Bitmap bitmap = Bitmap.createBitmap(
+                mCellWidth * GlyphLayout.GLYPH_COUNT, CELL_HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.drawColor(Color.TRANSPARENT);
+        for (int i = 0; i < GlyphLayout.GLYPH_COUNT; ++i) {
+            canvas.drawText(GlyphLayout.GLYPHS, i, i + 1,
+                    (i + 0.5f) * mCellWidth, CELL_HEIGHT, p);
+        }
+
+        mTexture = new GVRBitmapTexture(gvrContext, bitmap);
+    }
+
+    public GVRTexture getTexture() {
+        return mTexture;
+    }
+
+    /**
+     * Width of every glyph cell in pixels; digits are drawn into the full
+     * cell.
+     */
+    public int getCellWidth() {
+        return mCellWidth;
+    }
+
+    public float getColonWidth() {
+        return mColonWidth;
+    }
+
+    /**
+     * Fraction of a cell trimmed on each side when drawing a colon.
+     */
+    public float getColonInset() {
+        return (mCellWidth - mColonWidth) * 0.5f / mCellWidth;
+    }
+}
@@ -0,0 +1,76 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.glyphtext;
+
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRSceneObject;
+
+/**
+ * "HH:MM:SS" label drawn as one quad per character over a shared
+ * {@link GlyphAtlas}. Texture coordinates are rewritten only when the
+ * displayed second changes.
+ */
+public class GlyphAtlasText extends GVRSceneObject {
+    /*
+     * Width of the TextFactory bitmap the label replaces.
+     */
+    private static final float SOURCE_WIDTH = 256.0f;
+
+    private final GlyphLayout mLayout = new GlyphLayout();
+    private final float[] mTexCoords = new float[GlyphLayout.CHAR_COUNT
+            * GlyphLayout.VERTICES_PER_GLYPH * 2];
+    private final float mColonInset;
+
+    /**
+     * @param width
+     *            width of the quad a TextFactory texture would have been
+     *            mapped on; glyphs keep the same on-screen size.
+     * @param height
+     *            height of that quad.
+     */
+    public GlyphAtlasText(GVRContext gvrContext, GlyphAtlas atlas, float width,
+            float height) {
+        super(gvrContext, createMesh(gvrContext, atlas, width, height), atlas
+                .getTexture());
+        mColonInset = atlas.getColonInset();
+        setSeconds(0);
+    }
+
+    public void setSeconds(int seconds) {
+        if (mLayout.setSeconds(seconds)) {
+            mLayout.writeTexCoords(mTexCoords, mColonInset);
+            getRenderData().getMesh().setTexCoords(mTexCoords);
+        }
+    }
+
+    private static GVRMesh createMesh(GVRContext gvrContext, GlyphAtlas atlas,
+            float width, float height) {
+        float unitsPerPixel = width / SOURCE_WIDTH;
+        float[] vertices = new float[GlyphLayout.CHAR_COUNT
+                * GlyphLayout.VERTICES_PER_GLYPH * 3];
+        GlyphLayout.writeVertices(vertices, atlas.getCellWidth()
+                * unitsPerPixel, atlas.getColonWidth() * unitsPerPixel, height);
+
+        GVRMesh mesh = new GVRMesh(gvrContext);
+        mesh.setVertices(vertices);
+        mesh.setTexCoords(new float[GlyphLayout.CHAR_COUNT
+                * GlyphLayout.VERTICES_PER_GLYPH * 2]);
+        mesh.setTriangles(GlyphLayout.createTriangles());
+        return mesh;
+    }
+}
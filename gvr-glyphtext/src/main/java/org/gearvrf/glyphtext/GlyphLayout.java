@@ -0,0 +1,166 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.glyphtext;
+
+/**
+ * Lays out an "HH:MM:SS" label as a strip of glyph quads over a single-row
+ * atlas holding {@link #GLYPHS}. Has no Android or GVRf dependencies so it
+ * can run on a desktop JVM; {@link GlyphAtlasText} owns the GPU side.
+ */
+public class GlyphLayout {
+    public static final String GLYPHS = "0123456789:";
+    public static final int GLYPH_COUNT = GLYPHS.length();
+    public static final int COLON = GLYPH_COUNT - 1;
+
+    /*
+     * HH:MM:SS
+     */
+    public static final int CHAR_COUNT = 8;
+    public static final int VERTICES_PER_GLYPH = 4;
+    public static final int INDICES_PER_GLYPH = 6;
+
+    private static final int MAX_SECONDS = 99 * 3600 + 59 * 60 + 59;
+
+    private final int[] mGlyphs = new int[CHAR_COUNT];
+    private int mSeconds = -1;
+
+    public GlyphLayout() {
+        mGlyphs[2] = COLON;
+        mGlyphs[5] = COLON;
+    }
+
+    /**
+     * Updates the glyph indices for {@code seconds}.
+     *
+     * @return {@code false} if the displayed text did not change, in which
+     *         case texture coordinates need not be rewritten.
+     */
+    public boolean setSeconds(int seconds) {
+        if (seconds < 0) {
+            seconds = 0;
+        } else if (seconds > MAX_SECONDS) {
+            seconds = MAX_SECONDS;
+        }
+        if (seconds == mSeconds) {
+            return false;
+        }
+        mSeconds = seconds;
+
+        int hours = seconds / 3600;
+        int minutes = (seconds % 3600) / 60;
+        seconds %= 60;
+        mGlyphs[0] = hours / 10;
+        mGlyphs[1] = hours % 10;
+        mGlyphs[3] = minutes / 10;
+        mGlyphs[4] = minutes % 10;
+        mGlyphs[6] = seconds / 10;
+        mGlyphs[7] = seconds % 10;
+        return true;
+    }
+
+    public int getSeconds() {
+        return mSeconds;
+    }
+
+    public int getGlyph(int position) {
+        return mGlyphs[position];
+    }
+
+    /**
+     * Writes quad positions for the label, centered on the origin.
+     * {@code digitWidth} and {@code colonWidth} are in the same units as
+     * {@code height}.
+     */
+    public static void writeVertices(float[] vertices, float digitWidth,
+            float colonWidth, float height) {
+        float total = 6 * digitWidth + 2 * colonWidth;
+        float left = -total * 0.5f;
+        float top = height * 0.5f;
+        float bottom = -top;
+        for (int i = 0, v = 0; i < CHAR_COUNT; ++i) {
+            float right = left
+                    + (i == 2 || i == 5 ? colonWidth : digitWidth);
+            v = putQuad(vertices, v, left, right, top, bottom);
+            left = right;
+        }
+    }
+
+    /**
+     * Writes texture coordinates for the current glyphs. {@code colonInset} is
+     * the fraction of an atlas cell trimmed on each side of a colon, which is
+     * narrower than the digit cells it shares the atlas with.
+     */
+    public void writeTexCoords(float[] texCoords, float colonInset) {
+        float cell = 1.0f / GLYPH_COUNT;
+        for (int i = 0, t = 0; i < CHAR_COUNT; ++i) {
+            int glyph = mGlyphs[i];
+            float u0 = glyph * cell;
+            float u1 = u0 + cell;
+            if (glyph == COLON) {
+                u0 += colonInset * cell;
+                u1 -= colonInset * cell;
+            }
+            t = putUV(texCoords, t, u0, u1);
+        }
+    }
+
+    public static char[] createTriangles() {
+        char[] triangles = new char[CHAR_COUNT * INDICES_PER_GLYPH];
+        for (int i = 0, t = 0; i < CHAR_COUNT; ++i) {
+            char base = (char) (i * VERTICES_PER_GLYPH);
+            triangles[t++] = base;
+            triangles[t++] = (char) (base + 1);
+            triangles[t++] = (char) (base + 2);
+            triangles[t++] = (char) (base + 1);
+            triangles[t++] = (char) (base + 3);
+            triangles[t++] = (char) (base + 2);
+        }
+        return triangles;
+    }
+
+    /*
+     * Same corner order as GVRContext.createQuad.
+     */
+    private static int putQuad(float[] out, int i, float left, float right,
+            float top, float bottom) {
+        out[i++] = left;
+        out[i++] = top;
+        out[i++] = 0.0f;
+        out[i++] = left;
+        out[i++] = bottom;
+        out[i++] = 0.0f;
+        out[i++] = right;
+        out[i++] = top;
+        out[i++] = 0.0f;
+        out[i++] = right;
+        out[i++] = bottom;
+        out[i++] = 0.0f;
+        return i;
+    }
+
+    private static int putUV(float[] out, int i, float u0, float u1) {
+        out[i++] = u0;
+        out[i++] = 0.0f;
+        out[i++] = u0;
+        out[i++] = 1.0f;
+        out[i++] = u1;
+        out[i++] = 0.0f;
+        out[i++] = u1;
+        out[i++] = 1.0f;
+        return i;
+    }
+}
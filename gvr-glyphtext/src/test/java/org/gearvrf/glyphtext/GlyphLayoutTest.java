@@ -0,0 +1,213 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.glyphtext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link GlyphLayout} against the "HH:MM:SS" text Seekbar.setTime
+ * used to format every frame: the same characters for the seconds it can
+ * show, quads laid out left to right over the label, texture coordinates
+ * inside each glyph's atlas cell, and no allocation when the seekbar is
+ * updated every frame. With -Dbenchmark=true it also times a frame's
+ * update both ways; the bitmaps the old text went on to be drawn into
+ * aren't part of the timing.
+ */
+public class GlyphLayoutTest {
+
+    private static final int MAX_SECONDS = 99 * 3600 + 59 * 60 + 59;
+    private static final float COLON_INSET = .3f;
+
+    private static final long BENCHMARK_NANOS = 100000000L;
+
+    @Test
+    public void glyphsMatchFormattedText() {
+        GlyphLayout layout = new GlyphLayout();
+        // every minute and second of the first hour, then a stride through every hour
+        for (int seconds = 0; seconds <= MAX_SECONDS; seconds += seconds < 3600 ? 1 : 59) {
+            assertTrue(layout.setSeconds(seconds));
+            assertEquals(legacyText(seconds), text(layout));
+        }
+    }
+
+    @Test
+    public void clampsAndSkipsUnchangedSeconds() {
+        GlyphLayout layout = new GlyphLayout();
+        assertTrue(layout.setSeconds(-5));
+        assertEquals("00:00:00", text(layout));
+        assertFalse(layout.setSeconds(0));
+        assertTrue(layout.setSeconds(MAX_SECONDS + 1));
+        assertEquals(MAX_SECONDS, layout.getSeconds());
+        assertEquals("99:59:59", text(layout));
+        assertFalse(layout.setSeconds(MAX_SECONDS));
+    }
+
+    @Test
+    public void quadsCoverLabelLeftToRight() {
+        float digit = .3f;
+        float colon = .1f;
+        float height = .3f;
+        float[] vertices = new float[GlyphLayout.CHAR_COUNT * GlyphLayout.VERTICES_PER_GLYPH
+                * 3];
+        GlyphLayout.writeVertices(vertices, digit, colon, height);
+
+        float total = 6 * digit + 2 * colon;
+        float left = -total / 2;
+        for (int i = 0; i < GlyphLayout.CHAR_COUNT; ++i) {
+            float width = i == 2 || i == 5 ? colon : digit;
+            int v = i * GlyphLayout.VERTICES_PER_GLYPH * 3;
+            // left top, left bottom, right top, right bottom
+            assertEquals(left, vertices[v], 1e-6f);
+            assertEquals(height / 2, vertices[v + 1], 0);
+            assertEquals(left, vertices[v + 3], 1e-6f);
+            assertEquals(-height / 2, vertices[v + 4], 0);
+            assertEquals(left + width, vertices[v + 6], 1e-6f);
+            assertEquals(left + width, vertices[v + 9], 1e-6f);
+            left += width;
+        }
+        assertEquals(total / 2, left, 1e-6f);
+
+        char[] triangles = GlyphLayout.createTriangles();
+        assertEquals(GlyphLayout.CHAR_COUNT * GlyphLayout.INDICES_PER_GLYPH, triangles.length);
+        for (int i = 0; i < triangles.length; ++i) {
+            int glyph = i / GlyphLayout.INDICES_PER_GLYPH;
+            assertEquals(glyph, triangles[i] / GlyphLayout.VERTICES_PER_GLYPH);
+        }
+    }
+
+    @Test
+    public void texCoordsStayInGlyphCells() {
+        GlyphLayout layout = new GlyphLayout();
+        float[] texCoords = new float[GlyphLayout.CHAR_COUNT * GlyphLayout.VERTICES_PER_GLYPH
+                * 2];
+        float cell = 1f / GlyphLayout.GLYPH_COUNT;
+        for (int seconds = 0; seconds <= MAX_SECONDS; seconds += 997) {
+            layout.setSeconds(seconds);
+            layout.writeTexCoords(texCoords, COLON_INSET);
+            for (int i = 0; i < GlyphLayout.CHAR_COUNT; ++i) {
+                int glyph = layout.getGlyph(i);
+                float inset = glyph == GlyphLayout.COLON ? COLON_INSET * cell : 0;
+                int t = i * GlyphLayout.VERTICES_PER_GLYPH * 2;
+                assertEquals(glyph * cell + inset, texCoords[t], 1e-6f);
+                assertEquals(glyph * cell + inset, texCoords[t + 2], 1e-6f);
+                assertEquals((glyph + 1) * cell - inset, texCoords[t + 4], 1e-6f);
+                assertEquals((glyph + 1) * cell - inset, texCoords[t + 6], 1e-6f);
+                assertEquals(0, texCoords[t + 1], 0);
+                assertEquals(1, texCoords[t + 3], 0);
+            }
+        }
+    }
+
+    /*
+     * A two-hour video at 60 frames a second: every frame sets both labels,
+     * and the current one changes once a second.
+     */
+    @Test
+    public void frameUpdateDoesNotAllocate() {
+        GlyphLayout current = new GlyphLayout();
+        GlyphLayout duration = new GlyphLayout();
+        float[] texCoords = new float[GlyphLayout.CHAR_COUNT * GlyphLayout.VERTICES_PER_GLYPH
+                * 2];
+        // warm up first, so what's measured is compiled code
+        for (int pass = 0; pass < 2; ++pass) {
+            long before = allocatedBytes();
+            for (int frame = 0; frame < 2 * 3600 * 60; ++frame) {
+                update(current, frame / 60, texCoords);
+                update(duration, 2 * 3600, texCoords);
+            }
+            long allocated = allocatedBytes() - before;
+            if (pass > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkFrameUpdate() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        GlyphLayout current = new GlyphLayout();
+        GlyphLayout duration = new GlyphLayout();
+        float[] texCoords = new float[GlyphLayout.CHAR_COUNT * GlyphLayout.VERTICES_PER_GLYPH
+                * 2];
+
+        int sink = 0;
+        long frames = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            int seconds = (int) (frames++ / 60 % MAX_SECONDS);
+            sink += legacyText(seconds).length() + legacyText(7200).length();
+        }
+        double legacyNanos = (System.nanoTime() - start) / (double) frames;
+        double legacyBytes = (allocatedBytes() - bytes) / (double) frames;
+
+        long layoutFrames = 0;
+        bytes = allocatedBytes();
+        start = System.nanoTime();
+        end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            int seconds = (int) (layoutFrames++ / 60 % MAX_SECONDS);
+            update(current, seconds, texCoords);
+            update(duration, 7200, texCoords);
+            sink += current.getGlyph(7);
+        }
+        double layoutNanos = (System.nanoTime() - start) / (double) layoutFrames;
+        double layoutBytes = (allocatedBytes() - bytes) / (double) layoutFrames;
+        assertTrue(sink >= 0);
+
+        System.out.println(String.format("%-16s %12s %14s", "per frame", "ns", "bytes"));
+        System.out.println(String.format("%-16s %12.1f %14.1f", "String.format", legacyNanos,
+                legacyBytes));
+        System.out.println(String.format("%-16s %12.1f %14.1f", "GlyphLayout", layoutNanos,
+                layoutBytes));
+    }
+
+    private static void update(GlyphLayout layout, int seconds, float[] texCoords) {
+        if (layout.setSeconds(seconds)) {
+            layout.writeTexCoords(texCoords, COLON_INSET);
+        }
+    }
+
+    private static String text(GlyphLayout layout) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < GlyphLayout.CHAR_COUNT; ++i) {
+            text.append(GlyphLayout.GLYPHS.charAt(layout.getGlyph(i)));
+        }
+        return text.toString();
+    }
+
+    /*
+     * What Seekbar.setTime formatted for TextFactory every frame.
+     */
+    private static String legacyText(int seconds) {
+        return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60,
+                seconds % 60);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -22,7 +22,8 @@ import org.gearvrf.immersivepedia.input.TouchPadInput;
 import org.gearvrf.immersivepedia.scene.DinosaurScene;
 import org.gearvrf.immersivepedia.scene.MenuScene;
 import org.gearvrf.immersivepedia.util.AudioClip;
-import org.gearvrf.immersivepedia.util.FPSCounter;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.media.MediaPlayer;
 
@@ -39,6 +40,7 @@ public class Main extends GVRScript {
 		mGvrContext = gvrContext;
 
 		AudioClip.getInstance(gvrContext.getContext());
+		ImmersivepediaTexture.getInstance(gvrContext);
 		mediaPlayer = MediaPlayer.create(gvrContext.getContext(),
 				R.raw.sfx_ambient_1_1);
 		mediaPlayer.setLooping(true);
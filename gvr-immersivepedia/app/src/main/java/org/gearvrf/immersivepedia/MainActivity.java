@@ -17,9 +17,9 @@ package org.gearvrf.immersivepedia;
 
 import org.gearvrf.GVRActivity;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.OnTouchPadGestureListener;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.OnTouchPadGestureListener;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 import android.os.Bundle;
 import android.util.Log;
@@ -26,6 +26,7 @@ import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 
 public class DinosaurFactory {
 
@@ -91,7 +92,7 @@ public class DinosaurFactory {
 
     private FocusableSceneObject createDinosaur(int dinoMeshId, int dinoTextureId) {
         GVRMesh baseMesh = gvrContext.loadMesh(new GVRAndroidResource(gvrContext, dinoMeshId), settings);
-        GVRTexture baseTexture = gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty));
+        GVRTexture baseTexture = ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture();
         final FocusableSceneObject dino = new FocusableSceneObject(gvrContext, baseMesh, baseTexture);
         gvrContext.loadTexture(new TextureCallback() {
 
@@ -125,7 +126,7 @@ public class DinosaurFactory {
     private FocusableSceneObject createDinosaurGround(int groundMesh) {
 
         GVRMesh mesh = gvrContext.loadMesh(new GVRAndroidResource(gvrContext, groundMesh), settings);
-        GVRTexture groundTexture = gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty));
+        GVRTexture groundTexture = ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture();
         final FocusableSceneObject dinosaurGround = new FocusableSceneObject(gvrContext, mesh, groundTexture);
         gvrContext.loadTexture(new TextureCallback() {
 
@@ -15,48 +15,40 @@
 
 package org.gearvrf.immersivepedia.focus;
 
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVREyePointeeHolder;
 import org.gearvrf.GVRPicker;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.focus.FocusIndex;
 import org.gearvrf.immersivepedia.GazeController;
 import org.gearvrf.immersivepedia.Main;
-import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
-
-import java.util.ArrayList;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 
 public final class FocusableController {
 
-    public static ArrayList<FocusableSceneObject> interactiveObjects = new ArrayList<FocusableSceneObject>();
+    public static FocusIndex<FocusableSceneObject> interactiveObjects = new FocusIndex<FocusableSceneObject>();
 
     public static void process(GVRContext context) {
 
         GVREyePointeeHolder[] eyePointeeHolders = GVRPicker.pickScene(context.getMainScene());
 
-        ArrayList<FocusableSceneObject> needToDisableFocus = new ArrayList<FocusableSceneObject>();
-
-        for (FocusableSceneObject obj : interactiveObjects) {
-            needToDisableFocus.add(obj);
-        }
+        interactiveObjects.beginFrame();
 
         if (eyePointeeHolders.length == 0) {
             GazeController.disableInteractiveCursor();
         } else {
             for (GVREyePointeeHolder holder : eyePointeeHolders) {
-                for (FocusableSceneObject object : interactiveObjects) {
-                    if (holder.getOwnerObject().equals(object)) {
-                        object.setFocus(true);
-                        object.dispatchInFocus();
-                        needToDisableFocus.remove(object);
-                    }
+                FocusableSceneObject object = interactiveObjects.hit(holder.getOwnerObject());
+                if (object != null) {
+                    object.setFocus(true);
+                    object.dispatchInFocus();
                 }
             }
         }
 
-        for (FocusableSceneObject obj : needToDisableFocus) {
-            obj.setFocus(false);
+        for (int i = interactiveObjects.nextLost(0); i >= 0; i = interactiveObjects.nextLost(i + 1)) {
+            interactiveObjects.get(i).setFocus(false);
         }
 
     }
@@ -65,11 +57,10 @@ public final class FocusableController {
 
         GVREyePointeeHolder[] eyePointeeHolders = GVRPicker.pickScene(context.getMainScene());
         for (GVREyePointeeHolder holder : eyePointeeHolders) {
-            for (FocusableSceneObject object : interactiveObjects) {
-                if (holder.getOwnerObject().equals(object)) {
-                    object.dispatchInGesture(TouchPadInput.getCurrent().swipeDirection);
-                    return true;
-                }
+            FocusableSceneObject object = interactiveObjects.find(holder.getOwnerObject());
+            if (object != null) {
+                object.dispatchInGesture(TouchPadInput.getCurrent().swipeDirection);
+                return true;
             }
         }
         return false;
@@ -82,11 +73,10 @@ public final class FocusableController {
             Main.clickOut();
         } else {
             for (GVREyePointeeHolder holder : eyePointeeHolders) {
-                for (FocusableSceneObject object : interactiveObjects) {
-                    if (holder.getOwnerObject().equals(object)) {
-                        object.dispatchInClick();
-                        return true;
-                    }
+                FocusableSceneObject object = interactiveObjects.find(holder.getOwnerObject());
+                if (object != null) {
+                    object.dispatchInClick();
+                    return true;
                 }
             }
         }
@@ -109,9 +99,8 @@ public final class FocusableController {
     }
 
     private static boolean hasEmptyTexture(GVRContext gvrContext, GVRSceneObject object) {
-        return object.getRenderData().getMaterial().getMainTexture() != null
-                && object.getRenderData().getMaterial().getMainTexture()
-                        .equals(gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty)));
+        return ImmersivepediaTexture.getInstance(gvrContext).isEmptyTexture(
+                object.getRenderData().getMaterial().getMainTexture());
     }
 
 }
@@ -21,7 +21,7 @@ import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.immersivepedia.GazeController;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class FocusableSceneObject extends GVRSceneObject {
 
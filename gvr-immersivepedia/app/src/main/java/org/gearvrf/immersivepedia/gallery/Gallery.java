@@ -15,20 +15,19 @@
 
 package org.gearvrf.immersivepedia.gallery;
 
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRRenderPass.GVRCullFaceEnum;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.animation.GVRPositionAnimation;
-import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.focus.FocusListener;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
 import org.gearvrf.immersivepedia.props.Totem;
 import org.gearvrf.immersivepedia.props.TotemEventListener;
 import org.gearvrf.immersivepedia.util.AudioClip;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 import org.gearvrf.immersivepedia.util.RenderingOrderApplication;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 import java.util.ArrayList;
 
@@ -116,8 +115,7 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
 
         scrollbar = new GVRSceneObject(gvrContext, Gallery.GALLERY_SCROLLBAR_WIDTH,
                 height,
-                this.gvrContext.loadTexture(new GVRAndroidResource(this.gvrContext,
-                        R.drawable.scrollbar)));
+                ImmersivepediaTexture.getInstance(this.gvrContext).getScrollbarTexture());
         scrollbar.getTransform().setPositionX(GALLERY_SCROLLBAR_X_POSITION);
         scrollbar.getTransform().setPositionY(GALLERY_SCROLLBAR_Y_INITIAL_POSITION);
         scrollbar.getRenderData().setRenderingOrder(RenderingOrderApplication.GALLERY_SCROLLBAR);
@@ -182,7 +180,8 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
     }
 
     public Gallery(GVRContext gvrContext) {
-        super(gvrContext, GALLERY_WIDTH, GALLERY_HEIGHT, gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty_clickable)));
+        super(gvrContext, GALLERY_WIDTH, GALLERY_HEIGHT, ImmersivepediaTexture.getInstance(gvrContext)
+                .getEmptyClickableTexture());
         this.gvrContext = gvrContext;
         this.getRenderData().setRenderingOrder(RenderingOrderApplication.GALLERY);
         this.attachEyePointeeHolder();
@@ -531,12 +530,12 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
 
     private void createArrows() {
         this.leftArrow = new GalleryArrow(this.gvrContext, GALLERY_ARROW_WIDTH,
-                GALLERY_ARROW_HEIGHT, this.gvrContext.loadTexture(new GVRAndroidResource(
-                        this.gvrContext, R.drawable.arrowleft)));
+                GALLERY_ARROW_HEIGHT, ImmersivepediaTexture.getInstance(this.gvrContext)
+                        .getArrowLeftTexture());
 
         this.rightArrow = new GalleryArrow(this.gvrContext, GALLERY_ARROW_WIDTH,
-                GALLERY_ARROW_HEIGHT, this.gvrContext.loadTexture(new GVRAndroidResource(
-                        this.gvrContext, R.drawable.arrowright)));
+                GALLERY_ARROW_HEIGHT, ImmersivepediaTexture.getInstance(this.gvrContext)
+                        .getArrowRightTexture());
 
         this.addChildObject(this.leftArrow);
         this.addChildObject(this.rightArrow);
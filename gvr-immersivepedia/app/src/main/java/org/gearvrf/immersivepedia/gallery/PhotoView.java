@@ -17,7 +17,6 @@ package org.gearvrf.immersivepedia.gallery;
 
 import android.graphics.Color;
 
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.animation.GVRAnimation;
@@ -29,8 +28,9 @@ import org.gearvrf.immersivepedia.focus.FocusListener;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
 import org.gearvrf.immersivepedia.util.AudioClip;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 import org.gearvrf.immersivepedia.util.RenderingOrderApplication;
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class PhotoView extends FocusableSceneObject implements FocusListener {
 
@@ -114,8 +114,7 @@ public class PhotoView extends FocusableSceneObject implements FocusListener {
     }
 
     public PhotoView(GVRContext gvrContext, int photo) {
-        this(gvrContext, WIDTH, HEIGHT, gvrContext.loadTexture(new GVRAndroidResource(gvrContext,
-                photo)));
+        this(gvrContext, WIDTH, HEIGHT, ImmersivepediaTexture.getInstance(gvrContext).getTexture(photo));
         this.gvrContext = gvrContext;
         this.photoId = photo;
 
@@ -220,8 +219,7 @@ public class PhotoView extends FocusableSceneObject implements FocusListener {
         if (this.photoId == resource)
             return;
         this.getRenderData().getMaterial()
-                .setMainTexture(gvrContext.loadTexture(new GVRAndroidResource(this.gvrContext,
-                        resource)));
+                .setMainTexture(ImmersivepediaTexture.getInstance(gvrContext).getTexture(resource));
         this.photoId = resource;
     }
 
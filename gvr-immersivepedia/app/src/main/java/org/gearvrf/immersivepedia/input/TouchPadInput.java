@@ -18,7 +18,7 @@ package org.gearvrf.immersivepedia.input;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class TouchPadInput {
 
@@ -15,7 +15,7 @@
 
 package org.gearvrf.immersivepedia.input;
 
-import org.gearvrf.immersivepedia.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class TouchPadInputMap {
 
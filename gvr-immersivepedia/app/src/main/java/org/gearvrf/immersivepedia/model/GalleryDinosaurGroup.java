@@ -30,6 +30,7 @@ import org.gearvrf.immersivepedia.focus.OnGestureListener;
 import org.gearvrf.immersivepedia.gallery.Gallery;
 import org.gearvrf.immersivepedia.props.Totem;
 import org.gearvrf.immersivepedia.util.AudioClip;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 
 public class GalleryDinosaurGroup extends GVRSceneObject {
     private int photos[] = new int[] {
@@ -63,7 +64,7 @@ public class GalleryDinosaurGroup extends GVRSceneObject {
     private void createFocus() {
 
         focus = new FocusableSceneObject(gvrContext, gvrContext.createQuad(15f, 9f),
-                gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty)));
+                ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture());
         focus.getTransform().setPosition(0f, 3.5f, DinosaurFactory.APATOSAURUS_DISTANCE - 0.01f);
         focus.getTransform().rotateByAxis(-180.0f, 0f, 1f, 0f);
         focus.attachEyePointeeHolder();
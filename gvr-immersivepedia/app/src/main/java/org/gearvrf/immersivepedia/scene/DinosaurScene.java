@@ -32,7 +32,8 @@ import org.gearvrf.immersivepedia.model.GalleryDinosaurGroup;
 import org.gearvrf.immersivepedia.model.RotateDinosaurGroup;
 import org.gearvrf.immersivepedia.model.TextDinosaurGroup;
 import org.gearvrf.immersivepedia.model.VideoDinosaurGroup;
-import org.gearvrf.immersivepedia.util.FPSCounter;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
+import org.gearvrf.profiler.FPSCounter;
 
 public class DinosaurScene extends GVRScene {
 
@@ -127,8 +128,7 @@ public class DinosaurScene extends GVRScene {
     private GVRSceneObject createSkybox() {
 
         GVRMesh mesh = getGVRContext().loadMesh(new GVRAndroidResource(getGVRContext(), R.raw.environment_walls_mesh));
-        GVRTexture texture = getGVRContext().loadTexture(new
-                GVRAndroidResource(gvrContext, R.drawable.empty));
+        GVRTexture texture = ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture();
 
         final GVRSceneObject skybox = new GVRSceneObject(getGVRContext(), mesh, texture);
         getGVRContext().loadTexture(new TextureCallback() {
@@ -152,7 +152,7 @@ public class DinosaurScene extends GVRScene {
         skybox.getRenderData().setRenderingOrder(0);
 
         GVRMesh meshGround = getGVRContext().loadMesh(new GVRAndroidResource(getGVRContext(), R.raw.environment_ground_mesh));
-        GVRTexture textureGround = getGVRContext().loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty));
+        GVRTexture textureGround = ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture();
         final GVRSceneObject skyboxGround = new GVRSceneObject(getGVRContext(), meshGround, textureGround);
 
         getGVRContext().loadTexture(new TextureCallback() {
@@ -18,18 +18,17 @@ package org.gearvrf.immersivepedia.scene;
 import android.graphics.Color;
 import android.view.Gravity;
 
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
-import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.focus.FocusListener;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
 import org.gearvrf.immersivepedia.shader.MenuImageShader;
 import org.gearvrf.immersivepedia.util.AudioClip;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 import org.gearvrf.immersivepedia.util.MathUtils;
 import org.gearvrf.immersivepedia.util.RenderingOrderApplication;
 import org.gearvrf.scene_objects.GVRTextViewSceneObject;
@@ -73,7 +72,7 @@ public class MenuItem extends FocusableSceneObject {
         attachRenderData(new GVRRenderData(gvrContext));
         getRenderData().setMaterial(new GVRMaterial(gvrContext));
         getRenderData().setMesh(gvrContext.createQuad(WIDTH, HEIGHT));
-        GVRTexture texture = gvrContext.loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty_clickable));
+        GVRTexture texture = ImmersivepediaTexture.getInstance(gvrContext).getEmptyClickableTexture();
         getRenderData().getMaterial().setMainTexture(texture);
 
         frontObj = createSceneObject(frontIdleRes, frontHoverRes);
@@ -146,8 +145,8 @@ public class MenuItem extends FocusableSceneObject {
     public GVRSceneObject createSceneObject(int idleImageRes, int hoverImageRes) {
         GVRSceneObject obj = new GVRSceneObject(getGVRContext());
 
-        GVRTexture idle = getGVRContext().loadTexture(new GVRAndroidResource(getGVRContext(), idleImageRes));
-        GVRTexture hover = getGVRContext().loadTexture(new GVRAndroidResource(getGVRContext(), hoverImageRes));
+        GVRTexture idle = ImmersivepediaTexture.getInstance(getGVRContext()).getTexture(idleImageRes);
+        GVRTexture hover = ImmersivepediaTexture.getInstance(getGVRContext()).getTexture(hoverImageRes);
 
         obj.attachRenderData(new GVRRenderData(getGVRContext()));
         obj.getRenderData().setMaterial(new GVRMaterial(getGVRContext(), new MenuImageShader(getGVRContext()).getShaderId()));
@@ -169,8 +168,8 @@ public class MenuItem extends FocusableSceneObject {
 
     private void createTextBackground() {
         GVRMesh mesh = getGVRContext().createQuad(TEXT_WIDTH, TEXT_HEIGHT);
-        textBackground = new GVRSceneObject(getGVRContext(), mesh, getGVRContext().loadTexture(
-                new GVRAndroidResource(getGVRContext(), R.drawable.text_bg)));
+        textBackground = new GVRSceneObject(getGVRContext(), mesh, ImmersivepediaTexture.getInstance(
+                getGVRContext()).getTextBackgroundTexture());
 
         textBackground.getTransform().setPosition(0, TEXT_BACKGROUND_Y, TEXT_BACKGROUND_Z);
         textBackground.getRenderData().setRenderingOrder(RenderingOrderApplication.IMAGE_TEXT_BACKGROUND);
@@ -0,0 +1,103 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.immersivepedia.util;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRTexture;
+import org.gearvrf.immersivepedia.R;
+
+import android.util.SparseArray;
+
+/**
+ * Textures shared across the sample, loaded once so callers hold stable
+ * handles. Checks such as "is this object showing the empty texture" are then
+ * plain reference comparisons.
+ */
+public class ImmersivepediaTexture {
+
+    private static ImmersivepediaTexture instance;
+    private GVRTexture emptyTexture;
+    private GVRTexture emptyClickableTexture;
+    private GVRTexture textBackgroundTexture;
+    private GVRTexture scrollbarTexture;
+    private GVRTexture arrowLeftTexture;
+    private GVRTexture arrowRightTexture;
+    private SparseArray<GVRTexture> textures = new SparseArray<GVRTexture>();
+    private GVRContext gvrContext;
+
+    private ImmersivepediaTexture(GVRContext gvrContext) {
+
+        this.gvrContext = gvrContext;
+        loadFiles();
+    }
+
+    public static ImmersivepediaTexture getInstance(GVRContext gvrContext) {
+        if (instance == null)
+            instance = new ImmersivepediaTexture(gvrContext);
+        return instance;
+    }
+
+    private void loadFiles() {
+        emptyTexture = getTexture(R.drawable.empty);
+        emptyClickableTexture = getTexture(R.drawable.empty_clickable);
+        textBackgroundTexture = getTexture(R.drawable.text_bg);
+        scrollbarTexture = getTexture(R.drawable.scrollbar);
+        arrowLeftTexture = getTexture(R.drawable.arrowleft);
+        arrowRightTexture = getTexture(R.drawable.arrowright);
+    }
+
+    /**
+     * Returns the texture for a drawable, loading it on first use only.
+     */
+    public GVRTexture getTexture(int resourceId) {
+        GVRTexture texture = textures.get(resourceId);
+        if (texture == null) {
+            texture = gvrContext.loadTexture(new GVRAndroidResource(gvrContext, resourceId));
+            textures.put(resourceId, texture);
+        }
+        return texture;
+    }
+
+    public boolean isEmptyTexture(GVRTexture texture) {
+        return texture != null && texture == emptyTexture;
+    }
+
+    public GVRTexture getEmptyTexture() {
+        return emptyTexture;
+    }
+
+    public GVRTexture getEmptyClickableTexture() {
+        return emptyClickableTexture;
+    }
+
+    public GVRTexture getTextBackgroundTexture() {
+        return textBackgroundTexture;
+    }
+
+    public GVRTexture getScrollbarTexture() {
+        return scrollbarTexture;
+    }
+
+    public GVRTexture getArrowLeftTexture() {
+        return arrowLeftTexture;
+    }
+
+    public GVRTexture getArrowRightTexture() {
+        return arrowRightTexture;
+    }
+
+}
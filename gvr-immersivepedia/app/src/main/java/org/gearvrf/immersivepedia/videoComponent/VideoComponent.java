@@ -26,6 +26,7 @@ import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.focus.FocusListener;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
 import org.gearvrf.immersivepedia.focus.OnClickListener;
+import org.gearvrf.immersivepedia.util.ImmersivepediaTexture;
 import org.gearvrf.scene_objects.GVRVideoSceneObject;
 import org.gearvrf.scene_objects.GVRVideoSceneObject.GVRVideoType;
 
@@ -72,8 +73,7 @@ public class VideoComponent extends GVRSceneObject {
 
     private void createButtonBoard() {
         buttonBoard = new ButtonBoard(gvrContext, 1.7f, .4f,
-                gvrContext.loadTexture(new GVRAndroidResource(gvrContext.getActivity(),
-                        R.drawable.empty)), this);
+                ImmersivepediaTexture.getInstance(gvrContext).getEmptyTexture(), this);
         buttonBoard.getTransform().setPosition(0f, 0f, video.getTransform().getPositionZ() + 0.1f);
         addChildObject(buttonBoard);
     }
@@ -82,8 +82,8 @@ public class VideoComponent extends GVRSceneObject {
 
         mediaPlayer = MediaPlayer.create(gvrContext.getContext(), R.raw.dinos_videos_wip);
         video = new GVRVideoSceneObject(gvrContext, WIDTH, HEIGHT, mediaPlayer, GVRVideoType.MONO);
-        focus = new FocusableSceneObject(gvrContext, WIDTH, HEIGHT, gvrContext.loadTexture(new GVRAndroidResource(gvrContext,
-                R.drawable.empty_clickable)));
+        focus = new FocusableSceneObject(gvrContext, WIDTH, HEIGHT,
+                ImmersivepediaTexture.getInstance(gvrContext).getEmptyClickableTexture());
         focus.attachEyePointeeHolder();
         focus.focusListener = new FocusListener() {
 
@@ -16,11 +16,7 @@
 package org.gearvrf.keyboard.fling;
 
 import org.gearvrf.animation.GVRInterpolator;
-import org.gearvrf.keyboard.interpolator.InterpolatorCubicEasyOut;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseOut;
-import org.gearvrf.keyboard.interpolator.InterpolatorQuadEasyOut;
-import org.gearvrf.keyboard.interpolator.InterpolatorQuartEasyOut;
-import org.gearvrf.keyboard.interpolator.InterpolatorQuintEasyOut;
+import org.gearvrf.easing.Easing;
 
 public class Fling {
 
@@ -129,27 +125,27 @@ public class Fling {
 
         if (velocity >= 7000) {
 
-            return new InterpolatorExpoEaseOut();
+            return Easing.EXPO_OUT.baked();
 
         } else if (velocity >= 6000 && velocity < 7000) {
 
-            return new InterpolatorQuintEasyOut();
+            return Easing.QUINT_OUT;
 
         } else if (velocity >= 5000 && velocity < 6000) {
 
-            return new InterpolatorQuartEasyOut();
+            return Easing.QUART_OUT;
 
         } else if (velocity >= 4000 && velocity < 5000) {
 
-            return new InterpolatorCubicEasyOut();
+            return Easing.CUBIC_OUT;
 
         } else if (velocity >= 3000 && velocity < 4000) {
 
-            return new InterpolatorQuadEasyOut();
+            return Easing.QUAD_OUT;
 
         } else {
 
-            return new InterpolatorQuadEasyOut();
+            return Easing.QUAD_OUT;
         }
     }
 }
@@ -55,7 +55,7 @@ import org.gearvrf.keyboard.util.InteractiveText;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.StringUtil;
 import org.gearvrf.keyboard.util.Util;
-import org.gearvrf.keyboard.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -313,41 +313,30 @@ public class Main extends GVRMain implements KeyboardEventListener {
         }
 
         if (eyePointeeHolders.length == 0) {
-            for (GVRSceneObject object : mGVRContext.getMainScene()
-                    .getWholeSceneObjects()) {
-                if (object instanceof SphereFlag && object.equals(lastSelectedSphereFlag)) {
-                    if (((SphereFlag) object).answerState == SphereStaticList.MOVEABLE) {
-                        restoreObjectToItsDefaultPosition(object);
-                        this.mDisableSnapSound = false;
-                        lastSelectedSphereFlag = null;
-                    }
-                }
+            if (lastSelectedSphereFlag != null
+                    && lastSelectedSphereFlag.answerState == SphereStaticList.MOVEABLE) {
+                restoreObjectToItsDefaultPosition(lastSelectedSphereFlag);
+                this.mDisableSnapSound = false;
+                lastSelectedSphereFlag = null;
             }
         } else {
             for (GVREyePointeeHolder eph : eyePointeeHolders) {
-                for (GVRSceneObject object : mGVRContext.getMainScene()
-                        .getWholeSceneObjects()) {
-
-                    if (dashboard.hashCode() == object.hashCode()) {
-                        continue;
-                    }
+                if (lastSelectedSphereFlag != null
+                        && lastSelectedSphereFlag.answerState == SphereStaticList.ANSWERING) {
+                    break;
+                }
 
-                    if (eph.getOwnerObject().equals(object)
-                            && (lastSelectedSphereFlag == null || lastSelectedSphereFlag.answerState != SphereStaticList.ANSWERING)) {
-                        // TODO: Fix (SphereFlag) object.getChildByIndex(0) this
-                        // object can be any object .... not only a Sphere.
-                        if (object.getChildrenCount() > 0) {
-                            lastSelectedSphereFlag = (SphereFlag) object.getChildByIndex(0);
-                            if (lastSelectedSphereFlag.answerState == SphereStaticList.MOVEABLE) {
-                                moveObject(object);
-
-                                if (this.mDisableSnapSound == false) {
-                                    this.mDisableSnapSound = true;
-                                    AudioClip.getInstance(mGVRContext.getContext()).playSound(
-                                            AudioClip.getSnapSoundID(), 1.0f, 1.0f);
-                                }
-                                break;
-                            }
+                GVRSceneObject hitArea = eph.getOwnerObject();
+                SphereFlag sphereFlag = flagListCostructor.getSphereFlag(hitArea);
+                if (sphereFlag != null) {
+                    lastSelectedSphereFlag = sphereFlag;
+                    if (lastSelectedSphereFlag.answerState == SphereStaticList.MOVEABLE) {
+                        moveObject(hitArea);
+
+                        if (this.mDisableSnapSound == false) {
+                            this.mDisableSnapSound = true;
+                            AudioClip.getInstance(mGVRContext.getContext()).playSound(
+                                    AudioClip.getSnapSoundID(), 1.0f, 1.0f);
                         }
                     }
                 }
@@ -639,6 +628,7 @@ public class Main extends GVRMain implements KeyboardEventListener {
                 .setPositionY(
                         lastSelectedSphereFlag.getParent().getTransform().getPositionY()
                                 + moveFactor);
+        lastSelectedSphereFlag.markMoved();
     }
 
 }
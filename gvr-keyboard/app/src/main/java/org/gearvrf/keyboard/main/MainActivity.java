@@ -25,11 +25,14 @@ import android.view.KeyEvent;
 import android.view.MotionEvent;
 
 import org.gearvrf.GVRActivity;
-import org.gearvrf.keyboard.util.VRSamplesTouchPadGesturesDetector;
-import org.gearvrf.keyboard.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class MainActivity extends GVRActivity implements
-        VRSamplesTouchPadGesturesDetector.OnTouchPadGestureListener {
+        VRTouchPadGestureDetector.OnTouchPadGestureListener,
+        VRTouchPadGestureDetector.OnTouchPadSwipingListener {
+
+    private static final String DEBUG_TAG = "Gestures";
 
     float rawY = 0.0f, dist = 0;
 
@@ -38,7 +41,7 @@ public class MainActivity extends GVRActivity implements
     private long mLatestButton = 0;
     private long mLatestTap = 0;
     Main mMain = null;
-    private VRSamplesTouchPadGesturesDetector mDetector = null;
+    private VRTouchPadGestureDetector mDetector = null;
     SpeechRecognizer mSpeechRecognizer;
 
     @Override
@@ -51,7 +54,9 @@ public class MainActivity extends GVRActivity implements
         // mDetector = new VRTouchPadGestureDetector(this);
         setMain(mMain, "gvr.xml");
 
-        mDetector = new VRSamplesTouchPadGesturesDetector(this, this);
+        mDetector = new VRTouchPadGestureDetector(this, this);
+        mDetector.setLongPressEnabled(false);
+        mDetector.setOnSwipingListener(this);
     }
 
     @Override
@@ -129,12 +134,12 @@ public class MainActivity extends GVRActivity implements
     @Override
     public void onSwiping(MotionEvent e, MotionEvent e2, float velocityX, float velocityY,
             SwipeDirection swipeDirection) {
-        Log.d(VRSamplesTouchPadGesturesDetector.DEBUG_TAG, "onSwiping() : Call the stop method");
+        Log.d(DEBUG_TAG, "onSwiping() : Call the stop method");
     }
 
     @Override
     public void onSwipeOppositeLastDirection() {
-        Log.d(VRSamplesTouchPadGesturesDetector.DEBUG_TAG,
+        Log.d(DEBUG_TAG,
                 "onSwipeOppositeLastDirection() : Call the stop method");
     }
 }
@@ -21,9 +21,8 @@ import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.animation.GVRRepeatMode;
 import org.gearvrf.animation.GVRRotationByAxisAnimation;
+import org.gearvrf.easing.Easing;
 import org.gearvrf.keyboard.R;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseIn;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseOut;
 import org.gearvrf.keyboard.mic.model.MicItem;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.SceneObjectNames;
@@ -85,7 +84,7 @@ public class MicGroupProgress extends GVRSceneObject {
         mRotationIn = new GVRRotationByAxisAnimation(mProgress, TIME_ANIMATION_ROTATION_IN,
                 ROTATION,
                 0, 0, 1);
-        mRotationIn.setInterpolator(new InterpolatorExpoEaseIn());
+        mRotationIn.setInterpolator(Easing.EXPO_IN.baked());
         mRotationIn.setOnFinish(new GVROnFinish() {
 
             @Override
@@ -103,7 +102,7 @@ public class MicGroupProgress extends GVRSceneObject {
         mRotationOut = new GVRRotationByAxisAnimation(mProgress, TIME_ANIMATION_ROTATION_OUT,
                 ROTATION * 3,
                 0, 0, 1);
-        mRotationOut.setInterpolator(new InterpolatorExpoEaseOut());
+        mRotationOut.setInterpolator(Easing.EXPO_OUT.baked());
         mRotationOut.start(this.getGVRContext().getAnimationEngine());
 
     }
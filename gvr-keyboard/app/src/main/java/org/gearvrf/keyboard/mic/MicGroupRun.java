@@ -21,8 +21,8 @@ import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.animation.GVRRepeatMode;
 import org.gearvrf.animation.GVRScaleAnimation;
+import org.gearvrf.easing.Easing;
 import org.gearvrf.keyboard.R;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseOut;
 import org.gearvrf.keyboard.mic.model.MicItem;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.SceneObjectNames;
@@ -95,7 +95,7 @@ public class MicGroupRun extends GVRSceneObject {
 
                     mOpacityAnimation[iterator] = new GVROpacityAnimation(mMicRunItens[iterator],
                             ANIMATION_TIME, 0);
-                    mOpacityAnimation[iterator].setInterpolator(new InterpolatorExpoEaseOut());
+                    mOpacityAnimation[iterator].setInterpolator(Easing.EXPO_OUT.baked());
                     mOpacityAnimation[iterator].setRepeatMode(GVRRepeatMode.ONCE);
                     mOpacityAnimation[iterator].setRepeatCount(1);
                     mOpacityAnimation[iterator].start(getGVRContext().getAnimationEngine());
@@ -121,7 +121,7 @@ public class MicGroupRun extends GVRSceneObject {
 
                     mOpacityAnimation[iterator] = new GVROpacityAnimation(mMicRunItens[iterator],
                             ANIMATION_TIME, 1);
-                    mOpacityAnimation[iterator].setInterpolator(new InterpolatorExpoEaseOut());
+                    mOpacityAnimation[iterator].setInterpolator(Easing.EXPO_OUT.baked());
                     mOpacityAnimation[iterator].setRepeatMode(GVRRepeatMode.REPEATED);
                     mOpacityAnimation[iterator].setRepeatCount(-1);
                     mOpacityAnimation[iterator].start(getGVRContext().getAnimationEngine());
@@ -146,7 +146,7 @@ public class MicGroupRun extends GVRSceneObject {
                             ANIMATION_TIME, 1);
                     mScaleAnimation[iterator].setRepeatMode(GVRRepeatMode.REPEATED);
                     mScaleAnimation[iterator].setRepeatCount(-1);
-                    mScaleAnimation[iterator].setInterpolator(new InterpolatorExpoEaseOut());
+                    mScaleAnimation[iterator].setInterpolator(Easing.EXPO_OUT.baked());
                     mScaleAnimation[iterator].start(getGVRContext().getAnimationEngine());
                 }
 
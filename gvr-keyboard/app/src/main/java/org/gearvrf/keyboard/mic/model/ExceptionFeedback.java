@@ -20,8 +20,8 @@ import org.gearvrf.GVRSceneObject;
 import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.animation.GVRScaleAnimation;
+import org.gearvrf.easing.Easing;
 import org.gearvrf.keyboard.R;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseInOut;
 import org.gearvrf.keyboard.model.AudioClip;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.SceneObjectNames;
@@ -100,25 +100,25 @@ public class ExceptionFeedback extends GVRSceneObject {
 
         blurScale = new GVRScaleAnimation(blurObject, ANIMATION_TIME, scale);
         blurScale.start(this.getGVRContext().getAnimationEngine());
-        blurScale.setInterpolator(new InterpolatorExpoEaseInOut());
+        blurScale.setInterpolator(Easing.EXPO_IN_OUT.baked());
         ringScale = new GVRScaleAnimation(ringObject, ANIMATION_TIME, scale);
         ringScale.start(this.getGVRContext().getAnimationEngine());
-        ringScale.setInterpolator(new InterpolatorExpoEaseInOut());
+        ringScale.setInterpolator(Easing.EXPO_IN_OUT.baked());
     }
 
     private void AnimateOpacity(float opacity) {
 
         blurOpacity = new GVROpacityAnimation(blurObject, ANIMATION_TIME, opacity);
         blurOpacity.start(this.getGVRContext().getAnimationEngine());
-        blurOpacity.setInterpolator(new InterpolatorExpoEaseInOut());
+        blurOpacity.setInterpolator(Easing.EXPO_IN_OUT.baked());
 
         ringOpacity = new GVROpacityAnimation(ringObject, ANIMATION_TIME, opacity);
         ringOpacity.start(this.getGVRContext().getAnimationEngine());
-        ringOpacity.setInterpolator(new InterpolatorExpoEaseInOut());
+        ringOpacity.setInterpolator(Easing.EXPO_IN_OUT.baked());
 
         iconOpacity = new GVROpacityAnimation(iconObject, ANIMATION_TIME, opacity);
         iconOpacity.start(this.getGVRContext().getAnimationEngine());
-        iconOpacity.setInterpolator(new InterpolatorExpoEaseInOut());
+        iconOpacity.setInterpolator(Easing.EXPO_IN_OUT.baked());
 
     }
 
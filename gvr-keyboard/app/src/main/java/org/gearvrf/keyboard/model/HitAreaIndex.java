@@ -0,0 +1,45 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.model;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Resolves picked hit areas to what they carry, by identity. Picks used to
+ * be matched against the whole scene list, every key included; a lookup
+ * here costs the same however big the scene gets. Plain Java, so it can be
+ * checked on a desktop JVM.
+ */
+public class HitAreaIndex<T> {
+
+    private final IdentityHashMap<Object, T> items = new IdentityHashMap<Object, T>();
+
+    public void put(Object hitArea, T item) {
+        items.put(hitArea, item);
+    }
+
+    /**
+     * @return what {@code hitArea} carries, or null when it is not a
+     *         registered hit area
+     */
+    public T get(Object hitArea) {
+        return items.get(hitArea);
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -31,17 +31,17 @@ import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.animation.GVRRelativeMotionAnimation;
 import org.gearvrf.animation.GVRRepeatMode;
 import org.gearvrf.animation.GVRScaleAnimation;
+import org.gearvrf.easing.Easing;
 import org.gearvrf.keyboard.R;
-import org.gearvrf.keyboard.interpolator.FloatEffectInterpolator;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseInOut;
-import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseOut;
 import org.gearvrf.keyboard.shader.GVRShaderAnimation;
 import org.gearvrf.keyboard.shader.SphereShader;
 import org.gearvrf.keyboard.util.Constants;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
 
-public class SphereFlag extends GVRSceneObject {
+import java.util.ArrayList;
+
+public class SphereFlag extends GVRSceneObject implements SphereLighting.MotionHook {
 
     private final float CURSOR_POSITION_OFFSET_Y = 2f;
     private String mCountryName;
@@ -61,6 +61,10 @@ public class SphereFlag extends GVRSceneObject {
     private GVRAnimation scaleThisAnimation;
     private GVRAnimation floatingAnimation;
     private GVRAnimation followCursorAnimation;
+    // running animations on the hit area holder, which the lighting follows
+    private final ArrayList<GVRAnimation> holderAnimations = new ArrayList<GVRAnimation>();
+    private SphereLighting lighting;
+    private int lightingIndex;
 
     private boolean moveTogetherDashboard = false;
     private GVRContext gvrContext;
@@ -164,15 +168,15 @@ public class SphereFlag extends GVRSceneObject {
                     (getParent(), intensity * 3 * randomValue, 0, getParent().getTransform()
                             .getPositionY() - intensity * 2 * randomValue, 0);
 
-            floatingAnimation.setInterpolator(new FloatEffectInterpolator());
+            floatingAnimation.setInterpolator(Easing.QUAD_IN_OUT);
             floatingAnimation.setRepeatMode(GVRRepeatMode.PINGPONG);
             floatingAnimation.setRepeatCount(-1);
-            floatingAnimation.start(gvrContext.getAnimationEngine());
+            moveHolder(floatingAnimation);
         }
     }
 
     public void stopFloatingSphere() {
-        gvrContext.getAnimationEngine().stop(floatingAnimation);
+        stopHolder(floatingAnimation);
         isFloatingSphere = false;
     }
 
@@ -183,7 +187,7 @@ public class SphereFlag extends GVRSceneObject {
             stopAnimationsToSpot();
 
             spotAnimation = createSpotAnimation();
-            spotAnimation.start(gvrContext.getAnimationEngine()).setOnFinish(new GVROnFinish() {
+            moveHolder(spotAnimation).setOnFinish(new GVROnFinish() {
                 @Override
                 public void finished(GVRAnimation arg0) {
                     isSpottingSphere = false;
@@ -194,8 +198,8 @@ public class SphereFlag extends GVRSceneObject {
 
     private void stopAnimationsToSpot() {
         if (spotAnimation != null) {
-            gvrContext.getAnimationEngine().stop(spotAnimation);
-            gvrContext.getAnimationEngine().stop(scaleParentAnimation);
+            stopHolder(spotAnimation);
+            stopHolder(scaleParentAnimation);
             gvrContext.getAnimationEngine().stop(scaleThisAnimation);
             isUnspottingSphere = false;
         }
@@ -211,9 +215,7 @@ public class SphereFlag extends GVRSceneObject {
                 distance);
         float scaleFactor = Util.getHitAreaScaleFactor(distance);
 
-        scaleParentAnimation = new GVRScaleAnimation(getParent(), 1.2f, scaleFactor)
-                .start(gvrContext
-                        .getAnimationEngine());
+        scaleParentAnimation = moveHolder(new GVRScaleAnimation(getParent(), 1.2f, scaleFactor));
         scaleThisAnimation = new GVRScaleAnimation(this, 1.2f, 1 / scaleFactor).start(gvrContext
                 .getAnimationEngine());
 
@@ -221,7 +223,7 @@ public class SphereFlag extends GVRSceneObject {
                 - getParent().getTransform().getPositionX(),
                 newPosition[1] - getParent().getTransform().getPositionY(),
                 newPosition[2] - getParent().getTransform().getPositionZ())
-                .setInterpolator(new InterpolatorExpoEaseOut());
+                .setInterpolator(Easing.EXPO_OUT.baked());
     }
 
     public void unspotSphere() {
@@ -234,7 +236,7 @@ public class SphereFlag extends GVRSceneObject {
             stopAnimationsToUnspot();
 
             spotAnimation = createUnspotAnimation(scaleFactor);
-            spotAnimation.start(gvrContext.getAnimationEngine()).setOnFinish(new GVROnFinish() {
+            moveHolder(spotAnimation).setOnFinish(new GVROnFinish() {
                 @Override
                 public void finished(GVRAnimation arg0) {
                     isUnspottingSphere = false;
@@ -244,9 +246,7 @@ public class SphereFlag extends GVRSceneObject {
     }
 
     private GVRAnimation createUnspotAnimation(float scaleFactor) {
-        scaleParentAnimation = new GVRScaleAnimation(getParent(), 1.2f, scaleFactor)
-                .start(gvrContext
-                        .getAnimationEngine());
+        scaleParentAnimation = moveHolder(new GVRScaleAnimation(getParent(), 1.2f, scaleFactor));
         scaleThisAnimation = new GVRScaleAnimation(this, 1.2f, 1 / scaleFactor).start(gvrContext
                 .getAnimationEngine());
 
@@ -256,13 +256,13 @@ public class SphereFlag extends GVRSceneObject {
                         - getParent().getTransform().getPositionY(),
                 (float) getInitialPositionVector().getZ()
                         - getParent().getTransform().getPositionZ())
-                .setInterpolator(new InterpolatorExpoEaseOut());
+                .setInterpolator(Easing.EXPO_OUT.baked());
     }
 
     private void stopAnimationsToUnspot() {
         if (spotAnimation != null) {
-            gvrContext.getAnimationEngine().stop(spotAnimation);
-            gvrContext.getAnimationEngine().stop(scaleParentAnimation);
+            stopHolder(spotAnimation);
+            stopHolder(scaleParentAnimation);
             gvrContext.getAnimationEngine().stop(scaleThisAnimation);
             isSpottingSphere = false;
         }
@@ -289,7 +289,7 @@ public class SphereFlag extends GVRSceneObject {
             snapAnimation = new GVRRelativeMotionAnimation(this, duration, -getTransform()
                     .getPositionX(),
                     -getTransform().getPositionY(), 0f).start(gvrContext.getAnimationEngine())
-                    .setInterpolator(new InterpolatorExpoEaseInOut())
+                    .setInterpolator(Easing.EXPO_IN_OUT.baked())
                     .setOnFinish(new GVROnFinish() {
                         @Override
                         public void finished(GVRAnimation arg0) {
@@ -339,7 +339,7 @@ public class SphereFlag extends GVRSceneObject {
 
     public void moveToCursor() {
         if (followCursorAnimation != null) {
-            getGVRContext().getAnimationEngine().stop(followCursorAnimation);
+            stopHolder(followCursorAnimation);
         }
         GVRCameraRig cameraObject = getGVRContext().getMainScene().getMainCameraRig();
 
@@ -358,14 +358,13 @@ public class SphereFlag extends GVRSceneObject {
         float y = desiredY - getParent().getTransform().getPositionY();
         float z = desiredZ - getParent().getTransform().getPositionZ();
 
-        followCursorAnimation = new GVRRelativeMotionAnimation(getParent(), 0.8f, x, y, z)
-                .setInterpolator(new InterpolatorExpoEaseOut()).start(
-                        getGVRContext().getAnimationEngine());
+        followCursorAnimation = moveHolder(new GVRRelativeMotionAnimation(getParent(), 0.8f, x,
+                y, z).setInterpolator(Easing.EXPO_OUT.baked()));
     }
 
     private void changeTexture() {
         new GVRShaderAnimation(this, SphereShader.ANIM_TEXTURE, 0.6f, 1).setInterpolator(
-                new InterpolatorExpoEaseOut()).start(getGVRContext().getAnimationEngine());
+                Easing.EXPO_OUT.baked()).start(getGVRContext().getAnimationEngine());
     }
 
     private void resetSphereAfterTime(float delay) {
@@ -381,7 +380,7 @@ public class SphereFlag extends GVRSceneObject {
 
     public void restoreSpherePosition(float duration) {
         if (followCursorAnimation != null) {
-            getGVRContext().getAnimationEngine().stop(followCursorAnimation);
+            stopHolder(followCursorAnimation);
         }
 
         float x = (float) getInitialPositionVector().getX()
@@ -391,9 +390,8 @@ public class SphereFlag extends GVRSceneObject {
         float z = (float) getInitialPositionVector().getZ()
                 - getParent().getTransform().getPositionZ();
 
-        followCursorAnimation = new GVRRelativeMotionAnimation(getParent(), duration, x, y, z)
-                .setInterpolator(new InterpolatorExpoEaseInOut())
-                .start(getGVRContext().getAnimationEngine()).setOnFinish(new GVROnFinish() {
+        followCursorAnimation = moveHolder(new GVRRelativeMotionAnimation(getParent(), duration,
+                x, y, z).setInterpolator(Easing.EXPO_IN_OUT.baked())).setOnFinish(new GVROnFinish() {
                     @Override
                     public void finished(GVRAnimation arg0) {
                         answerState = SphereStaticList.MOVEABLE;
@@ -404,15 +402,15 @@ public class SphereFlag extends GVRSceneObject {
 
     public void restoreTexture() {
         new GVRShaderAnimation(this, SphereShader.ANIM_TEXTURE, 0.8f, 0).setInterpolator(
-                new InterpolatorExpoEaseInOut()).start(getGVRContext().getAnimationEngine());
+                Easing.EXPO_IN_OUT.baked()).start(getGVRContext().getAnimationEngine());
     }
 
     public void tapSphere() {
         final SphereFlag sphereFlag = this;
 
         if (spotAnimation != null) {
-            getGVRContext().getAnimationEngine().stop(spotAnimation);
-            getGVRContext().getAnimationEngine().stop(scaleParentAnimation);
+            stopHolder(spotAnimation);
+            stopHolder(scaleParentAnimation);
             getGVRContext().getAnimationEngine().stop(scaleThisAnimation);
         }
         getGVRContext().getPeriodicEngine().runAfter(new Runnable() {
@@ -429,17 +427,16 @@ public class SphereFlag extends GVRSceneObject {
                         getInitialPositionVector(), distance);
                 float scaleFactor = Util.getHitAreaScaleFactor(distance);
 
-                scaleParentAnimation = new GVRScaleAnimation(getParent(), duration, scaleFactor).start(getGVRContext()
-                        .getAnimationEngine());
+                scaleParentAnimation = moveHolder(new GVRScaleAnimation(getParent(), duration,
+                        scaleFactor));
                 scaleThisAnimation = new GVRScaleAnimation(sphereFlag, duration, 1 / scaleFactor).start(getGVRContext()
                         .getAnimationEngine());
 
-                new GVRRelativeMotionAnimation(getParent(), duration, newPosition[0]
+                moveHolder(new GVRRelativeMotionAnimation(getParent(), duration, newPosition[0]
                         - getParent().getTransform().getPositionX(),
                         newPosition[1] - getParent().getTransform().getPositionY(),
                         newPosition[2] - getParent().getTransform().getPositionZ())
-                        .setInterpolator(new InterpolatorExpoEaseInOut())
-                        .start(getGVRContext().getAnimationEngine()).setOnFinish(new GVROnFinish() {
+                        .setInterpolator(Easing.EXPO_IN_OUT.baked())).setOnFinish(new GVROnFinish() {
 
                             @Override
                             public void finished(GVRAnimation arg0) {
@@ -467,19 +464,62 @@ public class SphereFlag extends GVRSceneObject {
                 distance);
         float scaleFactor = Util.getHitAreaScaleFactor(distance);
 
-        scaleParentAnimation = new GVRScaleAnimation(getParent(), duration, scaleFactor)
-                .start(getGVRContext()
-                        .getAnimationEngine());
+        scaleParentAnimation = moveHolder(new GVRScaleAnimation(getParent(), duration,
+                scaleFactor));
         scaleThisAnimation = new GVRScaleAnimation(sphereFlag, duration, 1 / scaleFactor)
                 .start(getGVRContext()
                         .getAnimationEngine());
 
-        new GVRRelativeMotionAnimation(getParent(), duration, newPosition[0]
+        moveHolder(new GVRRelativeMotionAnimation(getParent(), duration, newPosition[0]
                 - getParent().getTransform().getPositionX(),
                 newPosition[1] - getParent().getTransform().getPositionY(),
                 newPosition[2] - getParent().getTransform().getPositionZ())
-                .setInterpolator(new InterpolatorExpoEaseInOut()).start(
-                        getGVRContext().getAnimationEngine());
+                .setInterpolator(Easing.EXPO_IN_OUT.baked()));
+    }
+
+    /**
+     * Reports the holder animations to {@code lighting}, which then reads the
+     * holder's model matrix only while one of them runs.
+     */
+    void setLighting(SphereLighting lighting, int index) {
+        this.lighting = lighting;
+        lightingIndex = index;
+        lighting.setHook(index, this);
+    }
+
+    /**
+     * To be called after moving the holder other than through this class.
+     */
+    public void markMoved() {
+        if (lighting != null) {
+            lighting.markMoved(lightingIndex);
+        }
+    }
+
+    @Override
+    public boolean isMoving() {
+        synchronized (holderAnimations) {
+            for (int i = holderAnimations.size() - 1; i >= 0; i--) {
+                if (holderAnimations.get(i).isFinished()) {
+                    holderAnimations.remove(i);
+                }
+            }
+            return !holderAnimations.isEmpty();
+        }
+    }
+
+    private GVRAnimation moveHolder(GVRAnimation animation) {
+        synchronized (holderAnimations) {
+            holderAnimations.add(animation);
+        }
+        return animation.start(gvrContext.getAnimationEngine());
+    }
+
+    private void stopHolder(GVRAnimation animation) {
+        gvrContext.getAnimationEngine().stop(animation);
+        synchronized (holderAnimations) {
+            holderAnimations.remove(animation);
+        }
     }
 
     public String getQuestion() {
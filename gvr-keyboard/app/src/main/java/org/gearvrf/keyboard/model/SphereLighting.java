@@ -0,0 +1,255 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.model;
+
+import org.gearvrf.scenenode.SceneNode;
+
+/**
+ * Light and eye vectors for the {@link org.gearvrf.keyboard.shader.SphereShader}
+ * uniforms of a set of objects, recomputed only when their inputs change.
+ *
+ * The camera and every object carry a version, bumped when the camera
+ * position, or the object's model matrix, has moved more than the epsilon
+ * from where it was when last counted. An {@link #update()} recomputes just
+ * the objects whose own version, or the camera version, changed since they
+ * were last lit; {@link #isChanged(int)} says which, so only their uniforms
+ * need pushing. Small drifts add up against the recorded values, so slow
+ * motion still gets through.
+ *
+ * On a device reading a model matrix allocates, since GVRTransform only
+ * hands it out as a new float[16], so objects that know when they move can
+ * say so through a {@link MotionHook}: they are read only while moving, once
+ * more when they stop, and after {@link #markMoved(int)}. Objects without a
+ * hook are read on every update. Nothing is allocated here after
+ * construction.
+ */
+public class SphereLighting {
+
+    public static final float DEFAULT_EPSILON = 1e-4f;
+
+    /**
+     * Tells whether an object is being moved, by an animation for instance.
+     */
+    public interface MotionHook {
+        boolean isMoving();
+    }
+
+    private final SceneNode[] objects;
+    private final MotionHook[] hooks;
+    private final float lightX, lightY, lightZ;
+    private float epsilon = DEFAULT_EPSILON;
+
+    private float cameraX, cameraY, cameraZ;
+    private int cameraVersion;
+
+    // per object: the model matrix last read, the one it was last counted
+    // at, and its version
+    private final float[] current;
+    private final float[] matrices;
+    private final int[] versions;
+    private final int[] litVersions;
+    private final int[] litCameraVersions;
+    private final boolean[] changed;
+    private final boolean[] moved;
+    // per object: light x, y, z and eye x, y, z
+    private final float[] uniforms;
+    private final float[] matrix = new float[16];
+    private int updates;
+    private int reads;
+
+    /**
+     * @param lightX
+     *            the light position, in each object's model space
+     */
+    public SphereLighting(SceneNode[] objects, float lightX, float lightY, float lightZ) {
+        this.objects = objects.clone();
+        hooks = new MotionHook[objects.length];
+        this.lightX = lightX;
+        this.lightY = lightY;
+        this.lightZ = lightZ;
+        int count = objects.length;
+        current = new float[count * 16];
+        matrices = new float[count * 16];
+        versions = new int[count];
+        litVersions = new int[count];
+        litCameraVersions = new int[count];
+        changed = new boolean[count];
+        moved = new boolean[count];
+        uniforms = new float[count * 6];
+        // so the first update reads and lights everything
+        for (int i = 0; i < count; i++) {
+            litVersions[i] = -1;
+            moved[i] = true;
+        }
+    }
+
+    public int getCount() {
+        return objects.length;
+    }
+
+    /**
+     * @param epsilon
+     *            largest camera or matrix element movement that doesn't count
+     *            as a change
+     */
+    public void setEpsilon(float epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    public void setCamera(float x, float y, float z) {
+        if (Math.abs(x - cameraX) > epsilon || Math.abs(y - cameraY) > epsilon
+                || Math.abs(z - cameraZ) > epsilon) {
+            cameraX = x;
+            cameraY = y;
+            cameraZ = z;
+            cameraVersion++;
+        }
+    }
+
+    /**
+     * Stops reading the object's model matrix on every update: from now on
+     * it is read only while {@code hook} says it is moving, once more after
+     * it stops, and after {@link #markMoved(int)}.
+     */
+    public void setHook(int object, MotionHook hook) {
+        hooks[object] = hook;
+        moved[object] = true;
+    }
+
+    /**
+     * Has the next {@link #update()} read the model matrix of an object with
+     * a hook, after it was moved outside of what the hook reports.
+     */
+    public void markMoved(int object) {
+        moved[object] = true;
+    }
+
+    public int getCameraVersion() {
+        return cameraVersion;
+    }
+
+    public int getVersion(int object) {
+        return versions[object];
+    }
+
+    /**
+     * Reads the model matrix of each object that may have moved and relights
+     * the objects whose inputs changed.
+     *
+     * @return how many objects were relit
+     */
+    public int update() {
+        int relit = 0;
+        for (int i = 0; i < objects.length; i++) {
+            MotionHook hook = hooks[i];
+            boolean moving = hook != null && hook.isMoving();
+            int base = i * 16;
+            if (hook == null || moving || moved[i]) {
+                float[] mat = matrix;
+                objects[i].getModelMatrix(mat);
+                reads++;
+                System.arraycopy(mat, 0, current, base, 16);
+                for (int e = 0; e < 16; e++) {
+                    if (Math.abs(mat[e] - matrices[base + e]) > epsilon) {
+                        System.arraycopy(mat, 0, matrices, base, 16);
+                        versions[i]++;
+                        break;
+                    }
+                }
+                // one more read once it stops, for where the motion left it
+                moved[i] = moving;
+            }
+
+            changed[i] = versions[i] != litVersions[i] || cameraVersion != litCameraVersions[i];
+            if (changed[i]) {
+                light(i, current, base);
+                litVersions[i] = versions[i];
+                litCameraVersions[i] = cameraVersion;
+                relit++;
+            }
+        }
+        updates += relit;
+        return relit;
+    }
+
+    /*
+     * The light relative to the object and the eye, both through the model
+     * matrix the way the sphere shader expects them.
+     */
+    private void light(int object, float[] mat, int m) {
+        SceneNode node = objects[object];
+        int u = object * 6;
+
+        float lX = mat[m] * lightX + mat[m + 1] * lightY + mat[m + 2] * lightZ + mat[m + 3] * 1.0f;
+        float lY = mat[m + 4] * lightX + mat[m + 5] * lightY + mat[m + 6] * lightZ
+                + mat[m + 7] * 1.0f;
+        float lZ = mat[m + 8] * lightX + mat[m + 9] * lightY + mat[m + 10] * lightZ
+                + mat[m + 11] * 1.0f;
+        uniforms[u] = lX - node.getPositionX();
+        uniforms[u + 1] = lY - node.getPositionY();
+        uniforms[u + 2] = lZ - node.getPositionZ();
+
+        float x = cameraX, y = cameraY, z = cameraZ;
+        uniforms[u + 3] = mat[m] * x + mat[m + 1] * y + mat[m + 2] * z + mat[m + 3] * 1;
+        uniforms[u + 4] = mat[m + 4] * x + mat[m + 5] * y + mat[m + 6] * z + mat[m + 7] * 1;
+        uniforms[u + 5] = mat[m + 8] * x + mat[m + 9] * y + mat[m + 10] * z + mat[m + 11] * 1;
+    }
+
+    /**
+     * @return whether the last {@link #update()} relit the object
+     */
+    public boolean isChanged(int object) {
+        return changed[object];
+    }
+
+    public float getLightX(int object) {
+        return uniforms[object * 6];
+    }
+
+    public float getLightY(int object) {
+        return uniforms[object * 6 + 1];
+    }
+
+    public float getLightZ(int object) {
+        return uniforms[object * 6 + 2];
+    }
+
+    public float getEyeX(int object) {
+        return uniforms[object * 6 + 3];
+    }
+
+    public float getEyeY(int object) {
+        return uniforms[object * 6 + 4];
+    }
+
+    public float getEyeZ(int object) {
+        return uniforms[object * 6 + 5];
+    }
+
+    /**
+     * @return objects relit over all updates so far
+     */
+    public int getUpdateCount() {
+        return updates;
+    }
+
+    /**
+     * @return model matrices read over all updates so far
+     */
+    public int getReadCount() {
+        return reads;
+    }
+}
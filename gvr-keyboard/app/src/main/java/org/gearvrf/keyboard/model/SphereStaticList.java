@@ -21,9 +21,13 @@ import android.content.res.TypedArray;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTransform;
 import org.gearvrf.keyboard.R;
 import org.gearvrf.keyboard.shader.SphereShader;
+import org.gearvrf.scenenode.GVRSceneNode;
+import org.gearvrf.scenenode.SceneNode;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 
 import java.util.ArrayList;
@@ -31,11 +35,21 @@ import java.util.ArrayList;
 public class SphereStaticList {
 
     public ArrayList<GVRSceneObject> listFlag;
+    private final HitAreaIndex<SphereFlag> flagsByHitArea = new HitAreaIndex<SphereFlag>();
     public static int MOVEABLE = 0;
     public static int ANSWERING = 1;
     public static int RESTORING = 2;
 
+    private static final float LIGHT_X = 2.0f;
+    private static final float LIGHT_Y = 4.0f;
+    private static final float LIGHT_Z = 10.0f;
+
+    private final GVRContext gvrContext;
+    private SphereLighting lighting;
+    private GVRMaterial[] materials;
+
     public SphereStaticList(GVRContext gvrContext) {
+        this.gvrContext = gvrContext;
         getSpheres(gvrContext, R.array.spheres);
     }
 
@@ -48,44 +62,27 @@ public class SphereStaticList {
         }
     }
 
+    /**
+     * Pushes new light and eye uniforms to the spheres whose position, or the
+     * camera's, changed since they were last lit.
+     */
     public void updateSpheresMaterial() {
 
-        for (GVRSceneObject sphereFlag : listFlag) {
-
-            float[] mat = sphereFlag.getTransform().getModelMatrix();
-
-            float[] light = new float[4];
-            light[0] = 2.0f;
-            light[1] = 4.0f;
-            light[2] = 10.0f;
-            light[3] = 1.0f;
-
-            float lX = mat[0] * light[0] + mat[1] * light[1] + mat[2]
-                    * light[2] + mat[3] * light[3];
-            float lY = mat[4] * light[0] + mat[5] * light[1] + mat[6]
-                    * light[2] + mat[7] * light[3];
-            float lZ = mat[8] * light[0] + mat[9] * light[1] + mat[10]
-                    * light[2] + mat[11] * light[3];
-
-            float x = 0;// this.getGVRContext().getMainScene().getMainCameraRig().getOwnerObject().getTransform().getPositionX();
-            float y = 0;// this.getGVRContext().getMainScene().getMainCameraRig().getOwnerObject().getTransform().getPositionY();
-            float z = 0;// this.getGVRContext().getMainScene().getMainCameraRig().getOwnerObject().getTransform().getPositionZ();
-
-            float eX = mat[0] * x + mat[1] * y + mat[2] * z + mat[3] * 1;
-            float eY = mat[4] * x + mat[5] * y + mat[6] * z + mat[7] * 1;
-            float eZ = mat[8] * x + mat[9] * y + mat[10] * z + mat[11] * 1;
-            sphereFlag
-                    .getRenderData()
-                    .getMaterial()
-                    .setVec3(SphereShader.LIGHT_KEY,
-                            lX - sphereFlag.getTransform().getPositionX(),
-                            lY - sphereFlag.getTransform().getPositionY(),
-                            lZ - sphereFlag.getTransform().getPositionZ());
-            sphereFlag.getRenderData().getMaterial()
-                    .setVec3(SphereShader.EYE_KEY, eX, eY, eZ);
-
+        GVRTransform camera = gvrContext.getMainScene().getMainCameraRig().getOwnerObject()
+                .getTransform();
+        lighting.setCamera(camera.getPositionX(), camera.getPositionY(), camera.getPositionZ());
+        if (lighting.update() == 0) {
+            return;
         }
 
+        for (int i = 0; i < materials.length; i++) {
+            if (lighting.isChanged(i)) {
+                materials[i].setVec3(SphereShader.LIGHT_KEY, lighting.getLightX(i),
+                        lighting.getLightY(i), lighting.getLightZ(i));
+                materials[i].setVec3(SphereShader.EYE_KEY, lighting.getEyeX(i),
+                        lighting.getEyeY(i), lighting.getEyeZ(i));
+            }
+        }
     }
 
     private void getSpheres(GVRContext gvrContext, int array) {
@@ -107,7 +104,28 @@ public class SphereStaticList {
                     (float) parentPosition.getY(), (float) parentPosition.getZ());
             parent.addChildObject(objectSphere);
             listFlag.add(parent);
+            flagsByHitArea.put(parent, objectSphere);
+        }
+
+        SceneNode[] nodes = new SceneNode[listFlag.size()];
+        materials = new GVRMaterial[listFlag.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new GVRSceneNode(listFlag.get(i));
+            materials[i] = listFlag.get(i).getRenderData().getMaterial();
         }
+        lighting = new SphereLighting(nodes, LIGHT_X, LIGHT_Y, LIGHT_Z);
+        for (int i = 0; i < nodes.length; i++) {
+            flagsByHitArea.get(listFlag.get(i)).setLighting(lighting, i);
+        }
+    }
+
+    /**
+     * Resolves a picked hit area to the flag it carries.
+     *
+     * @return the flag, or null when {@code hitArea} is not a sphere hit area
+     */
+    public SphereFlag getSphereFlag(GVRSceneObject hitArea) {
+        return flagsByHitArea.get(hitArea);
     }
 
 }
@@ -0,0 +1,89 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.shader;
+
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRCustomMaterialShaderId;
+import org.gearvrf.GVRMaterialMap;
+import org.gearvrf.GVRMaterialShaderManager;
+
+/**
+ * Draws a whole sound wave as one mesh. Each box's vertices carry its column
+ * in {@code a_normal.x} and its row, counted from the bottom, in
+ * {@code a_normal.y}; the vertex shader looks the column's level up in the
+ * {@link #LEVELS_KEYS} uniforms, four columns to a vec4, and collapses the
+ * boxes at or above it. Box colors fade from dark red at the bottom to light
+ * red at the top.
+ */
+public class SoundWaveShader {
+
+    public static final String TEXTURE_KEY = "texture";
+    public static final String[] LEVELS_KEYS = {
+            "u_levels0", "u_levels1", "u_levels2", "u_levels3"
+    };
+    public static final int MAX_COLUMNS = LEVELS_KEYS.length * 4;
+
+    private static final String VERTEX_SHADER = "" //
+            + "attribute vec4 a_position;\n"
+            + "attribute vec3 a_normal;\n" //
+            + "attribute vec2 a_tex_coord;\n"
+            + "uniform mat4 u_mvp;\n" //
+            + "uniform vec4 u_levels0;\n"
+            + "uniform vec4 u_levels1;\n"
+            + "uniform vec4 u_levels2;\n"
+            + "uniform vec4 u_levels3;\n"
+            + "varying vec2 coord;\n" //
+            + "varying vec3 color;\n"
+            + "void main() {\n"
+            + "  float column = a_normal.x;\n"
+            + "  vec4 group = column < 4.0 ? u_levels0 : column < 8.0 ? u_levels1\n"
+            + "      : column < 12.0 ? u_levels2 : u_levels3;\n"
+            + "  vec4 lane = 1.0 - step(0.5, abs(mod(column, 4.0) - vec4(0.0, 1.0, 2.0, 3.0)));\n"
+            + "  float lit = step(a_normal.y + 0.5, dot(group, lane));\n"
+            + "  coord = a_tex_coord;\n"
+            + "  color = mix(vec3(0.557, 0.086, 0.078), vec3(0.902, 0.282, 0.196), a_normal.y / 4.0);\n"
+            + "  gl_Position = u_mvp * vec4(a_position.xyz * lit, 1.0);\n" //
+            + "}\n";
+
+    private static final String FRAGMENT_SHADER = "" //
+            + "precision mediump float;\n"
+            + "varying vec2 coord;\n"
+            + "varying vec3 color;\n"
+            + "uniform sampler2D " + TEXTURE_KEY + ";\n"
+            + "void main() {\n" //
+            + "  vec4 texel = texture2D(" + TEXTURE_KEY + ", coord);\n"
+            + "  gl_FragColor = vec4(texel.rgb * color, texel.a);\n" //
+            + "}\n";
+
+    private GVRCustomMaterialShaderId mShaderId;
+    private GVRMaterialMap mCustomShader = null;
+
+    public SoundWaveShader(GVRContext gvrContext) {
+
+        final GVRMaterialShaderManager shaderManager = gvrContext.getMaterialShaderManager();
+
+        mShaderId = shaderManager.addShader(VERTEX_SHADER, FRAGMENT_SHADER);
+        mCustomShader = shaderManager.getShaderMap(mShaderId);
+        mCustomShader.addTextureKey(TEXTURE_KEY, TEXTURE_KEY);
+        for (String key : LEVELS_KEYS) {
+            mCustomShader.addUniformVec4Key(key, key);
+        }
+    }
+
+    public GVRCustomMaterialShaderId getShaderId() {
+        return mShaderId;
+    }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.speech;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the last few sound levels, oldest overwritten first.
+ */
+public class SoundLevelHistory {
+
+    private final float[] levels;
+    private int next = 0;
+
+    public SoundLevelHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        levels = new float[capacity];
+    }
+
+    public int getCapacity() {
+        return levels.length;
+    }
+
+    public void add(float level) {
+        levels[next] = level;
+        next = next + 1 == levels.length ? 0 : next + 1;
+    }
+
+    /**
+     * @param age
+     *            0 for the newest level, {@code getCapacity() - 1} for the
+     *            oldest
+     * @return the level, or 0 if fewer have been added since the last
+     *         {@link #clear()}
+     */
+    public float get(int age) {
+        int index = next - 1 - age;
+        return levels[index < 0 ? index + levels.length : index];
+    }
+
+    public void clear() {
+        Arrays.fill(levels, 0);
+    }
+
+    /**
+     * Copies all {@link #getCapacity()} levels, oldest first.
+     */
+    public void copyTo(float[] out, int offset) {
+        int tail = levels.length - next;
+        System.arraycopy(levels, next, out, offset, tail);
+        System.arraycopy(levels, 0, out, offset + tail, next);
+    }
+}
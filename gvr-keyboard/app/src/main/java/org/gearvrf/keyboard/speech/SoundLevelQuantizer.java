@@ -0,0 +1,46 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.speech;
+
+/**
+ * Turns a mic level into the number of boxes {@link SoundWave} lights in a
+ * column: one per step of a {@code levels}th of the range's width that the
+ * level reaches, and always at least one. As in the per-box loop this
+ * replaces, the steps count up from zero rather than from the bottom of the
+ * range.
+ */
+public class SoundLevelQuantizer {
+
+    private final float step;
+    private final int levels;
+
+    public SoundLevelQuantizer(float minRange, float maxRange, int levels) {
+        this.step = (maxRange - minRange) / levels;
+        this.levels = levels;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public int quantize(float amplitude) {
+        int count = 1;
+        while (count < levels && step * (count + 1) <= amplitude) {
+            ++count;
+        }
+        return count;
+    }
+}
@@ -15,56 +15,69 @@
 
 package org.gearvrf.keyboard.speech;
 
-import android.graphics.Color;
-
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMaterial;
+import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.keyboard.R;
 import org.gearvrf.keyboard.mic.RecognitionRmsChangeListener;
+import org.gearvrf.keyboard.shader.SoundWaveShader;
 import org.gearvrf.keyboard.util.Constants;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.utility.Log;
 
-import java.util.ArrayList;
-
+/**
+ * Scrolling bar graph of the mic level: a column of up to
+ * {@link SoundWaveLayout#BOXES_PER_COLUMN} boxes per recent level, newest on
+ * the left.
+ *
+ * All the boxes are one mesh drawn by {@link SoundWaveShader}. A level
+ * change adds to a {@link SoundLevelHistory} and uploads it as a few
+ * uniforms; the shader works out which boxes show.
+ */
 public class SoundWave extends GVRSceneObject implements RecognitionRmsChangeListener {
 
-    private GVRSceneObject[] boxes;
-    private ArrayList<GVRSceneObject> columns;
-    private int currentBox = 0, currentColumn = 0;
-    private float minRange, maxRange;
+    private final SoundLevelHistory history;
+    private final SoundLevelQuantizer quantizer;
+    private final float[] levels = new float[SoundWaveShader.MAX_COLUMNS];
+    private final GVRMaterial material;
     private boolean canAnimate = false;
 
     public SoundWave(GVRContext gvrContext, int width, float minRange, float maxRange) {
 
         super(gvrContext);
+        if (width < 1 || width > SoundWaveShader.MAX_COLUMNS) {
+            throw new IllegalArgumentException("width must be 1 to "
+                    + SoundWaveShader.MAX_COLUMNS + ": " + width);
+        }
         setName(SceneObjectNames.SOUND_WAVE);
-        boxes = new GVRSceneObject[width * 5];
-        columns = new ArrayList<GVRSceneObject>();
-        this.minRange = minRange;
-        this.maxRange = maxRange;
+        history = new SoundLevelHistory(width);
+        quantizer = new SoundLevelQuantizer(minRange, maxRange,
+                SoundWaveLayout.BOXES_PER_COLUMN);
+
+        material = new GVRMaterial(gvrContext, new SoundWaveShader(gvrContext).getShaderId());
+        material.setTexture(SoundWaveShader.TEXTURE_KEY, gvrContext.loadTexture(
+                new GVRAndroidResource(gvrContext, R.drawable.soundwave_wave_block)));
 
-        for (int i = 0; i < width; i++)
-            createColumn(gvrContext);
+        GVRSceneObject wave = new GVRSceneObject(gvrContext, createMesh(gvrContext, width));
+        wave.getRenderData().setMaterial(material);
+        wave.getRenderData().setRenderingOrder(RenderingOrder.KEYBOARD_SOUND_WAVE);
+        addChildObject(wave);
 
-        currentColumn = 0;
         hide();
     }
 
-    private void createColumn(GVRContext context) {
-
-        GVRSceneObject column = new GVRSceneObject(context);
-        column.addChildObject(createBox(context, Color.argb(1, 230, 72, 50)));
-        column.addChildObject(createBox(context, Color.argb(1, 209, 60, 43)));
-        column.addChildObject(createBox(context, Color.argb(1, 186, 47, 35)));
-        column.addChildObject(createBox(context, Color.argb(1, 163, 34, 27)));
-        column.addChildObject(createBox(context, Color.argb(1, 142, 22, 20)));
-        columns.add(column);
-        this.addChildObject(column);
-        currentColumn++;
-        currentBox = 0;
+    private static GVRMesh createMesh(GVRContext context, int width) {
+
+        SoundWaveLayout layout = new SoundWaveLayout(width);
+        GVRMesh mesh = new GVRMesh(context);
+        mesh.setVertices(layout.getVertices());
+        mesh.setNormals(layout.getNormals());
+        mesh.setTexCoords(layout.getTexCoords());
+        mesh.setTriangles(layout.getTriangles());
+        return mesh;
     }
 
     public void update(float newSize, float newPositionX) {
@@ -76,50 +89,6 @@ public class SoundWave extends GVRSceneObject implements RecognitionRmsChangeLis
         getTransform().setScale(waveSize, 0.5f, 0.5f);
     }
 
-    private GVRSceneObject createBox(GVRContext context, int color) {
-
-        GVRSceneObject box1 = new GVRSceneObject(
-                context,
-                0.1f,
-                0.1f,
-                context.loadTexture(new GVRAndroidResource(context, R.drawable.soundwave_wave_block)));
-        box1.getRenderData().getMaterial().setColor(color);
-        box1.getRenderData().getMaterial().setOpacity(1);
-        box1.getRenderData().setRenderingOrder(RenderingOrder.KEYBOARD_SOUND_WAVE);
-        box1.getTransform().setPosition(0 - 0.11f * currentColumn, 0 - 0.11f * currentBox, 0);
-        boxes[currentBox] = box1;
-        currentBox++;
-        context.getMainScene().addSceneObject(box1);
-        return box1;
-
-    }
-
-    private void setColumn(float amplitude) {
-
-        float valueBlock = (maxRange - minRange) / 5;
-        GVRSceneObject currentColumn = columns.get(0);
-
-        for (int i = 0; i < columns.size(); i++) {
-
-            columns.get(i).getTransform().setPositionX(
-                    columns.get(i).getTransform().getPositionX() + 0.11f);
-
-        }
-        columns.get(0).getTransform().setPositionX(
-                columns.get(0).getTransform().getPositionX() - (columns.size()) * 0.11f);
-
-        for (int i = 0; i < columns.get(0).getChildrenCount(); i++) {
-            if (valueBlock * (1 + i) <= amplitude || i == 0)
-                columns.get(0).getChildByIndex(4 - i).getRenderData().getMaterial().setOpacity(1);
-            else
-                columns.get(0).getChildByIndex(4 - i).getRenderData().getMaterial().setOpacity(0);
-
-        }
-        columns.remove(0);
-        columns.add(currentColumn);
-
-    }
-
     public void enableAnimation() {
 
         canAnimate = true;
@@ -129,11 +98,20 @@ public class SoundWave extends GVRSceneObject implements RecognitionRmsChangeLis
     private void hide() {
 
         canAnimate = false;
-        for (int i = 0; i < columns.size(); i++) {
+        history.clear();
+        uploadLevels();
+    }
+
+    /*
+     * Oldest level in column 0, on the right, so the wave scrolls right.
+     */
+    private void uploadLevels() {
 
-            for (int o = 0; o < columns.get(i).getChildrenCount(); o++) {
-                columns.get(i).getChildByIndex(o).getRenderData().getMaterial().setOpacity(0);
-            }
+        history.copyTo(levels, 0);
+        int groups = (history.getCapacity() + 3) / 4;
+        for (int i = 0; i < groups; i++) {
+            material.setVec4(SoundWaveShader.LEVELS_KEYS[i], levels[i * 4], levels[i * 4 + 1],
+                    levels[i * 4 + 2], levels[i * 4 + 3]);
         }
     }
 
@@ -142,8 +120,8 @@ public class SoundWave extends GVRSceneObject implements RecognitionRmsChangeLis
 
         if (!canAnimate)
             return;
-        setColumn(rmsdB);
-        Log.e(null, "" + rmsdB);
+        history.add(quantizer.quantize(rmsdB));
+        uploadLevels();
     }
 
     @Override
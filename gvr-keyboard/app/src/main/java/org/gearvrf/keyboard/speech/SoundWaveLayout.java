@@ -0,0 +1,105 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.speech;
+
+/**
+ * Geometry of the {@link SoundWave} box grid: a quad per box, column 0 on
+ * the right and row 0 at the bottom, with the column and row in the normals
+ * for {@link org.gearvrf.keyboard.shader.SoundWaveShader}. Plain Java, so
+ * the layout can be checked on a desktop JVM.
+ */
+public class SoundWaveLayout {
+
+    public static final int BOXES_PER_COLUMN = 5;
+    public static final float BOX_SIZE = 0.1f;
+    public static final float BOX_SPACING = 0.11f;
+
+    private final int width;
+    private final float[] vertices;
+    private final float[] normals;
+    private final float[] texCoords;
+    private final char[] triangles;
+
+    public SoundWaveLayout(int width) {
+        this.width = width;
+        int boxes = width * BOXES_PER_COLUMN;
+        vertices = new float[boxes * 4 * 3];
+        normals = new float[boxes * 4 * 3];
+        texCoords = new float[boxes * 4 * 2];
+        triangles = new char[boxes * 6];
+        float half = BOX_SIZE / 2;
+
+        int box = 0;
+        for (int column = 0; column < width; column++) {
+            for (int row = 0; row < BOXES_PER_COLUMN; row++, box++) {
+                float x = getBoxX(column);
+                float y = getBoxY(row);
+                for (int corner = 0; corner < 4; corner++) {
+                    int vertex = box * 4 + corner;
+                    float u = corner / 2;
+                    float v = corner % 2;
+                    vertices[vertex * 3] = x - half + u * BOX_SIZE;
+                    vertices[vertex * 3 + 1] = y + half - v * BOX_SIZE;
+                    normals[vertex * 3] = column;
+                    normals[vertex * 3 + 1] = row;
+                    texCoords[vertex * 2] = u;
+                    texCoords[vertex * 2 + 1] = v;
+                }
+                int first = box * 4;
+                triangles[box * 6] = (char) first;
+                triangles[box * 6 + 1] = (char) (first + 1);
+                triangles[box * 6 + 2] = (char) (first + 2);
+                triangles[box * 6 + 3] = (char) (first + 1);
+                triangles[box * 6 + 4] = (char) (first + 3);
+                triangles[box * 6 + 5] = (char) (first + 2);
+            }
+        }
+    }
+
+    /**
+     * @return the x of a column's box centers
+     */
+    public static float getBoxX(int column) {
+        return -BOX_SPACING * column;
+    }
+
+    /**
+     * @return the y of a row's box centers
+     */
+    public static float getBoxY(int row) {
+        return -BOX_SPACING * (BOXES_PER_COLUMN - 1 - row);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public float[] getTexCoords() {
+        return texCoords;
+    }
+
+    public char[] getTriangles() {
+        return triangles;
+    }
+}
@@ -30,7 +30,7 @@ import org.gearvrf.keyboard.util.CircularList;
 import org.gearvrf.keyboard.util.RenderingOrder;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
-import org.gearvrf.keyboard.util.VRSamplesTouchPadGesturesDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 import java.util.ArrayList;
 
@@ -0,0 +1,204 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link HitAreaIndex} against the walk Main.interactWithVisibleObjects
+ * used to make over the whole scene for every picked holder, on a scene the
+ * size of the keyboard's: each flag's hit area resolves to the same flag,
+ * keys and other objects resolve to nothing where the walk took a key's
+ * first child for a flag, and a frame's picks allocate nothing. With
+ * -Dbenchmark=true it also times a frame's picks both ways against the
+ * 60 Hz frame budget.
+ */
+public class HitAreaIndexTest {
+
+    // R.array.spheres
+    private static final int FLAGS = 12;
+    // keys of the four keyboards, each with a label child
+    private static final int KEYS = 300;
+    // everything else in the scene: keyboard parts, dashboard, floor, ...
+    private static final int OTHERS = 150;
+
+    private static final int PICKED = 3;
+    private static final double FRAME_NANOS = 1e9 / 60;
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    private final ArrayList<Node> scene = new ArrayList<Node>();
+    private final ArrayList<Node> hitAreas = new ArrayList<Node>();
+    private final HitAreaIndex<Node> index = new HitAreaIndex<Node>();
+    private final Node dashboard = new Node(false);
+
+    public HitAreaIndexTest() {
+        for (int i = 0; i < FLAGS; ++i) {
+            Node hitArea = new Node(false);
+            Node flag = new Node(true);
+            hitArea.child = flag;
+            scene.add(hitArea);
+            scene.add(flag);
+            hitAreas.add(hitArea);
+            index.put(hitArea, flag);
+        }
+        for (int i = 0; i < KEYS; ++i) {
+            Node key = new Node(false);
+            key.child = new Node(false);
+            scene.add(key);
+            scene.add(key.child);
+        }
+        for (int i = 0; i < OTHERS; ++i) {
+            scene.add(new Node(false));
+        }
+        scene.add(dashboard);
+    }
+
+    @Test
+    public void resolvesWhatTheSceneWalkDid() {
+        assertEquals(FLAGS, index.size());
+        int miscast = 0;
+        for (Node picked : scene) {
+            Node flag = index.get(picked);
+            Node walked = legacyResolve(picked);
+            if (walked != null && !walked.flag) {
+                // the old walk cast a key's label to SphereFlag
+                assertNull(flag);
+                ++miscast;
+            } else {
+                assertSame(walked, flag);
+            }
+        }
+        assertEquals(KEYS, miscast);
+        assertNull(index.get(new Object()));
+    }
+
+    @Test
+    public void picksDoNotAllocate() {
+        Random random = new Random(1);
+        Node[] picked = new Node[PICKED];
+        // warm up first, so what's measured is compiled code
+        for (int pass = 0; pass < 2; ++pass) {
+            long before = allocatedBytes();
+            int found = 0;
+            for (int frame = 0; frame < 100000; ++frame) {
+                pick(random, picked);
+                for (Node owner : picked) {
+                    if (index.get(owner) != null) {
+                        ++found;
+                    }
+                }
+            }
+            long allocated = allocatedBytes() - before;
+            assertTrue(found > 0);
+            if (pass > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkFramePicks() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        Random random = new Random(2);
+        Node[][] picks = new Node[64][PICKED];
+        for (Node[] picked : picks) {
+            pick(random, picked);
+        }
+
+        int sink = 0;
+        long frames = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            for (Node owner : picks[(int) (frames++ & 63)]) {
+                if (legacyResolve(owner) != null) {
+                    ++sink;
+                }
+            }
+        }
+        double legacyNanos = (System.nanoTime() - start) / (double) frames;
+
+        frames = 0;
+        start = System.nanoTime();
+        end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            for (Node owner : picks[(int) (frames++ & 63)]) {
+                if (index.get(owner) != null) {
+                    ++sink;
+                }
+            }
+        }
+        double nanos = (System.nanoTime() - start) / (double) frames;
+        assertTrue(sink > 0);
+
+        System.out.println(String.format("%d scene objects, %d picks a frame: scene walk"
+                + " %,.0f ns (%.3f%% of a frame), index %,.0f ns (%.4f%%)", scene.size(),
+                PICKED, legacyNanos, 100 * legacyNanos / FRAME_NANOS, nanos, 100 * nanos
+                        / FRAME_NANOS));
+    }
+
+    /*
+     * A flag's hit area most of the time, otherwise anything in the scene.
+     */
+    private void pick(Random random, Node[] picked) {
+        for (int p = 0; p < picked.length; ++p) {
+            picked[p] = random.nextBoolean() ? hitAreas.get(random.nextInt(FLAGS)) : scene
+                    .get(random.nextInt(scene.size()));
+        }
+    }
+
+    /*
+     * The old per-holder walk: the picked object's first child, skipping the
+     * dashboard.
+     */
+    private Node legacyResolve(Node owner) {
+        Node found = null;
+        for (Node object : scene) {
+            if (dashboard.hashCode() == object.hashCode()) {
+                continue;
+            }
+            if (owner.equals(object) && object.child != null) {
+                found = object.child;
+            }
+        }
+        return found;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class Node {
+        final boolean flag;
+        Node child;
+
+        Node(boolean flag) {
+            this.flag = flag;
+        }
+    }
+}
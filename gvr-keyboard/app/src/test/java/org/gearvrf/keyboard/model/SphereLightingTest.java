@@ -0,0 +1,266 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.gearvrf.scenenode.SceneNode;
+import org.gearvrf.scenenode.SimSceneNode;
+import org.junit.Test;
+
+/**
+ * Runs a field of sphere hit areas through {@link SphereLighting} for ten
+ * seconds of frames and counts how many objects get relit: none once the
+ * head holds still, even while it turns; one per frame for each floating
+ * sphere; a share of frames in proportion to the speed for spheres drifting
+ * slower than the epsilon; and every sphere each frame the head moves. The
+ * uniforms are checked against the per frame formula SphereStaticList used
+ * before, exactly on the frames an object is relit and within a few epsilons
+ * between them. Objects with a motion hook are only read while it says they
+ * move.
+ */
+public class SphereLightingTest {
+
+    private static final float LIGHT_X = 2.0f;
+    private static final float LIGHT_Y = 4.0f;
+    private static final float LIGHT_Z = 10.0f;
+    private static final float EPSILON = SphereLighting.DEFAULT_EPSILON;
+    private static final int SPHERES = 20;
+    private static final int FRAMES = 600;
+    private static final int MOVING = 3;
+    // drift per frame as a share of the epsilon
+    private static final float DRIFT = .3f;
+
+    @Test
+    public void staticHeadRelightsNothing() {
+        assertEquals(0, run(0, 0, false, false));
+    }
+
+    @Test
+    public void turningHeadRelightsNothing() {
+        assertEquals(0, run(0, 0, true, false));
+    }
+
+    @Test
+    public void floatingSpheresAreRelitAlmostEveryFrame() {
+        // all but the frames about the turning points, where they slow below
+        // the epsilon
+        int relit = run(MOVING, 0, false, false);
+        assertTrue("relit " + relit, relit >= MOVING * FRAMES * 95 / 100);
+        assertTrue("relit " + relit, relit <= MOVING * FRAMES);
+    }
+
+    @Test
+    public void driftBelowEpsilonAddsUp() {
+        // a relight each time the drift adds up past the epsilon
+        int drifted = MOVING * FRAMES / ((int) (1 / DRIFT) + 1);
+        int relit = run(0, MOVING, false, false);
+        assertTrue("relit " + relit, relit >= drifted * 9 / 10);
+        assertTrue("relit " + relit, relit <= drifted * 11 / 10);
+    }
+
+    @Test
+    public void movingHeadRelightsEverything() {
+        assertEquals(SPHERES * FRAMES, run(0, 0, false, true));
+    }
+
+    @Test
+    public void readsEachMatrixOncePerUpdate() {
+        SimSceneNode[] nodes = field(new Random(1), new float[SPHERES]);
+        SphereLighting lighting = new SphereLighting(nodes, LIGHT_X, LIGHT_Y, LIGHT_Z);
+        lighting.update();
+        for (SimSceneNode node : nodes) {
+            node.resetCounters();
+        }
+        lighting.update();
+        for (SimSceneNode node : nodes) {
+            assertEquals(1, node.getReadCount());
+            assertEquals(0, node.getWriteCount());
+        }
+    }
+
+    /*
+     * A hook that is told whether its object moves.
+     */
+    private static class Hook implements SphereLighting.MotionHook {
+        boolean moving;
+
+        @Override
+        public boolean isMoving() {
+            return moving;
+        }
+    }
+
+    @Test
+    public void hookedObjectsAreReadOnlyWhileMoving() {
+        SimSceneNode[] nodes = field(new Random(1), new float[SPHERES]);
+        SimSceneNode camera = new SimSceneNode();
+        SphereLighting lighting = new SphereLighting(nodes, LIGHT_X, LIGHT_Y, LIGHT_Z);
+        Hook[] hooks = new Hook[SPHERES];
+        for (int i = 0; i < SPHERES; i++) {
+            hooks[i] = new Hook();
+            lighting.setHook(i, hooks[i]);
+        }
+        // the first update reads everything, then nothing while it all holds
+        assertEquals(SPHERES, lighting.update());
+        assertEquals(SPHERES, lighting.getReadCount());
+        for (int frame = 0; frame < 10; frame++) {
+            assertEquals(0, lighting.update());
+        }
+        assertEquals(SPHERES, lighting.getReadCount());
+
+        // moving, then one more read where the motion stopped
+        hooks[3].moving = true;
+        for (int frame = 1; frame <= 10; frame++) {
+            nodes[3].setPositionY(frame * .1f);
+            assertEquals(1, lighting.update());
+            assertEquals(SPHERES + frame, lighting.getReadCount());
+        }
+        hooks[3].moving = false;
+        nodes[3].setPositionY(1.05f);
+        assertEquals(1, lighting.update());
+        assertEquals(0, lighting.update());
+        assertEquals(SPHERES + 11, lighting.getReadCount());
+        assertUniforms(lighting, nodes, camera, 3);
+
+        // moved outside of the hook
+        nodes[5].setPositionX(2);
+        assertEquals(0, lighting.update());
+        lighting.markMoved(5);
+        assertEquals(1, lighting.update());
+        assertEquals(SPHERES + 12, lighting.getReadCount());
+        assertUniforms(lighting, nodes, camera, 5);
+
+        // a moving camera relights from the matrices already read
+        camera.setPosition(1, 2, 3);
+        lighting.setCamera(1, 2, 3);
+        assertEquals(SPHERES, lighting.update());
+        assertEquals(SPHERES + 12, lighting.getReadCount());
+        for (int i = 0; i < SPHERES; i++) {
+            assertUniforms(lighting, nodes, camera, i);
+        }
+    }
+
+    private static void assertUniforms(SphereLighting lighting, SceneNode[] nodes,
+            SceneNode camera, int i) {
+        float[] expected = new float[6];
+        legacy(nodes[i], camera, expected);
+        assertEquals(expected[0], lighting.getLightX(i), 0);
+        assertEquals(expected[1], lighting.getLightY(i), 0);
+        assertEquals(expected[2], lighting.getLightZ(i), 0);
+        assertEquals(expected[3], lighting.getEyeX(i), 0);
+        assertEquals(expected[4], lighting.getEyeY(i), 0);
+        assertEquals(expected[5], lighting.getEyeZ(i), 0);
+    }
+
+    /*
+     * Returns how many objects were relit. The first frame lights everything
+     * and isn't counted.
+     */
+    private static int run(int floating, int drifting, boolean turning, boolean moving) {
+        float[] baseY = new float[SPHERES];
+        SimSceneNode[] nodes = field(new Random(1), baseY);
+        SimSceneNode camera = new SimSceneNode();
+        SphereLighting lighting = new SphereLighting(nodes, LIGHT_X, LIGHT_Y, LIGHT_Z);
+        float[] expected = new float[6];
+        float[] actual = new float[6];
+
+        float error = 0;
+        int relit = 0;
+        for (int frame = 0; frame <= FRAMES; frame++) {
+            double time = frame / 60.0;
+            for (int i = 0; i < floating; i++) {
+                nodes[i].setPositionY(baseY[i] + (float) Math.sin(time * 2 + i) * .5f);
+            }
+            for (int i = floating; i < floating + drifting; i++) {
+                nodes[i].setPositionY(baseY[i] + frame * DRIFT * EPSILON);
+            }
+            if (turning) {
+                camera.setRotationByAxis((float) Math.sin(time) * 40, 0, 1, 0);
+            }
+            if (moving) {
+                camera.setPosition(frame * .001f, 0, 0);
+            }
+
+            lighting.setCamera(camera.getPositionX(), camera.getPositionY(),
+                    camera.getPositionZ());
+            int count = lighting.update();
+            if (frame > 0) {
+                relit += count;
+            }
+
+            for (int i = 0; i < SPHERES; i++) {
+                legacy(nodes[i], camera, expected);
+                actual[0] = lighting.getLightX(i);
+                actual[1] = lighting.getLightY(i);
+                actual[2] = lighting.getLightZ(i);
+                actual[3] = lighting.getEyeX(i);
+                actual[4] = lighting.getEyeY(i);
+                actual[5] = lighting.getEyeZ(i);
+                for (int k = 0; k < 6; k++) {
+                    if (lighting.isChanged(i)) {
+                        assertEquals("frame " + frame + " sphere " + i, expected[k],
+                                actual[k], 0);
+                    }
+                    error = Math.max(error, Math.abs(actual[k] - expected[k]));
+                }
+            }
+        }
+        // each input element may lag by up to the epsilon, through light
+        // terms up to 10
+        assertTrue("max error " + error, error <= 20 * EPSILON);
+        return relit;
+    }
+
+    private static SimSceneNode[] field(Random random, float[] baseY) {
+        SimSceneNode[] nodes = new SimSceneNode[baseY.length];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new SimSceneNode();
+            baseY[i] = random.nextFloat() * 4 - 2;
+            nodes[i].setPosition(random.nextFloat() * 10 - 5, baseY[i],
+                    -3 - random.nextFloat() * 5);
+            float scale = .5f + random.nextFloat();
+            nodes[i].setScale(scale, scale, scale);
+            nodes[i].setRotationByAxis(random.nextFloat() * 360, 0, 1, 0);
+        }
+        return nodes;
+    }
+
+    /*
+     * SphereStaticList.updateSpheresMaterial as it was, run every frame.
+     */
+    private static void legacy(SceneNode sphereFlag, SceneNode camera, float[] out) {
+        float[] mat = sphereFlag.getModelMatrix();
+
+        float lX = mat[0] * LIGHT_X + mat[1] * LIGHT_Y + mat[2] * LIGHT_Z + mat[3];
+        float lY = mat[4] * LIGHT_X + mat[5] * LIGHT_Y + mat[6] * LIGHT_Z + mat[7];
+        float lZ = mat[8] * LIGHT_X + mat[9] * LIGHT_Y + mat[10] * LIGHT_Z + mat[11];
+
+        float x = camera.getPositionX();
+        float y = camera.getPositionY();
+        float z = camera.getPositionZ();
+
+        out[0] = lX - sphereFlag.getPositionX();
+        out[1] = lY - sphereFlag.getPositionY();
+        out[2] = lZ - sphereFlag.getPositionZ();
+        out[3] = mat[0] * x + mat[1] * y + mat[2] * z + mat[3] * 1;
+        out[4] = mat[4] * x + mat[5] * y + mat[6] * z + mat[7] * 1;
+        out[5] = mat[8] * x + mat[9] * y + mat[10] * z + mat[11] * 1;
+    }
+}
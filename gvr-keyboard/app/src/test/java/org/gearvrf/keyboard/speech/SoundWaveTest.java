@@ -0,0 +1,329 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.speech;
+
+import static org.gearvrf.keyboard.speech.SoundWaveLayout.BOXES_PER_COLUMN;
+import static org.gearvrf.keyboard.speech.SoundWaveLayout.BOX_SIZE;
+import static org.gearvrf.keyboard.speech.SoundWaveLayout.BOX_SPACING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.gearvrf.scenenode.SceneNode;
+import org.gearvrf.scenenode.SimSceneNode;
+import org.junit.Test;
+
+/**
+ * Checks {@link SoundLevelHistory}, {@link SoundLevelQuantizer} and
+ * {@link SoundWaveLayout} against the grid of scene objects the sound wave
+ * used to be: the ring's ordering through wraparound and clearing, that
+ * quantizing lights the same boxes the old per-box loop did, that the
+ * uploaded levels, read the way the shader reads them, show what the old
+ * grid showed after the same run of levels and hides, and that the mesh puts
+ * each box where the old grid put it. With -Dbenchmark=true it also times a
+ * level change both ways and counts the writes each makes.
+ */
+public class SoundWaveTest {
+
+    // as Main sets up the wave
+    private static final int WIDTH = 13;
+    private static final float MIN_RANGE = 0;
+    private static final float MAX_RANGE = 10;
+
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    @Test
+    public void ringKeepsOrderThroughWraparoundAndClear() {
+        SoundLevelHistory history = new SoundLevelHistory(WIDTH);
+        float[] out = new float[WIDTH];
+
+        for (int i = 1; i <= 3; i++) {
+            history.add(i);
+        }
+        history.copyTo(out, 0);
+        for (int i = 0; i < WIDTH; i++) {
+            assertEquals(Math.max(0, i - (WIDTH - 4)), out[i], 0);
+        }
+
+        for (int i = 4; i <= 3 * WIDTH + 5; i++) {
+            history.add(i);
+            history.copyTo(out, 0);
+            for (int age = 0; age < WIDTH; age++) {
+                float expected = Math.max(0, i - age);
+                assertEquals(expected, history.get(age), 0);
+                assertEquals(expected, out[WIDTH - 1 - age], 0);
+            }
+        }
+
+        history.clear();
+        history.copyTo(out, 0);
+        for (int i = 0; i < WIDTH; i++) {
+            assertEquals(0, out[i], 0);
+            assertEquals(0, history.get(i), 0);
+        }
+    }
+
+    @Test
+    public void quantizeMatchesPerBoxLoop() {
+        // the last two start above and below zero, which the old loop ignored
+        float[][] ranges = { { 0, 10 }, { 0, 7.3f }, { 0, 1 }, { 2, 12 }, { -3, 7 } };
+        for (float[] range : ranges) {
+            SoundLevelQuantizer quantizer = new SoundLevelQuantizer(range[0], range[1],
+                    BOXES_PER_COLUMN);
+            for (int i = -5000; i <= 15000; i++) {
+                float amplitude = i * .001f * (range[1] - range[0]);
+                assertEquals("amplitude " + amplitude, legacyLit(range[0], range[1], amplitude),
+                        quantizer.quantize(amplitude));
+            }
+        }
+    }
+
+    /*
+     * Random levels with the odd hide, through the old grid and through the
+     * history, comparing what each column slot shows after every event.
+     */
+    @Test
+    public void shaderShowsWhatBoxGridShowed() {
+        Random random = new Random(1);
+        LegacyGrid grid = new LegacyGrid(WIDTH, MIN_RANGE, MAX_RANGE);
+        SoundLevelHistory history = new SoundLevelHistory(WIDTH);
+        SoundLevelQuantizer quantizer = new SoundLevelQuantizer(MIN_RANGE, MAX_RANGE,
+                BOXES_PER_COLUMN);
+        float[] levels = new float[WIDTH];
+        int[] shown = new int[WIDTH];
+        for (int i = 0; i < 5000; i++) {
+            if (random.nextInt(200) == 0) {
+                grid.hide();
+                history.clear();
+            } else {
+                float rms = random.nextFloat() * 14 - 2;
+                grid.addSample(rms);
+                history.add(quantizer.quantize(rms));
+            }
+            grid.shown(shown);
+            history.copyTo(levels, 0);
+            for (int slot = 0; slot < WIDTH; slot++) {
+                assertEquals("event " + i + " slot " + slot, shown[slot],
+                        shaderLit(levels, slot));
+            }
+        }
+    }
+
+    @Test
+    public void meshPutsBoxesWhereTheGridDid() {
+        SoundWaveLayout layout = new SoundWaveLayout(WIDTH);
+        float[] vertices = layout.getVertices();
+        float[] normals = layout.getNormals();
+        char[] triangles = layout.getTriangles();
+        int boxes = WIDTH * BOXES_PER_COLUMN;
+        assertEquals(boxes * 4 * 3, vertices.length);
+        assertEquals(boxes * 4 * 2, layout.getTexCoords().length);
+        assertEquals(boxes * 6, triangles.length);
+
+        for (int box = 0; box < boxes; box++) {
+            int column = box / BOXES_PER_COLUMN;
+            int row = box % BOXES_PER_COLUMN;
+            // the old grid put row b of column c at (-c, -b) spacings, b
+            // counted from the top
+            float centerX = 0;
+            float centerY = 0;
+            for (int corner = 0; corner < 4; corner++) {
+                int vertex = box * 4 + corner;
+                centerX += vertices[vertex * 3] / 4;
+                centerY += vertices[vertex * 3 + 1] / 4;
+                assertEquals(column, normals[vertex * 3], 0);
+                assertEquals(row, normals[vertex * 3 + 1], 0);
+            }
+            assertEquals(-BOX_SPACING * column, centerX, 1e-6f);
+            assertEquals(-BOX_SPACING * (BOXES_PER_COLUMN - 1 - row), centerY, 1e-6f);
+            assertEquals(BOX_SIZE, vertices[(box * 4 + 2) * 3] - vertices[box * 4 * 3], 1e-6f);
+
+            for (int i = 0; i < 6; i++) {
+                int vertex = triangles[box * 6 + i];
+                assertTrue(vertex >= box * 4 && vertex < box * 4 + 4);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkLevelChange() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        Random random = new Random(2);
+        float[] samples = new float[1024];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextFloat() * 14 - 2;
+        }
+
+        LegacyGrid grid = new LegacyGrid(WIDTH, MIN_RANGE, MAX_RANGE);
+        long legacyCount = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            grid.addSample(samples[(int) (legacyCount++ & 1023)]);
+        }
+        double legacyRate = legacyCount / ((System.nanoTime() - start) / 1e9);
+        grid.resetCounters();
+        grid.addSample(samples[0]);
+        int legacyWrites = grid.getWriteCount();
+
+        SoundLevelHistory history = new SoundLevelHistory(WIDTH);
+        SoundLevelQuantizer quantizer = new SoundLevelQuantizer(MIN_RANGE, MAX_RANGE,
+                BOXES_PER_COLUMN);
+        float[] levels = new float[WIDTH];
+        long count = 0;
+        float sink = 0;
+        start = System.nanoTime();
+        end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            history.add(quantizer.quantize(samples[(int) (count++ & 1023)]));
+            history.copyTo(levels, 0);
+            sink += levels[0];
+        }
+        double rate = count / ((System.nanoTime() - start) / 1e9);
+
+        // one vec4 uniform per four columns against a move per column, the
+        // recycled column's move and an opacity per box in it
+        int writes = (WIDTH + 3) / 4;
+        assertEquals(WIDTH + 1 + BOXES_PER_COLUMN, legacyWrites);
+        assertTrue(sink >= 0);
+
+        System.out.println(String.format("%-14s %16s %14s %12s", "", "level changes/s",
+                "writes/change", "draw calls"));
+        System.out.println(String.format("%-14s %,16.0f %14d %12d", "box grid", legacyRate,
+                legacyWrites, WIDTH * BOXES_PER_COLUMN));
+        System.out.println(String.format("%-14s %,16.0f %14d %12d", "shader", rate, writes, 1));
+    }
+
+    /*
+     * Boxes the vertex shader keeps in a column: rows below the level.
+     */
+    private static int shaderLit(float[] levels, int column) {
+        int lit = 0;
+        for (int row = 0; row < BOXES_PER_COLUMN; row++) {
+            if (levels[column] >= row + .5f) {
+                lit++;
+            }
+        }
+        return lit;
+    }
+
+    private static int legacyLit(float minRange, float maxRange, float amplitude) {
+        float valueBlock = (maxRange - minRange) / BOXES_PER_COLUMN;
+        int lit = 0;
+        for (int i = 0; i < BOXES_PER_COLUMN; i++) {
+            if (valueBlock * (1 + i) <= amplitude || i == 0) {
+                lit++;
+            }
+        }
+        return lit;
+    }
+
+    /*
+     * SoundWave's old grid: a scene object per box, columns scrolled by
+     * moving them and the oldest recycled to the far end, lit by opacity.
+     */
+    private static class LegacyGrid {
+
+        private final SimSceneNode[] columns;
+        private final SimSceneNode[][] boxes;
+        private final float minRange, maxRange;
+        private final float[] matrix = new float[16];
+        private int oldest = 0;
+
+        LegacyGrid(int width, float minRange, float maxRange) {
+            this.minRange = minRange;
+            this.maxRange = maxRange;
+            columns = new SimSceneNode[width];
+            boxes = new SimSceneNode[width][BOXES_PER_COLUMN];
+            for (int c = 0; c < width; c++) {
+                columns[c] = new SimSceneNode();
+                for (int b = 0; b < BOXES_PER_COLUMN; b++) {
+                    boxes[c][b] = new SimSceneNode(columns[c]);
+                    boxes[c][b].setPosition(-BOX_SPACING * c, -BOX_SPACING * b, 0);
+                }
+            }
+            hide();
+        }
+
+        void addSample(float amplitude) {
+
+            float valueBlock = (maxRange - minRange) / BOXES_PER_COLUMN;
+
+            for (int i = 0; i < columns.length; i++) {
+                SceneNode column = columns[i];
+                column.setPositionX(column.getPositionX() + BOX_SPACING);
+            }
+
+            SceneNode recycled = columns[oldest];
+            recycled.setPositionX(recycled.getPositionX() - columns.length * BOX_SPACING);
+
+            SceneNode[] recycledBoxes = boxes[oldest];
+            for (int i = 0; i < BOXES_PER_COLUMN; i++) {
+                boolean lit = valueBlock * (1 + i) <= amplitude || i == 0;
+                recycledBoxes[BOXES_PER_COLUMN - 1 - i].setOpacity(lit ? 1 : 0);
+            }
+
+            oldest = (oldest + 1) % columns.length;
+        }
+
+        void hide() {
+            for (int i = 0; i < boxes.length; i++) {
+                for (int o = 0; o < boxes[i].length; o++) {
+                    boxes[i][o].setOpacity(0);
+                }
+            }
+        }
+
+        /*
+         * Lit boxes per slot, slot 0 at x = 0 and slot s at -s * spacing.
+         */
+        void shown(int[] lit) {
+            Arrays.fill(lit, 0);
+            for (SimSceneNode[] column : boxes) {
+                for (SimSceneNode box : column) {
+                    box.getModelMatrix(matrix);
+                    int slot = Math.round(-matrix[12] / BOX_SPACING);
+                    if (box.getOpacity() == 1) {
+                        lit[slot]++;
+                    }
+                }
+            }
+        }
+
+        void resetCounters() {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c].resetCounters();
+                for (SimSceneNode box : boxes[c]) {
+                    box.resetCounters();
+                }
+            }
+        }
+
+        int getWriteCount() {
+            int writes = 0;
+            for (int c = 0; c < columns.length; c++) {
+                writes += columns[c].getWriteCount();
+                for (SimSceneNode box : boxes[c]) {
+                    writes += box.getWriteCount();
+                }
+            }
+            return writes;
+        }
+    }
+}
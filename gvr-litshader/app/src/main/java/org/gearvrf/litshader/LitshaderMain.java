@@ -27,6 +27,7 @@ import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRMain;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.util.Log;
 import android.view.MotionEvent;
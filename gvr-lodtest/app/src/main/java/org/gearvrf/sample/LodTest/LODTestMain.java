@@ -9,6 +9,7 @@ import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRHybridObject;
 import org.gearvrf.GVRMaterial;
+import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRMaterial.GVRShaderType;
 import org.gearvrf.GVRScene;
@@ -22,7 +23,21 @@ import org.gearvrf.animation.GVRRepeatMode;
 import org.gearvrf.animation.GVRTransformAnimation;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
 
+import android.util.Log;
+
 public class LODTestMain extends GVRMain {
+
+    private static final String TAG = "LODTestMain";
+
+    /*
+     * Eye buffer of the headset, and how many pixels a level may be off
+     * before the next more detailed one takes over.
+     */
+    private static final float VERTICAL_FOV = (float) Math.toRadians(90.0);
+    private static final int EYE_BUFFER_HEIGHT = 1024;
+    private static final float MAX_PIXEL_ERROR = 4.0f;
+    private static final int LEVEL_COUNT = 3;
+    private static final float LEVEL_REDUCTION = 0.3f;
     
     private List<GVRAnimation> animations = new ArrayList<GVRAnimation>();
     private GVRAnimationEngine animationEngine;
@@ -46,24 +61,44 @@ public class LODTestMain extends GVRMain {
         Future<GVRTexture> greenFutureTexture = gvrContext.loadFutureTexture(new GVRAndroidResource(gvrContext, R.drawable.green));
         Future<GVRTexture> blueFutureTexture = gvrContext.loadFutureTexture(new GVRAndroidResource(gvrContext, R.drawable.blue));
 
-        GVRSphereSceneObject sphereHighDensity = new GVRSphereSceneObject(gvrContext);
-        setupObject(gvrContext, sphereHighDensity, redFutureTexture);
-        sphereHighDensity.setLODRange(0.0f, 5.0f);
-        scene.addSceneObject(sphereHighDensity);
-        
-        GVRSphereSceneObject sphereMediumDensity = new GVRSphereSceneObject(gvrContext, 9, 9,
-                true, new GVRMaterial(gvrContext));
-        setupObject(gvrContext, sphereMediumDensity, greenFutureTexture); 
-        sphereMediumDensity.setLODRange(5.0f, 9.0f);
-        scene.addSceneObject(sphereMediumDensity);
-        
-        GVRSphereSceneObject sphereLowDensity = new GVRSphereSceneObject(gvrContext, 6, 6,
-                true, new GVRMaterial(gvrContext));
-        setupObject(gvrContext, sphereLowDensity, blueFutureTexture);   
-        sphereLowDensity.setLODRange(9.0f, Float.MAX_VALUE);
-        scene.addSceneObject(sphereLowDensity);
+        /*
+         * Only the detailed sphere is authored; the coarser levels and the
+         * distances at which they take over are derived from it.
+         */
+        GVRSphereSceneObject sphere = new GVRSphereSceneObject(gvrContext);
+        GVRMesh sphereMesh = sphere.getRenderData().getMesh();
+        MeshSimplifier simplifier = new MeshSimplifier(sphereMesh.getVertices(),
+                sphereMesh.getNormals(), sphereMesh.getTexCoords(), sphereMesh.getTriangles());
+        List<LodChain.Level> levels = new LodChain(VERTICAL_FOV, EYE_BUFFER_HEIGHT,
+                MAX_PIXEL_ERROR).build(simplifier, LEVEL_COUNT, LEVEL_REDUCTION);
+
+        List<Future<GVRTexture>> levelTextures = new ArrayList<Future<GVRTexture>>();
+        levelTextures.add(redFutureTexture);
+        levelTextures.add(greenFutureTexture);
+        levelTextures.add(blueFutureTexture);
+        for (int i = 0; i < levels.size(); ++i) {
+            LodChain.Level level = levels.get(i);
+            GVRSceneObject object = new GVRSceneObject(gvrContext, toMesh(gvrContext, level.mesh));
+            setupObject(gvrContext, object, levelTextures.get(i % levelTextures.size()));
+            object.setLODRange(level.minDistance, level.maxDistance);
+            scene.addSceneObject(object);
+            Log.d(TAG, "level " + i + ": " + level);
+        }
         
     }
+
+    private static GVRMesh toMesh(GVRContext gvrContext, MeshSimplifier.Result result) {
+        GVRMesh mesh = new GVRMesh(gvrContext);
+        mesh.setVertices(result.positions);
+        if (result.normals != null) {
+            mesh.setNormals(result.normals);
+        }
+        if (result.texCoords != null) {
+            mesh.setTexCoords(result.texCoords);
+        }
+        mesh.setTriangles(result.indices);
+        return mesh;
+    }
     
     private void setupObject(GVRContext gvrContext, GVRSceneObject object, Future<GVRTexture> futureTexture) {
         object.getTransform().setPosition(0,  0,  -3.0f);
@@ -0,0 +1,129 @@
+package org.gearvrf.sample.LodTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a chain of detail levels from one mesh and picks the distance at
+ * which each level may take over: the point where its Hausdorff distance
+ * from the unsimplified mesh, seen through the headset, shrinks below
+ * {@code maxPixelError} pixels. A level whose range would end less than
+ * {@link #MIN_RANGE_RATIO} times farther than it starts, or before
+ * {@link #MIN_SWITCH_DISTANCE}, is dropped. The
+ * ranges are contiguous and suitable for {@code GVRSceneObject.setLODRange}.
+ * Plain Java, so it can be run on a desktop JVM.
+ */
+public class LodChain {
+
+    /**
+     * Smallest ratio between the far and the near end of a level's range.
+     */
+    public static final float MIN_RANGE_RATIO = 1.25f;
+
+    /**
+     * GVRf's default near clipping distance; a level that hands over closer
+     * than this is never seen.
+     */
+    public static final float MIN_SWITCH_DISTANCE = 0.1f;
+
+    public static class Level {
+        public final MeshSimplifier.Result mesh;
+        /**
+         * Hausdorff distance, in model units, from the unsimplified mesh.
+         */
+        public final float distance;
+        public final float minDistance;
+        /**
+         * {@link Float#MAX_VALUE} for the last level.
+         */
+        public final float maxDistance;
+
+        Level(MeshSimplifier.Result mesh, float distance, float minDistance,
+                float maxDistance) {
+            this.mesh = mesh;
+            this.distance = distance;
+            this.minDistance = minDistance;
+            this.maxDistance = maxDistance;
+        }
+
+        @Override
+        public String toString() {
+            String range = maxDistance == Float.MAX_VALUE
+                    ? String.format("%.2f on", minDistance)
+                    : String.format("%.2f to %.2f", minDistance, maxDistance);
+            return mesh.getTriangleCount() + " triangles, " + range;
+        }
+    }
+
+    private final float pixelsAtUnitDistance;
+
+    /**
+     * @param verticalFov
+     *            field of view of one eye, in radians.
+     * @param screenHeight
+     *            eye buffer height in pixels.
+     * @param maxPixelError
+     *            how far, in pixels, a level may be off before the next
+     *            closer level takes over.
+     */
+    public LodChain(float verticalFov, int screenHeight, float maxPixelError) {
+        pixelsAtUnitDistance = (float) (screenHeight / 2 / Math.tan(verticalFov / 2))
+                / maxPixelError;
+    }
+
+    /**
+     * @return the distance beyond which {@code error} model units cover less
+     *         than the allowed number of pixels.
+     */
+    public float getSwitchDistance(float error) {
+        return error * pixelsAtUnitDistance;
+    }
+
+    /**
+     * Simplifies {@code simplifier}'s mesh in {@code levelCount - 1} steps,
+     * each keeping {@code reduction} of the previous level's triangles.
+     * Level 0 is the unsimplified mesh, unless a coarser level matches it
+     * exactly; levels too close to the next one are left out, so fewer than
+     * {@code levelCount} levels may be returned.
+     */
+    public List<Level> build(MeshSimplifier simplifier, int levelCount, float reduction) {
+        MeshSimplifier.Result original = simplifier.getResult();
+        List<MeshSimplifier.Result> meshes = new ArrayList<MeshSimplifier.Result>();
+        List<Float> distances = new ArrayList<Float>();
+        List<Float> starts = new ArrayList<Float>();
+        meshes.add(original);
+        distances.add(0.0f);
+        starts.add(0.0f);
+        for (int i = 1; i < levelCount; ++i) {
+            int target = (int) (simplifier.getTriangleCount() * reduction);
+            simplifier.simplify(target, Float.MAX_VALUE);
+            MeshSimplifier.Result mesh = simplifier.getResult();
+            float distance = MeshDistance.hausdorff(original.positions, original.indices,
+                    mesh.positions, mesh.indices);
+            float start = getSwitchDistance(distance);
+
+            /*
+             * The previous level would only be shown between its own start
+             * and this one's; drop it and let the level before it reach on.
+             */
+            int last = meshes.size() - 1;
+            while (last >= 0 && start <= Math.max(starts.get(last) * MIN_RANGE_RATIO,
+                    MIN_SWITCH_DISTANCE)) {
+                meshes.remove(last);
+                distances.remove(last);
+                starts.remove(last);
+                --last;
+            }
+            meshes.add(mesh);
+            distances.add(distance);
+            starts.add(last < 0 ? 0.0f : start);
+        }
+
+        List<Level> levels = new ArrayList<Level>();
+        for (int i = 0; i < meshes.size(); ++i) {
+            float far = i + 1 < meshes.size() ? starts.get(i + 1) : Float.MAX_VALUE;
+            levels.add(new Level(meshes.get(i), distances.get(i), starts.get(i), far));
+        }
+        return levels;
+    }
+}
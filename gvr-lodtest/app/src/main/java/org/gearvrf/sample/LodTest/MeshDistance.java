@@ -0,0 +1,97 @@
+package org.gearvrf.sample.LodTest;
+
+/**
+ * Brute force Hausdorff distance between two triangle meshes, measured from
+ * each mesh's vertices to the other mesh's surface. Quadratic in mesh size,
+ * so meant for meshes of a few thousand triangles, like the sphere
+ * {@link LodChain} measures its levels on.
+ */
+public class MeshDistance {
+
+    /**
+     * @return the larger of the two one-sided vertex-to-surface distances.
+     */
+    public static float hausdorff(float[] positionsA, char[] indicesA, float[] positionsB,
+            char[] indicesB) {
+        return Math.max(oneSided(positionsA, positionsB, indicesB),
+                oneSided(positionsB, positionsA, indicesA));
+    }
+
+    /**
+     * @return the largest distance from a vertex in {@code points} to the
+     *         nearest triangle of the other mesh.
+     */
+    public static float oneSided(float[] points, float[] positions, char[] indices) {
+        double worst = 0;
+        for (int v = 0; v < points.length; v += 3) {
+            double best = Double.MAX_VALUE;
+            for (int t = 0; t < indices.length && best > worst; t += 3) {
+                best = Math.min(best, distanceSquared(points, v, positions, indices[t] * 3,
+                        indices[t + 1] * 3, indices[t + 2] * 3));
+            }
+            worst = Math.max(worst, best);
+        }
+        return (float) Math.sqrt(worst);
+    }
+
+    /*
+     * Squared distance from point p to triangle abc, following the closest
+     * point region tests in Ericson, Real-Time Collision Detection, 5.1.5.
+     */
+    private static double distanceSquared(float[] points, int p, float[] v, int a, int b, int c) {
+        double px = points[p], py = points[p + 1], pz = points[p + 2];
+        double ax = v[a], ay = v[a + 1], az = v[a + 2];
+        double abx = v[b] - ax, aby = v[b + 1] - ay, abz = v[b + 2] - az;
+        double acx = v[c] - ax, acy = v[c + 1] - ay, acz = v[c + 2] - az;
+        double apx = px - ax, apy = py - ay, apz = pz - az;
+
+        double d1 = abx * apx + aby * apy + abz * apz;
+        double d2 = acx * apx + acy * apy + acz * apz;
+        if (d1 <= 0 && d2 <= 0) {
+            return squared(apx, apy, apz);
+        }
+
+        double bpx = px - v[b], bpy = py - v[b + 1], bpz = pz - v[b + 2];
+        double d3 = abx * bpx + aby * bpy + abz * bpz;
+        double d4 = acx * bpx + acy * bpy + acz * bpz;
+        if (d3 >= 0 && d4 <= d3) {
+            return squared(bpx, bpy, bpz);
+        }
+
+        double vc = d1 * d4 - d3 * d2;
+        if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+            double s = d1 / (d1 - d3);
+            return squared(apx - s * abx, apy - s * aby, apz - s * abz);
+        }
+
+        double cpx = px - v[c], cpy = py - v[c + 1], cpz = pz - v[c + 2];
+        double d5 = abx * cpx + aby * cpy + abz * cpz;
+        double d6 = acx * cpx + acy * cpy + acz * cpz;
+        if (d6 >= 0 && d5 <= d6) {
+            return squared(cpx, cpy, cpz);
+        }
+
+        double vb = d5 * d2 - d1 * d6;
+        if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+            double s = d2 / (d2 - d6);
+            return squared(apx - s * acx, apy - s * acy, apz - s * acz);
+        }
+
+        double va = d3 * d6 - d5 * d4;
+        if (va <= 0 && (d4 - d3) >= 0 && (d5 - d6) >= 0) {
+            double s = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            double bcx = v[c] - v[b], bcy = v[c + 1] - v[b + 1], bcz = v[c + 2] - v[b + 2];
+            return squared(bpx - s * bcx, bpy - s * bcy, bpz - s * bcz);
+        }
+
+        double denominator = 1.0 / (va + vb + vc);
+        double s = vb * denominator;
+        double u = vc * denominator;
+        return squared(apx - s * abx - u * acx, apy - s * aby - u * acy, apz - s * abz - u
+                * acz);
+    }
+
+    private static double squared(double x, double y, double z) {
+        return x * x + y * y + z * z;
+    }
+}
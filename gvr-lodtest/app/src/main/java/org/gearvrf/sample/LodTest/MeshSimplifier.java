@@ -0,0 +1,680 @@
+package org.gearvrf.sample.LodTest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reduces a triangle mesh with quadric error metrics (Garland and Heckbert),
+ * using half-edge collapses: a vertex is only ever merged into one of its
+ * neighbours, so every surviving vertex keeps its original position, normal
+ * and texture coordinates exactly.
+ *
+ * Vertices that share a position are treated as one point of the surface and
+ * their separate attribute sets as wedges of that point, so UV seams and
+ * normal creases are where the wedges differ. Vertices of one point with the
+ * same texture coordinates and normals less than a crease angle apart count
+ * as one wedge, which lets faceted meshes such as bunny.obj simplify. Such a point may only slide
+ * along its seam onto another seam point, carrying every wedge with it, and
+ * seam and border edges add a penalty plane so they stay in place. Points on
+ * an open border are never moved.
+ *
+ * Arrays are laid out like {@code GVRMesh}: positions and normals
+ * {@code x, y, z}, texture coordinates {@code u, v}, triangles as unsigned
+ * 16-bit indices. Successive calls to {@link #simplify(int, float)} keep
+ * reducing the same mesh, so a chain of levels costs one pass over the
+ * original. Plain Java, so it can be run on a desktop JVM.
+ */
+public class MeshSimplifier {
+
+    /*
+     * Weight of the planes that hold seam and border edges in place,
+     * relative to the faces next to them.
+     */
+    private static final double SEAM_WEIGHT = 10.0;
+
+    /*
+     * Smallest cosine allowed between a face normal before and after a
+     * collapse.
+     */
+    private static final double MIN_NORMAL_COSINE = 0.2;
+
+    /*
+     * Normals closer than about 45 degrees are not a crease.
+     */
+    private static final double CREASE_COSINE = 0.7;
+
+    /*
+     * Quadric coefficients per point: a2 ab ac ad b2 bc bd c2 cd d2, followed
+     * by the total weight.
+     */
+    private static final int QUADRIC_SIZE = 11;
+
+    /**
+     * One simplified level, with unused vertices dropped and indices
+     * renumbered.
+     */
+    public static class Result {
+        public final float[] positions;
+        public final float[] normals;
+        public final float[] texCoords;
+        public final char[] indices;
+        /**
+         * Largest root-mean-square distance, in model units, that any
+         * collapse so far moved the surface by.
+         */
+        public final float error;
+
+        Result(float[] positions, float[] normals, float[] texCoords, char[] indices,
+                float error) {
+            this.positions = positions;
+            this.normals = normals;
+            this.texCoords = texCoords;
+            this.indices = indices;
+            this.error = error;
+        }
+
+        public int getTriangleCount() {
+            return indices.length / 3;
+        }
+
+        public int getVertexCount() {
+            return positions.length / 3;
+        }
+    }
+
+    private final float[] positions;
+    private final float[] normals;
+    private final float[] texCoords;
+    private final int wedgeCount;
+
+    /*
+     * Point of each wedge; wedges with the same position share a point.
+     */
+    private final int[] pointOf;
+    private final int pointCount;
+    private final float[] pointPositions;
+
+    private final int[] triangles;
+    private final boolean[] live;
+    private int liveCount;
+
+    private final double[] quadrics;
+    private final boolean[] locked;
+    private double maxCost = 0;
+
+    /*
+     * Per pass: triangles around each point, as offsets into a flat list.
+     */
+    private final int[] adjacencyStart;
+    private int[] adjacency;
+    private final boolean[] touched;
+
+    private final float[] normalBefore = new float[3];
+    private final float[] normalAfter = new float[3];
+
+    /**
+     * @param normals
+     *            may be {@code null}.
+     * @param texCoords
+     *            may be {@code null}.
+     */
+    public MeshSimplifier(float[] positions, float[] normals, float[] texCoords, char[] indices) {
+        this.positions = positions;
+        this.normals = normals;
+        this.texCoords = texCoords;
+        wedgeCount = positions.length / 3;
+
+        pointOf = new int[wedgeCount];
+        Map<String, Integer> points = new HashMap<String, Integer>();
+        int count = 0;
+        for (int w = 0; w < wedgeCount; ++w) {
+            String key = Float.floatToIntBits(positions[w * 3]) + ","
+                    + Float.floatToIntBits(positions[w * 3 + 1]) + ","
+                    + Float.floatToIntBits(positions[w * 3 + 2]);
+            Integer point = points.get(key);
+            if (point == null) {
+                point = count++;
+                points.put(key, point);
+            }
+            pointOf[w] = point;
+        }
+        pointCount = count;
+        pointPositions = new float[pointCount * 3];
+        for (int w = 0; w < wedgeCount; ++w) {
+            System.arraycopy(positions, w * 3, pointPositions, pointOf[w] * 3, 3);
+        }
+
+        int[] wedgeOf = mergeWedges();
+        triangles = new int[indices.length];
+        live = new boolean[indices.length / 3];
+        for (int i = 0; i < indices.length; ++i) {
+            triangles[i] = wedgeOf[indices[i]];
+        }
+        for (int t = 0; t < live.length; ++t) {
+            int a = pointOf[triangles[t * 3]];
+            int b = pointOf[triangles[t * 3 + 1]];
+            int c = pointOf[triangles[t * 3 + 2]];
+            live[t] = a != b && b != c && c != a;
+            if (live[t]) {
+                ++liveCount;
+            }
+        }
+
+        adjacencyStart = new int[pointCount + 1];
+        touched = new boolean[pointCount];
+        quadrics = new double[pointCount * QUADRIC_SIZE];
+        locked = new boolean[pointCount];
+        initQuadrics();
+    }
+
+    public int getTriangleCount() {
+        return liveCount;
+    }
+
+    /**
+     * Collapses edges, cheapest first, until at most {@code targetTriangles}
+     * remain or every further collapse would move the surface by more than
+     * {@code maxError}.
+     *
+     * @return the number of triangles left.
+     */
+    public int simplify(int targetTriangles, float maxError) {
+        double maxCostAllowed = (double) maxError * maxError;
+        while (liveCount > targetTriangles) {
+            if (collapsePass(targetTriangles, maxCostAllowed) == 0) {
+                break;
+            }
+        }
+        return liveCount;
+    }
+
+    /**
+     * @return the current state of the mesh as compact arrays.
+     */
+    public Result getResult() {
+        int[] remap = new int[wedgeCount];
+        Arrays.fill(remap, -1);
+        int used = 0;
+        char[] indices = new char[liveCount * 3];
+        int out = 0;
+        for (int t = 0; t < live.length; ++t) {
+            if (!live[t]) {
+                continue;
+            }
+            for (int k = 0; k < 3; ++k) {
+                int w = triangles[t * 3 + k];
+                if (remap[w] < 0) {
+                    remap[w] = used++;
+                }
+                indices[out++] = (char) remap[w];
+            }
+        }
+
+        float[] newPositions = new float[used * 3];
+        float[] newNormals = normals == null ? null : new float[used * 3];
+        float[] newTexCoords = texCoords == null ? null : new float[used * 2];
+        for (int w = 0; w < wedgeCount; ++w) {
+            int r = remap[w];
+            if (r < 0) {
+                continue;
+            }
+            System.arraycopy(positions, w * 3, newPositions, r * 3, 3);
+            if (newNormals != null) {
+                System.arraycopy(normals, w * 3, newNormals, r * 3, 3);
+            }
+            if (newTexCoords != null) {
+                System.arraycopy(texCoords, w * 2, newTexCoords, r * 2, 2);
+            }
+        }
+        return new Result(newPositions, newNormals, newTexCoords, indices,
+                (float) Math.sqrt(maxCost));
+    }
+
+    /**
+     * @return for each vertex, the first vertex of the same point with
+     *         matching texture coordinates and normal.
+     */
+    private int[] mergeWedges() {
+        int[] wedgeOf = new int[wedgeCount];
+        int[] firstOfPoint = new int[pointCount];
+        int[] nextOfPoint = new int[wedgeCount];
+        Arrays.fill(firstOfPoint, -1);
+        for (int w = 0; w < wedgeCount; ++w) {
+            int point = pointOf[w];
+            int match = firstOfPoint[point];
+            while (match >= 0 && !sameAttributes(w, match)) {
+                match = nextOfPoint[match];
+            }
+            if (match >= 0) {
+                wedgeOf[w] = match;
+            } else {
+                wedgeOf[w] = w;
+                nextOfPoint[w] = firstOfPoint[point];
+                firstOfPoint[point] = w;
+            }
+        }
+        return wedgeOf;
+    }
+
+    private boolean sameAttributes(int a, int b) {
+        if (texCoords != null
+                && (texCoords[a * 2] != texCoords[b * 2]
+                || texCoords[a * 2 + 1] != texCoords[b * 2 + 1])) {
+            return false;
+        }
+        if (normals != null) {
+            double dot = normals[a * 3] * normals[b * 3] + normals[a * 3 + 1]
+                    * normals[b * 3 + 1] + normals[a * 3 + 2] * normals[b * 3 + 2];
+            double lengths = Math.sqrt((normals[a * 3] * normals[a * 3] + normals[a * 3 + 1]
+                    * normals[a * 3 + 1] + normals[a * 3 + 2] * normals[a * 3 + 2])
+                    * (normals[b * 3] * normals[b * 3] + normals[b * 3 + 1]
+                            * normals[b * 3 + 1] + normals[b * 3 + 2] * normals[b * 3 + 2]));
+            return dot >= CREASE_COSINE * lengths;
+        }
+        return true;
+    }
+
+    private void initQuadrics() {
+        /*
+         * Each undirected edge maps to the first triangle seen on it, or -1
+         * once a second one shows up and the edge turns out to be interior.
+         */
+        Map<Long, Integer> edges = new HashMap<Long, Integer>();
+        for (int t = 0; t < live.length; ++t) {
+            if (!live[t]) {
+                continue;
+            }
+            float[] plane = new float[4];
+            double area = facePlane(t, plane);
+            for (int k = 0; k < 3; ++k) {
+                addPlane(pointOf[triangles[t * 3 + k]], plane, area);
+            }
+
+            for (int k = 0; k < 3; ++k) {
+                int wa = triangles[t * 3 + k];
+                int wb = triangles[t * 3 + (k + 1) % 3];
+                Long key = edgeKey(pointOf[wa], pointOf[wb]);
+                Integer other = edges.get(key);
+                if (other == null) {
+                    edges.put(key, t);
+                } else if (other >= 0) {
+                    edges.put(key, -1);
+                    if (!sameWedges(t, other, pointOf[wa], pointOf[wb])) {
+                        addEdgePlane(t, wa, wb);
+                        addEdgePlane(other, wa, wb);
+                    }
+                } else {
+                    /*
+                     * Three or more triangles on one edge.
+                     */
+                    locked[pointOf[wa]] = true;
+                    locked[pointOf[wb]] = true;
+                }
+            }
+        }
+
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            int t = edge.getValue();
+            if (t < 0) {
+                continue;
+            }
+            int a = (int) (edge.getKey() >>> 32);
+            int b = (int) (long) edge.getKey();
+            locked[a] = true;
+            locked[b] = true;
+            addEdgePlane(t, wedgeIn(t, a), wedgeIn(t, b));
+        }
+    }
+
+    private int collapsePass(int targetTriangles, double maxCostAllowed) {
+        buildAdjacency();
+
+        /*
+         * Candidates are sorted as longs: non-negative float bits order like
+         * the floats, and the low word holds the directed edge.
+         */
+        long[] candidates = new long[liveCount * 6];
+        int[] from = new int[liveCount * 6];
+        int[] to = new int[liveCount * 6];
+        int candidateCount = 0;
+        for (int t = 0; t < live.length; ++t) {
+            if (!live[t]) {
+                continue;
+            }
+            for (int k = 0; k < 3; ++k) {
+                int a = pointOf[triangles[t * 3 + k]];
+                int b = pointOf[triangles[t * 3 + (k + 1) % 3]];
+                for (int dir = 0; dir < 2; ++dir) {
+                    int p = dir == 0 ? a : b;
+                    int q = dir == 0 ? b : a;
+                    if (locked[p]) {
+                        continue;
+                    }
+                    float cost = (float) collapseCost(p, q);
+                    if (cost > maxCostAllowed) {
+                        continue;
+                    }
+                    from[candidateCount] = p;
+                    to[candidateCount] = q;
+                    candidates[candidateCount] = ((long) Float.floatToIntBits(cost) << 32)
+                            | candidateCount;
+                    ++candidateCount;
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, candidateCount);
+
+        Arrays.fill(touched, false);
+        int collapsed = 0;
+        for (int i = 0; i < candidateCount && liveCount > targetTriangles; ++i) {
+            int c = (int) candidates[i];
+            int p = from[c];
+            int q = to[c];
+            if (touched[p] || touched[q]) {
+                continue;
+            }
+            if (tryCollapse(p, q, Float.intBitsToFloat((int) (candidates[i] >>> 32)))) {
+                ++collapsed;
+            }
+        }
+        return collapsed;
+    }
+
+    private boolean tryCollapse(int p, int q, double cost) {
+        int start = adjacencyStart[p];
+        int end = adjacencyStart[p + 1];
+
+        /*
+         * Every wedge of p must map onto one wedge of q through the triangles
+         * on the edge, otherwise the collapse would tear a seam.
+         */
+        int[] wedgeFrom = new int[end - start];
+        int[] wedgeTo = new int[end - start];
+        int mapped = 0;
+        int shared = 0;
+        for (int i = start; i < end; ++i) {
+            int t = adjacency[i];
+            int wq = wedgeIn(t, q);
+            if (wq < 0) {
+                continue;
+            }
+            ++shared;
+            int wp = wedgeIn(t, p);
+            int j = indexOf(wedgeFrom, mapped, wp);
+            if (j < 0) {
+                wedgeFrom[mapped] = wp;
+                wedgeTo[mapped++] = wq;
+            } else if (wedgeTo[j] != wq) {
+                return false;
+            }
+        }
+        if (shared == 0) {
+            return false;
+        }
+        for (int i = start; i < end; ++i) {
+            if (indexOf(wedgeFrom, mapped, wedgeIn(adjacency[i], p)) < 0) {
+                return false;
+            }
+        }
+
+        if (!linkCondition(p, q, shared) || flipsFace(p, q)) {
+            return false;
+        }
+
+        for (int i = start; i < end; ++i) {
+            int t = adjacency[i];
+            touchCorners(t);
+            if (wedgeIn(t, q) >= 0) {
+                live[t] = false;
+                --liveCount;
+                continue;
+            }
+            for (int k = 0; k < 3; ++k) {
+                int w = triangles[t * 3 + k];
+                if (pointOf[w] == p) {
+                    triangles[t * 3 + k] = wedgeTo[indexOf(wedgeFrom, mapped, w)];
+                }
+            }
+        }
+
+        for (int i = 0; i < QUADRIC_SIZE; ++i) {
+            quadrics[q * QUADRIC_SIZE + i] += quadrics[p * QUADRIC_SIZE + i];
+        }
+        maxCost = Math.max(maxCost, cost);
+        return true;
+    }
+
+    /*
+     * p and q may only share the neighbours opposite the edge, one per
+     * triangle on it, or the collapse would fold the surface onto itself.
+     */
+    private boolean linkCondition(int p, int q, int shared) {
+        int start = adjacencyStart[p];
+        int end = adjacencyStart[p + 1];
+        int[] seen = new int[(end - start) * 2];
+        int seenCount = 0;
+        int common = 0;
+        for (int i = start; i < end; ++i) {
+            int t = adjacency[i];
+            for (int k = 0; k < 3; ++k) {
+                int n = pointOf[triangles[t * 3 + k]];
+                if (n == p || n == q || indexOf(seen, seenCount, n) >= 0) {
+                    continue;
+                }
+                seen[seenCount++] = n;
+                if (isNeighbour(q, n)) {
+                    ++common;
+                }
+            }
+        }
+        return common == shared;
+    }
+
+    private boolean isNeighbour(int q, int n) {
+        for (int i = adjacencyStart[q]; i < adjacencyStart[q + 1]; ++i) {
+            if (wedgeIn(adjacency[i], n) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean flipsFace(int p, int q) {
+        for (int i = adjacencyStart[p]; i < adjacencyStart[p + 1]; ++i) {
+            int t = adjacency[i];
+            if (wedgeIn(t, q) >= 0) {
+                continue;
+            }
+            float[] before = normalBefore;
+            float[] after = normalAfter;
+            faceNormal(t, -1, -1, before);
+            faceNormal(t, p, q, after);
+            double dot = before[0] * after[0] + before[1] * after[1] + before[2] * after[2];
+            double lengths = Math.sqrt(
+                    (before[0] * before[0] + before[1] * before[1] + before[2] * before[2])
+                            * (after[0] * after[0] + after[1] * after[1] + after[2]
+                                    * after[2]));
+            if (lengths == 0 || dot < MIN_NORMAL_COSINE * lengths) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void buildAdjacency() {
+        Arrays.fill(adjacencyStart, 0);
+        for (int t = 0; t < live.length; ++t) {
+            if (live[t]) {
+                for (int k = 0; k < 3; ++k) {
+                    ++adjacencyStart[pointOf[triangles[t * 3 + k]] + 1];
+                }
+            }
+        }
+        for (int i = 0; i < pointCount; ++i) {
+            adjacencyStart[i + 1] += adjacencyStart[i];
+        }
+        if (adjacency == null || adjacency.length < adjacencyStart[pointCount]) {
+            adjacency = new int[adjacencyStart[pointCount]];
+        }
+        int[] fill = Arrays.copyOf(adjacencyStart, pointCount);
+        for (int t = 0; t < live.length; ++t) {
+            if (live[t]) {
+                for (int k = 0; k < 3; ++k) {
+                    adjacency[fill[pointOf[triangles[t * 3 + k]]]++] = t;
+                }
+            }
+        }
+    }
+
+    private void touchCorners(int t) {
+        for (int k = 0; k < 3; ++k) {
+            touched[pointOf[triangles[t * 3 + k]]] = true;
+        }
+    }
+
+    /**
+     * @return the wedge of {@code point} in triangle {@code t}, or -1.
+     */
+    private int wedgeIn(int t, int point) {
+        for (int k = 0; k < 3; ++k) {
+            int w = triangles[t * 3 + k];
+            if (pointOf[w] == point) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    private boolean sameWedges(int t1, int t2, int a, int b) {
+        return wedgeIn(t1, a) == wedgeIn(t2, a) && wedgeIn(t1, b) == wedgeIn(t2, b);
+    }
+
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; ++i) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long edgeKey(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    /**
+     * Computes the normal of triangle {@code t}, with point {@code p}
+     * replaced by point {@code q} if {@code p >= 0}.
+     */
+    private void faceNormal(int t, int p, int q, float[] normal) {
+        int a = pointOf[triangles[t * 3]];
+        int b = pointOf[triangles[t * 3 + 1]];
+        int c = pointOf[triangles[t * 3 + 2]];
+        if (a == p) a = q;
+        if (b == p) b = q;
+        if (c == p) c = q;
+        float[] v = pointPositions;
+        float e1x = v[b * 3] - v[a * 3], e1y = v[b * 3 + 1] - v[a * 3 + 1], e1z = v[b * 3 + 2]
+                - v[a * 3 + 2];
+        float e2x = v[c * 3] - v[a * 3], e2y = v[c * 3 + 1] - v[a * 3 + 1], e2z = v[c * 3 + 2]
+                - v[a * 3 + 2];
+        normal[0] = e1y * e2z - e1z * e2y;
+        normal[1] = e1z * e2x - e1x * e2z;
+        normal[2] = e1x * e2y - e1y * e2x;
+    }
+
+    /**
+     * @return the triangle's area; {@code plane} receives its unit normal and
+     *         offset.
+     */
+    private double facePlane(int t, float[] plane) {
+        faceNormal(t, -1, -1, plane);
+        double length = Math.sqrt(plane[0] * plane[0] + plane[1] * plane[1] + plane[2]
+                * plane[2]);
+        if (length == 0) {
+            return 0;
+        }
+        plane[0] /= length;
+        plane[1] /= length;
+        plane[2] /= length;
+        int a = pointOf[triangles[t * 3]];
+        plane[3] = -(plane[0] * pointPositions[a * 3] + plane[1] * pointPositions[a * 3 + 1]
+                + plane[2] * pointPositions[a * 3 + 2]);
+        return length / 2;
+    }
+
+    /*
+     * Adds the plane through edge wa-wb perpendicular to triangle t to both
+     * of its points.
+     */
+    private void addEdgePlane(int t, int wa, int wb) {
+        float[] face = new float[4];
+        if (facePlane(t, face) == 0) {
+            return;
+        }
+        int a = pointOf[wa];
+        int b = pointOf[wb];
+        float[] v = pointPositions;
+        float ex = v[b * 3] - v[a * 3];
+        float ey = v[b * 3 + 1] - v[a * 3 + 1];
+        float ez = v[b * 3 + 2] - v[a * 3 + 2];
+        double lengthSquared = ex * ex + ey * ey + ez * ez;
+        float[] plane = new float[] {
+                ey * face[2] - ez * face[1], ez * face[0] - ex * face[2],
+                ex * face[1] - ey * face[0], 0
+        };
+        double length = Math.sqrt(plane[0] * plane[0] + plane[1] * plane[1] + plane[2]
+                * plane[2]);
+        if (length == 0) {
+            return;
+        }
+        plane[0] /= length;
+        plane[1] /= length;
+        plane[2] /= length;
+        plane[3] = -(plane[0] * v[a * 3] + plane[1] * v[a * 3 + 1] + plane[2] * v[a * 3 + 2]);
+        addPlane(a, plane, SEAM_WEIGHT * lengthSquared);
+        addPlane(b, plane, SEAM_WEIGHT * lengthSquared);
+    }
+
+    private void addPlane(int point, float[] plane, double weight) {
+        double a = plane[0], b = plane[1], c = plane[2], d = plane[3];
+        int o = point * QUADRIC_SIZE;
+        quadrics[o] += weight * a * a;
+        quadrics[o + 1] += weight * a * b;
+        quadrics[o + 2] += weight * a * c;
+        quadrics[o + 3] += weight * a * d;
+        quadrics[o + 4] += weight * b * b;
+        quadrics[o + 5] += weight * b * c;
+        quadrics[o + 6] += weight * b * d;
+        quadrics[o + 7] += weight * c * c;
+        quadrics[o + 8] += weight * c * d;
+        quadrics[o + 9] += weight * d * d;
+        quadrics[o + 10] += weight;
+    }
+
+    /**
+     * @return the weighted mean squared distance of q's position from the
+     *         planes of both points.
+     */
+    private double collapseCost(int p, int q) {
+        int op = p * QUADRIC_SIZE;
+        int oq = q * QUADRIC_SIZE;
+        double[] m = quadrics;
+        double x = pointPositions[q * 3];
+        double y = pointPositions[q * 3 + 1];
+        double z = pointPositions[q * 3 + 2];
+        double error = (m[op] + m[oq]) * x * x
+                + 2 * (m[op + 1] + m[oq + 1]) * x * y
+                + 2 * (m[op + 2] + m[oq + 2]) * x * z
+                + 2 * (m[op + 3] + m[oq + 3]) * x
+                + (m[op + 4] + m[oq + 4]) * y * y
+                + 2 * (m[op + 5] + m[oq + 5]) * y * z
+                + 2 * (m[op + 6] + m[oq + 6]) * y
+                + (m[op + 7] + m[oq + 7]) * z * z
+                + 2 * (m[op + 8] + m[oq + 8]) * z
+                + (m[op + 9] + m[oq + 9]);
+        double weight = m[op + 10] + m[oq + 10];
+        return weight > 0 ? Math.max(error, 0) / weight : 0;
+    }
+}
@@ -0,0 +1,447 @@
+package org.gearvrf.sample.LodTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Runs {@link MeshSimplifier} and {@link LodChain} on a UV sphere shaped like
+ * the one lodtest simplifies, on a flat grid with an open border, and on
+ * complexscene's bunny.obj. With -Dbenchmark=true it also reports triangle
+ * counts, error, Hausdorff distance, range and throughput per bunny level.
+ */
+public class LodChainTest {
+
+    private static final float VERTICAL_FOV = (float) Math.toRadians(90.0);
+    private static final int SCREEN_HEIGHT = 1024;
+    private static final float MAX_PIXEL_ERROR = 1.0f;
+    private static final float REDUCTION = 0.5f;
+    private static final int LEVELS = 4;
+
+    private static final String BUNNY = "../../gvr-complexscene/app/src/main/assets/bunny.obj";
+
+    private static class Mesh {
+        float[] positions;
+        float[] normals;
+        float[] texCoords;
+        char[] indices;
+
+        MeshSimplifier simplifier() {
+            return new MeshSimplifier(positions, normals, texCoords, indices);
+        }
+    }
+
+    /*
+     * A unit sphere of stacks x slices quads. The last column repeats the
+     * first one's positions with u = 1, so the mesh has a UV seam, and each
+     * pole is one point shared by a wedge per slice.
+     */
+    private static Mesh sphere(int stacks, int slices) {
+        int columns = slices + 1;
+        Mesh mesh = new Mesh();
+        mesh.positions = new float[(stacks + 1) * columns * 3];
+        mesh.texCoords = new float[(stacks + 1) * columns * 2];
+        for (int i = 0; i <= stacks; ++i) {
+            double theta = Math.PI * i / stacks;
+            for (int j = 0; j <= slices; ++j) {
+                double phi = 2 * Math.PI * (j % slices) / slices;
+                int v = i * columns + j;
+                mesh.positions[v * 3] = (float) (Math.sin(theta) * Math.cos(phi));
+                mesh.positions[v * 3 + 1] = (float) Math.cos(theta);
+                mesh.positions[v * 3 + 2] = (float) (Math.sin(theta) * Math.sin(phi));
+                mesh.texCoords[v * 2] = (float) j / slices;
+                mesh.texCoords[v * 2 + 1] = (float) i / stacks;
+            }
+        }
+        mesh.normals = mesh.positions.clone();
+
+        List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < stacks; ++i) {
+            for (int j = 0; j < slices; ++j) {
+                int a = i * columns + j;
+                int b = a + columns;
+                int c = b + 1;
+                int d = a + 1;
+                if (i > 0) {
+                    triangle(indices, a, d, b);
+                }
+                if (i + 1 < stacks) {
+                    triangle(indices, d, c, b);
+                }
+            }
+        }
+        mesh.indices = toChars(indices);
+        return mesh;
+    }
+
+    /*
+     * A flat size x size grid in the z = 0 plane.
+     */
+    private static Mesh grid(int size) {
+        int columns = size + 1;
+        Mesh mesh = new Mesh();
+        mesh.positions = new float[columns * columns * 3];
+        for (int i = 0; i <= size; ++i) {
+            for (int j = 0; j <= size; ++j) {
+                int v = i * columns + j;
+                mesh.positions[v * 3] = j;
+                mesh.positions[v * 3 + 1] = i;
+            }
+        }
+        List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                int a = i * columns + j;
+                triangle(indices, a, a + 1, a + columns);
+                triangle(indices, a + 1, a + columns + 1, a + columns);
+            }
+        }
+        mesh.indices = toChars(indices);
+        return mesh;
+    }
+
+    private static void triangle(List<Integer> indices, int a, int b, int c) {
+        indices.add(a);
+        indices.add(b);
+        indices.add(c);
+    }
+
+    private static char[] toChars(List<Integer> values) {
+        char[] chars = new char[values.size()];
+        for (int i = 0; i < chars.length; ++i) {
+            chars[i] = (char) values.get(i).intValue();
+        }
+        return chars;
+    }
+
+    private static List<LodChain.Level> chain(Mesh mesh) {
+        return new LodChain(VERTICAL_FOV, SCREEN_HEIGHT, MAX_PIXEL_ERROR).build(
+                mesh.simplifier(), LEVELS, REDUCTION);
+    }
+
+    private static String vertexKey(float[] positions, float[] normals, float[] texCoords,
+            int v) {
+        StringBuilder key = new StringBuilder();
+        key.append(positions[v * 3]).append(' ').append(positions[v * 3 + 1]).append(' ')
+                .append(positions[v * 3 + 2]);
+        if (normals != null) {
+            key.append(" n ").append(normals[v * 3]).append(' ').append(normals[v * 3 + 1])
+                    .append(' ').append(normals[v * 3 + 2]);
+        }
+        if (texCoords != null) {
+            key.append(" t ").append(texCoords[v * 2]).append(' ').append(texCoords[v * 2 + 1]);
+        }
+        return key.toString();
+    }
+
+    @Test
+    public void levelsShrinkByTheReduction() {
+        Mesh sphere = sphere(18, 36);
+        List<LodChain.Level> levels = chain(sphere);
+
+        assertEquals(LEVELS, levels.size());
+        assertEquals(sphere.indices.length / 3, levels.get(0).mesh.getTriangleCount());
+        assertEquals(0.0f, levels.get(0).mesh.error, 0.0f);
+        for (int i = 1; i < levels.size(); ++i) {
+            MeshSimplifier.Result previous = levels.get(i - 1).mesh;
+            MeshSimplifier.Result level = levels.get(i).mesh;
+            assertTrue("level " + i, level.getTriangleCount()
+                    <= (int) (previous.getTriangleCount() * REDUCTION));
+            assertTrue("level " + i, level.getTriangleCount() > 0);
+            assertTrue("level " + i, level.error >= previous.error);
+            assertEquals(level.getVertexCount() * 3, level.normals.length);
+            assertEquals(level.getVertexCount() * 2, level.texCoords.length);
+            for (char index : level.indices) {
+                assertTrue(index < level.getVertexCount());
+            }
+        }
+    }
+
+    @Test
+    public void rangesAreContiguous() {
+        List<LodChain.Level> levels = chain(sphere(18, 36));
+        LodChain lodChain = new LodChain(VERTICAL_FOV, SCREEN_HEIGHT, MAX_PIXEL_ERROR);
+
+        assertEquals(0.0f, levels.get(0).minDistance, 0.0f);
+        assertEquals(Float.MAX_VALUE, levels.get(levels.size() - 1).maxDistance, 0.0f);
+        for (int i = 0; i + 1 < levels.size(); ++i) {
+            LodChain.Level level = levels.get(i);
+            assertEquals(level.maxDistance, levels.get(i + 1).minDistance, 0.0f);
+            assertTrue(level.maxDistance >= level.minDistance);
+            assertEquals(lodChain.getSwitchDistance(levels.get(i + 1).distance),
+                    level.maxDistance, 0.0f);
+        }
+    }
+
+    @Test
+    public void rangesHaveAMinimumWidth() throws IOException {
+        List<List<LodChain.Level>> chains = new ArrayList<List<LodChain.Level>>();
+        chains.add(chain(sphere(18, 36)));
+        chains.add(chain(sphere(9, 18)));
+        chains.add(chain(grid(16)));
+        if (new File(BUNNY).isFile()) {
+            chains.add(chain(readObj(BUNNY)));
+        }
+        for (List<LodChain.Level> levels : chains) {
+            for (int i = 0; i + 1 < levels.size(); ++i) {
+                LodChain.Level level = levels.get(i);
+                assertTrue(level.toString(),
+                        level.maxDistance > LodChain.MIN_SWITCH_DISTANCE);
+                assertTrue(level.toString(), level.maxDistance
+                        >= level.minDistance * LodChain.MIN_RANGE_RATIO);
+            }
+        }
+    }
+
+    @Test
+    public void levelsMeasureTheirDistanceFromTheOriginal() {
+        Mesh sphere = sphere(18, 36);
+        List<LodChain.Level> levels = chain(sphere);
+        assertEquals(0.0f, levels.get(0).distance, 0.0f);
+        for (int i = 1; i < levels.size(); ++i) {
+            MeshSimplifier.Result mesh = levels.get(i).mesh;
+            assertEquals(MeshDistance.hausdorff(sphere.positions, sphere.indices,
+                    mesh.positions, mesh.indices), levels.get(i).distance, 0.0f);
+            assertTrue(levels.get(i).distance > levels.get(i - 1).distance);
+        }
+    }
+
+    @Test
+    public void nearDuplicateLevelsAreDropped() {
+        // steps of 10% make levels barely coarser than the one before
+        Mesh sphere = sphere(18, 36);
+        LodChain lodChain = new LodChain(VERTICAL_FOV, SCREEN_HEIGHT, MAX_PIXEL_ERROR);
+        List<LodChain.Level> levels = lodChain.build(sphere.simplifier(), 8, 0.9f);
+        assertTrue(levels.size() + " levels", levels.size() < 8);
+        assertEquals(sphere.indices.length / 3, levels.get(0).mesh.getTriangleCount());
+        for (int i = 1; i < levels.size(); ++i) {
+            assertTrue(levels.get(i).minDistance
+                    >= levels.get(i - 1).minDistance * LodChain.MIN_RANGE_RATIO);
+        }
+    }
+
+    @Test
+    public void exactLevelsReplaceTheFinerOnes() {
+        // every level of a flat grid matches it to within rounding, so only
+        // the coarsest is worth showing, at any distance
+        Mesh grid = grid(16);
+        List<LodChain.Level> levels = chain(grid);
+        assertEquals(1, levels.size());
+        LodChain.Level level = levels.get(0);
+        assertEquals(0.0f, level.distance, 1e-6f);
+        assertEquals(0.0f, level.minDistance, 0.0f);
+        assertEquals(Float.MAX_VALUE, level.maxDistance, 0.0f);
+        assertTrue(level.mesh.getTriangleCount() < grid.indices.length / 3);
+    }
+
+    @Test
+    public void lastRangeIsShownAsOpen() {
+        List<LodChain.Level> levels = chain(sphere(18, 36));
+        String last = levels.get(levels.size() - 1).toString();
+        assertTrue(last, last.endsWith(" on"));
+        assertTrue(levels.get(0).toString(), levels.get(0).toString().contains(" to "));
+    }
+
+    @Test
+    public void switchDistanceScalesWithScreenError() {
+        // a 90 degree eye buffer 1024 pixels high shows 512 pixels per unit
+        // at distance 1
+        LodChain lodChain = new LodChain(VERTICAL_FOV, SCREEN_HEIGHT, MAX_PIXEL_ERROR);
+        assertEquals(512.0f, lodChain.getSwitchDistance(1.0f), 1e-3f);
+        assertEquals(5.12f, lodChain.getSwitchDistance(0.01f), 1e-5f);
+        assertEquals(256.0f, new LodChain(VERTICAL_FOV, SCREEN_HEIGHT, 2.0f)
+                .getSwitchDistance(1.0f), 1e-3f);
+    }
+
+    @Test
+    public void survivingVerticesKeepTheirAttributes() {
+        Mesh sphere = sphere(18, 36);
+        Set<String> original = new HashSet<String>();
+        for (int v = 0; v < sphere.positions.length / 3; ++v) {
+            original.add(vertexKey(sphere.positions, sphere.normals, sphere.texCoords, v));
+        }
+
+        for (LodChain.Level level : chain(sphere)) {
+            MeshSimplifier.Result mesh = level.mesh;
+            for (int v = 0; v < mesh.getVertexCount(); ++v) {
+                String key = vertexKey(mesh.positions, mesh.normals, mesh.texCoords, v);
+                assertTrue(key, original.contains(key));
+            }
+        }
+    }
+
+    @Test
+    public void seamStaysClosed() {
+        // every point left on the u = 0 edge still has its u = 1 twin, so
+        // the texture seam cannot open into a crack
+        List<LodChain.Level> levels = chain(sphere(18, 36));
+        MeshSimplifier.Result coarsest = levels.get(levels.size() - 1).mesh;
+        Set<String> left = new HashSet<String>();
+        Set<String> right = new HashSet<String>();
+        for (int v = 0; v < coarsest.getVertexCount(); ++v) {
+            float v0 = coarsest.texCoords[v * 2 + 1];
+            if (v0 == 0.0f || v0 == 1.0f) {
+                continue;
+            }
+            String position = vertexKey(coarsest.positions, null, null, v);
+            if (coarsest.texCoords[v * 2] == 0.0f) {
+                left.add(position);
+            } else if (coarsest.texCoords[v * 2] == 1.0f) {
+                right.add(position);
+            }
+        }
+        assertTrue(left.size() > 0);
+        assertEquals(left, right);
+    }
+
+    @Test
+    public void borderPointsNeverMove() {
+        int size = 16;
+        Mesh grid = grid(size);
+        List<LodChain.Level> levels = chain(grid);
+
+        MeshSimplifier.Result coarsest = levels.get(levels.size() - 1).mesh;
+        assertTrue(coarsest.getTriangleCount() < grid.indices.length / 3);
+        Set<String> kept = new HashSet<String>();
+        for (int v = 0; v < coarsest.getVertexCount(); ++v) {
+            kept.add(vertexKey(coarsest.positions, null, null, v));
+            assertEquals(0.0f, coarsest.positions[v * 3 + 2], 0.0f);
+        }
+        for (int v = 0; v < grid.positions.length / 3; ++v) {
+            float x = grid.positions[v * 3];
+            float y = grid.positions[v * 3 + 1];
+            if (x == 0 || y == 0 || x == size || y == size) {
+                assertTrue(x + ", " + y, kept.contains(vertexKey(grid.positions, null, null, v)));
+            }
+        }
+        // a flat grid simplifies without error
+        assertEquals(0.0f, coarsest.error, 1e-6f);
+    }
+
+    @Test
+    public void simplifiedSphereStaysClose() {
+        Mesh sphere = sphere(18, 36);
+        List<LodChain.Level> levels = chain(sphere);
+        for (int i = 1; i < levels.size(); ++i) {
+            MeshSimplifier.Result level = levels.get(i).mesh;
+            float hausdorff = MeshDistance.hausdorff(sphere.positions, sphere.indices,
+                    level.positions, level.indices);
+            assertTrue("level " + i + ": " + hausdorff, hausdorff < 0.25f);
+        }
+    }
+
+    @Test
+    public void benchmarkBunny() throws IOException {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+        Assume.assumeTrue(BUNNY + " not found", new File(BUNNY).isFile());
+        Mesh bunny = readObj(BUNNY);
+
+        long start = System.nanoTime();
+        List<LodChain.Level> levels = chain(bunny);
+        long elapsed = System.nanoTime() - start;
+
+        MeshSimplifier.Result original = levels.get(0).mesh;
+        int removed = original.getTriangleCount()
+                - levels.get(levels.size() - 1).mesh.getTriangleCount();
+        System.out.println(String.format(
+                "LodChain: bunny.obj %d vertices, %d triangles, simplified in %.1f ms,"
+                        + " %.0f triangles/s",
+                bunny.positions.length / 3, bunny.indices.length / 3, elapsed / 1e6,
+                removed / (elapsed / 1e9)));
+        for (int i = 0; i < levels.size(); ++i) {
+            LodChain.Level level = levels.get(i);
+            System.out.println(String.format(
+                    "  level %d: %6d vertices  error %.5f  hausdorff %.5f  %s",
+                    i, level.mesh.getVertexCount(), level.mesh.error, level.distance, level));
+        }
+        assertTrue(levels.get(levels.size() - 1).mesh.getTriangleCount()
+                < original.getTriangleCount());
+    }
+
+    /*
+     * Reads v, vt, vn and f lines; every distinct v/vt/vn corner becomes one
+     * vertex, the way the asset importer splits them. Polygons are fanned.
+     */
+    private static Mesh readObj(String path) throws IOException {
+        List<float[]> v = new ArrayList<float[]>();
+        List<float[]> vt = new ArrayList<float[]>();
+        List<float[]> vn = new ArrayList<float[]>();
+        Map<String, Integer> corners = new HashMap<String, Integer>();
+        List<String> cornerKeys = new ArrayList<String>();
+        List<Integer> indices = new ArrayList<Integer>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(path), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts[0].equals("v")) {
+                    v.add(parseFloats(parts, 3));
+                } else if (parts[0].equals("vt")) {
+                    vt.add(parseFloats(parts, 2));
+                } else if (parts[0].equals("vn")) {
+                    vn.add(parseFloats(parts, 3));
+                } else if (parts[0].equals("f")) {
+                    int[] face = new int[parts.length - 1];
+                    for (int i = 1; i < parts.length; ++i) {
+                        Integer corner = corners.get(parts[i]);
+                        if (corner == null) {
+                            corner = cornerKeys.size();
+                            corners.put(parts[i], corner);
+                            cornerKeys.add(parts[i]);
+                        }
+                        face[i - 1] = corner;
+                    }
+                    for (int i = 2; i < face.length; ++i) {
+                        triangle(indices, face[0], face[i - 1], face[i]);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        Mesh mesh = new Mesh();
+        int count = cornerKeys.size();
+        mesh.positions = new float[count * 3];
+        mesh.normals = vn.isEmpty() ? null : new float[count * 3];
+        mesh.texCoords = vt.isEmpty() ? null : new float[count * 2];
+        for (int i = 0; i < count; ++i) {
+            String[] refs = cornerKeys.get(i).split("/");
+            System.arraycopy(v.get(Integer.parseInt(refs[0]) - 1), 0, mesh.positions, i * 3, 3);
+            if (mesh.texCoords != null && refs.length > 1 && refs[1].length() > 0) {
+                System.arraycopy(vt.get(Integer.parseInt(refs[1]) - 1), 0, mesh.texCoords,
+                        i * 2, 2);
+            }
+            if (mesh.normals != null && refs.length > 2) {
+                System.arraycopy(vn.get(Integer.parseInt(refs[2]) - 1), 0, mesh.normals,
+                        i * 3, 3);
+            }
+        }
+        mesh.indices = toChars(indices);
+        return mesh;
+    }
+
+    private static float[] parseFloats(String[] parts, int count) {
+        float[] values = new float[count];
+        for (int i = 0; i < count; ++i) {
+            values[i] = Float.parseFloat(parts[i + 1]);
+        }
+        return values;
+    }
+}
@@ -18,8 +18,9 @@ package org.gearvrf.modelviewer;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMaterialMap;
-import org.gearvrf.GVRMaterialShaderManager;
 import org.gearvrf.GVRCustomMaterialShaderId;
+import org.gearvrf.shaderlib.ShaderLibrary;
+import org.gearvrf.shaderlib.ShaderSnippets;
 
 public class DiffuseShader {
 
@@ -33,61 +34,19 @@ public class DiffuseShader {
     public static final String MAT3_KEY = "u_mat3";
     public static final String MAT4_KEY = "u_mat4";
 
-    private static final String VERTEX_SHADER = "" //
-            + "attribute vec4 a_position;\n"
-            + "attribute vec3 a_normal;\n" //
-            + "attribute vec2 a_tex_coord;\n"
-            + "uniform mat4 u_mvp;\n" //
-            + "uniform vec3 u_eye;\n"
-            + "uniform vec3 u_light;\n" //
-            + "varying vec3 normal;\n"
-            + "varying vec3 view;\n" //
-            + "varying vec3 light;\n"
-            + "varying vec2 coord;\n" //
-            + "void main() {\n"
-            + "  normal = a_normal;\n" //
-            + "  view  = u_eye - a_position.xyz;\n"
-            + "  light = u_light - a_position.xyz;\n"
-            + "  coord = a_tex_coord;\n"
-            + "  gl_Position = u_mvp * a_position;\n" //
-            + "}\n";
-
-    private static final String FRAGMENT_SHADER = "" //
-            + "precision mediump float;\n"
-            + "uniform vec4  u_color;\n" //
-            + "varying vec2  coord;\n"
-            + "varying vec3  normal;\n" //
-            + "varying vec3  view;\n"
-            + "varying vec3  light;\n" //
-            + "uniform sampler2D texture;\n"
-            + "void main() {\n" //
-            + "  vec3  v = normalize(view);\n"
-            + "  vec3  l = normalize(light);\n"
-            + "  vec3  n = normalize(normal);\n"
-            + "  vec3 color = texture2D(texture, coord).rgb;\n"
-            + "  vec3  h = normalize(v+l);\n"
-            + "  float diffuse  = max ( dot(l,n), 0.1 );\n"
-            + "  float specular = max ( dot(h,n), 0.0 );\n"
-            + "  specular = pow (specular, 300.0);\n" //
-            + "  color *= diffuse;\n" //
-            + "  color *= u_color.rgb;\n"
-            + "  color += 0.5*(1.0- color)*specular;\n"
-            + "  gl_FragColor = vec4( color, 1.0 );\n" //
-            + "}\n";
-
     private GVRCustomMaterialShaderId mShaderId;
-    private GVRMaterialMap mCustomShader = null;
 
     public DiffuseShader(GVRContext gvrContext) {
-        final GVRMaterialShaderManager shaderManager = gvrContext
-                .getMaterialShaderManager();
-        mShaderId = shaderManager.addShader(VERTEX_SHADER, FRAGMENT_SHADER);
-        mCustomShader = shaderManager.getShaderMap(mShaderId);
-        mCustomShader.addUniformVec4Key("u_color", COLOR_KEY);
-        mCustomShader.addUniformVec3Key("u_light", LIGHT_KEY);
-        mCustomShader.addUniformVec3Key("u_eye", EYE_KEY);
-        mCustomShader.addTextureKey("texture", TEXTURE_KEY);
-
+        mShaderId = ShaderLibrary.getInstance(gvrContext).getShader(ShaderSnippets.DIFFUSE,
+                new ShaderLibrary.KeyBinder() {
+                    @Override
+                    public void bindKeys(GVRMaterialMap shaderMap) {
+                        shaderMap.addUniformVec4Key("u_color", COLOR_KEY);
+                        shaderMap.addUniformVec3Key("u_light", LIGHT_KEY);
+                        shaderMap.addUniformVec3Key("u_eye", EYE_KEY);
+                        shaderMap.addTextureKey("texture", TEXTURE_KEY);
+                    }
+                });
     }
 
     public GVRCustomMaterialShaderId getShaderId() {
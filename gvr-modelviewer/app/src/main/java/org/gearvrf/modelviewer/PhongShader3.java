@@ -18,8 +18,8 @@ package org.gearvrf.modelviewer;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMaterialMap;
-import org.gearvrf.GVRMaterialShaderManager;
 import org.gearvrf.GVRCustomMaterialShaderId;
+import org.gearvrf.shaderlib.ShaderLibrary;
 
 public class PhongShader3 {
 
@@ -109,23 +109,24 @@ public class PhongShader3 {
             + "}\n";
 
     private GVRCustomMaterialShaderId mShaderId;
-    private GVRMaterialMap mCustomShader = null;
 
     public PhongShader3(GVRContext gvrContext) {
-        final GVRMaterialShaderManager shaderManager = gvrContext
-                .getMaterialShaderManager();
-        mShaderId = shaderManager.addShader(VERTEX_SHADER, FRAGMENT_SHADER);
-        mCustomShader = shaderManager.getShaderMap(mShaderId);
-        mCustomShader.addUniformVec3Key("u_light", LIGHT_KEY);
-        mCustomShader.addUniformVec3Key("u_eye", EYE_KEY);
-        mCustomShader.addUniformFloatKey("u_radius", RADIUS_KEY);
-        mCustomShader.addTextureKey("intexture", TEXTURE_KEY);
-        mCustomShader.addTextureKey("env", ENV_KEY);
+        mShaderId = ShaderLibrary.getInstance(gvrContext).addShader(VERTEX_SHADER,
+                FRAGMENT_SHADER, new ShaderLibrary.KeyBinder() {
+                    @Override
+                    public void bindKeys(GVRMaterialMap shaderMap) {
+                        shaderMap.addUniformVec3Key("u_light", LIGHT_KEY);
+                        shaderMap.addUniformVec3Key("u_eye", EYE_KEY);
+                        shaderMap.addUniformFloatKey("u_radius", RADIUS_KEY);
+                        shaderMap.addTextureKey("intexture", TEXTURE_KEY);
+                        shaderMap.addTextureKey("env", ENV_KEY);
 
-        mCustomShader.addUniformVec4Key("u_mat1", MAT1_KEY);
-        mCustomShader.addUniformVec4Key("u_mat2", MAT2_KEY);
-        mCustomShader.addUniformVec4Key("u_mat3", MAT3_KEY);
-        mCustomShader.addUniformVec4Key("u_mat4", MAT4_KEY);
+                        shaderMap.addUniformVec4Key("u_mat1", MAT1_KEY);
+                        shaderMap.addUniformVec4Key("u_mat2", MAT2_KEY);
+                        shaderMap.addUniformVec4Key("u_mat3", MAT3_KEY);
+                        shaderMap.addUniformVec4Key("u_mat4", MAT4_KEY);
+                    }
+                });
     }
 
     public GVRCustomMaterialShaderId getShaderId() {
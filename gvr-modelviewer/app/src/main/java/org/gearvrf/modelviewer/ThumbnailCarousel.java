@@ -0,0 +1,113 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.modelviewer;
+
+import org.gearvrf.scenenode.SceneNode;
+
+/**
+ * The row of model thumbnails: each one eases toward a slot, and while one
+ * is gazed at and the row has settled, the row turns by a slot to bring it
+ * toward the middle. The boards spin about their vertical axis. Written
+ * against {@link SceneNode} so it can be stepped headless.
+ *
+ * Positions are kept here rather than read back, and a thumbnail's position
+ * is only written when the easing still moves it.
+ */
+public class ThumbnailCarousel {
+
+    static final float SPEED = 0.08f;
+    static final float SPIN = -1.0f;
+
+    // the row counts as settled when the first thumbnail is this close to its slot
+    private static final float SETTLED = 0.2f;
+    // and turns when the gazed one is further than this from the middle
+    private static final float OFF_CENTER = 0.5f;
+
+    private final float[][] slots;
+    private final SceneNode[] thumbnails;
+    private final SceneNode[] boards;
+    private final int[] slotIndex;
+    private final float[][] current;
+
+    /**
+     * @param slots
+     *            position of each slot, one per thumbnail; thumbnail i
+     *            starts in slot i
+     * @param thumbnails
+     *            the nodes that are moved between slots
+     * @param boards
+     *            the nodes that spin, one per thumbnail
+     */
+    public ThumbnailCarousel(float[][] slots, SceneNode[] thumbnails, SceneNode[] boards) {
+        if (thumbnails.length != slots.length || boards.length != slots.length) {
+            throw new IllegalArgumentException("need one thumbnail and board per slot");
+        }
+        this.slots = new float[slots.length][];
+        this.thumbnails = thumbnails.clone();
+        this.boards = boards.clone();
+        slotIndex = new int[slots.length];
+        current = new float[slots.length][];
+        for (int i = 0; i < slots.length; ++i) {
+            this.slots[i] = slots[i].clone();
+            current[i] = slots[i].clone();
+            slotIndex[i] = i;
+            this.thumbnails[i].setPosition(current[i][0], current[i][1], current[i][2]);
+        }
+    }
+
+    public int getSlot(int thumbnail) {
+        return slotIndex[thumbnail];
+    }
+
+    public float getPositionX(int thumbnail) {
+        return current[thumbnail][0];
+    }
+
+    /**
+     * @param selected
+     *            the thumbnail being gazed at, or -1 for none
+     */
+    public void step(int selected) {
+        int count = slots.length;
+        if (selected >= 0
+                && Math.abs(slots[slotIndex[0]][0] - current[0][0]) < SETTLED) {
+            int turn = 0;
+            if (current[selected][0] < -OFF_CENTER) {
+                turn = 1;
+            } else if (current[selected][0] > OFF_CENTER) {
+                turn = count - 1;
+            }
+            for (int i = 0; i < count; ++i) {
+                slotIndex[i] = (slotIndex[i] + turn) % count;
+            }
+        }
+
+        for (int i = 0; i < count; ++i) {
+            float[] position = current[i];
+            float[] target = slots[slotIndex[i]];
+            boolean moved = false;
+            for (int j = 0; j < 3; ++j) {
+                float next = position[j] + SPEED * (target[j] - position[j]);
+                moved |= next != position[j];
+                position[j] = next;
+            }
+            if (moved) {
+                thumbnails[i].setPosition(position[0], position[1], position[2]);
+            }
+            boards[i].rotateByAxis(SPIN, 0.0f, 1.0f, 0.0f);
+        }
+    }
+}
@@ -18,9 +18,9 @@ package org.gearvrf.modelviewer;
 
 import org.gearvrf.modelviewer.R;
 
-import org.gearvrf.util.VRTouchPadGestureDetector;
-import org.gearvrf.util.VRTouchPadGestureDetector.OnTouchPadGestureListener;
-import org.gearvrf.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.OnTouchPadGestureListener;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 import android.content.Intent;
 import android.net.Uri;
@@ -16,12 +16,22 @@
 package org.gearvrf.modelviewer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.gearvrf.*;
 import org.gearvrf.GVRPicker.GVRPickedObject;
 import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
-
+import org.gearvrf.profiler.FPSCounter;
+import org.gearvrf.scenenode.GVRSceneNode;
+import org.gearvrf.scenenode.SceneNode;
+import org.gearvrf.shaderlib.ShaderLibrary;
+import org.gearvrf.startup.StartupLoader;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
 import android.util.Log;
 import android.view.MotionEvent;
 
@@ -66,7 +76,6 @@ public class ViewerMain extends GVRMain {
     private GVRMaterial mLeafBodyMaterial = null;
     private GVRMaterial mLeafBoxMaterial = null;
 
-    private float THUMBNAIL_ROT = 0.0f;
     private float OBJECT_ROT = 0.0f;
     private final float EYE_TO_OBJECT = 2.4f;
     private final int THUMBNAIL_NUM = 5;
@@ -77,8 +86,7 @@ public class ViewerMain extends GVRMain {
     private GVRSceneObject[] Thumbnails = new GVRSceneObject[THUMBNAIL_NUM];
     private GVRTexture[] ThumbnailTextures = new GVRTexture[THUMBNAIL_NUM];
     private float[][] ThumbnailTargetPosition = new float[THUMBNAIL_NUM][3];
-    private int[] ThumbnailTargetIndex = new int[THUMBNAIL_NUM];
-    private float[][] ThumbnailCurrentPosition = new float[THUMBNAIL_NUM][3];
+    private ThumbnailCarousel mCarousel = null;
     private int[] ThumbnailOrder = new int[THUMBNAIL_NUM];
     private int ThumbnailSelected = 2;
 
@@ -92,6 +100,15 @@ public class ViewerMain extends GVRMain {
 
     private GVRActivity mActivity;
 
+    private static final long CRITICAL_UPLOAD_BUDGET_NANOS = 16000000L;
+    private static final long UPLOAD_BUDGET_NANOS = 4000000L;
+
+    private StartupLoader mLoader = null;
+    private boolean mLoadFailed = false;
+    private Map<String, StartupLoader.Asset<Bitmap>> mTextureAssets = new HashMap<String, StartupLoader.Asset<Bitmap>>();
+    private Map<String, GVRTexture> mTextures = new HashMap<String, GVRTexture>();
+    private Map<String, GVRMesh> mMeshes = new HashMap<String, GVRMesh>();
+
     ViewerMain(GVRActivity activity) {
         mActivity = activity;
     }
@@ -113,6 +130,10 @@ public class ViewerMain extends GVRMain {
         mPhongShader2 = new PhongShader2(mGVRContext);
         mPhongShader3 = new PhongShader3(mGVRContext);
 
+        ShaderLibrary shaderLibrary = ShaderLibrary.getInstance(mGVRContext);
+        Log.d(TAG, "shaders: " + shaderLibrary.getMissCount() + " registered, "
+                + shaderLibrary.getHitCount() + " shared");
+
         GVRScene mainScene = mGVRContext.getNextMainScene();
 
         mainScene.getMainCameraRig().getLeftCamera()
@@ -120,500 +141,461 @@ public class ViewerMain extends GVRMain {
         mainScene.getMainCameraRig().getRightCamera()
                 .setBackgroundColor(1.0f, 1.0f, 1.0f, 1.0f);
 
-        try {
-            GVRTexture env_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext, "env.jpg"));
-            mReflectionMaterial = new GVRMaterial(mGVRContext,
-                    mReflectionShader.getShaderId());
-            mReflectionMaterial.setVec4(ReflectionShader.COLOR_KEY, 1.0f, 1.0f,
-                    1.0f, 1.0f);
-            mReflectionMaterial.setFloat(ReflectionShader.RADIUS_KEY, 10.0f);
-            mReflectionMaterial.setTexture(ReflectionShader.TEXTURE_KEY,
-                    env_tex);
-
-            // ------------------------------------------------------ set
-            // materials
-            // watch
-            mMetalMaterial = new GVRMaterial(mGVRContext,
-                    mMetalOnlyShader.getShaderId());
-            mMetalMaterial.setVec4(MetalOnlyShader.COLOR_KEY, 1.7f, 1.4f, 1.0f,
-                    1.0f);
-            mMetalMaterial.setFloat(MetalOnlyShader.RADIUS_KEY, 10.0f);
-            mMetalMaterial.setTexture(MetalOnlyShader.TEXTURE_KEY, env_tex);
-
-            mGlassMaterial = new GVRMaterial(mGVRContext,
-                    mGlassShader.getShaderId());
-            mGlassMaterial.setVec4(GlassShader.COLOR_KEY, 1.0f, 1.0f, 1.0f,
-                    1.0f);
-            mGlassMaterial.setFloat(MetalOnlyShader.RADIUS_KEY, 10.0f);
-            mGlassMaterial.setTexture(GlassShader.TEXTURE_KEY, env_tex);
-
-            GVRTexture board_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "watch/board.jpg"));
-            mDiffuseMaterial = new GVRMaterial(mGVRContext,
-                    mDiffuseShader.getShaderId());
-            mDiffuseMaterial.setVec4(DiffuseShader.COLOR_KEY, 1.0f, 1.0f, 1.0f,
-                    1.0f);
-            mDiffuseMaterial.setTexture(DiffuseShader.TEXTURE_KEY, board_tex);
-
-            // jar
-            mPhongMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader.getShaderId());
-            mPhongMaterial.setVec4(PhongShader.COLOR_KEY, 1.2f, 1.2f, 1.3f,
-                    1.0f);
-            mPhongMaterial.setFloat(PhongShader.RADIUS_KEY, 10.0f);
-            mPhongMaterial.setTexture(PhongShader.TEXTURE_KEY, env_tex);
-
-            // car
-            GVRTexture car_body_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "car/body.jpg"));
-            mCarBodyMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader3.getShaderId());
-            mCarBodyMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
-            mCarBodyMaterial.setTexture(PhongShader3.ENV_KEY, env_tex);
-            mCarBodyMaterial.setTexture(PhongShader3.TEXTURE_KEY, car_body_tex);
-
-            mCarWheelMaterial = new GVRMaterial(mGVRContext,
-                    mMetalShader2.getShaderId());
-            mCarWheelMaterial.setVec4(MetalShader2.COLOR_KEY, 1.2f, 1.2f, 1.2f,
-                    1.0f);
-            mCarWheelMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
-            mCarWheelMaterial.setTexture(MetalShader2.TEXTURE_KEY, env_tex);
-
-            mCarGlassMaterial = new GVRMaterial(mGVRContext,
-                    mGlassShader2.getShaderId());
-            mCarGlassMaterial.setVec4(GlassShader2.COLOR_KEY, 1.0f, 1.0f, 1.0f,
-                    1.0f);
-            mCarGlassMaterial.setFloat(GlassShader2.RADIUS_KEY, 10.0f);
-            mCarGlassMaterial.setTexture(GlassShader2.TEXTURE_KEY, env_tex);
-
-            GVRTexture default_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "car/default.png"));
-            mCarTireMaterial = new GVRMaterial(mGVRContext,
-                    mDiffuseShader2.getShaderId());
-            mCarTireMaterial.setVec4(DiffuseShader2.COLOR_KEY, 0.1f, 0.1f,
-                    0.1f, 1.0f);
-            mCarTireMaterial
-                    .setTexture(DiffuseShader2.TEXTURE_KEY, default_tex);
-
-            GVRTexture back_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "car/back.jpg"));
-            mCarBackMaterial = new GVRMaterial(mGVRContext,
-                    mDiffuseShader2.getShaderId());
-            mCarBackMaterial.setVec4(DiffuseShader2.COLOR_KEY, 1.0f, 1.0f,
-                    1.0f, 1.0f);
-            mCarBackMaterial.setTexture(DiffuseShader2.TEXTURE_KEY, back_tex);
-
-            GVRTexture grill_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "car/grill.jpg"));
-            mCarGrillMaterial = new GVRMaterial(mGVRContext,
-                    mDiffuseShader2.getShaderId());
-            mCarGrillMaterial.setVec4(DiffuseShader2.COLOR_KEY, 1.0f, 1.0f,
-                    1.0f, 1.0f);
-            mCarGrillMaterial.setTexture(DiffuseShader2.TEXTURE_KEY, grill_tex);
-
-            mCarLightMaterial = new GVRMaterial(mGVRContext,
-                    mGlassShader2.getShaderId());
-            mCarLightMaterial.setVec4(GlassShader2.COLOR_KEY, 2.5f, 2.5f, 2.5f,
-                    1.0f);
-            mCarLightMaterial.setFloat(GlassShader2.RADIUS_KEY, 10.0f);
-            mCarLightMaterial.setTexture(GlassShader2.TEXTURE_KEY, env_tex);
-
-            mCarInsideMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader2.getShaderId());
-            mCarInsideMaterial.setVec4(PhongShader2.COLOR_KEY, 0.0f, 0.0f,
-                    0.0f, 1.0f);
-            mCarInsideMaterial.setFloat(PhongShader2.RADIUS_KEY, 10.0f);
-            mCarInsideMaterial.setTexture(PhongShader2.TEXTURE_KEY, env_tex);
-
-            // robot
-            GVRTexture robot_head_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "robot/head.jpg"));
-            mRobotHeadMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader3.getShaderId());
-            mRobotHeadMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
-            mRobotHeadMaterial.setTexture(PhongShader3.ENV_KEY, env_tex);
-            mRobotHeadMaterial.setTexture(PhongShader3.TEXTURE_KEY,
-                    robot_head_tex);
-
-            mRobotMetalMaterial = new GVRMaterial(mGVRContext,
-                    mMetalShader2.getShaderId());
-            mRobotMetalMaterial.setVec4(MetalShader2.COLOR_KEY, 1.5f, 1.5f,
-                    1.5f, 1.0f);
-            mRobotMetalMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
-            mRobotMetalMaterial.setTexture(MetalShader2.TEXTURE_KEY, env_tex);
-
-            mRobotBodyMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader2.getShaderId());
-            mRobotBodyMaterial.setVec4(PhongShader2.COLOR_KEY, 1.0f, 1.0f,
-                    1.0f, 1.0f);
-            mRobotBodyMaterial.setFloat(PhongShader2.RADIUS_KEY, 10.0f);
-            mRobotBodyMaterial.setTexture(PhongShader2.TEXTURE_KEY, env_tex);
-
-            mRobotRubberMaterial = new GVRMaterial(mGVRContext,
-                    mDiffuseShader2.getShaderId());
-            mRobotRubberMaterial.setVec4(DiffuseShader2.COLOR_KEY, 0.3f, 0.3f,
-                    0.3f, 1.0f);
-            mRobotRubberMaterial.setTexture(DiffuseShader2.TEXTURE_KEY,
-                    default_tex);
-
-            // leaf
-            GVRTexture leaf_box_tex = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "leaf/box.jpg"));
-            mLeafBoxMaterial = new GVRMaterial(mGVRContext,
-                    mPhongShader3.getShaderId());
-            mLeafBoxMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
-            mLeafBoxMaterial.setTexture(PhongShader3.ENV_KEY, env_tex);
-            mLeafBoxMaterial.setTexture(PhongShader3.TEXTURE_KEY, leaf_box_tex);
-
-            mLeafBodyMaterial = new GVRMaterial(mGVRContext,
-                    mMetalShader2.getShaderId());
-            mLeafBodyMaterial.setVec4(MetalShader2.COLOR_KEY, 2.5f, 2.5f, 2.5f,
-                    1.0f);
-            mLeafBodyMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
-            mLeafBodyMaterial.setTexture(MetalShader2.TEXTURE_KEY, env_tex);
-
-            // ------------------------------------------------------ set
-            // objects
-
-            for (int i = 0; i < THUMBNAIL_NUM; i++)
-                Objects[i] = new GVRSceneObject(mGVRContext);
-
-            // --------------watch
-
-            GVRSceneObject obj1 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData1 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh1 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "watch/frame.obj"));
-            renderData1.setMesh(mesh1);
-            renderData1.setMaterial(mMetalMaterial);
-            obj1.attachRenderData(renderData1);
-            Objects[2].addChildObject(obj1);
-
-            GVRSceneObject obj2 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData2 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh2 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "watch/board.obj"));
-            renderData2.setMesh(mesh2);
-            renderData2.setMaterial(mDiffuseMaterial);
-            obj2.attachRenderData(renderData2);
-            Objects[2].addChildObject(obj2);
-
-            GVRSceneObject obj3 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData3 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh3 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "watch/glass.obj"));
-            renderData3.setMesh(mesh3);
-            renderData3.setMaterial(mGlassMaterial);
-            obj3.attachRenderData(renderData3);
-
-            obj3.getRenderData().setRenderingOrder(3000);
-            Objects[2].addChildObject(obj3);
-
-            Objects[2].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
-            mainScene.addSceneObject(Objects[2]);
-
-            // --------------jar
-
-            GVRSceneObject obj5 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData5 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh5 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "jar/jar.obj"));
-            renderData5.setMesh(mesh5);
-            renderData5.setMaterial(mPhongMaterial);
-            obj5.attachRenderData(renderData5);
-            Objects[1].addChildObject(obj5);
-
-            GVRSceneObject obj4 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData4 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh4 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "jar/edge.obj"));
-            renderData4.setMesh(mesh4);
-            renderData4.setMaterial(mMetalMaterial);
-            obj4.attachRenderData(renderData4);
-            obj4.getRenderData().setRenderingOrder(3000);
-            Objects[1].addChildObject(obj4);
-
-            Objects[1].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
-            mainScene.addSceneObject(Objects[1]);
-
-            // --------------car
-
-            GVRSceneObject obj6 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData6 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh6 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/body.obj"));
-            renderData6.setMesh(mesh6);
-            renderData6.setMaterial(mCarBodyMaterial);
-            obj6.attachRenderData(renderData6);
-            obj6.getRenderData().setCullTest(false);
-            Objects[3].addChildObject(obj6);
-
-            GVRSceneObject obj9 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData9 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh9 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/tire.obj"));
-            renderData9.setMesh(mesh9);
-            renderData9.setMaterial(mCarTireMaterial);
-            obj9.attachRenderData(renderData9);
-            Objects[3].addChildObject(obj9);
-
-            GVRSceneObject obj10 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData10 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh10 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/glass.obj"));
-            renderData10.setMesh(mesh10);
-            renderData10.setMaterial(mCarGlassMaterial);
-            obj10.attachRenderData(renderData10);
-            obj10.getRenderData().setCullTest(false);
-            obj10.getRenderData().setRenderingOrder(3000);
-            Objects[3].addChildObject(obj10);
-
-            GVRSceneObject obj11 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData11 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh11 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/wheel.obj"));
-            renderData11.setMesh(mesh11);
-            renderData11.setMaterial(mCarWheelMaterial);
-            obj11.attachRenderData(renderData11);
-            Objects[3].addChildObject(obj11);
-
-            GVRSceneObject obj12 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData12 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh12 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/back.obj"));
-            renderData12.setMesh(mesh12);
-            renderData12.setMaterial(mCarBackMaterial);
-            obj12.attachRenderData(renderData12);
-            Objects[3].addChildObject(obj12);
-
-            GVRSceneObject obj13 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData13 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh13 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/grill.obj"));
-            renderData13.setMesh(mesh13);
-            renderData13.setMaterial(mCarGrillMaterial);
-            obj13.attachRenderData(renderData13);
-            obj10.getRenderData().setRenderingOrder(3000);
-            Objects[3].addChildObject(obj13);
-
-            GVRSceneObject obj14 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData14 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh14 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/glass2.obj"));
-            renderData14.setMesh(mesh14);
-            renderData14.setMaterial(mCarLightMaterial);
-            obj14.attachRenderData(renderData14);
-            obj14.getRenderData().setRenderingOrder(4000);
-            Objects[3].addChildObject(obj14);
-
-            GVRSceneObject obj19 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData19 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh19 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "car/inside.obj"));
-            renderData19.setMesh(mesh19);
-            renderData19.setMaterial(mCarInsideMaterial);
-            obj19.attachRenderData(renderData19);
-            Objects[3].addChildObject(obj19);
-
-            Objects[3].getTransform().setPosition(0.0f, -2.0f,
-                    -EYE_TO_OBJECT - 3.0f);
-            mainScene.addSceneObject(Objects[3]);
-
-            // robot
-
-            GVRSceneObject obj15 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData15 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh15 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "robot/body.obj"));
-            renderData15.setMesh(mesh15);
-            renderData15.setMaterial(mRobotBodyMaterial);
-            obj15.attachRenderData(renderData15);
-            Objects[4].addChildObject(obj15);
-
-            GVRSceneObject obj16 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData16 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh16 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "robot/head.obj"));
-            renderData16.setMesh(mesh16);
-            renderData16.setMaterial(mRobotHeadMaterial);
-            obj16.attachRenderData(renderData16);
-            Objects[4].addChildObject(obj16);
-
-            GVRSceneObject obj17 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData17 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh17 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "robot/metal.obj"));
-            renderData17.setMesh(mesh17);
-            renderData17.setMaterial(mRobotMetalMaterial);
-            obj17.attachRenderData(renderData17);
-            obj17.getRenderData().setRenderingOrder(3000);
-            Objects[4].addChildObject(obj17);
-
-            GVRSceneObject obj18 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData18 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh18 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "robot/rubber.obj"));
-            renderData18.setMesh(mesh18);
-            renderData18.setMaterial(mRobotRubberMaterial);
-            obj18.attachRenderData(renderData18);
-            Objects[4].addChildObject(obj18);
-
-            Objects[4].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
-            mainScene.addSceneObject(Objects[4]);
-
-            // leaf
-
-            GVRSceneObject obj20 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData20 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh20 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "leaf/leaf.obj"));
-            renderData20.setMesh(mesh20);
-            renderData20.setMaterial(mLeafBodyMaterial);
-            obj20.attachRenderData(renderData20);
-            Objects[0].addChildObject(obj20);
-
-            GVRSceneObject obj21 = new GVRSceneObject(mGVRContext);
-            GVRRenderData renderData21 = new GVRRenderData(mGVRContext);
-            GVRMesh mesh21 = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "leaf/box.obj"));
-            renderData21.setMesh(mesh21);
-            renderData21.setMaterial(mLeafBoxMaterial);
-            obj21.attachRenderData(renderData21);
-            Objects[0].addChildObject(obj21);
-
-            Objects[0].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
-            mainScene.addSceneObject(Objects[0]);
-
-            for (int I = 0; I < THUMBNAIL_NUM; I++)
-                for (int i = 0; i < Objects[I].getChildrenCount(); i++)
-                    Objects[I].getChildByIndex(i).getRenderData()
-                            .setRenderMask(0);
-            // ------------------------------------------------------ set
-            // thumbnails
-
-            ThumbnailTextures[0] = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "leaf/leaf.jpg"));
-            ThumbnailTextures[1] = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "jar/jar.png"));
-            ThumbnailTextures[2] = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "watch/watch.png"));
-            ThumbnailTextures[3] = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "car/car.png"));
-            ThumbnailTextures[4] = mGVRContext
-                    .loadTexture(new GVRAndroidResource(mGVRContext,
-                            "robot/robot.jpg"));
-
-            ThumbnailTargetPosition[0][0] = -2.2f;
-            ThumbnailTargetPosition[0][1] = 0.0f;
-            ThumbnailTargetPosition[0][2] = -EYE_TO_OBJECT - 2.8f;
-            ThumbnailTargetPosition[1][0] = -1.0f;
-            ThumbnailTargetPosition[1][1] = 0.0f;
-            ThumbnailTargetPosition[1][2] = -EYE_TO_OBJECT - 1.5f;
-            ThumbnailTargetPosition[2][0] = 0.0f;
-            ThumbnailTargetPosition[2][1] = 0.0f;
-            ThumbnailTargetPosition[2][2] = -EYE_TO_OBJECT - 0.0f;
-            ThumbnailTargetPosition[3][0] = 1.0f;
-            ThumbnailTargetPosition[3][1] = 0.0f;
-            ThumbnailTargetPosition[3][2] = -EYE_TO_OBJECT - 1.5f;
-            ThumbnailTargetPosition[4][0] = 2.2f;
-            ThumbnailTargetPosition[4][1] = 0.0f;
-            ThumbnailTargetPosition[4][2] = -EYE_TO_OBJECT - 2.8f;
-
-            for (int i = 0; i < THUMBNAIL_NUM; i++)
-                for (int j = 0; j < 3; j++)
-                    ThumbnailCurrentPosition[i][j] = ThumbnailTargetPosition[i][j];
-            for (int i = 0; i < THUMBNAIL_NUM; i++)
-                ThumbnailTargetIndex[i] = i;
-
-            ThumbnailOrder[0] = 10000;
-            ThumbnailOrder[1] = 10001;
-            ThumbnailOrder[2] = 10002;
-            ThumbnailOrder[3] = 10001;
-            ThumbnailOrder[4] = 10000;
-
-            GVRMesh glass_mesh = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "glass.obj"));
-            GVRMesh board_mesh = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "board.obj"));
-            GVRMesh picks_mesh = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "pick.obj"));
-            for (int i = 0; i < THUMBNAIL_NUM; i++) {
-                ThumbnailObject[i] = new GVRSceneObject(mGVRContext);
-                ThumbnailRotation[i] = new GVRSceneObject(mGVRContext);
-                GVRSceneObject obj = new GVRSceneObject(mGVRContext);
-                ThumbnailGlasses[i] = new GVRRenderData(mGVRContext);
-                ThumbnailGlasses[i].setMesh(glass_mesh);
-                ThumbnailGlasses[i].setMaterial(mReflectionMaterial);
-                obj.attachRenderData(ThumbnailGlasses[i]);
-                obj.getRenderData().setRenderingOrder(ThumbnailOrder[i]);
-                ThumbnailRotation[i].addChildObject(obj);
-                ThumbnailObject[i].addChildObject(ThumbnailRotation[i]);
-
-                Thumbnails[i] = new GVRSceneObject(mGVRContext, board_mesh,
-                        ThumbnailTextures[i]);
-                Thumbnails[i].getRenderData().setRenderingOrder(
-                        ThumbnailOrder[i] - 100);
-                Thumbnails[i].getRenderData().setCullTest(false);
-                Thumbnails[i].getTransform().setScale(1.0f, 1.2f, 1.0f);
-                ThumbnailRotation[i].addChildObject(Thumbnails[i]);
-
-                ThumbnailObject[i].getTransform().setPosition(
-                        ThumbnailTargetPosition[i][0],
-                        ThumbnailTargetPosition[i][1],
-                        ThumbnailTargetPosition[i][2]);
-                mainScene.addSceneObject(ThumbnailObject[i]);
-
-                GVREyePointeeHolder eyePointeeHolder = new GVREyePointeeHolder(
-                        gvrContext);
-                GVRMeshEyePointee eyePointee = new GVRMeshEyePointee(
-                        gvrContext, picks_mesh);
-                eyePointeeHolder.addPointee(eyePointee);
-                ThumbnailObject[i].attachEyePointeeHolder(eyePointeeHolder);
+        // Textures and meshes are decoded by mLoader's workers and uploaded
+        // from onStep. Materials are created here and get their textures
+        // once those are up; objects are attached once their mesh and
+        // material are.
+        mLoader = new StartupLoader(StartupLoader.defaultWorkerCount());
+
+        mReflectionMaterial = new GVRMaterial(mGVRContext,
+                mReflectionShader.getShaderId());
+        mReflectionMaterial.setVec4(ReflectionShader.COLOR_KEY, 1.0f, 1.0f,
+                1.0f, 1.0f);
+        mReflectionMaterial.setFloat(ReflectionShader.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> reflection = bindTextures(mReflectionMaterial,
+                true, ReflectionShader.TEXTURE_KEY, "env.jpg");
+
+        // ------------------------------------------------------ set
+        // materials
+        // watch
+        mMetalMaterial = new GVRMaterial(mGVRContext,
+                mMetalOnlyShader.getShaderId());
+        mMetalMaterial.setVec4(MetalOnlyShader.COLOR_KEY, 1.7f, 1.4f, 1.0f,
+                1.0f);
+        mMetalMaterial.setFloat(MetalOnlyShader.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> metal = bindTextures(mMetalMaterial, false,
+                MetalOnlyShader.TEXTURE_KEY, "env.jpg");
+
+        mGlassMaterial = new GVRMaterial(mGVRContext,
+                mGlassShader.getShaderId());
+        mGlassMaterial.setVec4(GlassShader.COLOR_KEY, 1.0f, 1.0f, 1.0f,
+                1.0f);
+        mGlassMaterial.setFloat(MetalOnlyShader.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> glass = bindTextures(mGlassMaterial, false,
+                GlassShader.TEXTURE_KEY, "env.jpg");
+
+        mDiffuseMaterial = new GVRMaterial(mGVRContext,
+                mDiffuseShader.getShaderId());
+        mDiffuseMaterial.setVec4(DiffuseShader.COLOR_KEY, 1.0f, 1.0f, 1.0f,
+                1.0f);
+        StartupLoader.Asset<?> diffuse = bindTextures(mDiffuseMaterial, false,
+                DiffuseShader.TEXTURE_KEY, "watch/board.jpg");
+
+        // jar
+        mPhongMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader.getShaderId());
+        mPhongMaterial.setVec4(PhongShader.COLOR_KEY, 1.2f, 1.2f, 1.3f,
+                1.0f);
+        mPhongMaterial.setFloat(PhongShader.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> phong = bindTextures(mPhongMaterial, false,
+                PhongShader.TEXTURE_KEY, "env.jpg");
+
+        // car
+        mCarBodyMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader3.getShaderId());
+        mCarBodyMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> carBody = bindTextures(mCarBodyMaterial, false,
+                PhongShader3.ENV_KEY, "env.jpg", PhongShader3.TEXTURE_KEY,
+                "car/body.jpg");
+
+        mCarWheelMaterial = new GVRMaterial(mGVRContext,
+                mMetalShader2.getShaderId());
+        mCarWheelMaterial.setVec4(MetalShader2.COLOR_KEY, 1.2f, 1.2f, 1.2f,
+                1.0f);
+        mCarWheelMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> carWheel = bindTextures(mCarWheelMaterial,
+                false, MetalShader2.TEXTURE_KEY, "env.jpg");
+
+        mCarGlassMaterial = new GVRMaterial(mGVRContext,
+                mGlassShader2.getShaderId());
+        mCarGlassMaterial.setVec4(GlassShader2.COLOR_KEY, 1.0f, 1.0f, 1.0f,
+                1.0f);
+        mCarGlassMaterial.setFloat(GlassShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> carGlass = bindTextures(mCarGlassMaterial,
+                false, GlassShader2.TEXTURE_KEY, "env.jpg");
+
+        mCarTireMaterial = new GVRMaterial(mGVRContext,
+                mDiffuseShader2.getShaderId());
+        mCarTireMaterial.setVec4(DiffuseShader2.COLOR_KEY, 0.1f, 0.1f,
+                0.1f, 1.0f);
+        StartupLoader.Asset<?> carTire = bindTextures(mCarTireMaterial, false,
+                DiffuseShader2.TEXTURE_KEY, "car/default.png");
+
+        mCarBackMaterial = new GVRMaterial(mGVRContext,
+                mDiffuseShader2.getShaderId());
+        mCarBackMaterial.setVec4(DiffuseShader2.COLOR_KEY, 1.0f, 1.0f,
+                1.0f, 1.0f);
+        StartupLoader.Asset<?> carBack = bindTextures(mCarBackMaterial, false,
+                DiffuseShader2.TEXTURE_KEY, "car/back.jpg");
+
+        mCarGrillMaterial = new GVRMaterial(mGVRContext,
+                mDiffuseShader2.getShaderId());
+        mCarGrillMaterial.setVec4(DiffuseShader2.COLOR_KEY, 1.0f, 1.0f,
+                1.0f, 1.0f);
+        StartupLoader.Asset<?> carGrill = bindTextures(mCarGrillMaterial,
+                false, DiffuseShader2.TEXTURE_KEY, "car/grill.jpg");
+
+        mCarLightMaterial = new GVRMaterial(mGVRContext,
+                mGlassShader2.getShaderId());
+        mCarLightMaterial.setVec4(GlassShader2.COLOR_KEY, 2.5f, 2.5f, 2.5f,
+                1.0f);
+        mCarLightMaterial.setFloat(GlassShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> carLight = bindTextures(mCarLightMaterial,
+                false, GlassShader2.TEXTURE_KEY, "env.jpg");
+
+        mCarInsideMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader2.getShaderId());
+        mCarInsideMaterial.setVec4(PhongShader2.COLOR_KEY, 0.0f, 0.0f,
+                0.0f, 1.0f);
+        mCarInsideMaterial.setFloat(PhongShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> carInside = bindTextures(mCarInsideMaterial,
+                false, PhongShader2.TEXTURE_KEY, "env.jpg");
+
+        // robot
+        mRobotHeadMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader3.getShaderId());
+        mRobotHeadMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> robotHead = bindTextures(mRobotHeadMaterial,
+                false, PhongShader3.ENV_KEY, "env.jpg",
+                PhongShader3.TEXTURE_KEY, "robot/head.jpg");
+
+        mRobotMetalMaterial = new GVRMaterial(mGVRContext,
+                mMetalShader2.getShaderId());
+        mRobotMetalMaterial.setVec4(MetalShader2.COLOR_KEY, 1.5f, 1.5f,
+                1.5f, 1.0f);
+        mRobotMetalMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> robotMetal = bindTextures(mRobotMetalMaterial,
+                false, MetalShader2.TEXTURE_KEY, "env.jpg");
+
+        mRobotBodyMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader2.getShaderId());
+        mRobotBodyMaterial.setVec4(PhongShader2.COLOR_KEY, 1.0f, 1.0f,
+                1.0f, 1.0f);
+        mRobotBodyMaterial.setFloat(PhongShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> robotBody = bindTextures(mRobotBodyMaterial,
+                false, PhongShader2.TEXTURE_KEY, "env.jpg");
+
+        mRobotRubberMaterial = new GVRMaterial(mGVRContext,
+                mDiffuseShader2.getShaderId());
+        mRobotRubberMaterial.setVec4(DiffuseShader2.COLOR_KEY, 0.3f, 0.3f,
+                0.3f, 1.0f);
+        StartupLoader.Asset<?> robotRubber = bindTextures(
+                mRobotRubberMaterial, false, DiffuseShader2.TEXTURE_KEY,
+                "car/default.png");
+
+        // leaf
+        mLeafBoxMaterial = new GVRMaterial(mGVRContext,
+                mPhongShader3.getShaderId());
+        mLeafBoxMaterial.setFloat(PhongShader3.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> leafBox = bindTextures(mLeafBoxMaterial, false,
+                PhongShader3.ENV_KEY, "env.jpg", PhongShader3.TEXTURE_KEY,
+                "leaf/box.jpg");
+
+        mLeafBodyMaterial = new GVRMaterial(mGVRContext,
+                mMetalShader2.getShaderId());
+        mLeafBodyMaterial.setVec4(MetalShader2.COLOR_KEY, 2.5f, 2.5f, 2.5f,
+                1.0f);
+        mLeafBodyMaterial.setFloat(MetalShader2.RADIUS_KEY, 10.0f);
+        StartupLoader.Asset<?> leafBody = bindTextures(mLeafBodyMaterial,
+                false, MetalShader2.TEXTURE_KEY, "env.jpg");
+
+        // ------------------------------------------------------ set
+        // objects
+
+        for (int i = 0; i < THUMBNAIL_NUM; i++)
+            Objects[i] = new GVRSceneObject(mGVRContext);
+
+        // --------------watch
+
+        addPart(2, "watch/frame.obj", mMetalMaterial, metal, -1, true);
+        addPart(2, "watch/board.obj", mDiffuseMaterial, diffuse, -1, true);
+        addPart(2, "watch/glass.obj", mGlassMaterial, glass, 3000, true);
+
+        Objects[2].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
+        mainScene.addSceneObject(Objects[2]);
+
+        // --------------jar
+
+        addPart(1, "jar/jar.obj", mPhongMaterial, phong, -1, true);
+        addPart(1, "jar/edge.obj", mMetalMaterial, metal, 3000, true);
+
+        Objects[1].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
+        mainScene.addSceneObject(Objects[1]);
+
+        // --------------car
+
+        addPart(3, "car/body.obj", mCarBodyMaterial, carBody, -1, false);
+        addPart(3, "car/tire.obj", mCarTireMaterial, carTire, -1, true);
+        addPart(3, "car/glass.obj", mCarGlassMaterial, carGlass, 3000, false);
+        addPart(3, "car/wheel.obj", mCarWheelMaterial, carWheel, -1, true);
+        addPart(3, "car/back.obj", mCarBackMaterial, carBack, -1, true);
+        addPart(3, "car/grill.obj", mCarGrillMaterial, carGrill, -1, true);
+        addPart(3, "car/glass2.obj", mCarLightMaterial, carLight, 4000, true);
+        addPart(3, "car/inside.obj", mCarInsideMaterial, carInside, -1, true);
+
+        Objects[3].getTransform().setPosition(0.0f, -2.0f,
+                -EYE_TO_OBJECT - 3.0f);
+        mainScene.addSceneObject(Objects[3]);
+
+        // robot
+
+        addPart(4, "robot/body.obj", mRobotBodyMaterial, robotBody, -1, true);
+        addPart(4, "robot/head.obj", mRobotHeadMaterial, robotHead, -1, true);
+        addPart(4, "robot/metal.obj", mRobotMetalMaterial, robotMetal, 3000,
+                true);
+        addPart(4, "robot/rubber.obj", mRobotRubberMaterial, robotRubber, -1,
+                true);
+
+        Objects[4].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
+        mainScene.addSceneObject(Objects[4]);
+
+        // leaf
+
+        addPart(0, "leaf/leaf.obj", mLeafBodyMaterial, leafBody, -1, true);
+        addPart(0, "leaf/box.obj", mLeafBoxMaterial, leafBox, -1, true);
+
+        Objects[0].getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
+        mainScene.addSceneObject(Objects[0]);
+
+        // ------------------------------------------------------ set
+        // thumbnails
+
+        ThumbnailTargetPosition[0][0] = -2.2f;
+        ThumbnailTargetPosition[0][1] = 0.0f;
+        ThumbnailTargetPosition[0][2] = -EYE_TO_OBJECT - 2.8f;
+        ThumbnailTargetPosition[1][0] = -1.0f;
+        ThumbnailTargetPosition[1][1] = 0.0f;
+        ThumbnailTargetPosition[1][2] = -EYE_TO_OBJECT - 1.5f;
+        ThumbnailTargetPosition[2][0] = 0.0f;
+        ThumbnailTargetPosition[2][1] = 0.0f;
+        ThumbnailTargetPosition[2][2] = -EYE_TO_OBJECT - 0.0f;
+        ThumbnailTargetPosition[3][0] = 1.0f;
+        ThumbnailTargetPosition[3][1] = 0.0f;
+        ThumbnailTargetPosition[3][2] = -EYE_TO_OBJECT - 1.5f;
+        ThumbnailTargetPosition[4][0] = 2.2f;
+        ThumbnailTargetPosition[4][1] = 0.0f;
+        ThumbnailTargetPosition[4][2] = -EYE_TO_OBJECT - 2.8f;
+
+        ThumbnailOrder[0] = 10000;
+        ThumbnailOrder[1] = 10001;
+        ThumbnailOrder[2] = 10002;
+        ThumbnailOrder[3] = 10001;
+        ThumbnailOrder[4] = 10000;
+
+        // Everything below is on screen in the first frame, so it is
+        // critical. onStep does nothing else until it is up.
+        StartupLoader.Asset<?>[] thumbnailAssets = new StartupLoader.Asset<?>[] {
+                mesh("glass.obj", true), mesh("board.obj", true),
+                mesh("pick.obj", true), texture("leaf/leaf.jpg", true),
+                texture("jar/jar.png", true), texture("watch/watch.png", true),
+                texture("car/car.png", true), texture("robot/robot.jpg", true),
+                reflection };
+        mLoader.add("thumbnails", true, null, new StartupLoader.Uploader<Void>() {
+            @Override
+            public void upload(Void decoded) {
+                addThumbnails();
             }
+        }, thumbnailAssets);
+
+        mLoader.add("environment", true, null, new StartupLoader.Uploader<Void>() {
+            @Override
+            public void upload(Void decoded) {
+                GVRSceneObject env_object = new GVRSceneObject(mGVRContext,
+                        mMeshes.get("sphere.obj"), mTextures.get("env.jpg"));
+                env_object.getRenderData().setCullTest(false);
+                mGVRContext.getMainScene().addSceneObject(env_object);
+            }
+        }, mesh("sphere.obj", true), texture("env.jpg", true));
+
+        mLoader.add("head tracker", true, null, new StartupLoader.Uploader<Void>() {
+            @Override
+            public void upload(Void decoded) {
+                GVRSceneObject headTracker = new GVRSceneObject(mGVRContext,
+                        mGVRContext.createQuad(0.1f, 0.1f),
+                        mTextures.get("Headtracking_pointer.png"));
+                headTracker.getTransform().setPosition(0.0f, 0.0f,
+                        -EYE_TO_OBJECT);
+                headTracker.getRenderData().setDepthTest(false);
+                headTracker.getRenderData().setRenderingOrder(100000);
+                mGVRContext.getMainScene().getMainCameraRig()
+                        .addChildObject(headTracker);
+            }
+        }, texture("Headtracking_pointer.png", true));
 
-            GVRTexture m360 = mGVRContext.loadTexture(new GVRAndroidResource(
-                    mGVRContext, "env.jpg"));
-            GVRMesh sphere = mGVRContext.loadMesh(new GVRAndroidResource(
-                    mGVRContext, "sphere.obj"));
-
-            GVRSceneObject env_object = new GVRSceneObject(mGVRContext, sphere,
-                    m360);
-            env_object.getRenderData().setCullTest(false);
-            mainScene.addSceneObject(env_object);
-
-            GVRSceneObject headTracker = new GVRSceneObject(gvrContext,
-                    gvrContext.createQuad(0.1f, 0.1f),
-                    gvrContext.loadTexture(new GVRAndroidResource(mGVRContext,
-                            "Headtracking_pointer.png")));
-            headTracker.getTransform().setPosition(0.0f, 0.0f, -EYE_TO_OBJECT);
-            headTracker.getRenderData().setDepthTest(false);
-            headTracker.getRenderData().setRenderingOrder(100000);
-            mainScene.getMainCameraRig().addChildObject(headTracker);
-        } catch (IOException e) {
-            e.printStackTrace();
-            mActivity.finish();
-            Log.e(TAG, "Assets were not loaded. Stopping application!");
+        mLoader.start();
+    }
+
+    private void addThumbnails() {
+        GVRScene mainScene = mGVRContext.getMainScene();
+        GVRMesh glass_mesh = mMeshes.get("glass.obj");
+        GVRMesh board_mesh = mMeshes.get("board.obj");
+        GVRMesh picks_mesh = mMeshes.get("pick.obj");
+        ThumbnailTextures[0] = mTextures.get("leaf/leaf.jpg");
+        ThumbnailTextures[1] = mTextures.get("jar/jar.png");
+        ThumbnailTextures[2] = mTextures.get("watch/watch.png");
+        ThumbnailTextures[3] = mTextures.get("car/car.png");
+        ThumbnailTextures[4] = mTextures.get("robot/robot.jpg");
+
+        for (int i = 0; i < THUMBNAIL_NUM; i++) {
+            ThumbnailObject[i] = new GVRSceneObject(mGVRContext);
+            ThumbnailRotation[i] = new GVRSceneObject(mGVRContext);
+            GVRSceneObject obj = new GVRSceneObject(mGVRContext);
+            ThumbnailGlasses[i] = new GVRRenderData(mGVRContext);
+            ThumbnailGlasses[i].setMesh(glass_mesh);
+            ThumbnailGlasses[i].setMaterial(mReflectionMaterial);
+            obj.attachRenderData(ThumbnailGlasses[i]);
+            obj.getRenderData().setRenderingOrder(ThumbnailOrder[i]);
+            ThumbnailRotation[i].addChildObject(obj);
+            ThumbnailObject[i].addChildObject(ThumbnailRotation[i]);
+
+            Thumbnails[i] = new GVRSceneObject(mGVRContext, board_mesh,
+                    ThumbnailTextures[i]);
+            Thumbnails[i].getRenderData().setRenderingOrder(
+                    ThumbnailOrder[i] - 100);
+            Thumbnails[i].getRenderData().setCullTest(false);
+            Thumbnails[i].getTransform().setScale(1.0f, 1.2f, 1.0f);
+            ThumbnailRotation[i].addChildObject(Thumbnails[i]);
+
+            mainScene.addSceneObject(ThumbnailObject[i]);
+
+            GVREyePointeeHolder eyePointeeHolder = new GVREyePointeeHolder(
+                    mGVRContext);
+            GVRMeshEyePointee eyePointee = new GVRMeshEyePointee(
+                    mGVRContext, picks_mesh);
+            eyePointeeHolder.addPointee(eyePointee);
+            ThumbnailObject[i].attachEyePointeeHolder(eyePointeeHolder);
+        }
+
+        SceneNode[] thumbnails = new SceneNode[THUMBNAIL_NUM];
+        SceneNode[] boards = new SceneNode[THUMBNAIL_NUM];
+        for (int i = 0; i < THUMBNAIL_NUM; i++) {
+            thumbnails[i] = new GVRSceneNode(ThumbnailObject[i]);
+            boards[i] = new GVRSceneNode(ThumbnailRotation[i]);
+        }
+        mCarousel = new ThumbnailCarousel(ThumbnailTargetPosition, thumbnails,
+                boards);
+    }
+
+    /*
+     * Declares a texture, once per path; it lands in mTextures.
+     */
+    private StartupLoader.Asset<Bitmap> texture(final String path,
+            boolean critical) {
+        StartupLoader.Asset<Bitmap> asset = mTextureAssets.get(path);
+        if (asset != null) {
+            return asset;
+        }
+        asset = mLoader.add(path, critical,
+                new StartupLoader.Decoder<Bitmap>() {
+                    @Override
+                    public Bitmap decode() throws IOException {
+                        InputStream stream = mGVRContext.getContext()
+                                .getAssets().open(path);
+                        try {
+                            Bitmap bitmap = BitmapFactory.decodeStream(stream);
+                            if (bitmap == null) {
+                                throw new IOException("cannot decode " + path);
+                            }
+                            return bitmap;
+                        } finally {
+                            stream.close();
+                        }
+                    }
+                }, new StartupLoader.Uploader<Bitmap>() {
+                    @Override
+                    public void upload(Bitmap bitmap) {
+                        mTextures.put(path, new GVRBitmapTexture(mGVRContext,
+                                bitmap));
+                    }
+                });
+        mTextureAssets.put(path, asset);
+        return asset;
+    }
+
+    /*
+     * Declares a mesh that is not part of a model; it lands in mMeshes.
+     */
+    private StartupLoader.Asset<GVRMesh> mesh(final String path,
+            boolean critical) {
+        return mLoader.add(path, critical, new MeshDecoder(path),
+                new StartupLoader.Uploader<GVRMesh>() {
+                    @Override
+                    public void upload(GVRMesh mesh) {
+                        mMeshes.put(path, mesh);
+                    }
+                });
+    }
+
+    /*
+     * Sets a material's textures once they are uploaded.
+     * keysAndPaths alternates texture keys and asset paths.
+     */
+    private StartupLoader.Asset<Void> bindTextures(final GVRMaterial material,
+            boolean critical, final String... keysAndPaths) {
+        StartupLoader.Asset<?>[] textures = new StartupLoader.Asset<?>[keysAndPaths.length / 2];
+        for (int i = 0; i < textures.length; i++)
+            textures[i] = texture(keysAndPaths[i * 2 + 1], critical);
+        return mLoader.add("material " + keysAndPaths[1], critical, null,
+                new StartupLoader.Uploader<Void>() {
+                    @Override
+                    public void upload(Void decoded) {
+                        for (int i = 0; i < keysAndPaths.length; i += 2)
+                            material.setTexture(keysAndPaths[i],
+                                    mTextures.get(keysAndPaths[i + 1]));
+                    }
+                }, textures);
+    }
+
+    /*
+     * Declares one part of model {@code model}, attached once its mesh is
+     * decoded and its material has its textures. A negative rendering order
+     * keeps the default.
+     */
+    private void addPart(final int model, String path,
+            final GVRMaterial material, StartupLoader.Asset<?> materialAsset,
+            final int renderingOrder, final boolean cullTest) {
+        mLoader.add(path, false, new MeshDecoder(path),
+                new StartupLoader.Uploader<GVRMesh>() {
+                    @Override
+                    public void upload(GVRMesh mesh) {
+                        GVRSceneObject obj = new GVRSceneObject(mGVRContext);
+                        GVRRenderData renderData = new GVRRenderData(
+                                mGVRContext);
+                        renderData.setMesh(mesh);
+                        renderData.setMaterial(material);
+                        obj.attachRenderData(renderData);
+                        if (renderingOrder >= 0)
+                            renderData.setRenderingOrder(renderingOrder);
+                        renderData.setCullTest(cullTest);
+                        if (!SelectionMode && model == ThumbnailSelected)
+                            renderData.setRenderMask(GVRRenderMaskBit.Left
+                                    | GVRRenderMaskBit.Right);
+                        else
+                            renderData.setRenderMask(0);
+                        Objects[model].addChildObject(obj);
+                    }
+                }, materialAsset);
+    }
+
+    private class MeshDecoder implements StartupLoader.Decoder<GVRMesh> {
+        private final String mPath;
+
+        MeshDecoder(String path) {
+            mPath = path;
+        }
+
+        @Override
+        public GVRMesh decode() throws IOException {
+            return mGVRContext.loadMesh(new GVRAndroidResource(mGVRContext,
+                    mPath));
         }
-        // activity was stored in order to stop the application if the mesh is
-        // not loaded. Since we don't need anymore, we set it to null to reduce
-        // chance of memory leak.
-        mActivity = null;
     }
 
     @Override
     public void onStep() {
+        if (mLoadFailed || (mLoader != null && !pumpLoader()))
+            return;
+
         FPSCounter.tick();
 
         boolean isButtonDown = mIsButtonDown;
@@ -625,64 +607,7 @@ public class ViewerMain extends GVRMain {
             mGVRContext.getMainScene().getMainCameraRig().resetYaw();
 
         // ---------------------------------------thumbnail motion
-        boolean MoveActive = false;
-        if (Math.abs(ThumbnailTargetPosition[ThumbnailTargetIndex[0]][0]
-                - ThumbnailCurrentPosition[0][0]) < 0.2f)
-            MoveActive = true;
-
-        if (SelectionActive && MoveActive) {
-            if (ThumbnailCurrentPosition[ThumbnailSelected][0] < -0.5f) {
-                for (int i = 0; i < THUMBNAIL_NUM; i++) {
-                    ThumbnailTargetIndex[i]++;
-                    if (ThumbnailTargetIndex[i] >= THUMBNAIL_NUM)
-                        ThumbnailTargetIndex[i] = ThumbnailTargetIndex[i]
-                                - THUMBNAIL_NUM;
-                    if (ThumbnailTargetIndex[i] < 0)
-                        ThumbnailTargetIndex[i] = ThumbnailTargetIndex[i]
-                                + THUMBNAIL_NUM;
-                }
-            } else if (ThumbnailCurrentPosition[ThumbnailSelected][0] > 0.5f) {
-                for (int i = 0; i < THUMBNAIL_NUM; i++) {
-                    ThumbnailTargetIndex[i]--;
-                    if (ThumbnailTargetIndex[i] >= THUMBNAIL_NUM)
-                        ThumbnailTargetIndex[i] = ThumbnailTargetIndex[i]
-                                - THUMBNAIL_NUM;
-                    if (ThumbnailTargetIndex[i] < 0)
-                        ThumbnailTargetIndex[i] = ThumbnailTargetIndex[i]
-                                + THUMBNAIL_NUM;
-                }
-            }
-        }
-
-        for (int i = 0; i < THUMBNAIL_NUM; i++) {
-            float speed = 0.08f;
-            for (int j = 0; j < 3; j++)
-                ThumbnailCurrentPosition[i][j] += speed
-                        * (ThumbnailTargetPosition[ThumbnailTargetIndex[i]][j] - ThumbnailCurrentPosition[i][j]);
-            ThumbnailObject[i].getTransform().setPosition(
-                    ThumbnailCurrentPosition[i][0],
-                    ThumbnailCurrentPosition[i][1],
-                    ThumbnailCurrentPosition[i][2]);
-        }
-
-        // if(
-        // Math.abs(ThumbnailTargetPosition[ThumbnailTargetIndex[0]][0]-ThumbnailCurrentPosition[0][0])
-        // > 0.02f )
-        // {
-        // if( THUMBNAIL_ROT > 180.0f )
-        // THUMBNAIL_ROT += 0.05f*( 360.0f - THUMBNAIL_ROT );
-        // else
-        // THUMBNAIL_ROT += 0.05f*( 0.0f - THUMBNAIL_ROT );
-        // }
-        // else
-        // {
-        // THUMBNAIL_ROT += -1.0f;
-        // if( THUMBNAIL_ROT > 360.0f ) THUMBNAIL_ROT = THUMBNAIL_ROT - 360.0f;
-        // }
-        THUMBNAIL_ROT = -1.0f;
-        for (int i = 0; i < THUMBNAIL_NUM; i++)
-            ThumbnailRotation[i].getTransform().rotateByAxis(THUMBNAIL_ROT,
-                    0.0f, 1.0f, 0.0f);
+        mCarousel.step(SelectionActive ? ThumbnailSelected : -1);
 
         // ---------------------------------------object motion
 
@@ -996,6 +921,44 @@ public class ViewerMain extends GVRMain {
         }
     }
 
+    /*
+     * Uploads what the loader's workers have decoded. Before the first
+     * interactive frame there is nothing else to do, so the uploads get
+     * the whole frame.
+     *
+     * @return true once the thumbnails and environment are up.
+     */
+    private boolean pumpLoader() {
+        boolean ready = mLoader.isCriticalReady();
+        try {
+            ready = mLoader.pump(ready ? UPLOAD_BUDGET_NANOS
+                    : CRITICAL_UPLOAD_BUDGET_NANOS);
+        } catch (IOException e) {
+            e.printStackTrace();
+            mActivity.finish();
+            Log.e(TAG, "Assets were not loaded. Stopping application!");
+            // what depends on the failed asset can never come up; stop
+            // pumping instead of logging this again every frame
+            mLoader = null;
+            mLoadFailed = true;
+            return false;
+        }
+        if (mLoader.isDone()) {
+            Log.d(TAG, String.format(
+                    "startup: first frame %.1f ms, all assets %.1f ms, serial %.1f ms",
+                    mLoader.getCriticalReadyNanos() / 1e6,
+                    mLoader.getDoneNanos() / 1e6,
+                    mLoader.getSerialNanos() / 1e6));
+            mLoader = null;
+            mTextureAssets.clear();
+            // activity was stored in order to stop the application if an
+            // asset is not loaded. Since we don't need anymore, we set it to
+            // null to reduce chance of memory leak.
+            mActivity = null;
+        }
+        return ready;
+    }
+
     public void onButtonDown() {
         mIsButtonDown = true;
     }
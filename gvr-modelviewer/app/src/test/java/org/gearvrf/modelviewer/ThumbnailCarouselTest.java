@@ -0,0 +1,167 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.modelviewer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.gearvrf.scenenode.SimSceneNode;
+import org.junit.Test;
+
+/**
+ * Steps {@link ThumbnailCarousel} over {@link SimSceneNode}s with the slots
+ * ViewerMain uses.
+ */
+public class ThumbnailCarouselTest {
+
+    private static final float EYE_TO_OBJECT = 2.4f;
+    private static final float[][] SLOTS = {
+            { -2.2f, 0.0f, -EYE_TO_OBJECT - 2.8f },
+            { -1.0f, 0.0f, -EYE_TO_OBJECT - 1.5f },
+            { 0.0f, 0.0f, -EYE_TO_OBJECT },
+            { 1.0f, 0.0f, -EYE_TO_OBJECT - 1.5f },
+            { 2.2f, 0.0f, -EYE_TO_OBJECT - 2.8f }
+    };
+
+    private final SimSceneNode[] thumbnails = new SimSceneNode[SLOTS.length];
+    private final SimSceneNode[] boards = new SimSceneNode[SLOTS.length];
+    private final ThumbnailCarousel carousel;
+
+    public ThumbnailCarouselTest() {
+        for (int i = 0; i < SLOTS.length; ++i) {
+            thumbnails[i] = new SimSceneNode();
+            boards[i] = new SimSceneNode(thumbnails[i]);
+        }
+        carousel = new ThumbnailCarousel(SLOTS, thumbnails, boards);
+    }
+
+    @Test
+    public void startsInItsSlots() {
+        for (int i = 0; i < SLOTS.length; ++i) {
+            assertEquals(i, carousel.getSlot(i));
+            assertEquals(SLOTS[i][0], thumbnails[i].getPositionX(), 0);
+            assertEquals(SLOTS[i][2], thumbnails[i].getPositionZ(), 0);
+        }
+    }
+
+    @Test
+    public void staysPutWithoutASelection() {
+        for (int frame = 0; frame < 100; ++frame) {
+            carousel.step(-1);
+        }
+        for (int i = 0; i < SLOTS.length; ++i) {
+            assertEquals(i, carousel.getSlot(i));
+            assertEquals(SLOTS[i][0], thumbnails[i].getPositionX(), 0);
+        }
+    }
+
+    @Test
+    public void centeredSelectionDoesNotTurn() {
+        for (int frame = 0; frame < 100; ++frame) {
+            carousel.step(2);
+        }
+        assertEquals(2, carousel.getSlot(2));
+    }
+
+    @Test
+    public void leftSelectionTurnsTheRowRightAndWraps() {
+        carousel.step(0);
+        for (int i = 0; i < SLOTS.length; ++i) {
+            assertEquals((i + 1) % SLOTS.length, carousel.getSlot(i));
+        }
+        // the rightmost thumbnail wraps round to the leftmost slot
+        assertEquals(0, carousel.getSlot(4));
+    }
+
+    @Test
+    public void rightSelectionTurnsTheRowLeftAndWraps() {
+        carousel.step(4);
+        for (int i = 0; i < SLOTS.length; ++i) {
+            assertEquals((i + SLOTS.length - 1) % SLOTS.length, carousel.getSlot(i));
+        }
+        assertEquals(4, carousel.getSlot(0));
+    }
+
+    @Test
+    public void waitsForTheRowToSettleBeforeTurningAgain() {
+        carousel.step(0);
+        assertEquals(1, carousel.getSlot(0));
+        int frames = 1;
+        while (carousel.getSlot(0) == 1) {
+            carousel.step(0);
+            ++frames;
+        }
+        // thumbnail 0 is in the middle slot once the second turn is taken
+        assertEquals(2, carousel.getSlot(0));
+        assertTrue("turned again after " + frames + " frames", frames > 5);
+
+        for (int frame = 0; frame < 200; ++frame) {
+            carousel.step(0);
+        }
+        assertEquals(2, carousel.getSlot(0));
+    }
+
+    @Test
+    public void easesIntoTheNewSlots() {
+        carousel.step(4);
+        float before = Math.abs(thumbnails[4].getPositionX() - SLOTS[3][0]);
+        for (int frame = 0; frame < 200; ++frame) {
+            carousel.step(-1);
+            float gap = Math.abs(thumbnails[4].getPositionX() - SLOTS[3][0]);
+            assertTrue(gap <= before);
+            before = gap;
+        }
+        for (int i = 0; i < SLOTS.length; ++i) {
+            float[] slot = SLOTS[carousel.getSlot(i)];
+            assertEquals(slot[0], thumbnails[i].getPositionX(), 1e-4f);
+            assertEquals(slot[1], thumbnails[i].getPositionY(), 1e-4f);
+            assertEquals(slot[2], thumbnails[i].getPositionZ(), 1e-4f);
+            assertEquals(thumbnails[i].getPositionX(), carousel.getPositionX(i), 0);
+        }
+    }
+
+    @Test
+    public void boardsSpinADegreeAFrame() {
+        for (int frame = 0; frame < 90; ++frame) {
+            carousel.step(-1);
+        }
+        SimSceneNode expected = new SimSceneNode();
+        expected.setRotationByAxis(-90, 0, 1, 0);
+        for (SimSceneNode board : boards) {
+            assertEquals(expected.getRotationW(), board.getRotationW(), 1e-5f);
+            assertEquals(expected.getRotationY(), board.getRotationY(), 1e-5f);
+            assertEquals(0, board.getRotationX(), 1e-5f);
+        }
+    }
+
+    @Test
+    public void settledThumbnailsAreNotWritten() {
+        for (SimSceneNode thumbnail : thumbnails) {
+            thumbnail.resetCounters();
+        }
+        carousel.step(-1);
+        for (int i = 0; i < SLOTS.length; ++i) {
+            assertEquals(0, thumbnails[i].getWriteCount());
+            assertEquals(0, thumbnails[i].getReadCount());
+            assertEquals(1, boards[i].getWriteCount());
+        }
+
+        carousel.step(0);
+        for (SimSceneNode thumbnail : thumbnails) {
+            assertEquals(1, thumbnail.getWriteCount());
+        }
+    }
+}
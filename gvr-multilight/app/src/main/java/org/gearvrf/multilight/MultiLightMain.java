@@ -29,6 +29,7 @@ import org.gearvrf.GVRSpotLight;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
 import org.gearvrf.scene_objects.GVRModelSceneObject;
+import org.gearvrf.profiler.FPSCounter;
 import org.joml.Quaternionf;
 
 import android.util.Log;
@@ -26,6 +26,7 @@ import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.ZipLoader;
+import org.gearvrf.assetbundle.AssetBundleLoader;
 import org.gearvrf.GVRMain;
 
 import org.gearvrf.animation.GVRAnimationEngine;
@@ -40,7 +41,7 @@ import java.util.concurrent.Future;
 public class TestMain extends GVRMain {
     private static final String TAG = "TestMain";
     private static final int numberOfBunnies = 20;
-    private static final String TEXTURE_FILE_NAME = "textures.zip";
+    private static final String TEXTURE_FILE_NAME = "textures.gvrb";
 
     private GVRScene mMainScene = null;
 
@@ -77,7 +78,7 @@ public class TestMain extends GVRMain {
 
         try {
             List<Future<GVRTexture>> textures;
-            textures = ZipLoader.load(gvrContext, TEXTURE_FILE_NAME, new ZipLoader
+            textures = AssetBundleLoader.load(gvrContext, TEXTURE_FILE_NAME, new ZipLoader
                     .ZipEntryProcessor<Future<GVRTexture>>() {
 
                 @Override
@@ -35,6 +35,7 @@ import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
 import org.gearvrf.GVRPicker.GVRPickedObject;
 import org.gearvrf.pickandmove.R;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.util.Log;
 import android.view.MotionEvent;
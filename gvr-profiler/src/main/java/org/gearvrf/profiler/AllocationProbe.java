@@ -0,0 +1,102 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.profiler;
+
+import java.lang.reflect.Method;
+
+/**
+ * Bytes allocated by the calling thread, read from the HotSpot
+ * {@code com.sun.management.ThreadMXBean} when it exists. Android has no
+ * java.lang.management, so there {@link #isSupported()} is false and the
+ * probe costs nothing; on a desktop JVM it lets headless tests measure
+ * per-frame garbage.
+ *
+ * The bean is reached through reflection, which itself allocates a little
+ * per call; that overhead is measured once and subtracted.
+ */
+public class AllocationProbe {
+    private final Object mBean;
+    private final Method mGetAllocatedBytes;
+    private final long mOverhead;
+
+    public AllocationProbe() {
+        Object bean = null;
+        Method method = null;
+        try {
+            Class<?> factory = Class
+                    .forName("java.lang.management.ManagementFactory");
+            bean = factory.getMethod("getThreadMXBean").invoke(null);
+            Class<?> hotspot = Class
+                    .forName("com.sun.management.ThreadMXBean");
+            if (hotspot.isInstance(bean)) {
+                method = hotspot.getMethod("getThreadAllocatedBytes",
+                        long.class);
+                method.setAccessible(true);
+                if (((Long) method.invoke(bean, Thread.currentThread()
+                        .getId())) < 0) {
+                    method = null;
+                }
+            }
+        } catch (Throwable t) {
+            method = null;
+        }
+        mBean = bean;
+        mGetAllocatedBytes = method;
+        mOverhead = method == null ? 0 : calibrate();
+    }
+
+    public boolean isSupported() {
+        return mGetAllocatedBytes != null;
+    }
+
+    /**
+     * @return bytes allocated so far by the calling thread, or -1 when
+     *         unsupported.
+     */
+    public long getAllocatedBytes() {
+        if (mGetAllocatedBytes == null) {
+            return -1;
+        }
+        try {
+            return (Long) mGetAllocatedBytes.invoke(mBean, Thread
+                    .currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return bytes allocated between two readings, excluding the probe's
+     *         own allocations, or -1 when unsupported.
+     */
+    public long delta(long start, long end) {
+        if (start < 0 || end < 0) {
+            return -1;
+        }
+        return Math.max(0, end - start - mOverhead);
+    }
+
+    private long calibrate() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 16; ++i) {
+            long start = getAllocatedBytes();
+            long end = getAllocatedBytes();
+            overhead = Math.min(overhead, end - start);
+        }
+        return Math.max(0, overhead);
+    }
+}
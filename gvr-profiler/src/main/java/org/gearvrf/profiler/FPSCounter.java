@@ -0,0 +1,78 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.profiler;
+
+import java.util.Locale;
+
+import android.util.Log;
+
+/**
+ * The samples' frame counter: call {@link #tick()} once per frame and every
+ * ten seconds it logs the frame rate, together with percentiles of the
+ * interval between frames. For step times, sections and budgets, wrap
+ * onStep in a {@link FrameProfiler} instead.
+ */
+public class FPSCounter {
+    static final long INTERVAL_NANOS = 10000000000L;
+
+    private static final FrameHistogram sIntervals = new FrameHistogram();
+    private static boolean sStarted;
+    private static long sStart;
+    private static long sPrevious;
+
+    public static void tick() {
+        String report = tick(System.nanoTime());
+        if (report != null) {
+            Log.v("", report);
+        }
+    }
+
+    /**
+     * Records a frame at {@code now}.
+     *
+     * @return the report once an interval has passed, otherwise null
+     */
+    static synchronized String tick(long now) {
+        if (!sStarted) {
+            sStarted = true;
+            sStart = now;
+            sPrevious = now;
+            return null;
+        }
+        sIntervals.record(now - sPrevious);
+        sPrevious = now;
+
+        long elapsed = now - sStart;
+        if (elapsed < INTERVAL_NANOS) {
+            return null;
+        }
+        String report = String.format(Locale.US,
+                "FPS : %.1f, frame ms p50 %.2f p99 %.2f max %.2f",
+                sIntervals.getCount() * 1e9 / elapsed,
+                sIntervals.getValueAtPercentile(50) / 1e6,
+                sIntervals.getValueAtPercentile(99) / 1e6,
+                sIntervals.getMax() / 1e6);
+        sIntervals.reset();
+        sStart = now;
+        return report;
+    }
+
+    static synchronized void reset() {
+        sIntervals.reset();
+        sStarted = false;
+    }
+}
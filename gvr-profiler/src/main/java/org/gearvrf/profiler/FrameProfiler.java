@@ -0,0 +1,259 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.profiler;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Per-frame instrumentation for {@code onStep}. Records, per frame, the time
+ * spent in the step, the interval since the previous frame, the bytes the
+ * step allocated (where {@link AllocationProbe} is supported) and the time
+ * spent in named sections, each into its own {@link FrameHistogram}.
+ *
+ * Frames over the time or allocation budget are reported to a
+ * {@link BudgetListener}. Nothing here depends on Android, so the same
+ * onStep code can be profiled in a headless JVM test.
+ *
+ * <pre>
+ * int seekbar = profiler.addSection("seekbar");
+ * ...
+ * profiler.beginFrame();
+ * profiler.beginSection(seekbar);
+ * mSeekbar.setTime(...);
+ * profiler.endSection(seekbar);
+ * profiler.endFrame();
+ * </pre>
+ */
+public class FrameProfiler {
+    public static final int NO_BUDGET = -1;
+
+    public interface BudgetListener {
+        /**
+         * @param frame
+         *            index of the offending frame
+         * @param stepNanos
+         *            time spent in the step
+         * @param allocatedBytes
+         *            bytes allocated by the step, -1 if unknown
+         */
+        void onBudgetExceeded(long frame, long stepNanos, long allocatedBytes);
+    }
+
+    private static class Section {
+        final String name;
+        final FrameHistogram histogram = new FrameHistogram();
+        long start;
+        long accumulated;
+
+        Section(String name) {
+            this.name = name;
+        }
+    }
+
+    private final FrameHistogram mStepTimes = new FrameHistogram();
+    private final FrameHistogram mFrameIntervals = new FrameHistogram();
+    private final FrameHistogram mAllocations = new FrameHistogram();
+    private final ArrayList<Section> mSections = new ArrayList<Section>();
+    private final AllocationProbe mProbe;
+    private final long mStepBudgetNanos;
+    private final long mAllocationBudgetBytes;
+    private BudgetListener mListener;
+
+    private long mFrame;
+    private long mFrameStart;
+    private long mPreviousFrameStart;
+    private long mAllocationStart;
+    private long mStepBudgetViolations;
+    private long mAllocationBudgetViolations;
+
+    /**
+     * @param stepBudgetNanos
+     *            time a step may take, or {@link #NO_BUDGET}
+     * @param allocationBudgetBytes
+     *            bytes a step may allocate, or {@link #NO_BUDGET}
+     */
+    public FrameProfiler(long stepBudgetNanos, long allocationBudgetBytes) {
+        this(stepBudgetNanos, allocationBudgetBytes, new AllocationProbe());
+    }
+
+    public FrameProfiler(long stepBudgetNanos, long allocationBudgetBytes,
+            AllocationProbe probe) {
+        mStepBudgetNanos = stepBudgetNanos;
+        mAllocationBudgetBytes = allocationBudgetBytes;
+        mProbe = probe;
+    }
+
+    public void setBudgetListener(BudgetListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Sections must be added before profiling starts.
+     *
+     * @return the id to pass to {@link #beginSection(int)}
+     */
+    public int addSection(String name) {
+        mSections.add(new Section(name));
+        return mSections.size() - 1;
+    }
+
+    public void beginFrame() {
+        for (int i = 0, size = mSections.size(); i < size; ++i) {
+            mSections.get(i).accumulated = 0;
+        }
+        mAllocationStart = mProbe.getAllocatedBytes();
+        mFrameStart = System.nanoTime();
+        if (mPreviousFrameStart != 0) {
+            mFrameIntervals.record(mFrameStart - mPreviousFrameStart);
+        }
+        mPreviousFrameStart = mFrameStart;
+    }
+
+    public void beginSection(int section) {
+        mSections.get(section).start = System.nanoTime();
+    }
+
+    public void endSection(int section) {
+        Section s = mSections.get(section);
+        s.accumulated += System.nanoTime() - s.start;
+    }
+
+    public void endFrame() {
+        long stepNanos = System.nanoTime() - mFrameStart;
+        long allocated = mProbe.delta(mAllocationStart,
+                mProbe.getAllocatedBytes());
+
+        mStepTimes.record(stepNanos);
+        if (allocated >= 0) {
+            mAllocations.record(allocated);
+        }
+        for (int i = 0, size = mSections.size(); i < size; ++i) {
+            Section s = mSections.get(i);
+            s.histogram.record(s.accumulated);
+        }
+
+        boolean overTime = mStepBudgetNanos != NO_BUDGET
+                && stepNanos > mStepBudgetNanos;
+        boolean overAllocation = mAllocationBudgetBytes != NO_BUDGET
+                && allocated > mAllocationBudgetBytes;
+        if (overTime) {
+            ++mStepBudgetViolations;
+        }
+        if (overAllocation) {
+            ++mAllocationBudgetViolations;
+        }
+        if ((overTime || overAllocation) && mListener != null) {
+            mListener.onBudgetExceeded(mFrame, stepNanos, allocated);
+        }
+        ++mFrame;
+    }
+
+    /**
+     * Profiles one call of {@code step} as a frame.
+     */
+    public void profile(Runnable step) {
+        beginFrame();
+        try {
+            step.run();
+        } finally {
+            endFrame();
+        }
+    }
+
+    public long getFrameCount() {
+        return mFrame;
+    }
+
+    public FrameHistogram getStepTimes() {
+        return mStepTimes;
+    }
+
+    public FrameHistogram getFrameIntervals() {
+        return mFrameIntervals;
+    }
+
+    /**
+     * Empty when allocation tracking is not supported.
+     */
+    public FrameHistogram getAllocations() {
+        return mAllocations;
+    }
+
+    public FrameHistogram getSection(int section) {
+        return mSections.get(section).histogram;
+    }
+
+    public long getStepBudgetViolations() {
+        return mStepBudgetViolations;
+    }
+
+    public long getAllocationBudgetViolations() {
+        return mAllocationBudgetViolations;
+    }
+
+    public void reset() {
+        mStepTimes.reset();
+        mFrameIntervals.reset();
+        mAllocations.reset();
+        for (int i = 0, size = mSections.size(); i < size; ++i) {
+            mSections.get(i).histogram.reset();
+        }
+        mStepBudgetViolations = 0;
+        mAllocationBudgetViolations = 0;
+        mPreviousFrameStart = 0;
+    }
+
+    /**
+     * Summary of everything recorded since the last {@link #reset()}. Builds
+     * strings, so call it from a reporting interval, not every frame.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("frames ").append(mStepTimes.getCount());
+        if (mFrameIntervals.getCount() > 0) {
+            sb.append(String.format(Locale.US, ", fps %.1f",
+                    1e9 / mFrameIntervals.getMean()));
+        }
+        appendTimes(sb, "step", mStepTimes);
+        appendTimes(sb, "interval", mFrameIntervals);
+        for (int i = 0, size = mSections.size(); i < size; ++i) {
+            Section s = mSections.get(i);
+            appendTimes(sb, s.name, s.histogram);
+        }
+        if (mAllocations.getCount() > 0) {
+            sb.append(String.format(Locale.US,
+                    "\nalloc bytes p50 %d p99 %d max %d",
+                    mAllocations.getValueAtPercentile(50),
+                    mAllocations.getValueAtPercentile(99),
+                    mAllocations.getMax()));
+        }
+        sb.append("\nover budget: time ").append(mStepBudgetViolations)
+                .append(", alloc ").append(mAllocationBudgetViolations);
+        return sb.toString();
+    }
+
+    private static void appendTimes(StringBuilder sb, String name,
+            FrameHistogram histogram) {
+        sb.append(String.format(Locale.US,
+                "\n%s ms p50 %.2f p90 %.2f p99 %.2f max %.2f", name,
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getMax() / 1e6));
+    }
+}
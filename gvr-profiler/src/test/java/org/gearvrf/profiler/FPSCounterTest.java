@@ -0,0 +1,68 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Feeds {@link FPSCounter} frame times directly, so the interval and the
+ * report can be checked without waiting ten seconds or logging.
+ */
+public class FPSCounterTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    @Before
+    public void setUp() {
+        FPSCounter.reset();
+    }
+
+    @Test
+    public void reportsOncePerInterval() {
+        long now = 1000L;
+        int reports = 0;
+        String report = null;
+        for (int frame = 0; frame <= 1200; ++frame, now += FRAME_NANOS) {
+            String r = FPSCounter.tick(now);
+            if (r != null) {
+                ++reports;
+                report = r;
+                assertEquals(0, frame % 600);
+            }
+        }
+        assertEquals(2, reports);
+        assertTrue(report, report.startsWith("FPS : 60.0, frame ms p50 16."));
+        assertTrue(report, report.endsWith(" max 16.67"));
+    }
+
+    @Test
+    public void reportsLongFrames() {
+        long now = 0L;
+        assertNull(FPSCounter.tick(now));
+        String report = null;
+        for (int frame = 1; report == null; ++frame) {
+            now += frame % 100 == 0 ? 100 * 1000000L : FRAME_NANOS;
+            report = FPSCounter.tick(now);
+        }
+        assertTrue(report, report.contains(" p50 16."));
+        assertTrue(report, report.endsWith(" max 100.00"));
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link FrameHistogram} buckets against exact values: small values
+ * are exact, larger ones are reported within 2/{@link FrameHistogram#SUB_BUCKETS},
+ * and percentiles agree with a sorted copy of the recorded values.
+ */
+public class FrameHistogramTest {
+
+    private static final double RELATIVE_ERROR = 2.0 / FrameHistogram.SUB_BUCKETS;
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long value = 0; value < FrameHistogram.SUB_BUCKETS; ++value) {
+            assertEquals(value, FrameHistogram.upperBoundOf(FrameHistogram.bucketOf(value)));
+        }
+    }
+
+    @Test
+    public void bucketsAreOrderedAndBounded() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; ++i) {
+            long value = (random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63);
+            int bucket = FrameHistogram.bucketOf(value);
+            long upper = FrameHistogram.upperBoundOf(bucket);
+            assertTrue(value + " above " + upper, value <= upper);
+            assertTrue(value + " reported as " + upper,
+                    upper - value <= Math.max(1, (long) (value * RELATIVE_ERROR)));
+            if (bucket > 0) {
+                assertTrue(FrameHistogram.upperBoundOf(bucket - 1) < value);
+            }
+        }
+        // every bucket boundary maps back to its own bucket
+        for (int bucket = 0; FrameHistogram.upperBoundOf(bucket) > 0
+                && FrameHistogram.upperBoundOf(bucket) < Long.MAX_VALUE; ++bucket) {
+            assertEquals(bucket, FrameHistogram.bucketOf(FrameHistogram.upperBoundOf(bucket)));
+            assertEquals(bucket + 1,
+                    FrameHistogram.bucketOf(FrameHistogram.upperBoundOf(bucket) + 1));
+        }
+        assertEquals(Long.MAX_VALUE,
+                FrameHistogram.upperBoundOf(FrameHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesMatchSortedValues() {
+        // frame times around 16.6 ms with a tail of long frames
+        Random random = new Random(11);
+        long[] values = new long[10000];
+        FrameHistogram histogram = new FrameHistogram();
+        double sum = 0;
+        for (int i = 0; i < values.length; ++i) {
+            double millis = i % 100 == 0 ? 30 + random.nextDouble() * 70
+                    : 16.6 + random.nextGaussian();
+            values[i] = (long) (millis * 1e6);
+            histogram.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[0], histogram.getMin());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(sum / values.length, histogram.getMean(), 1e-6 * sum / values.length);
+        for (double percentile : new double[] { 0, 1, 10, 50, 90, 99, 99.9, 100 }) {
+            int rank = Math.max(1, (int) Math.ceil(percentile / 100 * values.length));
+            long exact = values[rank - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + reported + " below " + exact, reported >= exact);
+            assertTrue(percentile + ": " + reported + " for " + exact,
+                    reported - exact <= exact * RELATIVE_ERROR);
+        }
+    }
+
+    @Test
+    public void negativeValuesCountAsZero() {
+        FrameHistogram histogram = new FrameHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        FrameHistogram histogram = new FrameHistogram();
+        histogram.record(1000);
+        histogram.record(2000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(3000);
+        assertEquals(3000, histogram.getMin());
+        assertEquals(3000, histogram.getMax());
+    }
+
+    @Test
+    public void recordingDoesNotAllocate() {
+        FrameHistogram histogram = new FrameHistogram();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        for (int i = 0; i < 10000; ++i) {
+            histogram.record(i * 1000L);
+        }
+        long before = threads.getThreadAllocatedBytes(id);
+        long total = 0;
+        for (int i = 0; i < 100000; ++i) {
+            histogram.record(i * 1000L);
+            total += histogram.getValueAtPercentile(99);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertTrue(total > 0);
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
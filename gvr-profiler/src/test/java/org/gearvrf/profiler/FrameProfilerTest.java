@@ -0,0 +1,214 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Runs steps under {@link FrameProfiler} in a desktop JVM, the way a CI
+ * harness would: frame and section counts, time and allocation budgets, the
+ * budget listener, and that profiling itself adds no per-frame garbage.
+ */
+public class FrameProfilerTest {
+
+    private static final long MILLIS = 1000000L;
+
+    @Test
+    public void probeIsSupportedOnDesktop() {
+        AllocationProbe probe = new AllocationProbe();
+        assertTrue(probe.isSupported());
+
+        long start = probe.getAllocatedBytes();
+        byte[] block = new byte[64 * 1024];
+        long allocated = probe.delta(start, probe.getAllocatedBytes());
+
+        assertEquals(64 * 1024, block.length);
+        assertTrue("allocated " + allocated, allocated >= 64 * 1024);
+        assertTrue("allocated " + allocated, allocated < 64 * 1024 + 1024);
+        assertEquals(-1, probe.delta(-1, 0));
+    }
+
+    @Test
+    public void countsFramesIntervalsAndSections() {
+        FrameProfiler profiler = new FrameProfiler(FrameProfiler.NO_BUDGET,
+                FrameProfiler.NO_BUDGET);
+        int first = profiler.addSection("first");
+        int second = profiler.addSection("second");
+
+        for (int i = 0; i < 10; ++i) {
+            profiler.beginFrame();
+            // a section entered twice in a frame is recorded as one total
+            profiler.beginSection(first);
+            spin(MILLIS);
+            profiler.endSection(first);
+            profiler.beginSection(first);
+            spin(MILLIS);
+            profiler.endSection(first);
+            profiler.beginSection(second);
+            profiler.endSection(second);
+            profiler.endFrame();
+        }
+
+        assertEquals(10, profiler.getFrameCount());
+        assertEquals(10, profiler.getStepTimes().getCount());
+        assertEquals(9, profiler.getFrameIntervals().getCount());
+        assertEquals(10, profiler.getSection(first).getCount());
+        assertTrue(profiler.getSection(first).getMin() >= 2 * MILLIS);
+        assertTrue(profiler.getSection(second).getMax() < MILLIS);
+        assertTrue(profiler.getStepTimes().getMin() >= profiler.getSection(first).getMin());
+
+        String report = profiler.report();
+        assertTrue(report, report.startsWith("frames 10, fps "));
+        assertTrue(report, report.contains("\nfirst ms p50 "));
+        assertTrue(report, report.contains("\nsecond ms p50 "));
+        assertTrue(report, report.contains("\nover budget: time 0, alloc 0"));
+
+        profiler.reset();
+        assertEquals(0, profiler.getStepTimes().getCount());
+        assertEquals(0, profiler.getSection(first).getCount());
+        profiler.beginFrame();
+        profiler.endFrame();
+        assertEquals(0, profiler.getFrameIntervals().getCount());
+        assertEquals(11, profiler.getFrameCount());
+    }
+
+    @Test
+    public void reportsSlowFrames() {
+        Listener listener = new Listener();
+        FrameProfiler profiler = new FrameProfiler(5 * MILLIS, FrameProfiler.NO_BUDGET);
+        profiler.setBudgetListener(listener);
+
+        for (int i = 0; i < 20; ++i) {
+            final boolean slow = i % 5 == 0;
+            profiler.profile(new Runnable() {
+                @Override
+                public void run() {
+                    if (slow) {
+                        spin(10 * MILLIS);
+                    }
+                }
+            });
+        }
+
+        assertEquals(4, profiler.getStepBudgetViolations());
+        assertEquals(0, profiler.getAllocationBudgetViolations());
+        assertEquals(4, listener.frames.size());
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(Long.valueOf(i * 5), listener.frames.get(i));
+        }
+        assertTrue(profiler.getStepTimes().getMax() >= 10 * MILLIS);
+    }
+
+    @Test
+    public void reportsPerFrameGarbage() {
+        // the regression this exists for: a step that makes a new texture
+        // buffer every frame instead of reusing one
+        Listener listener = new Listener();
+        FrameProfiler profiler = new FrameProfiler(FrameProfiler.NO_BUDGET, 1024);
+        profiler.setBudgetListener(listener);
+        final byte[][] texture = new byte[1][];
+        Runnable churn = new Runnable() {
+            @Override
+            public void run() {
+                texture[0] = new byte[256 * 64 * 4];
+            }
+        };
+        Runnable reuse = new Runnable() {
+            @Override
+            public void run() {
+                texture[0][0]++;
+            }
+        };
+
+        for (int i = 0; i < 10; ++i) {
+            profiler.profile(churn);
+        }
+        assertEquals(10, profiler.getAllocationBudgetViolations());
+        assertEquals(10, listener.frames.size());
+        assertTrue(listener.allocations.get(0) >= 256 * 64 * 4);
+        assertTrue(profiler.getAllocations().getValueAtPercentile(50) >= 256 * 64 * 4);
+
+        profiler.reset();
+        listener.frames.clear();
+        for (int i = 0; i < 100; ++i) {
+            profiler.profile(reuse);
+        }
+        assertEquals(0, profiler.getAllocationBudgetViolations());
+        assertEquals(0, listener.frames.size());
+        assertEquals(100, profiler.getAllocations().getCount());
+        assertTrue(profiler.getAllocations().getValueAtPercentile(99) < 1024);
+    }
+
+    @Test
+    public void profilingDoesNotAllocate() {
+        // the reflective probe boxes its reading, so measure the profiler's
+        // own bookkeeping with a probe that reports tracking as unsupported
+        FrameProfiler profiler = new FrameProfiler(MILLIS, 1024, new AllocationProbe() {
+            @Override
+            public long getAllocatedBytes() {
+                return -1;
+            }
+        });
+        int section = profiler.addSection("section");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        for (int i = 0; i < 10000; ++i) {
+            frame(profiler, section);
+        }
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; ++i) {
+            frame(profiler, section);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertEquals(110000, profiler.getFrameCount());
+        assertEquals(0, profiler.getAllocations().getCount());
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void frame(FrameProfiler profiler, int section) {
+        profiler.beginFrame();
+        profiler.beginSection(section);
+        profiler.endSection(section);
+        profiler.endFrame();
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+        }
+    }
+
+    private static class Listener implements FrameProfiler.BudgetListener {
+        final List<Long> frames = new ArrayList<Long>();
+        final List<Long> allocations = new ArrayList<Long>();
+
+        @Override
+        public void onBudgetExceeded(long frame, long stepNanos, long allocatedBytes) {
+            frames.add(frame);
+            allocations.add(allocatedBytes);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sample.remote_scripting;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sorted listings of browsable entries (model files and sub-directories),
+ * kept in an LRU of recently visited directories. A cached listing is reused
+ * as long as the directory's modification time is unchanged.
+ *
+ * Entries whose name carries a model extension are accepted without a stat;
+ * only the remaining names are checked with {@link File#isDirectory()}.
+ */
+public class DirectoryIndex {
+
+    public static final String PARENT = "..";
+
+    public static final class Listing {
+        private final String path;
+        private final long lastModified;
+        private final boolean readable;
+        private final List<String> names;
+
+        private Listing(String path, long lastModified, boolean readable, List<String> names) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.readable = readable;
+            this.names = names;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public boolean isReadable() {
+            return readable;
+        }
+
+        /**
+         * Sorted, unmodifiable names; starts with {@link #PARENT} when the
+         * directory could be listed.
+         */
+        public List<String> getNames() {
+            return names;
+        }
+    }
+
+    private final Map<String, Listing> listings;
+    private int hits;
+    private int misses;
+
+    public DirectoryIndex(final int capacity) {
+        listings = new LinkedHashMap<String, Listing>(capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Listing> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public Listing list(String path) {
+        File dir = new File(path);
+        long lastModified = dir.lastModified();
+
+        synchronized (this) {
+            Listing cached = listings.get(path);
+            if (cached != null && cached.lastModified == lastModified) {
+                ++hits;
+                return cached;
+            }
+            ++misses;
+        }
+
+        Listing listing = scan(dir, path, lastModified);
+        if (listing.readable) {
+            synchronized (this) {
+                listings.put(path, listing);
+            }
+        }
+        return listing;
+    }
+
+    public synchronized void invalidate(String path) {
+        listings.remove(path);
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    private static Listing scan(File dir, String path, long lastModified) {
+        boolean readable = dir.canRead();
+        String[] entries = dir.list();
+        if (entries == null) {
+            return new Listing(path, lastModified, readable, Collections.<String> emptyList());
+        }
+
+        ArrayList<String> names = new ArrayList<String>(entries.length + 1);
+        names.add(PARENT);
+        for (String name : entries) {
+            if (ModelExtensions.matches(name) || new File(dir, name).isDirectory()) {
+                names.add(name);
+            }
+        }
+
+        // sort alphabetically
+        Collections.sort(names);
+        return new Listing(path, lastModified, readable, Collections.unmodifiableList(names));
+    }
+}
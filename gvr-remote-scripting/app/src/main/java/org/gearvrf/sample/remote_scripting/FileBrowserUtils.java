@@ -54,12 +54,13 @@ import android.widget.TextView;
 
 import java.io.IOException;
 import java.io.File;
-import java.io.FilenameFilter;
 import java.io.StringWriter;
 import java.lang.Runnable;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
@@ -87,8 +88,23 @@ public class FileBrowserUtils {
     private String path;
     private ListView listView;
     private TextView dirView;
+    private TextView titleView;
+    private CharSequence title;
     private ProgressBar spinner;
 
+    private static final int RECENT_DIRECTORIES = 16;
+    private final DirectoryIndex directoryIndex = new DirectoryIndex(RECENT_DIRECTORIES);
+    private final ExecutorService listingExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "FileBrowserListing");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private final ModelLoadQueue<GVRModelSceneObject> loadQueue;
+
     static {
         PointerProperties properties = new PointerProperties();
         properties.id = 0;
@@ -101,6 +117,19 @@ public class FileBrowserUtils {
     public FileBrowserUtils(GVRContext context) {
         gvrContext = context;
         activity = (GearVRScripting) context.getActivity();
+        loadQueue = new ModelLoadQueue<GVRModelSceneObject>(
+                new ModelLoadQueue.Loader<GVRModelSceneObject>() {
+                    @Override
+                    public GVRModelSceneObject load(String path) throws IOException {
+                        return gvrContext.loadModelFromSD(path);
+                    }
+                }, new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        gvrContext.runOnGlThread(command);
+                    }
+                });
+        loadQueue.setProgressListener(progressListener);
     }
 
     public void inflate() {
@@ -110,6 +139,8 @@ public class FileBrowserUtils {
 
         listView = (ListView) frameLayout.findViewById(R.id.list);
         dirView = (TextView) frameLayout.findViewById(R.id.dirname);
+        titleView = (TextView) frameLayout.findViewById(R.id.title);
+        title = titleView.getText();
         spinner = (ProgressBar) frameLayout.findViewById(R.id.progressBar);
         spinner.setVisibility(View.GONE);
         init();
@@ -174,80 +205,62 @@ public class FileBrowserUtils {
         gvrContext.getMainScene().removeSceneObject(layoutSceneObject);
     }
 
+    /**
+     * Drops queued model loads; a load already running is discarded when it
+     * completes.
+     */
+    public void cancelLoads() {
+        loadQueue.cancelAll();
+    }
+
+    /**
+     * Stops the listing and model loading threads. Loads still pending are
+     * cancelled; the browser can't be used afterwards.
+     */
+    public void shutdown() {
+        listingExecutor.shutdownNow();
+        loadQueue.shutdown();
+    }
+
     private void init() {
         path = "/sdcard";
         chdir(path);
     }
 
-    private void chdir(String filepath) {
+    private void chdir(final String filepath) {
         path = filepath;
         dirView.setText(path);
-        spinner.setVisibility(View.GONE);
-
-        List values = new ArrayList();
-        File dir = new File(path);
-        if(!dir.canRead()) {
-            dirView.setText(dirView.getText() + " (inaccessible)");
-        }
 
-        // only allow model extensions we can read
-        File[] list = dir.listFiles(new FilenameFilter() {
-                public boolean accept(File dir, String name) {
-                    String filename = dir.getName() + File.separator + name;
-                    if(new File(filename).isDirectory()) {
-                        return true;
-                    }
-                    
-                    if(
-                        (name.toLowerCase().endsWith(".fbx")) ||
-                        (name.toLowerCase().endsWith(".dae")) ||
-                        (name.toLowerCase().endsWith(".gltf")) ||
-                        (name.toLowerCase().endsWith(".glb")) ||
-                        (name.toLowerCase().endsWith(".blend")) ||
-                        (name.toLowerCase().endsWith(".3ds")) ||
-                        (name.toLowerCase().endsWith(".ase")) ||
-                        (name.toLowerCase().endsWith(".obj")) ||
-                        (name.toLowerCase().endsWith(".xgl")) ||
-                        (name.toLowerCase().endsWith(".dxf")) ||
-                        (name.toLowerCase().endsWith(".lwo")) ||
-                        (name.toLowerCase().endsWith(".lws")) ||
-                        (name.toLowerCase().endsWith(".lxo")) ||
-                        (name.toLowerCase().endsWith(".stl")) ||
-                        (name.toLowerCase().endsWith(".ac")) ||
-                        (name.toLowerCase().endsWith(".ms3d")) ||
-                        (name.toLowerCase().endsWith(".cob")) ||
-                        (name.toLowerCase().endsWith(".mdl")) ||
-                        (name.toLowerCase().endsWith(".md2")) ||
-                        (name.toLowerCase().endsWith(".md3")) ||
-                        (name.toLowerCase().endsWith(".3d")) ||
-                        (name.toLowerCase().endsWith(".ogex"))
-                        ) {
-                        return true;
+        listingExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DirectoryIndex.Listing listing = directoryIndex.list(filepath);
+                activity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        // the user may have moved on while we were listing
+                        if (!filepath.equals(path)) {
+                            return;
+                        }
+                        if (!listing.isReadable()) {
+                            dirView.setText(dirView.getText() + " (inaccessible)");
+                        }
+                        showListing(listing.getNames());
                     }
-
-                    return false;
-                }
-        });
-
-        // add .. so the user can go up a level
-        if(list != null) {
-            values.add("..");
-            for(File file : list) {
-                values.add(file.getName());
+                });
             }
-        }
-
-        // sort alphabetically
-        Collections.sort(values);
+        });
+    }
 
-        ArrayAdapter adapter = new ArrayAdapter(activity, android.R.layout.simple_list_item_2, android.R.id.text1, values);
+    private void showListing(List<String> values) {
+        ArrayAdapter<String> adapter = new ArrayAdapter<String>(activity, android.R.layout.simple_list_item_2, android.R.id.text1, values);
         listView.setAdapter(adapter);
 
         listView.setOnItemClickListener(new OnItemClickListener() {
                 @Override
                 public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
                     String filename = (String) listView.getItemAtPosition(position);
-                    if(filename.endsWith("..")) {
+                    if(filename.equals(DirectoryIndex.PARENT)) {
                         // strip out the /..
                         int index = path.lastIndexOf(File.separator);
                         filename = path.substring(0, index);
@@ -263,26 +276,58 @@ public class FileBrowserUtils {
                         // strip out /sdcard
                         filename = filename.substring(8);
                         spinner.setVisibility(View.VISIBLE);
-                        // try to load the model
-                        try {
-                            GVRModelSceneObject model = gvrContext.loadModelFromSD(filename);
-                            gvrContext.getMainScene().addSceneObject(model);
-                            gvrContext.getMainScene().bindShaders();
-
-                            // base the name for the model on the filename, minus the suffix.  Also add a prefix since there may already be (and i've already seen) a node inside the model based on the filename
-                            int end = filename.lastIndexOf(".");
-                            int start = filename.lastIndexOf(File.separator, end) + 1;
-                            String name = "so_" + filename.substring(start, end);
-                            model.setName(name);
-                        } catch(IOException e) {
-                            e.printStackTrace();
-                        }
-                        spinner.setVisibility(View.GONE);
+                        // load the model in the background, it is attached on the GL thread
+                        loadQueue.submit(filename, modelListener);
                     }
                 }
             });
     }
 
+    private ModelLoadQueue.ProgressListener progressListener = new ModelLoadQueue.ProgressListener() {
+        @Override
+        public void onProgress(final int finished, final int total) {
+            activity.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    if (finished < total) {
+                        spinner.setVisibility(View.VISIBLE);
+                        titleView.setText(title + " - loading " + (finished + 1) + " of " + total);
+                    } else {
+                        spinner.setVisibility(View.GONE);
+                        titleView.setText(title);
+                    }
+                }
+            });
+        }
+    };
+
+    private ModelLoadQueue.Listener<GVRModelSceneObject> modelListener = new ModelLoadQueue.Listener<GVRModelSceneObject>() {
+        @Override
+        public void onStarted(String filename) {
+        }
+
+        @Override
+        public void onLoaded(String filename, GVRModelSceneObject model) {
+            gvrContext.getMainScene().addSceneObject(model);
+            gvrContext.getMainScene().bindShaders();
+
+            // base the name for the model on the filename, minus the suffix.  Also add a prefix since there may already be (and i've already seen) a node inside the model based on the filename
+            int end = filename.lastIndexOf(".");
+            int start = filename.lastIndexOf(File.separator, end) + 1;
+            String name = "so_" + filename.substring(start, end);
+            model.setName(name);
+        }
+
+        @Override
+        public void onFailed(String filename, Throwable cause) {
+            cause.printStackTrace();
+        }
+
+        @Override
+        public void onCancelled(String filename) {
+        }
+    };
+
     private ISensorEvents sensorEvents = new ISensorEvents() {
         private static final float SCALE = 1.0f;
         private float savedMotionEventX, savedMotionEventY, savedHitPointX, savedHitPointY;
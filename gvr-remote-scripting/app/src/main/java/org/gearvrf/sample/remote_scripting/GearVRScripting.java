@@ -38,6 +38,7 @@ public class GearVRScripting extends GVRActivity
     String ipAddress;
     private Camera camera;
     private Handler handler = new Handler();
+    private GearVRScriptingMain main;
 
     /** Called when the activity is first created. */
     @Override
@@ -48,7 +49,14 @@ public class GearVRScripting extends GVRActivity
         ipAddress = getWifiIpAddress(this);
         createCameraView();
 
-        setMain(new GearVRScriptingMain(), "gvr.xml");
+        main = new GearVRScriptingMain();
+        setMain(main, "gvr.xml");
+    }
+
+    @Override
+    protected void onDestroy() {
+        main.shutdown();
+        super.onDestroy();
     }
 
     @Override
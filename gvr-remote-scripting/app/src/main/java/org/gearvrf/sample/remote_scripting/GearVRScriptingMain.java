@@ -24,6 +24,7 @@ import org.gearvrf.script.GVRScriptManager;
 
 public class GearVRScriptingMain extends GVRMain
 {
+    private volatile FileBrowserUtils fileBrowser;
 
     @Override
     public void onInit(GVRContext gvrContext) {
@@ -53,7 +54,8 @@ public class GearVRScriptingMain extends GVRMain
         scriptManager.addVariable("cursor", new CursorUtils(gvrContext));
         scriptManager.addVariable("editor", new EditorUtils(gvrContext));
         scriptManager.addVariable("passthrough", new PassthroughUtils(gvrContext, activity));
-        scriptManager.addVariable("filebrowser", new FileBrowserUtils(gvrContext));
+        fileBrowser = new FileBrowserUtils(gvrContext);
+        scriptManager.addVariable("filebrowser", fileBrowser);
         scriptManager.addVariable("source", new SourceUtils(gvrContext));
     }
 
@@ -61,4 +63,14 @@ public class GearVRScriptingMain extends GVRMain
     public void onStep() {
     }
 
+    /**
+     * Called by the activity as it is destroyed, to stop the file browser's
+     * background threads.
+     */
+    public void shutdown() {
+        if (fileBrowser != null) {
+            fileBrowser.shutdown();
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sample.remote_scripting;
+
+/**
+ * Single-pass, allocation free check for the model extensions the importer
+ * can read. Extensions are bucketed by their first character so a name is
+ * compared against at most a handful of candidates, case-insensitively and
+ * without lower-casing the name.
+ */
+public final class ModelExtensions {
+
+    // only allow model extensions we can read
+    private static final String[] EXTENSIONS = {
+        "fbx", "dae", "gltf", "glb", "blend", "3ds", "ase", "obj", "xgl",
+        "dxf", "lwo", "lws", "lxo", "stl", "ac", "ms3d", "cob", "mdl", "md2",
+        "md3", "3d", "ogex"
+    };
+
+    private static final String[][] BUCKETS = new String[128][];
+
+    static {
+        for (String extension : EXTENSIONS) {
+            int c = extension.charAt(0);
+            String[] bucket = BUCKETS[c];
+            String[] grown;
+            if (bucket == null) {
+                grown = new String[1];
+            } else {
+                grown = new String[bucket.length + 1];
+                System.arraycopy(bucket, 0, grown, 0, bucket.length);
+            }
+            grown[grown.length - 1] = extension;
+            BUCKETS[c] = grown;
+        }
+    }
+
+    private ModelExtensions() {
+    }
+
+    public static boolean matches(String name) {
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || dot == name.length() - 1) {
+            return false;
+        }
+        int c = Character.toLowerCase(name.charAt(dot + 1));
+        if (c >= BUCKETS.length || BUCKETS[c] == null) {
+            return false;
+        }
+        int length = name.length() - dot - 1;
+        for (String extension : BUCKETS[c]) {
+            if (extension.length() == length
+                    && name.regionMatches(true, dot + 1, extension, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,259 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sample.remote_scripting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Background import queue for models. Files are loaded one at a time on a
+ * single worker thread and the results are handed to the listener through a
+ * delivery executor, which on device posts to the GL thread.
+ *
+ * Submitting a file that is already queued or loading returns the existing
+ * request instead of loading it twice. A {@link ProgressListener} follows
+ * the queue as a whole. Plain Java, so the scheduling can be
+ * driven with a fake loader on a desktop JVM.
+ */
+public class ModelLoadQueue<T> {
+
+    public interface Loader<T> {
+        T load(String path) throws Exception;
+    }
+
+    /**
+     * All callbacks run on the delivery executor.
+     */
+    public interface Listener<T> {
+        void onStarted(String path);
+
+        void onLoaded(String path, T result);
+
+        void onFailed(String path, Throwable cause);
+
+        void onCancelled(String path);
+    }
+
+    /**
+     * Runs on the delivery executor each time a request is queued or its
+     * outcome delivered. The counts cover the current batch, everything
+     * submitted since the queue was last idle, so {@code finished == total}
+     * means the queue has drained.
+     */
+    public interface ProgressListener {
+        void onProgress(int finished, int total);
+    }
+
+    private static final int QUEUED = 0;
+    private static final int LOADING = 1;
+    private static final int DONE = 2;
+
+    public final class Request implements Runnable {
+        private final String path;
+        private final Listener<T> listener;
+        private int state = QUEUED;
+        private boolean cancelled = false;
+
+        private Request(String path, Listener<T> listener) {
+            this.path = path;
+            this.listener = listener;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Cancels the request. A queued request is dropped before it starts;
+         * a load already in progress runs to completion but its result is
+         * discarded.
+         *
+         * @return false if the result was already delivered
+         */
+        public boolean cancel() {
+            synchronized (ModelLoadQueue.this) {
+                if (state == DONE) {
+                    return false;
+                }
+                cancelled = true;
+                return true;
+            }
+        }
+
+        public boolean isCancelled() {
+            synchronized (ModelLoadQueue.this) {
+                return cancelled;
+            }
+        }
+
+        public boolean isDone() {
+            synchronized (ModelLoadQueue.this) {
+                return state == DONE;
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (ModelLoadQueue.this) {
+                if (cancelled) {
+                    finish();
+                    deliverCancelled();
+                    return;
+                }
+                state = LOADING;
+            }
+            delivery.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onStarted(path);
+                }
+            });
+
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = loader.load(path);
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            final T loaded = result;
+            final Throwable cause = failure;
+            delivery.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean wasCancelled;
+                    synchronized (ModelLoadQueue.this) {
+                        wasCancelled = cancelled;
+                        finish();
+                    }
+                    if (wasCancelled) {
+                        listener.onCancelled(path);
+                    } else if (cause != null) {
+                        listener.onFailed(path, cause);
+                    } else {
+                        listener.onLoaded(path, loaded);
+                    }
+                }
+            });
+        }
+
+        private void finish() {
+            state = DONE;
+            if (requests.get(path) == this) {
+                requests.remove(path);
+            }
+            ++batchFinished;
+            reportProgress();
+        }
+
+        private void deliverCancelled() {
+            delivery.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onCancelled(path);
+                }
+            });
+        }
+    }
+
+    private final Loader<T> loader;
+    private final Executor delivery;
+    private final ExecutorService worker;
+    private final Map<String, Request> requests = new HashMap<String, Request>();
+    private ProgressListener progressListener;
+    private int batchFinished;
+    private int batchTotal;
+
+    public ModelLoadQueue(Loader<T> loader, Executor delivery) {
+        this.loader = loader;
+        this.delivery = delivery;
+        this.worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ModelLoadQueue");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Queues {@code path} for loading. If the same file is already queued or
+     * loading and has not been cancelled, that request is returned and
+     * {@code listener} is not registered.
+     */
+    public synchronized Request submit(String path, Listener<T> listener) {
+        Request request = requests.get(path);
+        if (request != null && !request.cancelled) {
+            return request;
+        }
+        request = new Request(path, listener);
+        requests.put(path, request);
+        ++batchTotal;
+        reportProgress();
+        worker.execute(request);
+        return request;
+    }
+
+    public synchronized void setProgressListener(ProgressListener listener) {
+        progressListener = listener;
+    }
+
+    /*
+     * Called with the lock held, after either count changes.
+     */
+    private void reportProgress() {
+        final ProgressListener listener = progressListener;
+        final int finished = batchFinished;
+        final int total = batchTotal;
+        if (finished == total) {
+            batchFinished = 0;
+            batchTotal = 0;
+        }
+        if (listener == null) {
+            return;
+        }
+        delivery.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onProgress(finished, total);
+            }
+        });
+    }
+
+    /**
+     * Cancels every request that has not been delivered yet.
+     */
+    public synchronized void cancelAll() {
+        for (Request request : requests.values()) {
+            request.cancelled = true;
+        }
+    }
+
+    public synchronized boolean isBusy() {
+        return !requests.isEmpty();
+    }
+
+    public void shutdown() {
+        cancelAll();
+        worker.shutdown();
+    }
+}
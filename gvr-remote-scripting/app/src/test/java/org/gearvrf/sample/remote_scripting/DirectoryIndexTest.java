@@ -0,0 +1,393 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sample.remote_scripting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks {@link ModelExtensions#matches(String)} against the old
+ * lower-case-and-endsWith filter, and {@link DirectoryIndex} on real
+ * directories: what a listing holds, when a cached listing is reused, LRU
+ * eviction, and a directory of 50,000 entries. With -Dbenchmark=true it
+ * also times listing that directory against the old filter.
+ */
+public class DirectoryIndexTest {
+
+    private static final String[] EXTENSIONS = {
+        "fbx", "dae", "gltf", "glb", "blend", "3ds", "ase", "obj", "xgl",
+        "dxf", "lwo", "lws", "lxo", "stl", "ac", "ms3d", "cob", "mdl", "md2",
+        "md3", "3d", "ogex"
+    };
+
+    private static final int LARGE_ENTRIES = 50000;
+    private static final int LARGE_DIRECTORIES = 500;
+    private static final int RANDOM_NAMES = 50000;
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    private static File root;
+    private static File large;
+    private static int largeBrowsable;
+
+    @BeforeClass
+    public static void createLargeDirectory() throws IOException {
+        root = File.createTempFile("directory-index", "");
+        assertTrue(root.delete());
+        assertTrue(root.mkdir());
+
+        // a quarter models, the rest other files, and some sub-directories
+        large = mkdir(root, "large");
+        for (int i = 0; i < LARGE_ENTRIES - LARGE_DIRECTORIES; ++i) {
+            String name = i % 4 == 0 ? "model" + i + "." + EXTENSIONS[i % EXTENSIONS.length]
+                    : "file" + i + ".txt";
+            touch(large, name);
+            if (i % 4 == 0) {
+                ++largeBrowsable;
+            }
+        }
+        for (int i = 0; i < LARGE_DIRECTORIES; ++i) {
+            mkdir(large, "dir" + i);
+            ++largeBrowsable;
+        }
+    }
+
+    @AfterClass
+    public static void deleteDirectories() {
+        delete(root);
+    }
+
+    @Test
+    public void matchesAgreesWithLegacyFilter() {
+        List<String> names = new ArrayList<String>();
+        for (String extension : EXTENSIONS) {
+            names.add("model." + extension);
+            names.add("model." + extension.toUpperCase());
+            names.add("Model." + Character.toUpperCase(extension.charAt(0))
+                    + extension.substring(1));
+            names.add("." + extension);
+            names.add(extension);
+            names.add("model" + extension);
+            names.add("model." + extension + "x");
+            names.add("model." + extension + ".txt");
+            names.add("model.txt." + extension);
+            names.add("model.x" + extension);
+            names.add("model.." + extension);
+        }
+        names.addAll(Arrays.asList("", ".", "..", "model.", "model", "a.b.c", "3d", ".3D"));
+
+        // short names over an alphabet dense in extension characters
+        Random random = new Random(6);
+        String alphabet = "abcdeglmorstxABDFGLOST0123.";
+        for (int i = 0; i < RANDOM_NAMES; ++i) {
+            char[] name = new char[1 + random.nextInt(8)];
+            for (int c = 0; c < name.length; ++c) {
+                name[c] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            names.add(new String(name));
+        }
+
+        int matched = 0;
+        for (String name : names) {
+            boolean expected = legacyMatches(name);
+            assertEquals(name, expected, ModelExtensions.matches(name));
+            if (expected) {
+                ++matched;
+            }
+        }
+        assertTrue(matched > EXTENSIONS.length * 4);
+    }
+
+    @Test
+    public void matchesDoesNotAllocate() {
+        String[] names = {
+            "model.obj", "MODEL.FBX", "scene.gltf", "notes.txt", "noextension", "archive.tar.gz"
+        };
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        int matched = 0;
+        for (int i = 0; i < 10000; ++i) {
+            matched += ModelExtensions.matches(names[i % names.length]) ? 1 : 0;
+        }
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; ++i) {
+            matched += ModelExtensions.matches(names[i % names.length]) ? 1 : 0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertTrue(matched > 0);
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    @Test
+    public void listsModelsAndDirectoriesSorted() throws IOException {
+        File dir = mkdir(root, "listing");
+        touch(dir, "b.OBJ");
+        touch(dir, "a.fbx");
+        touch(dir, "notes.txt");
+        touch(dir, "README");
+        mkdir(dir, "sub");
+        mkdir(dir, "scene.dae");
+
+        DirectoryIndex.Listing listing = new DirectoryIndex(4).list(dir.getPath());
+
+        assertTrue(listing.isReadable());
+        assertEquals(dir.getPath(), listing.getPath());
+        assertEquals(Arrays.asList(DirectoryIndex.PARENT, "a.fbx", "b.OBJ", "scene.dae", "sub"),
+                listing.getNames());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void listingIsUnmodifiable() throws IOException {
+        File dir = mkdir(root, "unmodifiable");
+        touch(dir, "a.obj");
+        new DirectoryIndex(4).list(dir.getPath()).getNames().add("b.obj");
+    }
+
+    @Test
+    public void reusesListingUntilModified() throws IOException {
+        File dir = mkdir(root, "modified");
+        touch(dir, "a.obj");
+        DirectoryIndex index = new DirectoryIndex(4);
+
+        DirectoryIndex.Listing first = index.list(dir.getPath());
+        assertSame(first, index.list(dir.getPath()));
+        assertEquals(1, index.getHits());
+        assertEquals(1, index.getMisses());
+
+        // mtime resolution can be a second or coarser, so move it explicitly
+        touch(dir, "b.obj");
+        assertTrue(dir.setLastModified(dir.lastModified() + 10000));
+
+        DirectoryIndex.Listing second = index.list(dir.getPath());
+        assertNotSame(first, second);
+        assertEquals(Arrays.asList(DirectoryIndex.PARENT, "a.obj", "b.obj"), second.getNames());
+        assertEquals(1, index.getHits());
+        assertEquals(2, index.getMisses());
+    }
+
+    @Test
+    public void invalidateForcesRescan() throws IOException {
+        File dir = mkdir(root, "invalidate");
+        touch(dir, "a.obj");
+        DirectoryIndex index = new DirectoryIndex(4);
+
+        DirectoryIndex.Listing first = index.list(dir.getPath());
+        index.invalidate(dir.getPath());
+        DirectoryIndex.Listing second = index.list(dir.getPath());
+
+        assertNotSame(first, second);
+        assertEquals(first.getNames(), second.getNames());
+        assertEquals(0, index.getHits());
+        assertEquals(2, index.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        String a = mkdir(root, "lru-a").getPath();
+        String b = mkdir(root, "lru-b").getPath();
+        String c = mkdir(root, "lru-c").getPath();
+        DirectoryIndex index = new DirectoryIndex(2);
+
+        index.list(a);
+        index.list(b);
+        // touching a leaves b the eldest, so c pushes b out
+        index.list(a);
+        index.list(c);
+        assertEquals(1, index.getHits());
+        assertEquals(3, index.getMisses());
+
+        index.list(a);
+        index.list(c);
+        assertEquals(3, index.getHits());
+        index.list(b);
+        assertEquals(4, index.getMisses());
+    }
+
+    @Test
+    public void missingDirectoryIsNotCached() {
+        String path = new File(root, "missing").getPath();
+        DirectoryIndex index = new DirectoryIndex(4);
+
+        DirectoryIndex.Listing listing = index.list(path);
+        assertFalse(listing.isReadable());
+        assertEquals(Collections.<String> emptyList(), listing.getNames());
+
+        index.list(path);
+        assertEquals(0, index.getHits());
+        assertEquals(2, index.getMisses());
+    }
+
+    @Test
+    public void listsLargeDirectory() {
+        DirectoryIndex index = new DirectoryIndex(4);
+        List<String> names = index.list(large.getPath()).getNames();
+
+        assertEquals(largeBrowsable + 1, names.size());
+        assertEquals(DirectoryIndex.PARENT, names.get(0));
+        List<String> sorted = new ArrayList<String>(names);
+        Collections.sort(sorted);
+        assertEquals(sorted, names);
+        for (String name : names.subList(1, names.size())) {
+            assertTrue(name, ModelExtensions.matches(name) || name.startsWith("dir"));
+        }
+        assertTrue(names.contains("dir0"));
+        assertFalse(names.contains("file1.txt"));
+
+        assertSame(index.list(large.getPath()).getNames(), names);
+        assertEquals(1, index.getHits());
+    }
+
+    @Test
+    public void benchmarkLargeDirectory() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        File dir = large;
+        String path = dir.getPath();
+
+        // warm up both
+        legacyList(dir);
+        new DirectoryIndex(1).list(path);
+
+        int legacyRuns = 0;
+        long legacyNanos = 0;
+        while (legacyNanos < BENCHMARK_NANOS) {
+            long start = System.nanoTime();
+            legacyList(dir);
+            legacyNanos += System.nanoTime() - start;
+            ++legacyRuns;
+        }
+
+        int scanRuns = 0;
+        long scanNanos = 0;
+        while (scanNanos < BENCHMARK_NANOS) {
+            DirectoryIndex index = new DirectoryIndex(1);
+            long start = System.nanoTime();
+            index.list(path);
+            scanNanos += System.nanoTime() - start;
+            ++scanRuns;
+        }
+
+        DirectoryIndex index = new DirectoryIndex(1);
+        index.list(path);
+        int cachedRuns = 0;
+        long cachedStart = System.nanoTime();
+        long cachedNanos = 0;
+        while (cachedNanos < BENCHMARK_NANOS) {
+            index.list(path);
+            ++cachedRuns;
+            cachedNanos = System.nanoTime() - cachedStart;
+        }
+
+        System.out.printf("%d entries: legacy filter %.2f ms, index scan %.2f ms, cached %.4f ms%n",
+                LARGE_ENTRIES, legacyNanos / 1e6 / legacyRuns, scanNanos / 1e6 / scanRuns,
+                cachedNanos / 1e6 / cachedRuns);
+    }
+
+    /*
+     * The filter the file browser used before DirectoryIndex.
+     */
+    private static boolean legacyMatches(String name) {
+        return (name.toLowerCase().endsWith(".fbx")) ||
+            (name.toLowerCase().endsWith(".dae")) ||
+            (name.toLowerCase().endsWith(".gltf")) ||
+            (name.toLowerCase().endsWith(".glb")) ||
+            (name.toLowerCase().endsWith(".blend")) ||
+            (name.toLowerCase().endsWith(".3ds")) ||
+            (name.toLowerCase().endsWith(".ase")) ||
+            (name.toLowerCase().endsWith(".obj")) ||
+            (name.toLowerCase().endsWith(".xgl")) ||
+            (name.toLowerCase().endsWith(".dxf")) ||
+            (name.toLowerCase().endsWith(".lwo")) ||
+            (name.toLowerCase().endsWith(".lws")) ||
+            (name.toLowerCase().endsWith(".lxo")) ||
+            (name.toLowerCase().endsWith(".stl")) ||
+            (name.toLowerCase().endsWith(".ac")) ||
+            (name.toLowerCase().endsWith(".ms3d")) ||
+            (name.toLowerCase().endsWith(".cob")) ||
+            (name.toLowerCase().endsWith(".mdl")) ||
+            (name.toLowerCase().endsWith(".md2")) ||
+            (name.toLowerCase().endsWith(".md3")) ||
+            (name.toLowerCase().endsWith(".3d")) ||
+            (name.toLowerCase().endsWith(".ogex"));
+    }
+
+    /*
+     * The old listing, stat included: every name is checked with
+     * isDirectory() before the extensions, on a path built from the
+     * directory's bare name.
+     */
+    private static List<String> legacyList(File dir) {
+        List<String> values = new ArrayList<String>();
+        File[] list = dir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                String filename = dir.getName() + File.separator + name;
+                if (new File(filename).isDirectory()) {
+                    return true;
+                }
+                return legacyMatches(name);
+            }
+        });
+        if (list != null) {
+            values.add(DirectoryIndex.PARENT);
+            for (File file : list) {
+                values.add(file.getName());
+            }
+        }
+        Collections.sort(values);
+        return values;
+    }
+
+    private static File mkdir(File parent, String name) {
+        File dir = new File(parent, name);
+        assertTrue(dir.getPath(), dir.mkdir());
+        return dir;
+    }
+
+    private static void touch(File parent, String name) throws IOException {
+        File file = new File(parent, name);
+        assertTrue(file.getPath(), file.createNewFile());
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,297 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sample.remote_scripting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives {@link ModelLoadQueue} with a fake loader that blocks until the
+ * test lets each load through, and a delivery thread standing in for the GL
+ * thread. Checks the order of callbacks and the threads they run on, that
+ * duplicate submissions share a request, how cancelling behaves before,
+ * during and after a load, and the batch progress counts.
+ */
+public class ModelLoadQueueTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private ExecutorService delivery;
+    private FakeLoader loader;
+    private ModelLoadQueue<String> queue;
+    private Recorder recorder;
+
+    @Before
+    public void setUp() {
+        delivery = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "delivery");
+            }
+        });
+        loader = new FakeLoader();
+        queue = new ModelLoadQueue<String>(loader, delivery);
+        recorder = new Recorder();
+        queue.setProgressListener(recorder);
+    }
+
+    @After
+    public void tearDown() {
+        loader.release(100);
+        queue.shutdown();
+        delivery.shutdownNow();
+    }
+
+    @Test
+    public void loadsInOrderOffTheDeliveryThread() {
+        queue.submit("a", recorder);
+        queue.submit("b", recorder);
+        queue.submit("c", recorder);
+        assertTrue(queue.isBusy());
+        loader.release(3);
+        recorder.await(12);
+
+        assertEquals(Arrays.asList("a", "b", "c"), loader.loaded());
+        assertEquals(Arrays.asList("started a", "loaded a:model", "started b",
+                "loaded b:model", "started c", "loaded c:model"), recorder.outcomes());
+        assertEquals(Arrays.asList("progress 0/1", "progress 0/2", "progress 0/3",
+                "progress 1/3", "progress 2/3", "progress 3/3"), recorder.progress());
+        assertEquals("ModelLoadQueue", loader.thread);
+        assertTrue(recorder.onDeliveryThread);
+        assertFalse(queue.isBusy());
+    }
+
+    @Test
+    public void sharesRequestsForTheSameFile() {
+        ModelLoadQueue<String>.Request first = queue.submit("a", recorder);
+        assertSame(first, queue.submit("a", new Recorder()));
+        loader.awaitLoading();
+        // still loading
+        assertSame(first, queue.submit("a", new Recorder()));
+        loader.release(1);
+        recorder.await(4);
+        assertTrue(first.isDone());
+        assertEquals(Arrays.asList("a"), loader.loaded());
+
+        // delivered, so the next submission loads again
+        ModelLoadQueue<String>.Request second = queue.submit("a", recorder);
+        assertNotSame(first, second);
+        loader.release(1);
+        recorder.await(8);
+        assertEquals(Arrays.asList("a", "a"), loader.loaded());
+    }
+
+    @Test
+    public void deliversFailures() {
+        queue.submit("bad", recorder);
+        loader.release(1);
+        recorder.await(4);
+        assertEquals(Arrays.asList("progress 0/1", "started bad", "failed bad:no such model",
+                "progress 1/1"), recorder.events());
+    }
+
+    @Test
+    public void cancelsQueuedLoadingAndDeliveredRequests() {
+        ModelLoadQueue<String>.Request loading = queue.submit("a", recorder);
+        ModelLoadQueue<String>.Request queued = queue.submit("b", recorder);
+        loader.awaitLoading();
+
+        assertTrue(queued.cancel());
+        assertTrue(loading.cancel());
+        // a cancelled file can be submitted again without waiting
+        ModelLoadQueue<String>.Request again = queue.submit("b", recorder);
+        assertNotSame(queued, again);
+        loader.release(2);
+        recorder.await(11);
+
+        // the load in progress runs to the end; the queued one never starts
+        assertEquals(Arrays.asList("a", "b"), loader.loaded());
+        assertEquals(Arrays.asList("progress 0/1", "progress 0/2", "progress 0/3",
+                "progress 1/3", "progress 2/3", "progress 3/3"), recorder.progress());
+        List<String> outcomes = recorder.outcomes();
+        assertEquals(5, outcomes.size());
+        // the cancelled queued request is delivered as the worker reaches it,
+        // so it may land before or after the one in flight
+        assertTrue(outcomes.indexOf("started a") < outcomes.indexOf("cancelled a"));
+        assertTrue(outcomes.indexOf("cancelled b") < outcomes.indexOf("started b"));
+        assertTrue(outcomes.indexOf("started b") < outcomes.indexOf("loaded b:model"));
+        assertTrue(loading.isCancelled());
+        assertFalse(again.cancel());
+    }
+
+    @Test
+    public void startsANewBatchOnceDrained() {
+        queue.submit("a", recorder);
+        loader.release(1);
+        recorder.await(4);
+        queue.submit("b", recorder);
+        loader.release(1);
+        recorder.await(8);
+        assertEquals(Arrays.asList("progress 0/1", "started a", "loaded a:model",
+                "progress 1/1", "progress 0/1", "started b", "loaded b:model", "progress 1/1"),
+                recorder.events());
+    }
+
+    @Test
+    public void cancelAllDropsEverythingUndelivered() {
+        queue.submit("a", recorder);
+        queue.submit("b", recorder);
+        queue.submit("c", recorder);
+        loader.awaitLoading();
+        queue.cancelAll();
+        loader.release(1);
+        recorder.await(10);
+        assertEquals(Arrays.asList("a"), loader.loaded());
+        assertFalse(recorder.events().toString().contains("loaded"));
+        assertFalse(queue.isBusy());
+    }
+
+    /*
+     * Loads "model" for any path but "bad", one load per released permit.
+     */
+    private static class FakeLoader implements ModelLoadQueue.Loader<String> {
+        private final Semaphore permits = new Semaphore(0);
+        private final Semaphore loading = new Semaphore(0);
+        private final List<String> loaded = new ArrayList<String>();
+        volatile String thread;
+
+        @Override
+        public String load(String path) throws Exception {
+            thread = Thread.currentThread().getName();
+            loading.release();
+            if (!permits.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("load of " + path + " never released");
+            }
+            synchronized (loaded) {
+                loaded.add(path);
+            }
+            if (path.equals("bad")) {
+                throw new Exception("no such model");
+            }
+            return "model";
+        }
+
+        void release(int count) {
+            permits.release(count);
+        }
+
+        void awaitLoading() {
+            try {
+                assertTrue(loading.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        List<String> loaded() {
+            synchronized (loaded) {
+                return new ArrayList<String>(loaded);
+            }
+        }
+    }
+
+    private static class Recorder implements ModelLoadQueue.Listener<String>,
+            ModelLoadQueue.ProgressListener {
+        private final List<String> events = new ArrayList<String>();
+        volatile boolean onDeliveryThread = true;
+
+        private synchronized void record(String event) {
+            onDeliveryThread &= Thread.currentThread().getName().equals("delivery");
+            events.add(event);
+            notifyAll();
+        }
+
+        synchronized List<String> events() {
+            return new ArrayList<String>(events);
+        }
+
+        /*
+         * Progress is posted from inside the delivery of an outcome, so the
+         * two streams interleave by timing; each keeps its own order.
+         */
+        synchronized List<String> progress() {
+            List<String> progress = new ArrayList<String>();
+            for (String event : events) {
+                if (event.startsWith("progress")) {
+                    progress.add(event);
+                }
+            }
+            return progress;
+        }
+
+        synchronized List<String> outcomes() {
+            List<String> outcomes = new ArrayList<String>(events);
+            outcomes.removeAll(progress());
+            return outcomes;
+        }
+
+        synchronized void await(int count) {
+            long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (events.size() < count) {
+                long left = end - System.currentTimeMillis();
+                if (left <= 0) {
+                    throw new AssertionError("got only " + events);
+                }
+                try {
+                    wait(left);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+
+        @Override
+        public void onStarted(String path) {
+            record("started " + path);
+        }
+
+        @Override
+        public void onLoaded(String path, String result) {
+            record("loaded " + path + ":" + result);
+        }
+
+        @Override
+        public void onFailed(String path, Throwable cause) {
+            record("failed " + path + ":" + cause.getMessage());
+        }
+
+        @Override
+        public void onCancelled(String path) {
+            record("cancelled " + path);
+        }
+
+        @Override
+        public void onProgress(int finished, int total) {
+            record("progress " + finished + "/" + total);
+        }
+    }
+}
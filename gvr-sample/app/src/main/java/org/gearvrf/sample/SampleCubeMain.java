@@ -35,6 +35,7 @@ import org.gearvrf.GVRScreenshot3DCallback;
 import org.gearvrf.GVRScreenshotCallback;
 import org.gearvrf.GVRMain;
 import org.gearvrf.utility.Threads;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.graphics.Bitmap;
 import android.os.Environment;
@@ -0,0 +1,150 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.scenenode;
+
+import org.gearvrf.GVRRenderData;
+import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTransform;
+
+/**
+ * {@link SceneNode} backed by a real scene object.
+ */
+public class GVRSceneNode implements SceneNode {
+
+    private final GVRSceneObject sceneObject;
+    private final GVRTransform transform;
+
+    public GVRSceneNode(GVRSceneObject sceneObject) {
+        this.sceneObject = sceneObject;
+        this.transform = sceneObject.getTransform();
+    }
+
+    public GVRSceneObject getSceneObject() {
+        return sceneObject;
+    }
+
+    @Override
+    public float getPositionX() {
+        return transform.getPositionX();
+    }
+
+    @Override
+    public float getPositionY() {
+        return transform.getPositionY();
+    }
+
+    @Override
+    public float getPositionZ() {
+        return transform.getPositionZ();
+    }
+
+    @Override
+    public void setPosition(float x, float y, float z) {
+        transform.setPosition(x, y, z);
+    }
+
+    @Override
+    public void setPositionX(float x) {
+        transform.setPositionX(x);
+    }
+
+    @Override
+    public void setPositionY(float y) {
+        transform.setPositionY(y);
+    }
+
+    @Override
+    public void setPositionZ(float z) {
+        transform.setPositionZ(z);
+    }
+
+    @Override
+    public float getScaleX() {
+        return transform.getScaleX();
+    }
+
+    @Override
+    public float getScaleY() {
+        return transform.getScaleY();
+    }
+
+    @Override
+    public float getScaleZ() {
+        return transform.getScaleZ();
+    }
+
+    @Override
+    public void setScale(float x, float y, float z) {
+        transform.setScale(x, y, z);
+    }
+
+    @Override
+    public float getRotationW() {
+        return transform.getRotationW();
+    }
+
+    @Override
+    public float getRotationX() {
+        return transform.getRotationX();
+    }
+
+    @Override
+    public float getRotationY() {
+        return transform.getRotationY();
+    }
+
+    @Override
+    public float getRotationZ() {
+        return transform.getRotationZ();
+    }
+
+    @Override
+    public void setRotation(float w, float x, float y, float z) {
+        transform.setRotation(w, x, y, z);
+    }
+
+    @Override
+    public void setRotationByAxis(float angle, float x, float y, float z) {
+        transform.setRotationByAxis(angle, x, y, z);
+    }
+
+    @Override
+    public void rotateByAxis(float angle, float x, float y, float z) {
+        transform.rotateByAxis(angle, x, y, z);
+    }
+
+    @Override
+    public float[] getModelMatrix() {
+        return transform.getModelMatrix();
+    }
+
+    /**
+     * GVRTransform can only return the matrix in a new array, so this still
+     * allocates one, inside the framework, on every call.
+     */
+    @Override
+    public void getModelMatrix(float[] out) {
+        System.arraycopy(transform.getModelMatrix(), 0, out, 0, 16);
+    }
+
+    @Override
+    public void setOpacity(float opacity) {
+        GVRRenderData renderData = sceneObject.getRenderData();
+        if (renderData != null && renderData.getMaterial() != null) {
+            renderData.getMaterial().setOpacity(opacity);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.scenenode;
+
+/**
+ * The part of the GVRSceneObject / GVRTransform surface that per-frame sample
+ * logic touches. Logic written against this interface runs unchanged on a
+ * device, through {@link GVRSceneNode}, and in a desktop JVM, through
+ * {@link SimSceneNode}.
+ *
+ * Angles are in degrees and matrices column-major, as in GVRTransform.
+ */
+public interface SceneNode {
+
+    float getPositionX();
+
+    float getPositionY();
+
+    float getPositionZ();
+
+    void setPosition(float x, float y, float z);
+
+    void setPositionX(float x);
+
+    void setPositionY(float y);
+
+    void setPositionZ(float z);
+
+    float getScaleX();
+
+    float getScaleY();
+
+    float getScaleZ();
+
+    void setScale(float x, float y, float z);
+
+    float getRotationW();
+
+    float getRotationX();
+
+    float getRotationY();
+
+    float getRotationZ();
+
+    void setRotation(float w, float x, float y, float z);
+
+    void setRotationByAxis(float angle, float x, float y, float z);
+
+    /**
+     * Turns the node by {@code angle} about the axis, on top of its current
+     * rotation.
+     */
+    void rotateByAxis(float angle, float x, float y, float z);
+
+    /**
+     * @return a new array holding the world matrix
+     */
+    float[] getModelMatrix();
+
+    /**
+     * Writes the world matrix into {@code out}, which holds at least 16
+     * floats.
+     */
+    void getModelMatrix(float[] out);
+
+    /**
+     * Sets the opacity of the node's material; ignored when it has none.
+     */
+    void setOpacity(float opacity);
+}
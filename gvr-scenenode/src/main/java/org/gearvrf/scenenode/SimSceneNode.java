@@ -0,0 +1,265 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.scenenode;
+
+/**
+ * In-memory {@link SceneNode} for running per-frame logic in a desktop JVM.
+ * Keeps a local translation / rotation / scale, composes world matrices
+ * through an optional parent, and counts reads and writes so tests can check
+ * how much transform traffic a step generates.
+ */
+public class SimSceneNode implements SceneNode {
+
+    private final SimSceneNode parent;
+    private float positionX, positionY, positionZ;
+    private float scaleX = 1, scaleY = 1, scaleZ = 1;
+    private float rotationW = 1, rotationX, rotationY, rotationZ;
+    private float opacity = 1;
+    private final float[] localMatrix = new float[16];
+    private final float[] parentMatrix = new float[16];
+    private int reads;
+    private int writes;
+
+    public SimSceneNode() {
+        this(null);
+    }
+
+    public SimSceneNode(SimSceneNode parent) {
+        this.parent = parent;
+    }
+
+    public SimSceneNode getParent() {
+        return parent;
+    }
+
+    public float getOpacity() {
+        return opacity;
+    }
+
+    public int getReadCount() {
+        return reads;
+    }
+
+    public int getWriteCount() {
+        return writes;
+    }
+
+    public void resetCounters() {
+        reads = 0;
+        writes = 0;
+    }
+
+    @Override
+    public float getPositionX() {
+        ++reads;
+        return positionX;
+    }
+
+    @Override
+    public float getPositionY() {
+        ++reads;
+        return positionY;
+    }
+
+    @Override
+    public float getPositionZ() {
+        ++reads;
+        return positionZ;
+    }
+
+    @Override
+    public void setPosition(float x, float y, float z) {
+        ++writes;
+        positionX = x;
+        positionY = y;
+        positionZ = z;
+    }
+
+    @Override
+    public void setPositionX(float x) {
+        ++writes;
+        positionX = x;
+    }
+
+    @Override
+    public void setPositionY(float y) {
+        ++writes;
+        positionY = y;
+    }
+
+    @Override
+    public void setPositionZ(float z) {
+        ++writes;
+        positionZ = z;
+    }
+
+    @Override
+    public float getScaleX() {
+        ++reads;
+        return scaleX;
+    }
+
+    @Override
+    public float getScaleY() {
+        ++reads;
+        return scaleY;
+    }
+
+    @Override
+    public float getScaleZ() {
+        ++reads;
+        return scaleZ;
+    }
+
+    @Override
+    public void setScale(float x, float y, float z) {
+        ++writes;
+        scaleX = x;
+        scaleY = y;
+        scaleZ = z;
+    }
+
+    @Override
+    public float getRotationW() {
+        ++reads;
+        return rotationW;
+    }
+
+    @Override
+    public float getRotationX() {
+        ++reads;
+        return rotationX;
+    }
+
+    @Override
+    public float getRotationY() {
+        ++reads;
+        return rotationY;
+    }
+
+    @Override
+    public float getRotationZ() {
+        ++reads;
+        return rotationZ;
+    }
+
+    @Override
+    public void setRotation(float w, float x, float y, float z) {
+        ++writes;
+        rotationW = w;
+        rotationX = x;
+        rotationY = y;
+        rotationZ = z;
+    }
+
+    @Override
+    public void setRotationByAxis(float angle, float x, float y, float z) {
+        ++writes;
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        if (length == 0) {
+            rotationW = 1;
+            rotationX = rotationY = rotationZ = 0;
+            return;
+        }
+        double half = Math.toRadians(angle) * 0.5;
+        float s = (float) Math.sin(half) / length;
+        rotationW = (float) Math.cos(half);
+        rotationX = x * s;
+        rotationY = y * s;
+        rotationZ = z * s;
+    }
+
+    /*
+     * The turn is applied in the parent's frame, before the current rotation,
+     * as GVRTransform does.
+     */
+    @Override
+    public void rotateByAxis(float angle, float x, float y, float z) {
+        ++writes;
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        if (length == 0) {
+            return;
+        }
+        double half = Math.toRadians(angle) * 0.5;
+        float s = (float) Math.sin(half) / length;
+        float qw = (float) Math.cos(half), qx = x * s, qy = y * s, qz = z * s;
+        float w = rotationW, rx = rotationX, ry = rotationY, rz = rotationZ;
+        rotationW = qw * w - qx * rx - qy * ry - qz * rz;
+        rotationX = qw * rx + qx * w + qy * rz - qz * ry;
+        rotationY = qw * ry - qx * rz + qy * w + qz * rx;
+        rotationZ = qw * rz + qx * ry - qy * rx + qz * w;
+    }
+
+    @Override
+    public float[] getModelMatrix() {
+        float[] matrix = new float[16];
+        getModelMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getModelMatrix(float[] out) {
+        ++reads;
+        compose(out);
+    }
+
+    /*
+     * The parent's matrix is part of the same read, as it is on a device.
+     */
+    private void compose(float[] out) {
+        float[] local = parent == null ? out : localMatrix;
+
+        float w = rotationW, x = rotationX, y = rotationY, z = rotationZ;
+        local[0] = (1 - 2 * (y * y + z * z)) * scaleX;
+        local[1] = 2 * (x * y + w * z) * scaleX;
+        local[2] = 2 * (x * z - w * y) * scaleX;
+        local[3] = 0;
+        local[4] = 2 * (x * y - w * z) * scaleY;
+        local[5] = (1 - 2 * (x * x + z * z)) * scaleY;
+        local[6] = 2 * (y * z + w * x) * scaleY;
+        local[7] = 0;
+        local[8] = 2 * (x * z + w * y) * scaleZ;
+        local[9] = 2 * (y * z - w * x) * scaleZ;
+        local[10] = (1 - 2 * (x * x + y * y)) * scaleZ;
+        local[11] = 0;
+        local[12] = positionX;
+        local[13] = positionY;
+        local[14] = positionZ;
+        local[15] = 1;
+
+        if (parent != null) {
+            parent.compose(parentMatrix);
+            multiply(out, parentMatrix, local);
+        }
+    }
+
+    @Override
+    public void setOpacity(float opacity) {
+        ++writes;
+        this.opacity = opacity;
+    }
+
+    private static void multiply(float[] out, float[] lhs, float[] rhs) {
+        for (int col = 0; col < 4; ++col) {
+            for (int row = 0; row < 4; ++row) {
+                out[col * 4 + row] = lhs[row] * rhs[col * 4]
+                        + lhs[4 + row] * rhs[col * 4 + 1]
+                        + lhs[8 + row] * rhs[col * 4 + 2]
+                        + lhs[12 + row] * rhs[col * 4 + 3];
+            }
+        }
+    }
+}
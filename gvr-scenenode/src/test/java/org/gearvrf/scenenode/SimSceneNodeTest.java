@@ -0,0 +1,112 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.scenenode;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SimSceneNodeTest {
+
+    private static final float TOLERANCE = 1e-6f;
+
+    @Test
+    public void identityByDefault() {
+        assertArrayEquals(new float[] {
+                1, 0, 0, 0,
+                0, 1, 0, 0,
+                0, 0, 1, 0,
+                0, 0, 0, 1
+        }, new SimSceneNode().getModelMatrix(), TOLERANCE);
+    }
+
+    @Test
+    public void composesTranslationRotationAndScale() {
+        SimSceneNode node = new SimSceneNode();
+        node.setPosition(1, 2, 3);
+        node.setRotationByAxis(90, 0, 1, 0);
+        node.setScale(2, 3, 4);
+
+        // columns are the scaled rotated axes, then the translation
+        assertArrayEquals(new float[] {
+                0, 0, -2, 0,
+                0, 3, 0, 0,
+                4, 0, 0, 0,
+                1, 2, 3, 1
+        }, node.getModelMatrix(), TOLERANCE);
+    }
+
+    @Test
+    public void zeroAxisLeavesNoRotation() {
+        SimSceneNode node = new SimSceneNode();
+        node.setRotationByAxis(45, 0, 0, 0);
+        assertEquals(1, node.getRotationW(), 0);
+        assertEquals(0, node.getRotationY(), 0);
+    }
+
+    @Test
+    public void rotateByAxisAddsToTheCurrentRotation() {
+        SimSceneNode stepped = new SimSceneNode();
+        stepped.setRotationByAxis(30, 1, 0, 0);
+        for (int i = 0; i < 90; ++i) {
+            stepped.rotateByAxis(-1, 0, 1, 0);
+        }
+        SimSceneNode expected = new SimSceneNode();
+        expected.setRotationByAxis(-90, 0, 1, 0);
+        SimSceneNode tilted = new SimSceneNode(expected);
+        tilted.setRotationByAxis(30, 1, 0, 0);
+
+        // the turn goes on the parent side, so it matches a turned parent
+        float[] matrix = stepped.getModelMatrix();
+        assertArrayEquals(tilted.getModelMatrix(), matrix, 1e-5f);
+        assertEquals(91, stepped.getWriteCount());
+    }
+
+    @Test
+    public void childIsPlacedThroughItsParent() {
+        SimSceneNode parent = new SimSceneNode();
+        parent.setPosition(0, 2, 0);
+        parent.setRotationByAxis(90, 0, 1, 0);
+        SimSceneNode child = new SimSceneNode(parent);
+        child.setPosition(1, 0, 0);
+
+        float[] world = new float[16];
+        child.getModelMatrix(world);
+        assertEquals(0, world[12], TOLERANCE);
+        assertEquals(2, world[13], TOLERANCE);
+        assertEquals(-1, world[14], TOLERANCE);
+        assertArrayEquals(world, child.getModelMatrix(), 0);
+    }
+
+    @Test
+    public void countsReadsAndWrites() {
+        SimSceneNode node = new SimSceneNode();
+        node.setPosition(1, 2, 3);
+        node.setPositionX(4);
+        node.setOpacity(.5f);
+        node.getPositionX();
+        node.getScaleY();
+        node.getModelMatrix();
+        assertEquals(3, node.getWriteCount());
+        assertEquals(3, node.getReadCount());
+        assertEquals(.5f, node.getOpacity(), 0);
+
+        node.resetCounters();
+        assertEquals(0, node.getReadCount());
+        assertEquals(0, node.getWriteCount());
+    }
+}
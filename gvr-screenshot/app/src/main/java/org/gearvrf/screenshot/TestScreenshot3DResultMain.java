@@ -23,6 +23,7 @@ import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRMain;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.util.Log;
 
@@ -0,0 +1,111 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shaderlib;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers each distinct expanded shader variant once. Variants are keyed by
+ * a 64-bit FNV-1a hash of their canonical vertex and fragment source; a hash
+ * hit is confirmed against the stored source, so a collision costs an extra
+ * registration but never hands out the wrong program.
+ *
+ * The compiler is only called on a miss, which makes the hit and miss counts
+ * a direct measure of how many programs were actually built. Plain Java, so
+ * it can be driven with a fake compiler on a desktop JVM.
+ */
+public class ShaderCache<T> {
+
+    public interface Compiler<T> {
+        /**
+         * Builds the program for a variant seen for the first time. This is
+         * also the place to register its uniform and texture keys.
+         */
+        T compile(String vertexSource, String fragmentSource);
+    }
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final class Entry<T> {
+        final String vertexSource;
+        final String fragmentSource;
+        final T program;
+        final Entry<T> next;
+
+        Entry(String vertexSource, String fragmentSource, T program, Entry<T> next) {
+            this.vertexSource = vertexSource;
+            this.fragmentSource = fragmentSource;
+            this.program = program;
+            this.next = next;
+        }
+    }
+
+    private final Map<Long, Entry<T>> entries = new HashMap<Long, Entry<T>>();
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * @return the program already registered for this variant, or the one
+     *         {@code compiler} builds for it.
+     */
+    public synchronized T get(String vertexSource, String fragmentSource, Compiler<T> compiler) {
+        Long key = hash(vertexSource, fragmentSource);
+        Entry<T> first = entries.get(key);
+        for (Entry<T> entry = first; entry != null; entry = entry.next) {
+            if (entry.vertexSource.equals(vertexSource)
+                    && entry.fragmentSource.equals(fragmentSource)) {
+                ++hitCount;
+                return entry.program;
+            }
+        }
+
+        ++missCount;
+        T program = compiler.compile(vertexSource, fragmentSource);
+        entries.put(key, new Entry<T>(vertexSource, fragmentSource, program, first));
+        return program;
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the FNV-1a hash of both sources, with a separator between them
+     *         so moving text from one stage to the other changes the hash.
+     */
+    public static long hash(String vertexSource, String fragmentSource) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, vertexSource);
+        hash = (hash ^ 0xff) * FNV_PRIME;
+        return hash(hash, fragmentSource);
+    }
+
+    private static long hash(long hash, String source) {
+        for (int i = 0; i < source.length(); ++i) {
+            char c = source.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,90 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shaderlib;
+
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRCustomMaterialShaderId;
+import org.gearvrf.GVRMaterialMap;
+import org.gearvrf.GVRMaterialShaderManager;
+
+/**
+ * Per-context front end of {@link ShaderPreprocessor} and {@link ShaderCache}:
+ * shaders built through it are expanded from {@link ShaderSnippets} and
+ * registered with the material shader manager once per variant, however many
+ * screens or materials ask for them.
+ */
+public class ShaderLibrary {
+
+    /**
+     * Registers the uniform and texture keys of a newly added program.
+     */
+    public interface KeyBinder {
+        void bindKeys(GVRMaterialMap shaderMap);
+    }
+
+    private static ShaderLibrary instance;
+
+    private final GVRContext gvrContext;
+    private final ShaderPreprocessor preprocessor = new ShaderPreprocessor(
+            ShaderSnippets.SNIPPETS);
+    private final ShaderCache<GVRCustomMaterialShaderId> cache = new ShaderCache<GVRCustomMaterialShaderId>();
+
+    private ShaderLibrary(GVRContext gvrContext) {
+        this.gvrContext = gvrContext;
+    }
+
+    public static synchronized ShaderLibrary getInstance(GVRContext gvrContext) {
+        if (instance == null || instance.gvrContext != gvrContext)
+            instance = new ShaderLibrary(gvrContext);
+        return instance;
+    }
+
+    public GVRCustomMaterialShaderId getShader(ShaderSnippets.Variant variant,
+            KeyBinder binder) {
+        return addShader(preprocessor.expandSnippet(variant.vertex, variant.defines),
+                preprocessor.expandSnippet(variant.fragment, variant.defines), binder);
+    }
+
+    /**
+     * Registers a hand-written program, sharing the id with any earlier
+     * program whose source only differs in formatting.
+     */
+    public GVRCustomMaterialShaderId addShader(String vertexShader, String fragmentShader,
+            final KeyBinder binder) {
+        return cache.get(preprocessor.expand(vertexShader), preprocessor.expand(fragmentShader),
+                new ShaderCache.Compiler<GVRCustomMaterialShaderId>() {
+                    @Override
+                    public GVRCustomMaterialShaderId compile(String vertexSource,
+                            String fragmentSource) {
+                        final GVRMaterialShaderManager shaderManager = gvrContext
+                                .getMaterialShaderManager();
+                        GVRCustomMaterialShaderId shaderId = shaderManager.addShader(
+                                vertexSource, fragmentSource);
+                        binder.bindKeys(shaderManager.getShaderMap(shaderId));
+                        return shaderId;
+                    }
+                });
+    }
+
+    public int getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public int getMissCount() {
+        return cache.getMissCount();
+    }
+}
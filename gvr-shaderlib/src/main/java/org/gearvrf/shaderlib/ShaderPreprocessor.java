@@ -0,0 +1,181 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shaderlib;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expands GLSL snippets into a single canonical source.
+ *
+ * Supports {@code #include "name"} against a snippet table, feature flags
+ * passed in as {@code NAME} or {@code NAME VALUE} (emitted as
+ * {@code #define} lines right after any {@code #version} line), and
+ * {@code #ifdef}/{@code #ifndef}/{@code #else}/{@code #endif} on those flags
+ * and on {@code #define}s met along the way. Every other directive is passed
+ * through to the GLSL compiler.
+ *
+ * The output is canonical: lines are trimmed, runs of blanks are collapsed
+ * and empty lines and {@code //} comments are dropped, so two variants that
+ * only differ in formatting expand to the same string. Plain Java, so it can
+ * be run on a desktop JVM.
+ */
+public class ShaderPreprocessor {
+
+    private static final int MAX_INCLUDE_DEPTH = 16;
+
+    private final Map<String, String> snippets;
+
+    public ShaderPreprocessor(Map<String, String> snippets) {
+        this.snippets = snippets;
+    }
+
+    /**
+     * @param source
+     *            GLSL source, possibly with includes and conditionals.
+     * @param defines
+     *            feature flags, each {@code NAME} or {@code NAME VALUE}.
+     * @return the expanded, canonical source, ending with a newline.
+     */
+    public String expand(String source, String... defines) {
+        Set<String> defined = new HashSet<String>();
+        List<String> lines = new ArrayList<String>();
+        List<String> defineLines = new ArrayList<String>();
+        for (String define : defines) {
+            String canonical = canonicalize(define);
+            defined.add(nameOf(canonical));
+            defineLines.add("#define " + canonical);
+        }
+
+        expandInto(source, defined, lines, 0, "<source>");
+
+        int insertAt = !lines.isEmpty() && lines.get(0).startsWith("#version") ? 1 : 0;
+        lines.addAll(insertAt, defineLines);
+
+        StringBuilder out = new StringBuilder();
+        for (String line : lines) {
+            out.append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Expands the snippet called {@code name}.
+     */
+    public String expandSnippet(String name, String... defines) {
+        return expand("#include \"" + name + "\"", defines);
+    }
+
+    private void expandInto(String source, Set<String> defined, List<String> out, int depth,
+            String where) {
+        if (depth > MAX_INCLUDE_DEPTH) {
+            throw new IllegalArgumentException("includes nested too deeply at " + where);
+        }
+
+        /*
+         * One entry per open conditional: whether its current branch is
+         * emitted, and whether the enclosing block is.
+         */
+        List<boolean[]> conditions = new ArrayList<boolean[]>();
+        boolean active = true;
+
+        String[] rawLines = source.split("\n");
+        for (int i = 0; i < rawLines.length; ++i) {
+            String line = canonicalize(stripComment(rawLines[i]));
+            if (line.length() == 0) {
+                continue;
+            }
+
+            if (line.startsWith("#ifdef ") || line.startsWith("#ifndef ")) {
+                boolean wanted = line.startsWith("#ifdef ");
+                String name = line.substring(line.indexOf(' ') + 1);
+                boolean taken = defined.contains(name) == wanted;
+                conditions.add(new boolean[] {
+                        taken, active
+                });
+                active = active && taken;
+            } else if (line.equals("#else")) {
+                if (conditions.isEmpty()) {
+                    throw new IllegalArgumentException("#else without #if in " + where);
+                }
+                boolean[] condition = conditions.get(conditions.size() - 1);
+                condition[0] = !condition[0];
+                active = condition[1] && condition[0];
+            } else if (line.equals("#endif")) {
+                if (conditions.isEmpty()) {
+                    throw new IllegalArgumentException("#endif without #if in " + where);
+                }
+                active = conditions.remove(conditions.size() - 1)[1];
+            } else if (!active) {
+                continue;
+            } else if (line.startsWith("#include ")) {
+                String name = line.substring("#include ".length()).replace("\"", "");
+                String snippet = snippets.get(name);
+                if (snippet == null) {
+                    throw new IllegalArgumentException("unknown snippet \"" + name + "\" in "
+                            + where);
+                }
+                expandInto(snippet, defined, out, depth + 1, name);
+            } else {
+                if (line.startsWith("#define ")) {
+                    defined.add(nameOf(line.substring("#define ".length())));
+                } else if (line.startsWith("#undef ")) {
+                    defined.remove(line.substring("#undef ".length()));
+                }
+                out.add(line);
+            }
+        }
+
+        if (!conditions.isEmpty()) {
+            throw new IllegalArgumentException("unterminated #if in " + where);
+        }
+    }
+
+    private static String stripComment(String line) {
+        int comment = line.indexOf("//");
+        return comment < 0 ? line : line.substring(0, comment);
+    }
+
+    private static String nameOf(String define) {
+        int space = define.indexOf(' ');
+        return space < 0 ? define : define.substring(0, space);
+    }
+
+    /**
+     * Trims {@code line} and collapses every run of blanks to one space.
+     */
+    static String canonicalize(String line) {
+        StringBuilder out = new StringBuilder(line.length());
+        boolean blank = false;
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\r') {
+                blank = out.length() > 0;
+            } else {
+                if (blank) {
+                    out.append(' ');
+                    blank = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,181 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shaderlib;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GLSL snippets shared by the lit materials, and the variants built from them.
+ *
+ * Flags understood by {@link #LIT_VERTEX} and {@link #LIT_FRAGMENT}:
+ * <ul>
+ * <li>{@code ENV_REFLECTION} samples the environment sphere of radius
+ * {@code u_radius} along the reflected view ray instead of the mesh UVs.
+ * <li>{@code ENV_BLEND} lights a plain diffuse term and blends the texture
+ * sample in at 10%, instead of lighting the texture sample itself.
+ * <li>{@code SOFT_SPECULAR} adds the highlight only to the headroom left
+ * below white.
+ * <li>{@code AMBIENT} and {@code OUTPUT_ALPHA} take a value.
+ * </ul>
+ */
+public final class ShaderSnippets {
+
+    public static final String LIT_VERTEX = "lit_vertex";
+    public static final String LIT_FRAGMENT = "lit_fragment";
+
+    private static final String ENVIRONMENT_LOOKUP = "" //
+            + "vec3 environmentColor(vec3 v, vec3 n, vec3 p) {\n"
+            + "  vec3  r = normalize(reflect(v,n));\n"
+            + "  float b =-dot(r,p);\n"
+            + "  float c = dot(p,p)-u_radius*u_radius;\n"
+            + "  float t = sqrt(b*b-c);\n"
+            + "  if( -b + t > 0.0 ) t = -b + t;\n"
+            + "  else               t = -b - t;\n"
+            + "  vec3  target = normalize(p+t*r);\n" //
+            + "  float u;\n"
+            + "  if( target.x > 0.0 ) u =  target.z + 3.0;\n"
+            + "  else                 u = -target.z + 1.0;\n"
+            + "  vec2 uv = vec2( u/4.0, 0.5*target.y + 0.5 );\n"
+            + "  return texture2D(texture, uv).rgb;\n"
+            + "}\n";
+
+    private static final String BLINN_PHONG = "" //
+            + "vec3 shade(vec3 color, vec3 v, vec3 l, vec3 n) {\n"
+            + "  vec3  h = normalize(v+l);\n"
+            + "  float diffuse  = max ( dot(l,n), AMBIENT );\n"
+            + "  float specular = max ( dot(h,n), 0.0 );\n"
+            + "  specular = pow (specular, 300.0);\n" //
+            + "#ifdef ENV_BLEND\n"
+            + "  vec3 lit = vec3(diffuse);\n"
+            + "#else\n"
+            + "  vec3 lit = color * diffuse;\n"
+            + "#endif\n"
+            + "  lit *= u_color.rgb;\n"
+            + "#ifdef SOFT_SPECULAR\n"
+            + "  lit += 0.5*(1.0- lit)*specular;\n"
+            + "#else\n"
+            + "  lit += specular;\n"
+            + "#endif\n"
+            + "#ifdef ENV_BLEND\n"
+            + "  lit = 0.1*color + 0.9*lit;\n"
+            + "#endif\n"
+            + "  return lit;\n"
+            + "}\n";
+
+    private static final String VERTEX = "" //
+            + "attribute vec4 a_position;\n"
+            + "attribute vec3 a_normal;\n" //
+            + "attribute vec2 a_tex_coord;\n"
+            + "uniform mat4 u_mvp;\n" //
+            + "uniform vec3 u_eye;\n"
+            + "uniform vec3 u_light;\n" //
+            + "varying vec3 normal;\n"
+            + "varying vec3 view;\n" //
+            + "varying vec3 light;\n"
+            + "#ifdef ENV_REFLECTION\n"
+            + "varying vec3 p;\n" //
+            + "#endif\n"
+            + "varying vec2 coord;\n"
+            + "void main() {\n"
+            + "  normal = a_normal;\n" //
+            + "  view  = u_eye - a_position.xyz;\n"
+            + "  light = u_light - a_position.xyz;\n"
+            + "#ifdef ENV_REFLECTION\n"
+            + "  p = a_position.xyz;\n" //
+            + "#endif\n"
+            + "  coord = a_tex_coord;\n"
+            + "  gl_Position = u_mvp * a_position;\n" //
+            + "}\n";
+
+    private static final String FRAGMENT = "" //
+            + "precision mediump float;\n"
+            + "#ifndef AMBIENT\n"
+            + "#define AMBIENT 0.1\n"
+            + "#endif\n"
+            + "#ifndef OUTPUT_ALPHA\n"
+            + "#define OUTPUT_ALPHA 1.0\n"
+            + "#endif\n"
+            + "varying vec3  normal;\n" //
+            + "varying vec2  coord;\n"
+            + "uniform vec4  u_color;\n" //
+            + "varying vec3  view;\n" //
+            + "varying vec3  light;\n"
+            + "uniform sampler2D texture;\n"
+            + "#ifdef ENV_REFLECTION\n"
+            + "uniform float u_radius;\n"
+            + "varying vec3  p;\n"
+            + "#include \"environment_lookup\"\n"
+            + "#endif\n"
+            + "#include \"blinn_phong\"\n"
+            + "void main() {\n" //
+            + "  vec3  v = normalize(view);\n"
+            + "  vec3  l = normalize(light);\n"
+            + "  vec3  n = normalize(normal);\n"
+            + "#ifdef ENV_REFLECTION\n"
+            + "  vec3 color = environmentColor(v, n, p);\n"
+            + "#else\n"
+            + "  vec3 color = texture2D(texture, coord).rgb;\n"
+            + "#endif\n"
+            + "  gl_FragColor = vec4( shade(color, v, l, n), OUTPUT_ALPHA );\n" //
+            + "}\n";
+
+    public static final Map<String, String> SNIPPETS;
+    static {
+        Map<String, String> snippets = new HashMap<String, String>();
+        snippets.put(LIT_VERTEX, VERTEX);
+        snippets.put(LIT_FRAGMENT, FRAGMENT);
+        snippets.put("environment_lookup", ENVIRONMENT_LOOKUP);
+        snippets.put("blinn_phong", BLINN_PHONG);
+        SNIPPETS = Collections.unmodifiableMap(snippets);
+    }
+
+    /**
+     * One expandable program: a vertex and a fragment snippet plus the flags
+     * both are expanded with.
+     */
+    public static final class Variant {
+        public final String name;
+        public final String vertex;
+        public final String fragment;
+        public final String[] defines;
+
+        Variant(String name, String vertex, String fragment, String... defines) {
+            this.name = name;
+            this.vertex = vertex;
+            this.fragment = fragment;
+            this.defines = defines;
+        }
+    }
+
+    public static final Variant PHONG = new Variant("phong", LIT_VERTEX, LIT_FRAGMENT,
+            "ENV_REFLECTION", "ENV_BLEND", "AMBIENT 0.12");
+    public static final Variant METAL = new Variant("metal", LIT_VERTEX, LIT_FRAGMENT,
+            "ENV_REFLECTION", "AMBIENT 0.12");
+    public static final Variant GLASS = new Variant("glass", LIT_VERTEX, LIT_FRAGMENT,
+            "ENV_REFLECTION", "SOFT_SPECULAR", "OUTPUT_ALPHA 0.4");
+    public static final Variant DIFFUSE = new Variant("diffuse", LIT_VERTEX, LIT_FRAGMENT,
+            "SOFT_SPECULAR");
+
+    public static final Variant[] VARIANTS = new Variant[] {
+            PHONG, METAL, GLASS, DIFFUSE
+    };
+
+    private ShaderSnippets() {
+    }
+}
@@ -0,0 +1,152 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.shaderlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Drives {@link ShaderCache} with a fake compiler and checks its hit and
+ * miss counts: one program per distinct variant, however many times and in
+ * whatever formatting it is asked for. Also runs {@link ShaderExpander}.
+ */
+public class ShaderCacheTest {
+
+    private static class FakeCompiler implements ShaderCache.Compiler<String> {
+        final List<String> compiled = new ArrayList<String>();
+
+        @Override
+        public String compile(String vertexSource, String fragmentSource) {
+            String program = "program " + compiled.size();
+            compiled.add(vertexSource + fragmentSource);
+            return program;
+        }
+    }
+
+    @Test
+    public void compilesEachVariantOnce() {
+        ShaderCache<String> cache = new ShaderCache<String>();
+        FakeCompiler compiler = new FakeCompiler();
+
+        String a = cache.get("v", "f1", compiler);
+        String b = cache.get("v", "f2", compiler);
+        assertSame(a, cache.get("v", "f1", compiler));
+        assertSame(b, cache.get("v", "f2", compiler));
+
+        assertEquals("program 0", a);
+        assertEquals("program 1", b);
+        assertEquals(2, compiler.compiled.size());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void hashSeparatesStages() {
+        assertFalse(ShaderCache.hash("ab", "c") == ShaderCache.hash("a", "bc"));
+        assertFalse(ShaderCache.hash("v", "f") == ShaderCache.hash("f", "v"));
+        assertEquals(ShaderCache.hash("v", "f"), ShaderCache.hash("v", "f"));
+        // both bytes of a char count
+        assertFalse(ShaderCache.hash("\u0101", "") == ShaderCache.hash("\u0201", ""));
+    }
+
+    @Test
+    public void viewerStartupRegistersEachProgramOnce() {
+        // the viewers build every material shader once per screen; the
+        // hand-written programs come back with different formatting
+        ShaderPreprocessor preprocessor = new ShaderPreprocessor(ShaderSnippets.SNIPPETS);
+        ShaderCache<String> cache = new ShaderCache<String>();
+        FakeCompiler compiler = new FakeCompiler();
+        String handWrittenVertex = "attribute vec4 a_position;\nvoid main() {\n"
+                + "  gl_Position = a_position;\n}\n";
+        String handWrittenFragment = "precision mediump float;\nvoid main() {\n"
+                + "  gl_FragColor = vec4(1.0);\n}\n";
+
+        int screens = 3;
+        for (int screen = 0; screen < screens; ++screen) {
+            for (ShaderSnippets.Variant variant : ShaderSnippets.VARIANTS) {
+                cache.get(preprocessor.expandSnippet(variant.vertex, variant.defines),
+                        preprocessor.expandSnippet(variant.fragment, variant.defines), compiler);
+            }
+            String vertex = screen == 0 ? handWrittenVertex
+                    : handWrittenVertex.replace("  ", "\t").replace("\n", " // screen\n");
+            cache.get(preprocessor.expand(vertex), preprocessor.expand(handWrittenFragment),
+                    compiler);
+        }
+
+        int programs = ShaderSnippets.VARIANTS.length + 1;
+        assertEquals(programs, compiler.compiled.size());
+        assertEquals(programs, cache.getMissCount());
+        assertEquals((screens - 1) * programs, cache.getHitCount());
+    }
+
+    @Test
+    public void expanderWritesEveryVariant() throws IOException {
+        File dir = File.createTempFile("shader-expander", "");
+        assertTrue(dir.delete());
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        try {
+            ShaderExpander.expand(dir, new PrintStream(log, true, "UTF-8"));
+
+            ShaderPreprocessor preprocessor = new ShaderPreprocessor(ShaderSnippets.SNIPPETS);
+            String[] lines = log.toString("UTF-8").split("\n");
+            assertEquals(ShaderSnippets.VARIANTS.length, lines.length);
+            for (int i = 0; i < lines.length; ++i) {
+                ShaderSnippets.Variant variant = ShaderSnippets.VARIANTS[i];
+                String vertex = preprocessor.expandSnippet(variant.vertex, variant.defines);
+                String fragment = preprocessor.expandSnippet(variant.fragment, variant.defines);
+                assertEquals(vertex, read(new File(dir, variant.name + ".vert")));
+                assertEquals(fragment, read(new File(dir, variant.name + ".frag")));
+                assertEquals(String.format("%-10s %016x", variant.name,
+                        ShaderCache.hash(vertex, fragment)), lines[i].trim());
+            }
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0;) {
+                out.write(buffer, 0, n);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
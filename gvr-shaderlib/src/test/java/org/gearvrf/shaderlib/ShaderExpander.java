@@ -0,0 +1,73 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shaderlib;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+
+/**
+ * Build-time tool that writes the final source of every variant in
+ * {@link ShaderSnippets#VARIANTS} to {@code <name>.vert} and
+ * {@code <name>.frag}, along with its cache hash, so the expanded GLSL can be
+ * reviewed or fed to an offline compiler. It lives with the tests so it is
+ * never packaged into an app.
+ *
+ * Usage: {@code java org.gearvrf.shaderlib.ShaderExpander <output dir>}
+ */
+public class ShaderExpander {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: ShaderExpander <output dir>");
+            System.exit(1);
+        }
+        expand(new File(args[0]), System.out);
+    }
+
+    /**
+     * Writes every variant to {@code outputDir} and prints one
+     * {@code <name> <hash>} line per variant to {@code log}.
+     */
+    public static void expand(File outputDir, PrintStream log) throws IOException {
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("cannot create " + outputDir);
+        }
+
+        ShaderPreprocessor preprocessor = new ShaderPreprocessor(ShaderSnippets.SNIPPETS);
+        for (ShaderSnippets.Variant variant : ShaderSnippets.VARIANTS) {
+            String vertex = preprocessor.expandSnippet(variant.vertex, variant.defines);
+            String fragment = preprocessor.expandSnippet(variant.fragment, variant.defines);
+            write(new File(outputDir, variant.name + ".vert"), vertex);
+            write(new File(outputDir, variant.name + ".frag"), fragment);
+            log.println(String.format("%-10s %016x", variant.name,
+                    ShaderCache.hash(vertex, fragment)));
+        }
+    }
+
+    private static void write(File file, String text) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+}
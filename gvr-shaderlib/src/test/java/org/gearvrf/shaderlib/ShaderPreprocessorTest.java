@@ -0,0 +1,192 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.shaderlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link ShaderPreprocessor} output against expected canonical
+ * source: formatting, includes, feature flags and conditionals, the errors
+ * it reports, and the shipped {@link ShaderSnippets} variants.
+ */
+public class ShaderPreprocessorTest {
+
+    private static ShaderPreprocessor preprocessor(String... snippets) {
+        Map<String, String> table = new HashMap<String, String>();
+        for (int i = 0; i < snippets.length; i += 2) {
+            table.put(snippets[i], snippets[i + 1]);
+        }
+        return new ShaderPreprocessor(table);
+    }
+
+    @Test
+    public void canonicalizesFormatting() {
+        String source = "  vec3  a =\tb ;  // trailing\r\n\n// whole line\n\t\tc( d,  e );\n";
+        assertEquals("vec3 a = b ;\nc( d, e );\n", preprocessor().expand(source));
+        assertEquals(preprocessor().expand("vec3 a = b ;\nc( d, e );"),
+                preprocessor().expand(source));
+    }
+
+    @Test
+    public void resolvesNestedIncludes() {
+        ShaderPreprocessor preprocessor = preprocessor(
+                "outer", "float outer;\n#include \"inner\"\n",
+                "inner", "float inner;\n");
+
+        assertEquals("void main() {\nfloat outer;\nfloat inner;\n}\n",
+                preprocessor.expand("void main() {\n#include \"outer\"\n}"));
+        assertEquals("float inner;\n", preprocessor.expandSnippet("inner"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownInclude() {
+        preprocessor().expand("#include \"missing\"");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIncludeCycle() {
+        preprocessor("a", "#include \"b\"", "b", "#include \"a\"").expandSnippet("a");
+    }
+
+    @Test
+    public void insertsDefinesAfterVersion() {
+        assertEquals("#version 300 es\n#define A\n#define B 0.5\nfloat x;\n",
+                preprocessor().expand("#version 300 es\nfloat x;", "A", "  B \t 0.5"));
+        assertEquals("#define A\nfloat x;\n", preprocessor().expand("float x;", "A"));
+    }
+
+    @Test
+    public void selectsConditionalBranches() {
+        String source = "" //
+                + "#ifdef A\n" //
+                + "a;\n" //
+                + "#ifndef B\n" //
+                + "a_not_b;\n" //
+                + "#else\n" //
+                + "a_b;\n" //
+                + "#endif\n" //
+                + "#else\n" //
+                + "not_a;\n" //
+                + "#ifdef B\n" //
+                + "not_a_b;\n" //
+                + "#endif\n" //
+                + "#endif\n";
+
+        assertEquals("not_a;\n", preprocessor().expand(source));
+        assertEquals("#define A\na;\na_not_b;\n", preprocessor().expand(source, "A"));
+        assertEquals("#define A\n#define B\na;\na_b;\n", preprocessor().expand(source, "A", "B"));
+        // with only B, the #else branch takes its own nested #ifdef B
+        assertEquals("#define B\nnot_a;\nnot_a_b;\n", preprocessor().expand(source, "B"));
+    }
+
+    @Test
+    public void tracksDefinesInSource() {
+        String source = "" //
+                + "#ifndef AMBIENT\n" //
+                + "#define AMBIENT 0.1\n" //
+                + "#endif\n" //
+                + "#ifdef AMBIENT\n" //
+                + "ambient;\n" //
+                + "#endif\n" //
+                + "#undef AMBIENT\n" //
+                + "#ifdef AMBIENT\n" //
+                + "still;\n" //
+                + "#endif\n";
+
+        assertEquals("#define AMBIENT 0.1\nambient;\n#undef AMBIENT\n",
+                preprocessor().expand(source));
+        assertEquals("#define AMBIENT 0.2\nambient;\n#undef AMBIENT\n",
+                preprocessor().expand(source, "AMBIENT 0.2"));
+    }
+
+    @Test
+    public void includesOnlyFromTakenBranches() {
+        // the missing snippet is never looked up
+        assertEquals("x;\n",
+                preprocessor().expand("#ifdef A\n#include \"missing\"\n#endif\nx;"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsStrayElse() {
+        preprocessor().expand("#else\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsStrayEndif() {
+        preprocessor().expand("#endif\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnterminatedConditional() {
+        preprocessor().expand("#ifdef A\nx;\n");
+    }
+
+    @Test
+    public void expandsShippedVariants() {
+        ShaderPreprocessor preprocessor = new ShaderPreprocessor(ShaderSnippets.SNIPPETS);
+        Set<String> programs = new HashSet<String>();
+        for (ShaderSnippets.Variant variant : ShaderSnippets.VARIANTS) {
+            String vertex = preprocessor.expandSnippet(variant.vertex, variant.defines);
+            String fragment = preprocessor.expandSnippet(variant.fragment, variant.defines);
+
+            for (String source : new String[] { vertex, fragment }) {
+                assertFalse(variant.name, source.contains("#include"));
+                assertFalse(variant.name, source.contains("#ifdef"));
+                assertFalse(variant.name, source.contains("#ifndef"));
+                assertFalse(variant.name, source.contains("//"));
+                assertTrue(variant.name, source.contains("void main() {\n"));
+            }
+            for (String define : variant.defines) {
+                assertTrue(variant.name, fragment.contains("#define " + define + "\n"));
+            }
+            boolean reflection = contains(variant.defines, "ENV_REFLECTION");
+            assertEquals(variant.name, reflection, vertex.contains("varying vec3 p;\n"));
+            assertEquals(variant.name, reflection, fragment.contains("vec3 environmentColor("));
+            assertEquals(variant.name, contains(variant.defines, "SOFT_SPECULAR"),
+                    fragment.contains("lit += 0.5*(1.0- lit)*specular;\n"));
+            assertEquals(variant.name, contains(variant.defines, "ENV_BLEND"),
+                    fragment.contains("lit = 0.1*color + 0.9*lit;\n"));
+            assertTrue(programs.add(vertex + fragment));
+        }
+
+        // the defaults only apply where a variant leaves the flag out
+        String diffuse = preprocessor.expandSnippet(ShaderSnippets.DIFFUSE.fragment,
+                ShaderSnippets.DIFFUSE.defines);
+        assertTrue(diffuse.contains("#define AMBIENT 0.1\n"));
+        assertTrue(diffuse.contains("#define OUTPUT_ALPHA 1.0\n"));
+        String glass = preprocessor.expandSnippet(ShaderSnippets.GLASS.fragment,
+                ShaderSnippets.GLASS.defines);
+        assertFalse(glass.contains("#define OUTPUT_ALPHA 1.0\n"));
+    }
+
+    private static boolean contains(String[] defines, String name) {
+        for (String define : defines) {
+            if (define.equals(name) || define.startsWith(name + " ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shadowstate;
+
+import org.gearvrf.GVREyePointeeHolder;
+import org.gearvrf.GVRMaterial;
+import org.gearvrf.GVRRenderData;
+
+/**
+ * {@link ShadowState.Writer} forwarding to {@link GVRMaterial},
+ * {@link GVRRenderData} and {@link GVREyePointeeHolder}.
+ */
+public class GVRStateWriter implements ShadowState.Writer {
+
+    @Override
+    public void writeFloat(Object target, String key, float value) {
+        ((GVRMaterial) target).setFloat(key, value);
+    }
+
+    @Override
+    public void writeVec4(Object target, String key, float x, float y,
+            float z, float w) {
+        ((GVRMaterial) target).setVec4(key, x, y, z, w);
+    }
+
+    @Override
+    public void writeOpacity(Object target, float opacity) {
+        ((GVRMaterial) target).setOpacity(opacity);
+    }
+
+    @Override
+    public void writeRenderMask(Object target, int mask) {
+        ((GVRRenderData) target).setRenderMask(mask);
+    }
+
+    @Override
+    public void writeEnabled(Object target, boolean enabled) {
+        ((GVREyePointeeHolder) target).setEnable(enabled);
+    }
+}
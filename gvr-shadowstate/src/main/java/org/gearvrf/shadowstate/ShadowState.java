@@ -0,0 +1,234 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.shadowstate;
+
+/**
+ * Shadow copy of material uniforms, render masks and eye pointee enables that
+ * drops writes of the value a target already holds. Each (target, key) pair is registered once
+ * and gets a slot; values are kept per slot in primitive arrays, so a set is
+ * a compare and, only when the value changed, one call to the {@link Writer}.
+ *
+ * The shadow only knows about writes made through it: after changing a
+ * registered target some other way, {@link #invalidate(int)} the slot.
+ */
+public class ShadowState {
+
+    /**
+     * Performs the real, usually native, writes.
+     */
+    public interface Writer {
+        void writeFloat(Object target, String key, float value);
+
+        void writeVec4(Object target, String key, float x, float y, float z,
+                float w);
+
+        void writeOpacity(Object target, float opacity);
+
+        void writeRenderMask(Object target, int mask);
+
+        void writeEnabled(Object target, boolean enabled);
+    }
+
+    private static final int FLOAT = 0;
+    private static final int VEC4 = 1;
+    private static final int OPACITY = 2;
+    private static final int RENDER_MASK = 3;
+    private static final int ENABLED = 4;
+
+    private final Writer mWriter;
+
+    private int mSlotCount = 0;
+    private int[] mKinds = new int[16];
+    private int[] mOffsets = new int[16];
+    private boolean[] mValid = new boolean[16];
+    private Object[] mTargets = new Object[16];
+    private String[] mKeys = new String[16];
+
+    private int mValueCount = 0;
+    private float[] mFloats = new float[64];
+    private int[] mMasks = new int[16];
+
+    private long mForwarded;
+    private long mElided;
+
+    public ShadowState(Writer writer) {
+        mWriter = writer;
+    }
+
+    public int registerFloat(Object material, String key) {
+        return register(FLOAT, material, key, 1);
+    }
+
+    public int registerVec4(Object material, String key) {
+        return register(VEC4, material, key, 4);
+    }
+
+    public int registerOpacity(Object material) {
+        return register(OPACITY, material, null, 1);
+    }
+
+    public int registerRenderMask(Object renderData) {
+        return register(RENDER_MASK, renderData, null, 0);
+    }
+
+    public int registerEnabled(Object eyePointeeHolder) {
+        return register(ENABLED, eyePointeeHolder, null, 0);
+    }
+
+    public void setFloat(int slot, float value) {
+        checkKind(slot, FLOAT);
+        if (storeFloat(slot, value)) {
+            mWriter.writeFloat(mTargets[slot], mKeys[slot], value);
+        }
+    }
+
+    public void setVec4(int slot, float x, float y, float z, float w) {
+        checkKind(slot, VEC4);
+        int offset = mOffsets[slot];
+        float[] floats = mFloats;
+        if (mValid[slot] && floats[offset] == x && floats[offset + 1] == y
+                && floats[offset + 2] == z && floats[offset + 3] == w) {
+            ++mElided;
+            return;
+        }
+        floats[offset] = x;
+        floats[offset + 1] = y;
+        floats[offset + 2] = z;
+        floats[offset + 3] = w;
+        mValid[slot] = true;
+        ++mForwarded;
+        mWriter.writeVec4(mTargets[slot], mKeys[slot], x, y, z, w);
+    }
+
+    public void setOpacity(int slot, float opacity) {
+        checkKind(slot, OPACITY);
+        if (storeFloat(slot, opacity)) {
+            mWriter.writeOpacity(mTargets[slot], opacity);
+        }
+    }
+
+    public void setRenderMask(int slot, int mask) {
+        checkKind(slot, RENDER_MASK);
+        if (mValid[slot] && mMasks[mOffsets[slot]] == mask) {
+            ++mElided;
+            return;
+        }
+        mMasks[mOffsets[slot]] = mask;
+        mValid[slot] = true;
+        ++mForwarded;
+        mWriter.writeRenderMask(mTargets[slot], mask);
+    }
+
+    public void setEnabled(int slot, boolean enabled) {
+        checkKind(slot, ENABLED);
+        int value = enabled ? 1 : 0;
+        if (mValid[slot] && mMasks[mOffsets[slot]] == value) {
+            ++mElided;
+            return;
+        }
+        mMasks[mOffsets[slot]] = value;
+        mValid[slot] = true;
+        ++mForwarded;
+        mWriter.writeEnabled(mTargets[slot], enabled);
+    }
+
+    /**
+     * Makes the next set of {@code slot} write through, whatever its value.
+     */
+    public void invalidate(int slot) {
+        mValid[slot] = false;
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < mSlotCount; ++i) {
+            mValid[i] = false;
+        }
+    }
+
+    public long getForwardedCount() {
+        return mForwarded;
+    }
+
+    public long getElidedCount() {
+        return mElided;
+    }
+
+    public void resetCounters() {
+        mForwarded = 0;
+        mElided = 0;
+    }
+
+    private int register(int kind, Object target, String key, int floats) {
+        if (mSlotCount == mKinds.length) {
+            int capacity = mSlotCount * 2;
+            mKinds = copyOf(mKinds, capacity);
+            mOffsets = copyOf(mOffsets, capacity);
+            boolean[] valid = new boolean[capacity];
+            System.arraycopy(mValid, 0, valid, 0, mSlotCount);
+            mValid = valid;
+            Object[] targets = new Object[capacity];
+            System.arraycopy(mTargets, 0, targets, 0, mSlotCount);
+            mTargets = targets;
+            String[] keys = new String[capacity];
+            System.arraycopy(mKeys, 0, keys, 0, mSlotCount);
+            mKeys = keys;
+            mMasks = copyOf(mMasks, capacity);
+        }
+        int slot = mSlotCount++;
+        mKinds[slot] = kind;
+        mTargets[slot] = target;
+        mKeys[slot] = key;
+        if (kind == RENDER_MASK || kind == ENABLED) {
+            mOffsets[slot] = slot;
+        } else {
+            if (mValueCount + floats > mFloats.length) {
+                float[] values = new float[Math.max(mFloats.length * 2,
+                        mValueCount + floats)];
+                System.arraycopy(mFloats, 0, values, 0, mValueCount);
+                mFloats = values;
+            }
+            mOffsets[slot] = mValueCount;
+            mValueCount += floats;
+        }
+        return slot;
+    }
+
+    private boolean storeFloat(int slot, float value) {
+        int offset = mOffsets[slot];
+        if (mValid[slot] && mFloats[offset] == value) {
+            ++mElided;
+            return false;
+        }
+        mFloats[offset] = value;
+        mValid[slot] = true;
+        ++mForwarded;
+        return true;
+    }
+
+    private void checkKind(int slot, int kind) {
+        if (mKinds[slot] != kind) {
+            throw new IllegalArgumentException("slot " + slot
+                    + " has a different kind");
+        }
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
@@ -0,0 +1,326 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.shadowstate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives {@link ShadowState} with a writer that records every call in place
+ * of the native setters: which writes reach the writer, the forwarded and
+ * elided counts, invalidation, slot growth, and a video-style frame loop.
+ */
+public class ShadowStateTest {
+
+    private static final Object MATERIAL = "material";
+    private static final Object OTHER_MATERIAL = "other material";
+    private static final Object RENDER_DATA = "render data";
+    private static final Object EYE_POINTEE_HOLDER = "eye pointee holder";
+
+    private RecordingWriter writer;
+    private ShadowState shadow;
+
+    @Before
+    public void setUp() {
+        writer = new RecordingWriter();
+        shadow = new ShadowState(writer);
+    }
+
+    @Test
+    public void forwardsOnlyChangedFloats() {
+        int weight = shadow.registerFloat(MATERIAL, "weight");
+        int fade = shadow.registerFloat(MATERIAL, "fade");
+
+        shadow.setFloat(weight, 0f);
+        shadow.setFloat(weight, 0f);
+        shadow.setFloat(fade, 0f);
+        shadow.setFloat(weight, 0.5f);
+        shadow.setFloat(weight, 0.5f);
+
+        assertEquals(Arrays.asList("float material weight 0.0", "float material fade 0.0",
+                "float material weight 0.5"), writer.calls);
+        assertEquals(3, shadow.getForwardedCount());
+        assertEquals(2, shadow.getElidedCount());
+    }
+
+    @Test
+    public void forwardsVec4WhenAnyComponentChanges() {
+        int color = shadow.registerVec4(MATERIAL, "color");
+
+        shadow.setVec4(color, 1f, 0f, 0f, 1f);
+        shadow.setVec4(color, 1f, 0f, 0f, 1f);
+        shadow.setVec4(color, 1f, 0f, 0f, 0.5f);
+        shadow.setVec4(color, 0f, 0f, 0f, 0.5f);
+        shadow.setVec4(color, 0f, 1f, 0f, 0.5f);
+        shadow.setVec4(color, 0f, 1f, 1f, 0.5f);
+
+        assertEquals(5, writer.calls.size());
+        assertEquals("vec4 material color 0.0 1.0 1.0 0.5", writer.calls.get(4));
+        assertEquals(1, shadow.getElidedCount());
+    }
+
+    @Test
+    public void forwardsOpacityAndRenderMask() {
+        int opacity = shadow.registerOpacity(MATERIAL);
+        int mask = shadow.registerRenderMask(RENDER_DATA);
+
+        shadow.setOpacity(opacity, 1f);
+        shadow.setRenderMask(mask, 3);
+        shadow.setOpacity(opacity, 1f);
+        shadow.setRenderMask(mask, 3);
+        shadow.setRenderMask(mask, 0);
+
+        assertEquals(Arrays.asList("opacity material 1.0", "mask render data 3",
+                "mask render data 0"), writer.calls);
+        assertEquals(3, shadow.getForwardedCount());
+        assertEquals(2, shadow.getElidedCount());
+
+        shadow.resetCounters();
+        assertEquals(0, shadow.getForwardedCount());
+        assertEquals(0, shadow.getElidedCount());
+    }
+
+    @Test
+    public void forwardsOnlyChangedEnables() {
+        int enabled = shadow.registerEnabled(EYE_POINTEE_HOLDER);
+        int mask = shadow.registerRenderMask(RENDER_DATA);
+
+        shadow.setRenderMask(mask, 0);
+        shadow.setEnabled(enabled, false);
+        shadow.setEnabled(enabled, false);
+        shadow.setEnabled(enabled, true);
+        shadow.setEnabled(enabled, true);
+        shadow.setRenderMask(mask, 0);
+
+        assertEquals(Arrays.asList("mask render data 0", "enabled eye pointee holder false",
+                "enabled eye pointee holder true"), writer.calls);
+        assertEquals(3, shadow.getElidedCount());
+
+        shadow.invalidate(enabled);
+        shadow.setEnabled(enabled, true);
+        assertEquals(4, writer.calls.size());
+    }
+
+    @Test
+    public void slotsOfOneTargetAreIndependent() {
+        int a = shadow.registerFloat(MATERIAL, "light");
+        int b = shadow.registerFloat(OTHER_MATERIAL, "light");
+
+        shadow.setFloat(a, 2f);
+        shadow.setFloat(b, 2f);
+        shadow.setFloat(a, 2f);
+
+        assertEquals(Arrays.asList("float material light 2.0", "float other material light 2.0"),
+                writer.calls);
+    }
+
+    @Test
+    public void invalidatedSlotsWriteThrough() {
+        int weight = shadow.registerFloat(MATERIAL, "weight");
+        int mask = shadow.registerRenderMask(RENDER_DATA);
+        shadow.setFloat(weight, 1f);
+        shadow.setRenderMask(mask, 3);
+
+        shadow.invalidate(weight);
+        shadow.setFloat(weight, 1f);
+        shadow.setRenderMask(mask, 3);
+        assertEquals(3, writer.calls.size());
+
+        shadow.invalidateAll();
+        shadow.setFloat(weight, 1f);
+        shadow.setRenderMask(mask, 3);
+        assertEquals(5, writer.calls.size());
+        assertEquals(1, shadow.getElidedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSetOfAnotherKind() {
+        int mask = shadow.registerRenderMask(RENDER_DATA);
+        shadow.setFloat(mask, 1f);
+    }
+
+    @Test
+    public void keepsValuesWhenGrowing() {
+        // past the initial 16 slots and 64 floats
+        int[] floats = new int[40];
+        int[] vectors = new int[40];
+        int[] masks = new int[40];
+        for (int i = 0; i < 40; ++i) {
+            floats[i] = shadow.registerFloat(MATERIAL, "f" + i);
+            vectors[i] = shadow.registerVec4(MATERIAL, "v" + i);
+            masks[i] = shadow.registerRenderMask(RENDER_DATA);
+            shadow.setFloat(floats[i], i);
+            shadow.setVec4(vectors[i], i, i + 1, i + 2, i + 3);
+            shadow.setRenderMask(masks[i], i);
+        }
+        assertEquals(120, writer.calls.size());
+
+        for (int i = 0; i < 40; ++i) {
+            shadow.setFloat(floats[i], i);
+            shadow.setVec4(vectors[i], i, i + 1, i + 2, i + 3);
+            shadow.setRenderMask(masks[i], i);
+        }
+        assertEquals(120, writer.calls.size());
+        assertEquals(120, shadow.getElidedCount());
+    }
+
+    @Test
+    public void frameLoopForwardsOnlyRealChanges() {
+        // the shape of VideoMain.onStep: two cinemas of render masks swapped
+        // by a switch, and uniforms easing toward a target and settling
+        int children = 16;
+        int[][] cinemaMasks = new int[2][children];
+        for (int c = 0; c < 2; ++c) {
+            for (int i = 0; i < children; ++i) {
+                cinemaMasks[c][i] = shadow.registerRenderMask("cinema " + c + " child " + i);
+            }
+        }
+        int weight = shadow.registerFloat(MATERIAL, "weight");
+        int fade = shadow.registerFloat(MATERIAL, "fade");
+        int light = shadow.registerFloat(MATERIAL, "light");
+
+        int expected = 0;
+        int current = 0;
+        float transition = 0f;
+        float previousTransition = Float.NaN;
+        for (int frame = 0; frame < 100; ++frame) {
+            if (frame == 50) {
+                current = 1;
+            }
+            for (int c = 0; c < 2; ++c) {
+                for (int i = 0; i < children; ++i) {
+                    shadow.setRenderMask(cinemaMasks[c][i], c == current ? 3 : 0);
+                }
+            }
+            transition += 0.2f * (1f - transition);
+            shadow.setFloat(weight, transition);
+            shadow.setFloat(fade, 1f);
+            shadow.setFloat(light, 2f);
+            if (transition != previousTransition) {
+                ++expected;
+            }
+            previousTransition = transition;
+        }
+        // every mask once, both cinemas again on the switch, fade and
+        // light once, and the weight until it settles
+        expected += 2 * children + 2 * children + 2;
+
+        assertEquals(expected, writer.calls.size());
+        assertEquals(expected, shadow.getForwardedCount());
+        assertEquals(100 * (2 * children + 3) - expected, shadow.getElidedCount());
+        assertTrue(shadow.getElidedCount() > 10 * shadow.getForwardedCount());
+    }
+
+    @Test
+    public void settledFramesDoNotAllocate() {
+        CountingWriter counting = new CountingWriter();
+        ShadowState shadow = new ShadowState(counting);
+        int[] slots = new int[32];
+        for (int i = 0; i < slots.length; ++i) {
+            slots[i] = i % 2 == 0 ? shadow.registerFloat(MATERIAL, "f" + i)
+                    : shadow.registerRenderMask(RENDER_DATA);
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        for (int frame = 0; frame < 1000; ++frame) {
+            frame(shadow, slots, frame);
+        }
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int frame = 0; frame < 100000; ++frame) {
+            frame(shadow, slots, frame);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertTrue(counting.count > 0);
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void frame(ShadowState shadow, int[] slots, int frame) {
+        int mask = (frame / 100) % 2 == 0 ? 3 : 0;
+        for (int i = 0; i < slots.length; i += 2) {
+            shadow.setFloat(slots[i], mask);
+            shadow.setRenderMask(slots[i + 1], mask);
+        }
+    }
+
+    private static class RecordingWriter implements ShadowState.Writer {
+        final List<String> calls = new ArrayList<String>();
+
+        @Override
+        public void writeFloat(Object target, String key, float value) {
+            calls.add("float " + target + " " + key + " " + value);
+        }
+
+        @Override
+        public void writeVec4(Object target, String key, float x, float y, float z, float w) {
+            calls.add("vec4 " + target + " " + key + " " + x + " " + y + " " + z + " " + w);
+        }
+
+        @Override
+        public void writeOpacity(Object target, float opacity) {
+            calls.add("opacity " + target + " " + opacity);
+        }
+
+        @Override
+        public void writeRenderMask(Object target, int mask) {
+            calls.add("mask " + target + " " + mask);
+        }
+
+        @Override
+        public void writeEnabled(Object target, boolean enabled) {
+            calls.add("enabled " + target + " " + enabled);
+        }
+    }
+
+    private static class CountingWriter implements ShadowState.Writer {
+        long count;
+
+        @Override
+        public void writeFloat(Object target, String key, float value) {
+            ++count;
+        }
+
+        @Override
+        public void writeVec4(Object target, String key, float x, float y, float z, float w) {
+            ++count;
+        }
+
+        @Override
+        public void writeOpacity(Object target, float opacity) {
+            ++count;
+        }
+
+        @Override
+        public void writeRenderMask(Object target, int mask) {
+            ++count;
+        }
+
+        @Override
+        public void writeEnabled(Object target, boolean enabled) {
+            ++count;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+/**
+ * Fixed-point number formatting into caller-owned {@code char[]} buffers, so
+ * readouts can be formatted every frame without {@link String#format}.
+ */
+public class HudFormat {
+
+    /*
+     * Enough for the sign and every digit of a long plus the decimal point.
+     */
+    public static final int MAX_NUMBER_LENGTH = 21;
+
+    private static final long EXACT_HALVES = 1L << 52;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L
+    };
+
+    private HudFormat() {
+    }
+
+    public static int getMaxDecimals() {
+        return POWERS_OF_TEN.length - 1;
+    }
+
+    /**
+     * Rounds {@code value} to {@code decimals} digits after the point the way
+     * {@code String.format("%.2f")} does for {@code decimals == 2}: halves of
+     * the shortest decimal form of the value go away from zero, so 9.995,
+     * stored as 9.99499..., shows as 10.00, and a value and its negation show
+     * the same digits. Unlike {@code String.format}, the scaling is done in
+     * double, so a value within an ulp of a half that is not itself a short
+     * decimal may round the other way, and a negative value that rounds to
+     * zero is shown without its sign. Values beyond the range of a long are
+     * clamped to it, and NaN is shown as zero. Two values with the same
+     * quantized value are displayed identically.
+     */
+    public static long quantize(double value, int decimals) {
+        long scale = POWERS_OF_TEN[decimals];
+        double magnitude = Math.abs(value);
+        long rounded = Math.round(magnitude * scale);
+        /*
+         * Scaling can pull a short decimal half just below the half. Below
+         * 2^52 the half is exact and the division gives the double nearest
+         * to the decimal, so equality means that decimal is the value.
+         */
+        if (rounded < EXACT_HALVES && (rounded + 0.5) / scale == magnitude) {
+            ++rounded;
+        }
+        return value < 0 ? -rounded : rounded;
+    }
+
+    /**
+     * Writes a quantized value as a decimal number with {@code decimals}
+     * digits after the point.
+     *
+     * @return the offset just past the last character written.
+     */
+    public static int appendFixed(long quantized, int decimals, char[] out,
+            int offset) {
+        if (quantized < 0) {
+            out[offset++] = '-';
+            quantized = -quantized;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        offset = appendDigits(quantized / scale, 1, out, offset);
+        if (decimals > 0) {
+            out[offset++] = '.';
+            offset = appendDigits(quantized % scale, decimals, out, offset);
+        }
+        return offset;
+    }
+
+    public static int append(String text, char[] out, int offset) {
+        int length = text.length();
+        text.getChars(0, length, out, offset);
+        return offset + length;
+    }
+
+    /*
+     * Writes a non-negative value, zero padded to at least minDigits.
+     */
+    private static int appendDigits(long value, int minDigits, char[] out,
+            int offset) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            ++digits;
+        }
+        if (digits < minDigits) {
+            digits = minDigits;
+        }
+        for (int i = offset + digits - 1; i >= offset; --i) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+}
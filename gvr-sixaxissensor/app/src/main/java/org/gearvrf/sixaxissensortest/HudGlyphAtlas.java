@@ -0,0 +1,91 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.Paint.FontMetrics;
+
+import org.gearvrf.GVRBitmapTexture;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRTexture;
+
+/**
+ * Rasterizes a fixed character set once into a single texture, one row per
+ * text/background color pair, so {@link HudText} can show changing text
+ * without creating a bitmap or texture per update. The cell positions are
+ * in {@link HudGlyphMetrics}.
+ */
+public class HudGlyphAtlas {
+
+    public static final String DIGITS = "0123456789.-";
+
+    private final GVRTexture texture;
+    private final HudGlyphMetrics metrics;
+
+    /**
+     * @param characters
+     *            every character the atlas must hold; duplicates are ignored.
+     *            Only ASCII is supported.
+     * @param textColors
+     *            text color of each style row.
+     * @param backgroundColors
+     *            background color of each style row.
+     */
+    public HudGlyphAtlas(GVRContext gvrContext, float textSize,
+            String characters, int[] textColors, int[] backgroundColors) {
+        String glyphs = HudGlyphMetrics.distinct(characters);
+        int count = glyphs.length();
+
+        Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+        p.setTextSize(textSize);
+        p.setTextAlign(Align.LEFT);
+
+        FontMetrics fontMetrics = p.getFontMetrics();
+        float[] advances = new float[count];
+        p.getTextWidths(glyphs, advances);
+        int rows = textColors.length;
+        metrics = new HudGlyphMetrics(glyphs, textSize, -fontMetrics.ascent,
+                fontMetrics.descent, advances, rows);
+
+        int width = metrics.getWidth();
+        int rowHeight = metrics.getRowHeight();
+        Bitmap bitmap = Bitmap.createBitmap(width, metrics.getHeight(),
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (int row = 0; row < rows; ++row) {
+            int top = row * rowHeight;
+            p.setColor(backgroundColors[row]);
+            canvas.drawRect(0, top, width, top + rowHeight, p);
+            p.setColor(textColors[row]);
+            for (int i = 0; i < count; ++i) {
+                canvas.drawText(glyphs, i, i + 1, metrics.getLeft(i),
+                        top + metrics.getAscent(), p);
+            }
+        }
+        texture = new GVRBitmapTexture(gvrContext, bitmap);
+    }
+
+    public GVRTexture getTexture() {
+        return texture;
+    }
+
+    public HudGlyphMetrics getMetrics() {
+        return metrics;
+    }
+}
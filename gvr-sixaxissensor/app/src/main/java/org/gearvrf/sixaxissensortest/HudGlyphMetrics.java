@@ -0,0 +1,191 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+/**
+ * Where each glyph sits in a {@link HudGlyphAtlas}, worked out from the font
+ * metrics alone. Has no Android or GVRf dependencies so {@link HudTextLayout}
+ * can run on a desktop JVM.
+ */
+public class HudGlyphMetrics {
+
+    /*
+     * Pixels between glyph cells, so filtering never samples a neighbour.
+     */
+    private static final int PADDING = 2;
+
+    private final String glyphs;
+    private final float textSize;
+    private final float ascent;
+    private final float descent;
+    private final int[] indices = new int[128];
+    private final float[] advances;
+    private final float[] cellWidths;
+    private final int[] lefts;
+    private final int width;
+    private final int cellHeight;
+    private final int rowHeight;
+    private final float[] u0, u1;
+    private final float[] v0, v1;
+
+    /**
+     * @param glyphs
+     *            the characters of the atlas, each once; see
+     *            {@link #distinct(String)}.
+     * @param ascent
+     *            distance from the baseline to the top of a cell, in pixels.
+     * @param descent
+     *            distance from the baseline to the bottom of a cell.
+     * @param advances
+     *            advance width of each glyph, in pixels.
+     * @param styles
+     *            number of text/background color rows.
+     */
+    public HudGlyphMetrics(String glyphs, float textSize, float ascent,
+            float descent, float[] advances, int styles) {
+        this.glyphs = glyphs;
+        this.textSize = textSize;
+        this.ascent = ascent;
+        this.descent = descent;
+        this.advances = advances.clone();
+
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = -1;
+        }
+        int count = glyphs.length();
+        cellWidths = new float[count];
+        lefts = new int[count];
+        int right = 0;
+        for (int i = 0; i < count; ++i) {
+            char c = glyphs.charAt(i);
+            if (c >= indices.length || indices[c] >= 0) {
+                throw new IllegalArgumentException("not distinct ASCII: " + c);
+            }
+            indices[c] = i;
+            lefts[i] = right;
+            cellWidths[i] = (float) Math.ceil(advances[i]);
+            right += (int) cellWidths[i] + PADDING;
+        }
+        width = right;
+        cellHeight = (int) Math.ceil(ascent + descent);
+        rowHeight = cellHeight + PADDING;
+
+        u0 = new float[count];
+        u1 = new float[count];
+        for (int i = 0; i < count; ++i) {
+            u0[i] = (float) lefts[i] / width;
+            u1[i] = (lefts[i] + cellWidths[i]) / width;
+        }
+        v0 = new float[styles];
+        v1 = new float[styles];
+        float height = styles * rowHeight;
+        for (int row = 0; row < styles; ++row) {
+            v0[row] = row * rowHeight / height;
+            v1[row] = (row * rowHeight + cellHeight) / height;
+        }
+    }
+
+    /**
+     * @return the characters of {@code characters} in order of first
+     *         appearance, without duplicates. Only ASCII is supported.
+     */
+    public static String distinct(String characters) {
+        StringBuilder distinct = new StringBuilder();
+        for (int i = 0; i < characters.length(); ++i) {
+            char c = characters.charAt(i);
+            if (c >= 128) {
+                throw new IllegalArgumentException("not ASCII: " + c);
+            }
+            if (distinct.indexOf(String.valueOf(c)) < 0) {
+                distinct.append(c);
+            }
+        }
+        return distinct.toString();
+    }
+
+    public String getGlyphs() {
+        return glyphs;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public int getStyleCount() {
+        return v0.length;
+    }
+
+    /**
+     * @return the glyph index of {@code c}, or -1 if the atlas lacks it.
+     */
+    public int indexOf(char c) {
+        return c < indices.length ? indices[c] : -1;
+    }
+
+    public float getAscent() {
+        return ascent;
+    }
+
+    public float getDescent() {
+        return descent;
+    }
+
+    public float getAdvance(int glyph) {
+        return advances[glyph];
+    }
+
+    public float getCellWidth(int glyph) {
+        return cellWidths[glyph];
+    }
+
+    /**
+     * Left edge of a glyph's cell in the atlas bitmap, in pixels.
+     */
+    public int getLeft(int glyph) {
+        return lefts[glyph];
+    }
+
+    /**
+     * Size of the atlas bitmap, in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return v0.length * rowHeight;
+    }
+
+    public int getRowHeight() {
+        return rowHeight;
+    }
+
+    public float getU0(int glyph) {
+        return u0[glyph];
+    }
+
+    public float getU1(int glyph) {
+        return u1[glyph];
+    }
+
+    public float getV0(int style) {
+        return v0[style];
+    }
+
+    public float getV1(int style) {
+        return v1[style];
+    }
+}
@@ -0,0 +1,102 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+/**
+ * One line of HUD text made of fixed labels and numbers, such as
+ * "velocity : 1.25". The text is kept in a reusable buffer and reformatted
+ * only when a number changes at display precision, so {@link #update()} tells
+ * the caller when the line actually needs redrawing. Plain Java; formatting
+ * and change detection allocate nothing after construction.
+ */
+public class HudReadout {
+
+    private final String[] labels;
+    private final int decimals;
+    private final long[] values;
+    private final char[] text;
+    private int length = 0;
+    private boolean dirty = true;
+
+    /**
+     * @param valueCount
+     *            number of numbers on the line; 0 for fixed text.
+     * @param labels
+     *            text printed before each number, followed by any trailing
+     *            text.
+     */
+    public HudReadout(int valueCount, int decimals, String... labels) {
+        if (decimals < 0 || decimals > HudFormat.getMaxDecimals()) {
+            throw new IllegalArgumentException("decimals: " + decimals);
+        }
+        if (valueCount > labels.length) {
+            throw new IllegalArgumentException("valueCount: " + valueCount);
+        }
+        this.labels = labels;
+        this.decimals = decimals;
+        this.values = new long[valueCount];
+
+        int capacity = 0;
+        for (String label : labels) {
+            capacity += label.length() + HudFormat.MAX_NUMBER_LENGTH;
+        }
+        text = new char[capacity];
+    }
+
+    public int getValueCount() {
+        return values.length;
+    }
+
+    /**
+     * Sets the number printed after {@code labels[index]}.
+     */
+    public void set(int index, double value) {
+        long quantized = HudFormat.quantize(value, decimals);
+        if (quantized != values[index]) {
+            values[index] = quantized;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Reformats the text if a number changed since the last call.
+     *
+     * @return {@code true} if the text changed, including on the first call.
+     */
+    public boolean update() {
+        if (!dirty) {
+            return false;
+        }
+        dirty = false;
+        int offset = 0;
+        for (int i = 0; i < labels.length; ++i) {
+            offset = HudFormat.append(labels[i], text, offset);
+            if (i < values.length) {
+                offset = HudFormat.appendFixed(values[i], decimals, text, offset);
+            }
+        }
+        length = offset;
+        return true;
+    }
+
+    public char[] getText() {
+        return text;
+    }
+
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRSceneObject;
+
+/**
+ * A line of text drawn as one quad per character over a shared
+ * {@link HudGlyphAtlas}. The text starts at the object's origin with its
+ * baseline on the x axis, like text drawn left aligned from the center of a
+ * {@link GVRTextBitmapFactory2} bitmap. The mesh is rewritten in place, from
+ * a {@link HudTextLayout}, and only when {@link #setText} is called.
+ */
+public class HudText extends GVRSceneObject {
+
+    private final HudTextLayout layout;
+
+    /**
+     * @param capacity
+     *            longest text shown; longer text is cut off.
+     * @param unitsPerPixel
+     *            scene units per pixel of a {@link GVRTextBitmapFactory2}
+     *            bitmap the text would otherwise be drawn into.
+     * @param textSize
+     *            text size in those pixels.
+     */
+    public HudText(GVRContext gvrContext, HudGlyphAtlas atlas, int capacity,
+            float unitsPerPixel, float textSize) {
+        super(gvrContext, createMesh(gvrContext, capacity), atlas.getTexture());
+        HudGlyphMetrics metrics = atlas.getMetrics();
+        layout = new HudTextLayout(metrics, capacity, unitsPerPixel * textSize
+                / metrics.getTextSize());
+    }
+
+    public void setText(HudReadout readout, int style) {
+        setText(readout.getText(), readout.getLength(), style);
+    }
+
+    public void setText(char[] text, int length, int style) {
+        layout.layout(text, length, style);
+        GVRMesh mesh = getRenderData().getMesh();
+        mesh.setVertices(layout.getVertices());
+        mesh.setTexCoords(layout.getTexCoords());
+    }
+
+    private static GVRMesh createMesh(GVRContext gvrContext, int capacity) {
+        GVRMesh mesh = new GVRMesh(gvrContext);
+        mesh.setVertices(new float[capacity * HudTextLayout.VERTICES_PER_GLYPH * 3]);
+        mesh.setTexCoords(new float[capacity * HudTextLayout.VERTICES_PER_GLYPH * 2]);
+        mesh.setTriangles(HudTextLayout.createTriangles(capacity));
+        return mesh;
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+/**
+ * Lays out a line of text as one quad per character over a glyph atlas,
+ * into vertex and texture coordinate arrays that are reused for every
+ * update. The text starts at the origin with its baseline on the x axis.
+ * Has no Android or GVRf dependencies; {@link HudText} owns the mesh.
+ */
+public class HudTextLayout {
+
+    public static final int VERTICES_PER_GLYPH = 4;
+    public static final int INDICES_PER_GLYPH = 6;
+
+    private final HudGlyphMetrics metrics;
+    private final int capacity;
+    private final float unitsPerPixel;
+    private final float[] vertices;
+    private final float[] texCoords;
+
+    /**
+     * @param capacity
+     *            longest text shown; longer text is cut off.
+     * @param unitsPerPixel
+     *            scene units per pixel of the atlas glyphs.
+     */
+    public HudTextLayout(HudGlyphMetrics metrics, int capacity,
+            float unitsPerPixel) {
+        this.metrics = metrics;
+        this.capacity = capacity;
+        this.unitsPerPixel = unitsPerPixel;
+        vertices = new float[capacity * VERTICES_PER_GLYPH * 3];
+        texCoords = new float[capacity * VERTICES_PER_GLYPH * 2];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Rewrites the vertices and texture coordinates for {@code text}.
+     * Characters the atlas lacks are shown as spaces, or skipped if it has
+     * no space either.
+     */
+    public void layout(char[] text, int length, int style) {
+        if (length > capacity) {
+            length = capacity;
+        }
+        float top = metrics.getAscent() * unitsPerPixel;
+        float bottom = -metrics.getDescent() * unitsPerPixel;
+        float v0 = metrics.getV0(style);
+        float v1 = metrics.getV1(style);
+        float x = 0.0f;
+        int v = 0, t = 0;
+        for (int i = 0; i < length; ++i) {
+            int glyph = metrics.indexOf(text[i]);
+            if (glyph < 0) {
+                glyph = metrics.indexOf(' ');
+                if (glyph < 0) {
+                    continue;
+                }
+            }
+            float right = x + metrics.getCellWidth(glyph) * unitsPerPixel;
+            v = putQuad(vertices, v, x, right, top, bottom);
+            t = putUV(texCoords, t, metrics.getU0(glyph), metrics.getU1(glyph), v0, v1);
+            x += metrics.getAdvance(glyph) * unitsPerPixel;
+        }
+        /*
+         * Collapse the unused quads.
+         */
+        for (int i = v; i < vertices.length; ++i) {
+            vertices[i] = 0.0f;
+        }
+        for (int i = t; i < texCoords.length; ++i) {
+            texCoords[i] = 0.0f;
+        }
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public float[] getTexCoords() {
+        return texCoords;
+    }
+
+    public static char[] createTriangles(int capacity) {
+        char[] triangles = new char[capacity * INDICES_PER_GLYPH];
+        for (int i = 0, t = 0; i < capacity; ++i) {
+            char base = (char) (i * VERTICES_PER_GLYPH);
+            triangles[t++] = base;
+            triangles[t++] = (char) (base + 1);
+            triangles[t++] = (char) (base + 2);
+            triangles[t++] = (char) (base + 1);
+            triangles[t++] = (char) (base + 3);
+            triangles[t++] = (char) (base + 2);
+        }
+        return triangles;
+    }
+
+    /*
+     * Same corner order as GVRContext.createQuad.
+     */
+    private static int putQuad(float[] out, int i, float left, float right,
+            float top, float bottom) {
+        out[i++] = left;
+        out[i++] = top;
+        out[i++] = 0.0f;
+        out[i++] = left;
+        out[i++] = bottom;
+        out[i++] = 0.0f;
+        out[i++] = right;
+        out[i++] = top;
+        out[i++] = 0.0f;
+        out[i++] = right;
+        out[i++] = bottom;
+        out[i++] = 0.0f;
+        return i;
+    }
+
+    private static int putUV(float[] out, int i, float u0, float u1, float v0,
+            float v1) {
+        out[i++] = u0;
+        out[i++] = v0;
+        out[i++] = u0;
+        out[i++] = v1;
+        out[i++] = u1;
+        out[i++] = v0;
+        out[i++] = u1;
+        out[i++] = v1;
+        return i;
+    }
+}
@@ -0,0 +1,49 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+/**
+ * Limits HUD redraws to a fixed rate, independent of the render frame rate.
+ */
+public class HudThrottle {
+
+    private final long intervalNanos;
+    private long nextNanos;
+    private boolean started = false;
+
+    public HudThrottle(float refreshRate) {
+        intervalNanos = (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * @return {@code true} at most once per refresh interval, and on the
+     *         first call.
+     */
+    public boolean isDue(long nowNanos) {
+        if (started && nowNanos - nextNanos < 0) {
+            return false;
+        }
+        started = true;
+        /*
+         * Don't accumulate a backlog after a long frame.
+         */
+        nextNanos += intervalNanos;
+        if (nextNanos - nowNanos <= 0) {
+            nextNanos = nowNanos + intervalNanos;
+        }
+        return true;
+    }
+}
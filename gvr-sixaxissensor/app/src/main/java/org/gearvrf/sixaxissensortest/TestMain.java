@@ -18,14 +18,12 @@ package org.gearvrf.sixaxissensortest;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Color;
-import android.graphics.Paint.Align;
 import android.util.Log;
 
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRBitmapTexture;
 import org.gearvrf.GVRCameraRig;
 import org.gearvrf.GVRContext;
-import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
@@ -38,12 +36,46 @@ public class TestMain extends GVRMain {
         Idle, Ready, Rotating, Pass, Fail
     };
 
+    private static final String TAG = "TestMain";
+
+    /*
+     * HUD text is redrawn at most this often, whatever the frame rate.
+     */
+    private static final float HUD_REFRESH_RATE = 15.0f;
+
+    /*
+     * Boards are sized as if they showed 1024 pixel wide text bitmaps.
+     */
+    private static final float BOARD_BITMAP_WIDTH = 1024.0f;
+    private static final int BOARD_CAPACITY = 40;
+
+    private static final int STYLE_VALUE = 0;
+    private static final int STYLE_READY = 1;
+    private static final int STYLE_PASS = 2;
+    private static final int STYLE_FAIL = 3;
+
+    private static final char[] EMPTY = new char[0];
+
     private State mState = State.Idle;
+    private State mShownState = null;
     private GVRContext mGVRContext = null;
-    private GVRSceneObject mDegreeBoard = null;
-    private GVRSceneObject mAngularVelocityBoard = null;
-    private GVRSceneObject mValueBoard = null;
-    private GVRSceneObject mStateBoard = null;
+    private HudText mDegreeBoard = null;
+    private HudText mAngularVelocityBoard = null;
+    private HudText mValueBoard = null;
+    private HudText mStateBoard = null;
+
+    private final HudReadout mDegreeReadout = new HudReadout(1, 2,
+            "degree : ");
+    private final HudReadout mAngularVelocityReadout = new HudReadout(1, 2,
+            "velocity : ");
+    private final HudReadout mValueReadout = new HudReadout(2, 2, "ZRO : ",
+            ", Spec degree : ");
+    private final HudReadout mReadyReadout = new HudReadout(0, 2, "Ready");
+    private final HudReadout mPassReadout = new HudReadout(1, 2,
+            "PASS degree : ");
+    private final HudReadout mFailReadout = new HudReadout(1, 2,
+            "FAIL degree : ");
+    private final HudThrottle mHudThrottle = new HudThrottle(HUD_REFRESH_RATE);
 
     private double mPreviousDegree = 0.0f;
 
@@ -85,34 +117,31 @@ public class TestMain extends GVRMain {
         cursor.getTransform().setPosition(0.0f, 0.0f, -5.0f);
         mainScene.getMainCameraRig().addChildObject(cursor);
 
-        Bitmap degreeBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                "degree : 0.00", 40, Align.LEFT, Color.YELLOW,
-                Color.TRANSPARENT);
-        mDegreeBoard = new GVRSceneObject(mGVRContext, 2.0f, 0.5f,
-                new GVRBitmapTexture(mGVRContext, degreeBitmap));
+        HudGlyphAtlas atlas = new HudGlyphAtlas(mGVRContext, 50,
+                HudGlyphAtlas.DIGITS + " degree velocity ZRO, Spec Ready PASS FAIL",
+                new int[] {
+                        Color.YELLOW, Color.BLACK, Color.BLACK, Color.BLACK
+                }, new int[] {
+                        Color.TRANSPARENT, Color.WHITE, Color.GREEN, Color.RED
+                });
+
+        mDegreeBoard = new HudText(mGVRContext, atlas, BOARD_CAPACITY,
+                2.0f / BOARD_BITMAP_WIDTH, 50);
         mDegreeBoard.getTransform().setPosition(-0.5f, 0.7f, -2.0f);
         mainScene.getMainCameraRig().addChildObject(mDegreeBoard);
 
-        Bitmap angularVelocityBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                "velocity : 0.00", 50, Align.LEFT, Color.YELLOW,
-                Color.TRANSPARENT);
-        mAngularVelocityBoard = new GVRSceneObject(mGVRContext, 2.0f, 0.5f,
-                new GVRBitmapTexture(mGVRContext, angularVelocityBitmap));
+        mAngularVelocityBoard = new HudText(mGVRContext, atlas, BOARD_CAPACITY,
+                2.0f / BOARD_BITMAP_WIDTH, 50);
         mAngularVelocityBoard.getTransform().setPosition(-0.5f, -0.7f, -2.0f);
         mainScene.getMainCameraRig().addChildObject(mAngularVelocityBoard);
 
-        Bitmap aValueBitmap = GVRTextBitmapFactory2.create(1024, 128, String
-                .format("ZRO : %.2f, Spec degree : %.2f", mAValue, mBValue),
-                30, Align.LEFT, Color.YELLOW, Color.TRANSPARENT);
-        mValueBoard = new GVRSceneObject(mGVRContext, 2.0f, 0.5f,
-                new GVRBitmapTexture(mGVRContext, aValueBitmap));
+        mValueBoard = new HudText(mGVRContext, atlas, BOARD_CAPACITY,
+                2.0f / BOARD_BITMAP_WIDTH, 30);
         mValueBoard.getTransform().setPosition(-0.5f, 0.5f, -2.0f);
         mainScene.getMainCameraRig().addChildObject(mValueBoard);
 
-        Bitmap stateBitmap = GVRTextBitmapFactory2.create(1024, 128, "", 50,
-                Align.LEFT, Color.TRANSPARENT, Color.TRANSPARENT);
-        mStateBoard = new GVRSceneObject(mGVRContext, 2.5f, 0.625f,
-                new GVRBitmapTexture(mGVRContext, stateBitmap));
+        mStateBoard = new HudText(mGVRContext, atlas, BOARD_CAPACITY,
+                2.5f / BOARD_BITMAP_WIDTH, 50);
         mStateBoard.getTransform().setPosition(-0.5f, -0.7f, -5.0f);
         mainScene.getMainCameraRig().addChildObject(mStateBoard);
 
@@ -138,8 +167,10 @@ public class TestMain extends GVRMain {
 
         float angularVelocity = mGyroscope.getMagnitude();
 
-        Log.v("", String.format("degree : %f", degree));
-        Log.v("", String.format("angularVelocity : %f", angularVelocity));
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            Log.v(TAG, String.format("degree : %f", degree));
+            Log.v(TAG, String.format("angularVelocity : %f", angularVelocity));
+        }
 
         if (mState == State.Idle) {
             if (angularVelocity < mAValue && angularVelocity > -mAValue) {
@@ -161,58 +192,53 @@ public class TestMain extends GVRMain {
             }
         }
 
-        Bitmap degreeBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                String.format("degree : %.2f", degree), 50, Align.LEFT,
-                Color.YELLOW, Color.TRANSPARENT);
-        GVRMaterial degreeMaterial = mDegreeBoard.getRenderData().getMaterial();
-        degreeMaterial.setMainTexture(new GVRBitmapTexture(mGVRContext,
-                degreeBitmap));
-
-        Bitmap angularVelocityBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                String.format("velocity : %.2f", angularVelocity), 50,
-                Align.LEFT, Color.YELLOW, Color.TRANSPARENT);
-        GVRMaterial angularVelocityMaterial = mAngularVelocityBoard
-                .getRenderData().getMaterial();
-        angularVelocityMaterial.setMainTexture(new GVRBitmapTexture(
-                mGVRContext, angularVelocityBitmap));
-
-        Bitmap aValueBitmap = GVRTextBitmapFactory2.create(1024, 128, String
-                .format("ZRO : %.2f, Spec degree : %.2f", mAValue, mBValue),
-                30, Align.LEFT, Color.YELLOW, Color.TRANSPARENT);
-        GVRMaterial aValueMaterial = mValueBoard.getRenderData().getMaterial();
-        aValueMaterial.setMainTexture(new GVRBitmapTexture(mGVRContext,
-                aValueBitmap));
-
-        Bitmap stateBitmap = null;
-
-        switch (mState) {
+        if (mHudThrottle.isDue(System.nanoTime())) {
+            mDegreeReadout.set(0, degree);
+            mAngularVelocityReadout.set(0, angularVelocity);
+            mValueReadout.set(0, mAValue);
+            mValueReadout.set(1, mBValue);
+
+            showReadout(mDegreeBoard, mDegreeReadout, STYLE_VALUE);
+            showReadout(mAngularVelocityBoard, mAngularVelocityReadout,
+                    STYLE_VALUE);
+            showReadout(mValueBoard, mValueReadout, STYLE_VALUE);
+        }
+
+        State state = mState;
+        if (state != mShownState) {
+            mShownState = state;
+            showState(state);
+        }
+    }
+
+    private static void showReadout(HudText board, HudReadout readout,
+            int style) {
+        if (readout.update()) {
+            board.setText(readout, style);
+        }
+    }
+
+    private void showState(State state) {
+        switch (state) {
         case Idle:
-            stateBitmap = GVRTextBitmapFactory2.create(1024, 128, "", 50,
-                    Align.LEFT, Color.TRANSPARENT, Color.TRANSPARENT);
+        case Rotating:
+            mStateBoard.setText(EMPTY, 0, STYLE_VALUE);
             break;
         case Ready:
-            stateBitmap = GVRTextBitmapFactory2.create(1024, 128, "Ready", 50,
-                    Align.LEFT, Color.BLACK, Color.WHITE);
-            break;
-        case Rotating:
-            stateBitmap = GVRTextBitmapFactory2.create(1024, 128, "", 50,
-                    Align.LEFT, Color.TRANSPARENT, Color.TRANSPARENT);
+            mReadyReadout.update();
+            mStateBoard.setText(mReadyReadout, STYLE_READY);
             break;
         case Pass:
-            stateBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                    String.format("PASS degree : %.2f", mFinalDegree), 50,
-                    Align.LEFT, Color.BLACK, Color.GREEN);
+            mPassReadout.set(0, mFinalDegree);
+            mPassReadout.update();
+            mStateBoard.setText(mPassReadout, STYLE_PASS);
             break;
         case Fail:
-            stateBitmap = GVRTextBitmapFactory2.create(1024, 128,
-                    String.format("FAIL degree : %.2f", mFinalDegree), 50,
-                    Align.LEFT, Color.BLACK, Color.RED);
+            mFailReadout.set(0, mFinalDegree);
+            mFailReadout.update();
+            mStateBoard.setText(mFailReadout, STYLE_FAIL);
             break;
         }
-
-        GVRMaterial stateMaterial = mStateBoard.getRenderData().getMaterial();
-        stateMaterial.setMainTexture(new GVRBitmapTexture(mGVRContext,
-                stateBitmap));
     }
 
     public void onDoubleTap() {
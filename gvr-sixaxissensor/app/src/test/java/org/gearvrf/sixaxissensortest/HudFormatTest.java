@@ -0,0 +1,174 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link HudFormat} against {@link String#format} on every short
+ * decimal in a range, on random values, and on the halves that carry into a
+ * new digit, and that {@link HudReadout} reformats only when the shown text
+ * changes and allocates nothing once built.
+ */
+public class HudFormatTest {
+
+    private static final String[] FORMATS = {
+            "%.0f", "%.1f", "%.2f", "%.3f", "%.4f"
+    };
+    private static final int TRIALS = 100000;
+
+    @Test
+    public void matchesStringFormatOnShortDecimals() {
+        for (int decimals = 0; decimals <= 2; ++decimals) {
+            for (int k = -10000; k <= 10000; ++k) {
+                assertMatches(k / 1000.0, decimals);
+            }
+        }
+        for (int k = -10000; k <= 10000; ++k) {
+            assertMatches(k / 10000.0, 3);
+        }
+    }
+
+    @Test
+    public void matchesStringFormatOnRandomValues() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; ++i) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(7));
+            assertMatches(value, random.nextInt(FORMATS.length));
+        }
+    }
+
+    @Test
+    public void halvesCarryIntoTheNextDigit() {
+        assertEquals("10.00", format(9.995, 2));
+        assertEquals("-10.00", format(-9.995, 2));
+        assertEquals("1.00", format(0.995, 2));
+        assertEquals("100.00", format(99.995, 2));
+        assertEquals("1000000.00", format(999999.995, 2));
+        assertEquals("1.01", format(1.005, 2));
+        assertEquals("10.0", format(9.95, 1));
+        assertEquals("10", format(9.5, 0));
+        assertEquals("0.01", format(0.005, 2));
+        assertEquals("0.00", format(0.0049, 2));
+        for (double value : new double[] {
+                9.995, -9.995, 0.995, 99.995, 999999.995, 1.005, 2.675
+        }) {
+            assertMatches(value, 2);
+        }
+    }
+
+    @Test
+    public void negativeZeroIsShownWithoutItsSign() {
+        assertEquals("-0.00", String.format(FORMATS[2], -0.004));
+        assertEquals("0.00", format(-0.004, 2));
+        assertEquals("0.00", format(-0.0, 2));
+        assertEquals(HudFormat.quantize(0.004, 2), HudFormat.quantize(-0.004, 2));
+    }
+
+    @Test
+    public void outOfRangeValuesAreClamped() {
+        assertEquals(Long.MAX_VALUE, HudFormat.quantize(1e300, 2));
+        assertEquals(-Long.MAX_VALUE, HudFormat.quantize(-1e300, 2));
+        assertEquals(Long.MAX_VALUE, HudFormat.quantize(Double.POSITIVE_INFINITY, 0));
+        assertEquals(-Long.MAX_VALUE, HudFormat.quantize(Double.NEGATIVE_INFINITY, 6));
+        assertEquals(0, HudFormat.quantize(Double.NaN, 2));
+        // a saturated round must not be pushed past the end of the range
+        assertEquals(Long.MAX_VALUE, HudFormat.quantize(Long.MAX_VALUE / 100.0, 2));
+
+        char[] out = new char[HudFormat.MAX_NUMBER_LENGTH];
+        for (int decimals = 0; decimals <= HudFormat.getMaxDecimals(); ++decimals) {
+            int length = HudFormat.appendFixed(-Long.MAX_VALUE, decimals, out, 0);
+            assertTrue(length <= HudFormat.MAX_NUMBER_LENGTH);
+            assertEquals('-', out[0]);
+            length = HudFormat.appendFixed(Long.MAX_VALUE, decimals, out, 0);
+            assertTrue(length <= HudFormat.MAX_NUMBER_LENGTH);
+        }
+        assertEquals("92233720368547758.07", format(1e300, 2));
+    }
+
+    @Test
+    public void readoutReformatsOnlyWhenTheTextChanges() {
+        HudReadout readout = new HudReadout(2, 2, "a ", " b ", " end");
+        assertTrue(readout.update());
+        assertEquals("a 0.00 b 0.00 end", text(readout));
+        assertFalse(readout.update());
+
+        readout.set(0, 0.004);
+        assertFalse(readout.update());
+        readout.set(0, -1.125);
+        readout.set(1, 9.995);
+        assertTrue(readout.update());
+        assertEquals("a -1.13 b 10.00 end", text(readout));
+        readout.set(1, 10.001);
+        assertFalse(readout.update());
+    }
+
+    @Test
+    public void readoutDoesNotAllocate() {
+        HudReadout readout = new HudReadout(2, 2, "velocity : ", " / ", "");
+        Random random = new Random(5);
+        double[] values = new double[1024];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = (random.nextDouble() - 0.5) * 2000;
+        }
+        // warm up first, so what's measured is compiled code
+        for (int i = 0; i < 2; ++i) {
+            long before = allocatedBytes();
+            for (int trial = 0; trial < TRIALS; ++trial) {
+                readout.set(0, values[trial & 1023]);
+                readout.set(1, values[(trial * 7) & 1023]);
+                readout.update();
+            }
+            long allocated = allocatedBytes() - before;
+            if (i > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    private static void assertMatches(double value, int decimals) {
+        String expected = String.format(FORMATS[decimals], value);
+        if (expected.startsWith("-") && HudFormat.quantize(value, decimals) == 0) {
+            // the documented difference: no sign on a negative zero
+            expected = expected.substring(1);
+        }
+        assertEquals(value + " to " + decimals, expected, format(value, decimals));
+    }
+
+    private static String format(double value, int decimals) {
+        char[] out = new char[HudFormat.MAX_NUMBER_LENGTH];
+        int length = HudFormat.appendFixed(HudFormat.quantize(value, decimals),
+                decimals, out, 0);
+        return new String(out, 0, length);
+    }
+
+    private static String text(HudReadout readout) {
+        return new String(readout.getText(), 0, readout.getLength());
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,126 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.sixaxissensortest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+/**
+ * Lays out text over {@link HudGlyphMetrics} built from made-up font
+ * metrics: the atlas is "0123456789.- ", every glyph advances 9.5 pixels in
+ * a 10 pixel cell, except the space, which takes 5.
+ */
+public class HudTextLayoutTest {
+
+    private static final String GLYPHS = HudGlyphMetrics.distinct("0123456789.- 0");
+    private static final int TRIALS = 100000;
+
+    private static HudGlyphMetrics metrics() {
+        float[] advances = new float[GLYPHS.length()];
+        for (int i = 0; i < advances.length; ++i) {
+            advances[i] = GLYPHS.charAt(i) == ' ' ? 5 : 9.5f;
+        }
+        return new HudGlyphMetrics(GLYPHS, 20, 15, 5, advances, 2);
+    }
+
+    @Test
+    public void metricsPackCellsWithPadding() {
+        HudGlyphMetrics metrics = metrics();
+        assertEquals("0123456789.- ", GLYPHS);
+        assertEquals(1, metrics.indexOf('1'));
+        assertEquals(-1, metrics.indexOf('x'));
+        assertEquals(-1, metrics.indexOf('\u00e9'));
+        assertEquals(10, metrics.getCellWidth(0), 0);
+        assertEquals(12, metrics.getLeft(1));
+        assertEquals(12 * 12 + 5 + 2, metrics.getWidth());
+        assertEquals(2 * 22, metrics.getHeight());
+        assertEquals(12f / metrics.getWidth(), metrics.getU0(1), 0);
+        assertEquals(0.5f, metrics.getV0(1), 0);
+        assertEquals(20f / 44, metrics.getV1(0), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void metricsRejectRepeatedGlyphs() {
+        new HudGlyphMetrics("00", 20, 15, 5, new float[2], 1);
+    }
+
+    @Test
+    public void quadsFollowTheAdvances() {
+        HudGlyphMetrics metrics = metrics();
+        HudTextLayout layout = new HudTextLayout(metrics, 4, 0.5f);
+        layout.layout("1 2".toCharArray(), 3, 1);
+
+        float[] v = layout.getVertices();
+        // "1": left 0, right half its 10 pixel cell, top at the ascent
+        assertEquals(0, v[0], 0);
+        assertEquals(7.5f, v[1], 0);
+        assertEquals(-2.5f, v[4], 0);
+        assertEquals(5, v[6], 0);
+        // " " advances 2.5 after the 4.75 of "1"
+        assertEquals(4.75f, v[12], 1e-6f);
+        assertEquals(7.25f, v[24], 1e-6f);
+        // the fourth quad is collapsed
+        for (int i = 36; i < v.length; ++i) {
+            assertEquals(0, v[i], 0);
+        }
+
+        float[] t = layout.getTexCoords();
+        assertEquals(metrics.getU0(1), t[0], 0);
+        assertEquals(metrics.getV0(1), t[1], 0);
+        assertEquals(metrics.getV1(1), t[3], 0);
+        assertEquals(metrics.getU1(2), t[20], 0);
+    }
+
+    @Test
+    public void missingGlyphsShowAsSpacesAndLongTextIsCut() {
+        HudTextLayout layout = new HudTextLayout(metrics(), 2, 1);
+        layout.layout("x1y".toCharArray(), 3, 0);
+        float[] v = layout.getVertices();
+        assertEquals(0, v[0], 0);
+        assertEquals(5, v[12], 0);
+        assertEquals(2 * HudTextLayout.VERTICES_PER_GLYPH * 3, v.length);
+    }
+
+    @Test
+    public void layoutDoesNotAllocate() {
+        HudReadout readout = new HudReadout(1, 2, "velocity : ", "");
+        HudTextLayout layout = new HudTextLayout(metrics(), 32, 0.01f);
+        // warm up first, so what's measured is compiled code
+        for (int i = 0; i < 2; ++i) {
+            long before = allocatedBytes();
+            for (int trial = 0; trial < TRIALS; ++trial) {
+                readout.set(0, trial * 0.01);
+                if (readout.update()) {
+                    layout.layout(readout.getText(), readout.getLength(), trial & 1);
+                }
+            }
+            long allocated = allocatedBytes() - before;
+            if (i > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,433 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.startup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup asset graph. Each asset has an optional decode step, run on a
+ * bounded worker pool, and an upload step, run on the GL thread by
+ * {@link #pump(long)}. An asset is uploaded once it is decoded and everything
+ * it depends on has been uploaded, so a material that depends on its
+ * textures, and an object that depends on its material, come up in that
+ * order while every decode still runs in parallel.
+ *
+ * Critical assets are decoded and uploaded first; everything a critical
+ * asset depends on becomes critical too. {@link #pump(long)} reports when
+ * the last of them is up, which is the first frame worth showing.
+ *
+ * Plain Java, so it can be driven with fake decoders, and a fake
+ * {@link Clock}, on a desktop JVM.
+ */
+public class StartupLoader {
+
+    public interface Decoder<T> {
+        /**
+         * Runs on a worker thread: reading and parsing, nothing that needs
+         * the GL context.
+         */
+        T decode() throws Exception;
+    }
+
+    public interface Uploader<T> {
+        /**
+         * Runs on the GL thread with what {@link Decoder#decode()} returned,
+         * or null if the asset has no decode step.
+         */
+        void upload(T decoded) throws Exception;
+    }
+
+    /**
+     * Source of the times behind the upload budget and the reported
+     * timings. Read from the GL thread and the workers.
+     */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    public static final class Asset<T> {
+        final String name;
+        final int sequence;
+        final Decoder<T> decoder;
+        final Uploader<T> uploader;
+        final List<Asset<?>> dependencies = new ArrayList<Asset<?>>();
+        final List<Asset<?>> dependents = new ArrayList<Asset<?>>();
+        boolean critical;
+        int pendingDependencies;
+
+        // written by a worker, published to the GL thread by decodedQueue
+        T decoded;
+        Exception error;
+        boolean isDecoded;
+
+        long decodeNanos;
+        long uploadNanos;
+        long uploadedAt;
+
+        Asset(String name, int sequence, boolean critical, Decoder<T> decoder,
+                Uploader<T> uploader) {
+            this.name = name;
+            this.sequence = sequence;
+            this.critical = critical;
+            this.decoder = decoder;
+            this.uploader = uploader;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCritical() {
+            return critical;
+        }
+
+        public List<Asset<?>> getDependencies() {
+            return Collections.unmodifiableList(dependencies);
+        }
+
+        /**
+         * @return the time spent decoding, on whichever worker ran it.
+         */
+        public long getDecodeNanos() {
+            return decodeNanos;
+        }
+
+        public long getUploadNanos() {
+            return uploadNanos;
+        }
+
+        /**
+         * @return when the upload finished, from {@link StartupLoader#start()}.
+         */
+        public long getUploadedAt() {
+            return uploadedAt;
+        }
+
+        void decode(Clock clock) {
+            long start = clock.nanoTime();
+            try {
+                if (decoder != null) {
+                    decoded = decoder.decode();
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            decodeNanos = clock.nanoTime() - start;
+        }
+    }
+
+    /*
+     * Critical assets first, then declaration order.
+     */
+    private static final Comparator<Asset<?>> ORDER = new Comparator<Asset<?>>() {
+        @Override
+        public int compare(Asset<?> lhs, Asset<?> rhs) {
+            if (lhs.critical != rhs.critical) {
+                return lhs.critical ? -1 : 1;
+            }
+            return lhs.sequence - rhs.sequence;
+        }
+    };
+
+    private final int workerCount;
+    private final Clock clock;
+    private final List<Asset<?>> assets = new ArrayList<Asset<?>>();
+    private final LinkedBlockingQueue<Asset<?>> decodedQueue = new LinkedBlockingQueue<Asset<?>>();
+    private final PriorityQueue<Asset<?>> readyQueue = new PriorityQueue<Asset<?>>(16, ORDER);
+    private ExecutorService workers;
+    private long startTime;
+    private int uploadedCount;
+    private int criticalCount;
+    private int criticalUploadedCount;
+    private long criticalReadyAt = -1;
+    private long doneAt = -1;
+
+    /**
+     * @param workerCount
+     *            the number of decode threads; the GL thread only uploads.
+     */
+    public StartupLoader(int workerCount) {
+        this(workerCount, SYSTEM_CLOCK);
+    }
+
+    public StartupLoader(int workerCount, Clock clock) {
+        this.workerCount = Math.max(1, workerCount);
+        this.clock = clock;
+    }
+
+    /**
+     * @return a pool size that leaves a core for the GL thread.
+     */
+    public static int defaultWorkerCount() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Declares an asset. Must be called before {@link #start()}.
+     *
+     * @param decoder
+     *            may be null for assets that only combine their dependencies,
+     *            such as materials.
+     * @param dependsOn
+     *            assets that must be uploaded before this one is.
+     */
+    public <T> Asset<T> add(String name, boolean critical, Decoder<T> decoder,
+            Uploader<T> uploader, Asset<?>... dependsOn) {
+        if (workers != null) {
+            throw new IllegalStateException("assets must be added before start()");
+        }
+        Asset<T> asset = new Asset<T>(name, assets.size(), critical, decoder, uploader);
+        for (Asset<?> dependency : dependsOn) {
+            asset.dependencies.add(dependency);
+            dependency.dependents.add(asset);
+        }
+        asset.pendingDependencies = dependsOn.length;
+        assets.add(asset);
+        return asset;
+    }
+
+    /**
+     * Starts decoding, critical assets first.
+     */
+    public void start() {
+        for (int i = assets.size() - 1; i >= 0; --i) {
+            if (assets.get(i).critical) {
+                promote(assets.get(i));
+            }
+        }
+        for (Asset<?> asset : assets) {
+            if (asset.critical) {
+                ++criticalCount;
+            }
+        }
+
+        List<Asset<?>> order = new ArrayList<Asset<?>>(assets);
+        Collections.sort(order, ORDER);
+        startTime = clock.nanoTime();
+        workers = Executors.newFixedThreadPool(workerCount, new WorkerFactory());
+        for (final Asset<?> asset : order) {
+            if (asset.decoder == null) {
+                asset.decode(clock);
+                decodedQueue.add(asset);
+                continue;
+            }
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    asset.decode(clock);
+                    decodedQueue.add(asset);
+                }
+            });
+        }
+        workers.shutdown();
+        if (criticalCount == 0) {
+            criticalReadyAt = 0;
+        }
+    }
+
+    private static void promote(Asset<?> asset) {
+        asset.critical = true;
+        for (Asset<?> dependency : asset.dependencies) {
+            if (!dependency.critical) {
+                promote(dependency);
+            }
+        }
+    }
+
+    /**
+     * Uploads decoded assets in priority order until {@code budgetNanos} is
+     * spent; at least one upload runs per call if one is ready. Call once
+     * per frame on the GL thread.
+     *
+     * @return true once every critical asset is uploaded.
+     * @throws IOException
+     *             if an asset failed to decode or upload.
+     */
+    public boolean pump(long budgetNanos) throws IOException {
+        long start = clock.nanoTime();
+        collectDecoded();
+        while (!readyQueue.isEmpty()) {
+            upload(readyQueue.poll());
+            collectDecoded();
+            if (clock.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        return isCriticalReady();
+    }
+
+    /**
+     * Like {@link #pump(long)}, but waits for decodes instead of returning
+     * while critical assets are outstanding.
+     */
+    public void awaitCritical() throws IOException {
+        while (!pump(Long.MAX_VALUE)) {
+            takeDecoded();
+        }
+    }
+
+    /**
+     * Waits until every asset is uploaded.
+     */
+    public void awaitAll() throws IOException {
+        pump(Long.MAX_VALUE);
+        while (!isDone()) {
+            takeDecoded();
+            pump(Long.MAX_VALUE);
+        }
+    }
+
+    private void takeDecoded() throws IOException {
+        try {
+            markDecoded(decodedQueue.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while loading assets", e);
+        }
+    }
+
+    private void collectDecoded() {
+        Asset<?> asset;
+        while ((asset = decodedQueue.poll()) != null) {
+            markDecoded(asset);
+        }
+    }
+
+    private void markDecoded(Asset<?> asset) {
+        asset.isDecoded = true;
+        if (asset.pendingDependencies == 0) {
+            readyQueue.add(asset);
+        }
+    }
+
+    private <T> void upload(Asset<T> asset) throws IOException {
+        if (asset.error != null) {
+            throw new IOException("failed to decode " + asset.name, asset.error);
+        }
+        long start = clock.nanoTime();
+        try {
+            asset.uploader.upload(asset.decoded);
+        } catch (Exception e) {
+            throw new IOException("failed to upload " + asset.name, e);
+        }
+        long end = clock.nanoTime();
+        asset.decoded = null;
+        asset.uploadNanos = end - start;
+        asset.uploadedAt = end - startTime;
+
+        ++uploadedCount;
+        if (asset.critical && ++criticalUploadedCount == criticalCount) {
+            criticalReadyAt = asset.uploadedAt;
+        }
+        if (uploadedCount == assets.size()) {
+            doneAt = asset.uploadedAt;
+        }
+        for (Asset<?> dependent : asset.dependents) {
+            if (--dependent.pendingDependencies == 0 && dependent.isDecoded) {
+                readyQueue.add(dependent);
+            }
+        }
+    }
+
+    public boolean isCriticalReady() {
+        return criticalReadyAt >= 0;
+    }
+
+    public boolean isDone() {
+        return doneAt >= 0;
+    }
+
+    /**
+     * @return nanoseconds from {@link #start()} until the last critical
+     *         upload, or -1 if that has not happened yet.
+     */
+    public long getCriticalReadyNanos() {
+        return criticalReadyAt;
+    }
+
+    /**
+     * @return nanoseconds from {@link #start()} until the last upload, or -1.
+     */
+    public long getDoneNanos() {
+        return doneAt;
+    }
+
+    /**
+     * @return what loading one asset after another would have cost: the sum
+     *         of every decode and upload.
+     */
+    public long getSerialNanos() {
+        long total = 0;
+        for (Asset<?> asset : assets) {
+            total += asset.decodeNanos + asset.uploadNanos;
+        }
+        return total;
+    }
+
+    /**
+     * @return the lower bound on {@link #getCriticalReadyNanos()} given the
+     *         measured decode and upload times: the longest chain of decodes
+     *         and uploads among critical assets, with unlimited workers.
+     */
+    public long getCriticalPathNanos() {
+        long[] finish = new long[assets.size()];
+        long longest = 0;
+        // dependencies are always declared before their dependents
+        for (Asset<?> asset : assets) {
+            long ready = asset.decodeNanos;
+            for (Asset<?> dependency : asset.dependencies) {
+                ready = Math.max(ready, finish[dependency.sequence]);
+            }
+            finish[asset.sequence] = ready + asset.uploadNanos;
+            if (asset.critical) {
+                longest = Math.max(longest, finish[asset.sequence]);
+            }
+        }
+        return longest;
+    }
+
+    public List<Asset<?>> getAssets() {
+        return Collections.unmodifiableList(assets);
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "StartupLoader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
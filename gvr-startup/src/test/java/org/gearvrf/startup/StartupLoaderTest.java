@@ -0,0 +1,438 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.startup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Drives {@link StartupLoader} headless with fake decoders and uploads that
+ * sleep for a configurable time: upload order, critical promotion, the
+ * worker bound, the upload budget on a fake clock, failures, and the
+ * viewers' asset graph pumped by a 60 Hz frame loop. With -Dbenchmark=true
+ * that graph is also reported against the serial sum and the critical path.
+ */
+public class StartupLoaderTest {
+
+    private static final long MILLIS = 1000000L;
+    private static final long FRAME_NANOS = 16666667L;
+    private static final long UPLOAD_BUDGET_NANOS = 4 * MILLIS;
+
+    /*
+     * {material, textures...} as ViewerMain declares them.
+     */
+    private static final String[][] MATERIALS = {
+            { "reflection", "env.jpg" }, { "metal", "env.jpg" }, { "glass", "env.jpg" },
+            { "diffuse", "watch/board.jpg" }, { "phong", "env.jpg" },
+            { "carBody", "env.jpg", "car/body.jpg" }, { "carWheel", "env.jpg" },
+            { "carGlass", "env.jpg" }, { "carTire", "car/default.png" },
+            { "carBack", "car/back.jpg" }, { "carGrill", "car/grill.jpg" },
+            { "carLight", "env.jpg" }, { "carInside", "env.jpg" },
+            { "robotHead", "env.jpg", "robot/head.jpg" }, { "robotMetal", "env.jpg" },
+            { "robotBody", "env.jpg" }, { "robotRubber", "car/default.png" },
+            { "leafBox", "env.jpg", "leaf/box.jpg" }, { "leafBody", "env.jpg" } };
+
+    /*
+     * {mesh, material} for each model part.
+     */
+    private static final String[][] PARTS = {
+            { "watch/frame.obj", "metal" }, { "watch/board.obj", "diffuse" },
+            { "watch/glass.obj", "glass" }, { "jar/jar.obj", "phong" },
+            { "jar/edge.obj", "metal" }, { "car/body.obj", "carBody" },
+            { "car/tire.obj", "carTire" }, { "car/glass.obj", "carGlass" },
+            { "car/wheel.obj", "carWheel" }, { "car/back.obj", "carBack" },
+            { "car/grill.obj", "carGrill" }, { "car/glass2.obj", "carLight" },
+            { "car/inside.obj", "carInside" }, { "robot/body.obj", "robotBody" },
+            { "robot/head.obj", "robotHead" }, { "robot/metal.obj", "robotMetal" },
+            { "robot/rubber.obj", "robotRubber" }, { "leaf/leaf.obj", "leafBody" },
+            { "leaf/box.obj", "leafBox" } };
+
+    private static final String[] THUMBNAIL_TEXTURES = { "leaf/leaf.jpg", "jar/jar.png",
+            "watch/watch.png", "car/car.png", "robot/robot.jpg" };
+
+    /*
+     * Records upload order and the most decodes seen running at once.
+     */
+    private static class Recorder {
+        final List<String> uploads = Collections.synchronizedList(new ArrayList<String>());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        StartupLoader.Asset<Object> fake(StartupLoader loader, final String name,
+                boolean critical, final long decodeNanos, final long uploadNanos,
+                StartupLoader.Asset<?>... dependsOn) {
+            StartupLoader.Decoder<Object> decoder = decodeNanos == 0 ? null
+                    : new StartupLoader.Decoder<Object>() {
+                        @Override
+                        public Object decode() {
+                            int now = running.incrementAndGet();
+                            int max;
+                            while (now > (max = maxRunning.get())
+                                    && !maxRunning.compareAndSet(max, now)) {
+                            }
+                            sleep(decodeNanos);
+                            running.decrementAndGet();
+                            return name;
+                        }
+                    };
+            return loader.add(name, critical, decoder, new StartupLoader.Uploader<Object>() {
+                @Override
+                public void upload(Object decoded) {
+                    if (decodeNanos != 0) {
+                        assertEquals(name, decoded);
+                    }
+                    sleep(uploadNanos);
+                    uploads.add(name);
+                }
+            }, dependsOn);
+        }
+
+        int indexOf(String name) {
+            return uploads.indexOf(name);
+        }
+    }
+
+    /*
+     * Only moves when told to, so the uploads alone spend a budget.
+     */
+    private static class FakeClock implements StartupLoader.Clock {
+        final AtomicLong now = new AtomicLong(5000 * MILLIS);
+
+        @Override
+        public long nanoTime() {
+            return now.get();
+        }
+    }
+
+    /*
+     * The viewers' graph after it has been loaded by a 60 Hz frame loop.
+     */
+    private static class ViewerStartup {
+        final int workers = 3;
+        final long textureNanos = 15 * MILLIS;
+        final long meshNanos = 20 * MILLIS;
+        final long uploadNanos = 1 * MILLIS;
+        final StartupLoader loader = new StartupLoader(workers);
+        final Recorder recorder = new Recorder();
+        int frames = 0;
+        int firstInteractiveFrame = -1;
+    }
+
+    @Test
+    public void uploadsDependenciesFirst() throws IOException {
+        StartupLoader loader = new StartupLoader(4);
+        Recorder recorder = new Recorder();
+        // the texture decodes slowest, so without the graph it would land last
+        StartupLoader.Asset<?> texture = recorder.fake(loader, "texture", false, 30 * MILLIS, 0);
+        StartupLoader.Asset<?> material = recorder.fake(loader, "material", false, 0, 0,
+                texture);
+        recorder.fake(loader, "mesh", false, MILLIS, 0, material);
+        recorder.fake(loader, "other", false, MILLIS, 0);
+
+        loader.start();
+        loader.awaitAll();
+
+        assertEquals(4, recorder.uploads.size());
+        assertTrue(recorder.indexOf("texture") < recorder.indexOf("material"));
+        assertTrue(recorder.indexOf("material") < recorder.indexOf("mesh"));
+        assertEquals(0, recorder.indexOf("other"));
+        assertTrue(loader.isDone());
+    }
+
+    @Test
+    public void promotesWhatCriticalAssetsNeed() throws IOException {
+        StartupLoader loader = new StartupLoader(1);
+        Recorder recorder = new Recorder();
+        recorder.fake(loader, "background", false, MILLIS, 0);
+        StartupLoader.Asset<?> texture = recorder.fake(loader, "texture", false, MILLIS, 0);
+        StartupLoader.Asset<?> pointer = recorder.fake(loader, "pointer", true, MILLIS, 0,
+                texture);
+
+        loader.start();
+        assertTrue(texture.isCritical());
+        loader.awaitCritical();
+
+        assertTrue(loader.isCriticalReady());
+        assertTrue(pointer.getUploadedAt() >= texture.getUploadedAt());
+        assertEquals(loader.getCriticalReadyNanos(), pointer.getUploadedAt());
+        // one worker decodes critical assets first, so the background waits
+        assertEquals(-1, recorder.indexOf("background"));
+
+        loader.awaitAll();
+        assertEquals(2, recorder.indexOf("background"));
+    }
+
+    @Test
+    public void noCriticalAssetsIsReadyAtOnce() throws IOException {
+        StartupLoader loader = new StartupLoader(2);
+        new Recorder().fake(loader, "background", false, 10 * MILLIS, 0);
+        loader.start();
+        assertTrue(loader.pump(0));
+        assertEquals(0, loader.getCriticalReadyNanos());
+        loader.awaitAll();
+    }
+
+    @Test
+    public void boundsParallelDecodes() throws IOException {
+        StartupLoader loader = new StartupLoader(3);
+        Recorder recorder = new Recorder();
+        for (int i = 0; i < 12; ++i) {
+            recorder.fake(loader, "asset " + i, false, 5 * MILLIS, 0);
+        }
+        loader.start();
+        loader.awaitAll();
+
+        assertEquals(12, recorder.uploads.size());
+        assertTrue(recorder.maxRunning.get() <= 3);
+        assertTrue(recorder.maxRunning.get() > 1);
+    }
+
+    @Test
+    public void pumpStopsAtTheBudget() throws IOException {
+        final FakeClock clock = new FakeClock();
+        StartupLoader loader = new StartupLoader(2, clock);
+        final List<String> uploads = new ArrayList<String>();
+        for (int i = 0; i < 10; ++i) {
+            final String name = "asset " + i;
+            loader.add(name, false, null, new StartupLoader.Uploader<Object>() {
+                @Override
+                public void upload(Object decoded) {
+                    clock.now.addAndGet(2 * MILLIS);
+                    uploads.add(name);
+                }
+            });
+        }
+        loader.start();
+
+        // at least one upload per call, even without a budget
+        loader.pump(0);
+        assertEquals(1, uploads.size());
+        // uploads end at 2, 4 and 6 ms; none starts once 5 ms are spent
+        loader.pump(5 * MILLIS);
+        assertEquals(4, uploads.size());
+        loader.pump(6 * MILLIS);
+        assertEquals(7, uploads.size());
+        loader.awaitAll();
+        assertEquals(10, uploads.size());
+        assertEquals(2 * MILLIS, loader.getAssets().get(9).getUploadNanos());
+        assertEquals(20 * MILLIS, loader.getDoneNanos());
+    }
+
+    @Test
+    public void reportsDecodeFailure() {
+        StartupLoader loader = new StartupLoader(2);
+        final Exception cause = new IllegalStateException("bad png");
+        loader.add("broken", true, new StartupLoader.Decoder<Object>() {
+            @Override
+            public Object decode() throws Exception {
+                throw cause;
+            }
+        }, new StartupLoader.Uploader<Object>() {
+            @Override
+            public void upload(Object decoded) {
+                fail("uploaded a failed decode");
+            }
+        });
+        loader.start();
+        try {
+            loader.awaitCritical();
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertEquals("failed to decode broken", e.getMessage());
+            assertSame(cause, e.getCause());
+        }
+        assertFalse(loader.isCriticalReady());
+    }
+
+    @Test
+    public void reportsUploadFailure() {
+        StartupLoader loader = new StartupLoader(1);
+        loader.add("broken", false, null, new StartupLoader.Uploader<Object>() {
+            @Override
+            public void upload(Object decoded) throws Exception {
+                throw new IOException("no GL context");
+            }
+        });
+        loader.start();
+        try {
+            loader.awaitAll();
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertEquals("failed to upload broken", e.getMessage());
+        }
+        assertFalse(loader.isDone());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsAssetsAfterStart() {
+        StartupLoader loader = new StartupLoader(1);
+        loader.start();
+        new Recorder().fake(loader, "late", false, 0, 0);
+    }
+
+    @Test
+    public void criticalPathFollowsTheLongestChain() throws IOException {
+        StartupLoader loader = new StartupLoader(4);
+        Recorder recorder = new Recorder();
+        StartupLoader.Asset<?> slow = recorder.fake(loader, "slow", true, 40 * MILLIS, 0);
+        StartupLoader.Asset<?> fast = recorder.fake(loader, "fast", true, 5 * MILLIS, 0);
+        recorder.fake(loader, "both", true, 0, 0, slow, fast);
+        recorder.fake(loader, "late", false, 60 * MILLIS, 0);
+        loader.start();
+        loader.awaitAll();
+
+        long path = loader.getCriticalPathNanos();
+        assertTrue(path >= 40 * MILLIS);
+        // the non-critical decode is not on the critical path
+        assertTrue(path < 60 * MILLIS);
+        assertTrue(loader.getCriticalReadyNanos() >= path);
+        assertTrue(loader.getSerialNanos() >= 105 * MILLIS);
+        assertTrue(loader.getDoneNanos() < loader.getSerialNanos());
+    }
+
+    @Test
+    public void viewerStartupShowsCriticalAssetsFirst() throws IOException {
+        ViewerStartup startup = loadViewerGraph();
+        StartupLoader loader = startup.loader;
+
+        assertEquals(loader.getAssets().size(), startup.recorder.uploads.size());
+        assertTrue(startup.recorder.maxRunning.get() <= startup.workers);
+        assertTrue(startup.firstInteractiveFrame >= 0);
+        assertTrue(startup.firstInteractiveFrame < startup.frames);
+        assertTrue(loader.getCriticalReadyNanos() < loader.getDoneNanos());
+        assertTrue(loader.getCriticalPathNanos() <= loader.getCriticalReadyNanos());
+        assertTrue(loader.getDoneNanos() < loader.getSerialNanos());
+    }
+
+    @Test
+    public void benchmarkViewerStartup() throws IOException {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        ViewerStartup startup = loadViewerGraph();
+        StartupLoader loader = startup.loader;
+
+        int criticalCount = 0;
+        for (StartupLoader.Asset<?> asset : loader.getAssets()) {
+            if (asset.isCritical()) {
+                ++criticalCount;
+            }
+        }
+        System.out.println(String.format(
+                "StartupLoader: %d assets (%d critical), %d workers, decode %d/%d ms,"
+                        + " upload %d ms%n"
+                        + "  serial             %8.1f ms%n"
+                        + "  critical path      %8.1f ms%n"
+                        + "  first interactive  %8.1f ms  (frame %d)%n"
+                        + "  all uploaded       %8.1f ms  (frame %d)",
+                loader.getAssets().size(), criticalCount, startup.workers,
+                startup.textureNanos / MILLIS, startup.meshNanos / MILLIS,
+                startup.uploadNanos / MILLIS, loader.getSerialNanos() / 1e6,
+                loader.getCriticalPathNanos() / 1e6, loader.getCriticalReadyNanos() / 1e6,
+                startup.firstInteractiveFrame, loader.getDoneNanos() / 1e6, startup.frames));
+    }
+
+    /*
+     * Decode times in the range of the viewers' textures and meshes,
+     * shortened so the test stays quick.
+     */
+    private static ViewerStartup loadViewerGraph() throws IOException {
+        ViewerStartup startup = new ViewerStartup();
+        long textureNanos = startup.textureNanos;
+        long meshNanos = startup.meshNanos;
+        long uploadNanos = startup.uploadNanos;
+        StartupLoader loader = startup.loader;
+        Recorder recorder = startup.recorder;
+        Map<String, StartupLoader.Asset<?>> textures = new HashMap<String, StartupLoader.Asset<?>>();
+        Map<String, StartupLoader.Asset<?>> materials = new HashMap<String, StartupLoader.Asset<?>>();
+
+        for (String[] material : MATERIALS) {
+            StartupLoader.Asset<?>[] dependencies = new StartupLoader.Asset<?>[material.length - 1];
+            for (int i = 1; i < material.length; ++i) {
+                StartupLoader.Asset<?> texture = textures.get(material[i]);
+                if (texture == null) {
+                    texture = recorder.fake(loader, material[i], false, textureNanos,
+                            uploadNanos);
+                    textures.put(material[i], texture);
+                }
+                dependencies[i - 1] = texture;
+            }
+            materials.put(material[0], recorder.fake(loader, material[0],
+                    material[0].equals("reflection"), 0, uploadNanos / 4, dependencies));
+        }
+        for (String[] part : PARTS) {
+            recorder.fake(loader, part[0], false, meshNanos, uploadNanos,
+                    materials.get(part[1]));
+        }
+
+        // thumbnails, environment and pointer: what the first frame shows
+        StartupLoader.Asset<?> glass = recorder.fake(loader, "glass.obj", true, meshNanos,
+                uploadNanos);
+        StartupLoader.Asset<?> board = recorder.fake(loader, "board.obj", true, meshNanos,
+                uploadNanos);
+        StartupLoader.Asset<?> pick = recorder.fake(loader, "pick.obj", true, meshNanos,
+                uploadNanos);
+        for (String thumbnail : THUMBNAIL_TEXTURES) {
+            StartupLoader.Asset<?> texture = recorder.fake(loader, thumbnail, true,
+                    textureNanos, uploadNanos);
+            recorder.fake(loader, "thumbnail " + thumbnail, true, 0, uploadNanos / 4, texture,
+                    board, glass, pick, materials.get("reflection"));
+        }
+        StartupLoader.Asset<?> sphere = recorder.fake(loader, "sphere.obj", true, meshNanos,
+                uploadNanos);
+        recorder.fake(loader, "environment", true, 0, uploadNanos / 4, sphere,
+                textures.get("env.jpg"));
+        recorder.fake(loader, "Headtracking_pointer.png", true, textureNanos, uploadNanos);
+
+        long frameStart = System.nanoTime();
+        loader.start();
+        while (!loader.isDone()) {
+            // nothing is shown until the critical assets are up, so they get the whole frame
+            long budget = loader.isCriticalReady() ? UPLOAD_BUDGET_NANOS : FRAME_NANOS;
+            if (loader.pump(budget) && startup.firstInteractiveFrame < 0) {
+                startup.firstInteractiveFrame = startup.frames;
+            }
+            ++startup.frames;
+            frameStart += FRAME_NANOS;
+            sleep(frameStart - System.nanoTime());
+        }
+        return startup;
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
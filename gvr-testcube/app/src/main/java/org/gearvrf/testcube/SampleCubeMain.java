@@ -26,6 +26,7 @@ import org.gearvrf.GVRMain;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.testcube.R;
 import org.gearvrf.scene_objects.GVRCubeSceneObject;
+import org.gearvrf.profiler.FPSCounter;
 
 import android.util.Log;
 
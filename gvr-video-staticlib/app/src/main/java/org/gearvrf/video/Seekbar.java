@@ -16,11 +16,14 @@
 
 package org.gearvrf.video;
 
-import android.annotation.SuppressLint;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.glyphtext.GlyphAtlas;
+import org.gearvrf.glyphtext.GlyphAtlasText;
+import org.gearvrf.shadowstate.ShadowState;
 
 public class Seekbar extends GVRSceneObject {
     private static final float WIDTH = 8.0f;
@@ -31,8 +34,12 @@ public class Seekbar extends GVRSceneObject {
     private GVRSceneObject mLeftSide = null;
     private GVRSceneObject mPointer = null;
     private GVRSceneObject mGlow = null;
-    private GVRSceneObject mCurrentTime = null;
-    private GVRSceneObject mDuration = null;
+    private GlyphAtlasText mCurrentTime = null;
+    private GlyphAtlasText mDuration = null;
+    private GVRRenderData[] mParts = null;
+    private ShadowState mShadowState = null;
+    private int[] mMaskSlots = null;
+    private int mGlowSlot;
 
     public Seekbar(GVRContext gvrContext) {
         super(gvrContext);
@@ -71,8 +78,9 @@ public class Seekbar extends GVRSceneObject {
         mGlow.getRenderData().setOffsetFactor(-1.0f);
         mGlow.getRenderData().setOffsetUnits(-1.0f);
 
-        mCurrentTime = new GVRSceneObject(gvrContext, gvrContext.createQuad(
-                2.4f, 0.3f), TextFactory.create(gvrContext, "1111"));
+        GlyphAtlas atlas = new GlyphAtlas(gvrContext);
+
+        mCurrentTime = new GlyphAtlasText(gvrContext, atlas, 2.4f, 0.3f);
         mCurrentTime.getTransform().setPosition(-3.2f, -0.3f, 0.0f);
         mCurrentTime.getRenderData().setRenderingOrder(
                 GVRRenderingOrder.TRANSPARENT + 2);
@@ -80,8 +88,7 @@ public class Seekbar extends GVRSceneObject {
         mCurrentTime.getRenderData().setOffsetFactor(-2.0f);
         mCurrentTime.getRenderData().setOffsetUnits(-2.0f);
 
-        mDuration = new GVRSceneObject(gvrContext, gvrContext.createQuad(2.4f,
-                0.3f), TextFactory.create(gvrContext, "2222"));
+        mDuration = new GlyphAtlasText(gvrContext, atlas, 2.4f, 0.3f);
         mDuration.getTransform().setPosition(3.2f, -0.3f, 0.0f);
         mDuration.getRenderData().setRenderingOrder(
                 GVRRenderingOrder.TRANSPARENT + 2);
@@ -95,6 +102,12 @@ public class Seekbar extends GVRSceneObject {
         addChildObject(mGlow);
         addChildObject(mCurrentTime);
         addChildObject(mDuration);
+
+        mParts = new GVRRenderData[] {
+                mPlayedSide.getRenderData(), mLeftSide.getRenderData(),
+                mPointer.getRenderData(), mCurrentTime.getRenderData(),
+                mDuration.getRenderData()
+        };
     }
 
     public Float getRatio(float[] lookAt) {
@@ -113,7 +126,6 @@ public class Seekbar extends GVRSceneObject {
         }
     }
 
-    @SuppressLint("DefaultLocale")
     public void setTime(GVRContext gvrContext, int current, int duration) {
         float ratio = (float) current / (float) duration;
         float left = -WIDTH * 0.5f;
@@ -128,33 +140,49 @@ public class Seekbar extends GVRSceneObject {
         /*
          * ms to s
          */
-        current /= 1000;
-        duration /= 1000;
-
-        String currentText = String.format("%02d:%02d:%02d", current / 3600,
-                (current % 3600) / 60, current % 60);
-        String durationText = String.format("%02d:%02d:%02d", duration / 3600,
-                (duration % 3600) / 60, duration % 60);
-        mCurrentTime.getRenderData().getMaterial()
-                .setMainTexture(TextFactory.create(gvrContext, currentText));
-        mDuration.getRenderData().getMaterial()
-                .setMainTexture(TextFactory.create(gvrContext, durationText));
+        mCurrentTime.setSeconds(current / 1000);
+        mDuration.setSeconds(duration / 1000);
+    }
+
+    /**
+     * Sends the render mask writes through {@code shadowState}, so
+     * {@link #setRenderMask(int)}, {@link #glow()} and {@link #unglow()} can
+     * be called every frame.
+     */
+    public void setShadowState(ShadowState shadowState) {
+        mShadowState = shadowState;
+        mMaskSlots = new int[mParts.length];
+        for (int i = 0; i < mParts.length; ++i) {
+            mMaskSlots[i] = shadowState.registerRenderMask(mParts[i]);
+        }
+        mGlowSlot = shadowState.registerRenderMask(mGlow.getRenderData());
     }
 
     public void glow() {
-        mGlow.getRenderData().setRenderMask(
-                GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
+        setGlowMask(GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
     }
 
     public void unglow() {
-        mGlow.getRenderData().setRenderMask(0);
+        setGlowMask(0);
     }
 
     public void setRenderMask(int renderMask) {
-        mPlayedSide.getRenderData().setRenderMask(renderMask);
-        mLeftSide.getRenderData().setRenderMask(renderMask);
-        mPointer.getRenderData().setRenderMask(renderMask);
-        mCurrentTime.getRenderData().setRenderMask(renderMask);
-        mDuration.getRenderData().setRenderMask(renderMask);
+        if (mShadowState != null) {
+            for (int slot : mMaskSlots) {
+                mShadowState.setRenderMask(slot, renderMask);
+            }
+        } else {
+            for (GVRRenderData part : mParts) {
+                part.setRenderMask(renderMask);
+            }
+        }
+    }
+
+    private void setGlowMask(int renderMask) {
+        if (mShadowState != null) {
+            mShadowState.setRenderMask(mGlowSlot, renderMask);
+        } else {
+            mGlow.getRenderData().setRenderMask(renderMask);
+        }
     }
 }
@@ -24,7 +24,10 @@ import org.gearvrf.*;
 import org.gearvrf.GVRMaterial.GVRShaderType;
 import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
-import org.gearvrf.util.FPSCounter;
+import org.gearvrf.profiler.FPSCounter;
+import org.gearvrf.profiler.FrameProfiler;
+import org.gearvrf.shadowstate.GVRStateWriter;
+import org.gearvrf.shadowstate.ShadowState;
 
 import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
@@ -41,6 +44,37 @@ public class VideoMain extends GVRScript {
 
     private static final String TAG = "VideoMain";
 
+    /*
+     * Steps are reported when they take more than a quarter of a 60 Hz frame.
+     */
+    private static final long STEP_BUDGET_NANOS = 4000000;
+    private static final int PROFILER_REPORT_FRAMES = 600;
+    private final FrameProfiler mProfiler = new FrameProfiler(
+            STEP_BUDGET_NANOS, FrameProfiler.NO_BUDGET);
+    private final int mSeekbarSection = mProfiler.addSection("seekbar");
+
+    /*
+     * Render masks and shader uniforms written every frame go through here,
+     * so only changes reach native code.
+     */
+    private final ShadowState mShadowState = new ShadowState(
+            new GVRStateWriter());
+    private int[][] mCinemaMaskSlots = null;
+    private int[] mButtonMaskSlots = null;
+    private int[] mButtonEnabledSlots = null;
+    private int mHeadTrackerMaskSlot;
+    private int mLeftWeightSlot;
+    private int mLeftFadeSlot;
+    private int mLeftLightSlot;
+    private int mRightWeightSlot;
+    private int mRightFadeSlot;
+    private int mRightLightSlot;
+    private int mOculus1WeightSlot;
+    private int mOculus1FadeSlot;
+    private int mOculus1LightSlot;
+    private int mOculus2WeightSlot;
+    private int mOculus2FadeSlot;
+
     private GVRContext mGVRContext = null;
     private RadiosityShader mRadiosityShader = null;
     private AdditiveShader mAdditiveShader = null;
@@ -665,6 +699,8 @@ public class VideoMain extends GVRScript {
             mCameraSurfaceTexture = new SurfaceTexture(
                     passThroughTexture.getId());
             mainScene.getMainCameraRig().addChildObject(mPassThroughObject);
+
+            registerShadowState();
         } catch (IOException e) {
             e.printStackTrace();
             mActivity.finish();
@@ -679,6 +715,94 @@ public class VideoMain extends GVRScript {
     @Override
     public void onStep() {
         FPSCounter.tick();
+
+        mProfiler.beginFrame();
+        try {
+            step();
+        } finally {
+            mProfiler.endFrame();
+        }
+        if (mProfiler.getFrameCount() % PROFILER_REPORT_FRAMES == 0) {
+            Log.v(TAG, mProfiler.report());
+            Log.v(TAG, "state writes forwarded: "
+                    + mShadowState.getForwardedCount() + ", elided: "
+                    + mShadowState.getElidedCount());
+            mProfiler.reset();
+            mShadowState.resetCounters();
+        }
+    }
+
+    private void registerShadowState() {
+        mCinemaMaskSlots = new int[mCinemaNum][];
+        for (int c = 0; c < mCinemaNum; c++) {
+            mCinemaMaskSlots[c] = new int[mCinema[c].getChildrenCount()];
+            for (int i = 0; i < mCinemaMaskSlots[c].length; i++)
+                mCinemaMaskSlots[c][i] = mShadowState.registerRenderMask(
+                        mCinema[c].getChildByIndex(i).getRenderData());
+        }
+        GVRSceneObject[] buttons = { mPlayPauseButton, mFrontButton,
+                mBackButton, mImaxButton, mSelectButton, mButtonBoard };
+        mButtonMaskSlots = new int[buttons.length];
+        for (int i = 0; i < buttons.length; i++)
+            mButtonMaskSlots[i] = mShadowState.registerRenderMask(
+                    buttons[i].getRenderData());
+        // the board is not pickable, so it has no eye pointee holder
+        mButtonEnabledSlots = new int[buttons.length - 1];
+        for (int i = 0; i < mButtonEnabledSlots.length; i++)
+            mButtonEnabledSlots[i] = mShadowState.registerEnabled(
+                    buttons[i].getEyePointeeHolder());
+        mSeekbar.setShadowState(mShadowState);
+        mHeadTrackerMaskSlot = mShadowState.registerRenderMask(
+                mHeadTracker.getRenderData());
+
+        GVRMaterial material = mLeftSceneObject.getRenderData().getMaterial();
+        mLeftWeightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.WEIGHT_KEY);
+        mLeftFadeSlot = mShadowState.registerFloat(material,
+                RadiosityShader.FADE_KEY);
+        mLeftLightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.LIGHT_KEY);
+
+        material = mRightSceneObject.getRenderData().getMaterial();
+        mRightWeightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.WEIGHT_KEY);
+        mRightFadeSlot = mShadowState.registerFloat(material,
+                RadiosityShader.FADE_KEY);
+        mRightLightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.LIGHT_KEY);
+
+        material = mOculusSceneObject1.getRenderData().getMaterial();
+        mOculus1WeightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.WEIGHT_KEY);
+        mOculus1FadeSlot = mShadowState.registerFloat(material,
+                RadiosityShader.FADE_KEY);
+        mOculus1LightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.LIGHT_KEY);
+
+        material = mOculusSceneObject2.getRenderData().getMaterial();
+        mOculus2WeightSlot = mShadowState.registerFloat(material,
+                AdditiveShader.WEIGHT_KEY);
+        mOculus2FadeSlot = mShadowState.registerFloat(material,
+                AdditiveShader.FADE_KEY);
+    }
+
+    private void setCinemaRenderMask(int cinema, int mask) {
+        int[] slots = mCinemaMaskSlots[cinema];
+        for (int i = 0; i < slots.length; i++)
+            mShadowState.setRenderMask(slots[i], mask);
+    }
+
+    private void setButtonRenderMask(int mask) {
+        for (int i = 0; i < mButtonMaskSlots.length; i++)
+            mShadowState.setRenderMask(mButtonMaskSlots[i], mask);
+    }
+
+    private void setButtonEnabled(boolean enabled) {
+        for (int i = 0; i < mButtonEnabledSlots.length; i++)
+            mShadowState.setEnabled(mButtonEnabledSlots[i], enabled);
+    }
+
+    private void step() {
         mVideoSurfaceTexture.updateTexImage();
 
         float step = 0.2f;
@@ -690,64 +814,31 @@ public class VideoMain extends GVRScript {
             mCameraSurfaceTexture.updateTexImage();
             mMediaPlayer.pause();
             mFadeWeight = 0.0f;
-            for (int i = 0; i < mCinema[0].getChildrenCount(); i++)
-                mCinema[0].getChildByIndex(i).getRenderData().setRenderMask(0);
-            for (int i = 0; i < mCinema[1].getChildrenCount(); i++)
-                mCinema[1].getChildByIndex(i).getRenderData().setRenderMask(0);
+            setCinemaRenderMask(0, 0);
+            setCinemaRenderMask(1, 0);
             mIsUIHidden = true;
         } else {
             if (mCurrentCinema == 0) {
-                for (int i = 0; i < mCinema[1].getChildrenCount(); i++)
-                    mCinema[1].getChildByIndex(i).getRenderData()
-                            .setRenderMask(0);
-                for (int i = 0; i < mCinema[0].getChildrenCount(); i++)
-                    mCinema[0]
-                            .getChildByIndex(i)
-                            .getRenderData()
-                            .setRenderMask(
-                                    GVRRenderMaskBit.Left
-                                            | GVRRenderMaskBit.Right);
-
-                mLeftSceneObject
-                        .getRenderData()
-                        .getMaterial()
-                        .setFloat(RadiosityShader.WEIGHT_KEY, mTransitionWeight);
-                mRightSceneObject
-                        .getRenderData()
-                        .getMaterial()
-                        .setFloat(RadiosityShader.WEIGHT_KEY, mTransitionWeight);
-                mLeftSceneObject.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.FADE_KEY, mFadeWeight);
-                mRightSceneObject.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.FADE_KEY, mFadeWeight);
-                mLeftSceneObject.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.LIGHT_KEY, 2.0f);
-                mRightSceneObject.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.LIGHT_KEY, 2.0f);
+                setCinemaRenderMask(1, 0);
+                setCinemaRenderMask(0, GVRRenderMaskBit.Left
+                        | GVRRenderMaskBit.Right);
+
+                mShadowState.setFloat(mLeftWeightSlot, mTransitionWeight);
+                mShadowState.setFloat(mRightWeightSlot, mTransitionWeight);
+                mShadowState.setFloat(mLeftFadeSlot, mFadeWeight);
+                mShadowState.setFloat(mRightFadeSlot, mFadeWeight);
+                mShadowState.setFloat(mLeftLightSlot, 2.0f);
+                mShadowState.setFloat(mRightLightSlot, 2.0f);
             } else {
-                for (int i = 0; i < mCinema[0].getChildrenCount(); i++)
-                    mCinema[0].getChildByIndex(i).getRenderData()
-                            .setRenderMask(0);
-                for (int i = 0; i < mCinema[1].getChildrenCount(); i++)
-                    mCinema[1]
-                            .getChildByIndex(i)
-                            .getRenderData()
-                            .setRenderMask(
-                                    GVRRenderMaskBit.Left
-                                            | GVRRenderMaskBit.Right);
-
-                mOculusSceneObject1
-                        .getRenderData()
-                        .getMaterial()
-                        .setFloat(RadiosityShader.WEIGHT_KEY, mTransitionWeight);
-                mOculusSceneObject1.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.FADE_KEY, mFadeWeight);
-                mOculusSceneObject1.getRenderData().getMaterial()
-                        .setFloat(RadiosityShader.LIGHT_KEY, 1.0f);
-                mOculusSceneObject2.getRenderData().getMaterial()
-                        .setFloat(AdditiveShader.WEIGHT_KEY, mTransitionWeight);
-                mOculusSceneObject2.getRenderData().getMaterial()
-                        .setFloat(AdditiveShader.FADE_KEY, mFadeWeight);
+                setCinemaRenderMask(0, 0);
+                setCinemaRenderMask(1, GVRRenderMaskBit.Left
+                        | GVRRenderMaskBit.Right);
+
+                mShadowState.setFloat(mOculus1WeightSlot, mTransitionWeight);
+                mShadowState.setFloat(mOculus1FadeSlot, mFadeWeight);
+                mShadowState.setFloat(mOculus1LightSlot, 1.0f);
+                mShadowState.setFloat(mOculus2WeightSlot, mTransitionWeight);
+                mShadowState.setFloat(mOculus2FadeSlot, mFadeWeight);
             }
         }
 
@@ -777,25 +868,10 @@ public class VideoMain extends GVRScript {
         boolean isAnythingPointed = false;
 
         if (!mIsUIHidden) {
-            mPlayPauseButton.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-            mFrontButton.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-            mBackButton.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-            mImaxButton.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-            mSelectButton.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-            mButtonBoard.getRenderData().setRenderMask(
-                    GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
+            setButtonRenderMask(GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
             mSeekbar.setRenderMask(GVRRenderMaskBit.Left
                     | GVRRenderMaskBit.Right);
-            mPlayPauseButton.getEyePointeeHolder().setEnable(true);
-            mFrontButton.getEyePointeeHolder().setEnable(true);
-            mBackButton.getEyePointeeHolder().setEnable(true);
-            mImaxButton.getEyePointeeHolder().setEnable(true);
-            mSelectButton.getEyePointeeHolder().setEnable(true);
+            setButtonEnabled(true);
 
             if (pickedHolders == null) {
                 pickedHolders = GVRPicker.pickScene(mGVRContext.getMainScene());
@@ -918,6 +994,7 @@ public class VideoMain extends GVRScript {
                 mSeekbar.unglow();
             }
 
+            mProfiler.beginSection(mSeekbarSection);
             if (isTouched && seekbarRatio != null) {
                 int current = (int) (mMediaPlayer.getDuration() * seekbarRatio);
                 mMediaPlayer.seekTo(current);
@@ -928,6 +1005,7 @@ public class VideoMain extends GVRScript {
                         mMediaPlayer.getCurrentPosition(),
                         mMediaPlayer.getDuration());
             }
+            mProfiler.endSection(mSeekbarSection);
         } else {
 
             turnOffGUIMenu();
@@ -1072,10 +1150,10 @@ public class VideoMain extends GVRScript {
         }
 
         if (!mIsUIHidden || mIsGlobalMenuOn) {
-            mHeadTracker.getRenderData().setRenderMask(
+            mShadowState.setRenderMask(mHeadTrackerMaskSlot,
                     GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
         } else {
-            mHeadTracker.getRenderData().setRenderMask(0);
+            mShadowState.setRenderMask(mHeadTrackerMaskSlot, 0);
         }
 
         if (!isUIHiden && isSingleTapped && !isAnythingPointed) {
@@ -1108,19 +1186,10 @@ public class VideoMain extends GVRScript {
     }
 
     private void turnOffGUIMenu() {
-        mPlayPauseButton.getRenderData().setRenderMask(0);
-        mFrontButton.getRenderData().setRenderMask(0);
-        mBackButton.getRenderData().setRenderMask(0);
-        mImaxButton.getRenderData().setRenderMask(0);
-        mSelectButton.getRenderData().setRenderMask(0);
-        mButtonBoard.getRenderData().setRenderMask(0);
+        setButtonRenderMask(0);
         mSeekbar.setRenderMask(0);
         mSeekbar.unglow();
-        mPlayPauseButton.getEyePointeeHolder().setEnable(false);
-        mFrontButton.getEyePointeeHolder().setEnable(false);
-        mBackButton.getEyePointeeHolder().setEnable(false);
-        mImaxButton.getEyePointeeHolder().setEnable(false);
-        mSelectButton.getEyePointeeHolder().setEnable(false);
+        setButtonEnabled(false);
     }
 
     private void turnOffGlobalMenu() {
@@ -22,9 +22,14 @@ import org.gearvrf.GVRMeshEyePointee;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
+import org.gearvrf.shadowstate.ShadowState;
 
 public class Button extends GVRSceneObject {
 
+    private ShadowState mShadowState;
+    private int mMaskSlot;
+    private int mEnabledSlot;
+
     public Button(GVRContext gvrContext, GVRMesh mesh, GVRTexture active, GVRTexture inactive) {
         super(gvrContext, mesh, inactive);
         getRenderData().getMaterial().setTexture("active_texture", active);
@@ -43,15 +48,33 @@ public class Button extends GVRSceneObject {
         getTransform().setPosition(x, y, z);
     }
 
+    /**
+     * Sends {@link #show()} and {@link #hide()} through {@code shadowState},
+     * so calling them every frame only writes when the button changes.
+     */
+    public void setShadowState(ShadowState shadowState) {
+        mShadowState = shadowState;
+        mMaskSlot = shadowState.registerRenderMask(getRenderData());
+        mEnabledSlot = shadowState.registerEnabled(getEyePointeeHolder());
+    }
+
     public void show() {
-        getRenderData().setRenderMask(
-                GVRRenderData.GVRRenderMaskBit.Left | GVRRenderData.GVRRenderMaskBit.Right);
-        getEyePointeeHolder().setEnable(true);
+        setVisible(GVRRenderData.GVRRenderMaskBit.Left | GVRRenderData.GVRRenderMaskBit.Right,
+                true);
     }
 
     public void hide() {
-        getRenderData().setRenderMask(0);
-        getEyePointeeHolder().setEnable(false);
+        setVisible(0, false);
+    }
+
+    private void setVisible(int mask, boolean enabled) {
+        if (mShadowState != null) {
+            mShadowState.setRenderMask(mMaskSlot, mask);
+            mShadowState.setEnabled(mEnabledSlot, enabled);
+        } else {
+            getRenderData().setRenderMask(mask);
+            getEyePointeeHolder().setEnable(enabled);
+        }
     }
 
     public void activate() {
@@ -20,9 +20,9 @@ import android.util.Log;
 import android.view.MotionEvent;
 
 import org.gearvrf.GVRActivity;
-import org.gearvrf.util.VRTouchPadGestureDetector;
-import org.gearvrf.util.VRTouchPadGestureDetector.OnTouchPadGestureListener;
-import org.gearvrf.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.OnTouchPadGestureListener;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 
 public class VideoActivity extends GVRActivity implements
         OnTouchPadGestureListener {
@@ -21,7 +21,10 @@ import org.gearvrf.*;
 import org.gearvrf.GVRRenderData.GVRRenderMaskBit;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.scene_objects.GVRVideoSceneObject;
-import org.gearvrf.util.FPSCounter;
+import org.gearvrf.profiler.FPSCounter;
+import org.gearvrf.profiler.FrameProfiler;
+import org.gearvrf.shadowstate.GVRStateWriter;
+import org.gearvrf.shadowstate.ShadowState;
 
 import android.content.res.AssetFileDescriptor;
 import android.media.MediaPlayer;
@@ -32,6 +35,33 @@ public class VideoMain extends GVRMain {
 
     private static final String TAG = "VideoMain";
 
+    /*
+     * Steps are reported when they take more than a quarter of a 60 Hz frame.
+     */
+    private static final long STEP_BUDGET_NANOS = 4000000;
+    private static final int PROFILER_REPORT_FRAMES = 600;
+    private final FrameProfiler mProfiler = new FrameProfiler(
+            STEP_BUDGET_NANOS, FrameProfiler.NO_BUDGET);
+    private final int mSeekbarSection = mProfiler.addSection("seekbar");
+
+    /*
+     * Render masks and shader uniforms written every frame go through here,
+     * so only changes reach native code.
+     */
+    private final ShadowState mShadowState = new ShadowState(
+            new GVRStateWriter());
+    private int[][] mCinemaMaskSlots = null;
+    private int mButtonBoardMaskSlot;
+    private int mHeadTrackerMaskSlot;
+    private int mSceneWeightSlot;
+    private int mSceneFadeSlot;
+    private int mSceneLightSlot;
+    private int mOculus1WeightSlot;
+    private int mOculus1FadeSlot;
+    private int mOculus1LightSlot;
+    private int mOculus2WeightSlot;
+    private int mOculus2FadeSlot;
+
     private GVRContext mGVRContext = null;
 
     private MediaPlayer mMediaPlayer = null;
@@ -377,6 +407,8 @@ public class VideoMain extends GVRMain {
              */
             mSeekbar = new Seekbar(gvrContext);
             mainScene.addSceneObject(mSeekbar);
+
+            registerShadowState();
         } catch (IOException e) {
             e.printStackTrace();
             mActivity.finish();
@@ -392,43 +424,94 @@ public class VideoMain extends GVRMain {
     public void onStep() {
         FPSCounter.tick();
 
+        mProfiler.beginFrame();
+        try {
+            step();
+        } finally {
+            mProfiler.endFrame();
+        }
+        if (mProfiler.getFrameCount() % PROFILER_REPORT_FRAMES == 0) {
+            Log.v(TAG, mProfiler.report());
+            Log.v(TAG, "state writes forwarded: "
+                    + mShadowState.getForwardedCount() + ", elided: "
+                    + mShadowState.getElidedCount());
+            mProfiler.reset();
+            mShadowState.resetCounters();
+        }
+    }
+
+    private void registerShadowState() {
+        mCinemaMaskSlots = new int[mCinemaNum][];
+        for (int c = 0; c < mCinemaNum; c++) {
+            mCinemaMaskSlots[c] = new int[mCinema[c].getChildrenCount()];
+            for (int i = 0; i < mCinemaMaskSlots[c].length; i++)
+                mCinemaMaskSlots[c][i] = mShadowState.registerRenderMask(
+                        mCinema[c].getChildByIndex(i).getRenderData());
+        }
+        mButtonBoardMaskSlot = mShadowState.registerRenderMask(
+                mButtonBoard.getRenderData());
+        mHeadTrackerMaskSlot = mShadowState.registerRenderMask(
+                mHeadTracker.getRenderData());
+        mPlayButton.setShadowState(mShadowState);
+        mPauseButton.setShadowState(mShadowState);
+        mFrontButton.setShadowState(mShadowState);
+        mBackButton.setShadowState(mShadowState);
+        mImaxButton.setShadowState(mShadowState);
+        mSelectButton.setShadowState(mShadowState);
+        mSeekbar.setShadowState(mShadowState);
+
+        GVRMaterial material = mSceneObject.getRenderData().getMaterial();
+        mSceneWeightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.WEIGHT_KEY);
+        mSceneFadeSlot = mShadowState.registerFloat(material,
+                RadiosityShader.FADE_KEY);
+        mSceneLightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.LIGHT_KEY);
+
+        material = mOculusSceneObject1.getRenderData().getMaterial();
+        mOculus1WeightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.WEIGHT_KEY);
+        mOculus1FadeSlot = mShadowState.registerFloat(material,
+                RadiosityShader.FADE_KEY);
+        mOculus1LightSlot = mShadowState.registerFloat(material,
+                RadiosityShader.LIGHT_KEY);
+
+        material = mOculusSceneObject2.getRenderData().getMaterial();
+        mOculus2WeightSlot = mShadowState.registerFloat(material,
+                AdditiveShader.WEIGHT_KEY);
+        mOculus2FadeSlot = mShadowState.registerFloat(material,
+                AdditiveShader.FADE_KEY);
+    }
+
+    private void setCinemaRenderMask(int cinema, int mask) {
+        int[] slots = mCinemaMaskSlots[cinema];
+        for (int i = 0; i < slots.length; i++)
+            mShadowState.setRenderMask(slots[i], mask);
+    }
+
+    private void step() {
+
         float step = 0.2f;
 
         mTransitionWeight += step * (mTransitionTarget - mTransitionWeight);
         mFadeWeight += 0.01f * (mFadeTarget - mFadeWeight);
 
         if (mCurrentCinema == 0) {
-            for (int i = 0; i < mCinema[1].getChildrenCount(); i++)
-                mCinema[1].getChildByIndex(i).getRenderData()
-                        .setRenderMask(0);
-            for (int i = 0; i < mCinema[0].getChildrenCount(); i++)
-                mCinema[0].getChildByIndex(i).getRenderData().
-                        setRenderMask(GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
+            setCinemaRenderMask(1, 0);
+            setCinemaRenderMask(0, GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
 
-            mSceneObject.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.WEIGHT_KEY, mTransitionWeight);
-            mSceneObject.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.FADE_KEY, mFadeWeight);
-            mSceneObject.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.LIGHT_KEY, 2.0f);
+            mShadowState.setFloat(mSceneWeightSlot, mTransitionWeight);
+            mShadowState.setFloat(mSceneFadeSlot, mFadeWeight);
+            mShadowState.setFloat(mSceneLightSlot, 2.0f);
         } else {
-            for (int i = 0; i < mCinema[0].getChildrenCount(); i++)
-                mCinema[0].getChildByIndex(i).getRenderData()
-                        .setRenderMask(0);
-            for (int i = 0; i < mCinema[1].getChildrenCount(); i++)
-                mCinema[1].getChildByIndex(i).getRenderData()
-                        .setRenderMask(GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
-
-            mOculusSceneObject1.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.WEIGHT_KEY, mTransitionWeight);
-            mOculusSceneObject1.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.FADE_KEY, mFadeWeight);
-            mOculusSceneObject1.getRenderData().getMaterial()
-                    .setFloat(RadiosityShader.LIGHT_KEY, 1.0f);
-            mOculusSceneObject2.getRenderData().getMaterial()
-                    .setFloat(AdditiveShader.WEIGHT_KEY, mTransitionWeight);
-            mOculusSceneObject2.getRenderData().getMaterial()
-                    .setFloat(AdditiveShader.FADE_KEY, mFadeWeight);
+            setCinemaRenderMask(0, 0);
+            setCinemaRenderMask(1, GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
+
+            mShadowState.setFloat(mOculus1WeightSlot, mTransitionWeight);
+            mShadowState.setFloat(mOculus1FadeSlot, mFadeWeight);
+            mShadowState.setFloat(mOculus1LightSlot, 1.0f);
+            mShadowState.setFloat(mOculus2WeightSlot, mTransitionWeight);
+            mShadowState.setFloat(mOculus2FadeSlot, mFadeWeight);
         }
 
         float scale = 1.0f + 1.0f * (mTransitionWeight - 1.0f);
@@ -460,7 +543,7 @@ public class VideoMain extends GVRMain {
             mBackButton.show();
             mImaxButton.show();
             mSelectButton.show();
-            mButtonBoard.getRenderData().setRenderMask(
+            mShadowState.setRenderMask(mButtonBoardMaskSlot,
                     GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
             mSeekbar.setRenderMask(GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
 
@@ -572,6 +655,7 @@ public class VideoMain extends GVRMain {
                 mSeekbar.unglow();
             }
 
+            mProfiler.beginSection(mSeekbarSection);
             if (isTouched && seekbarRatio != null) {
                 int current = (int) (mMediaPlayer.getDuration() * seekbarRatio);
                 mMediaPlayer.seekTo(current);
@@ -582,6 +666,7 @@ public class VideoMain extends GVRMain {
                         mMediaPlayer.getCurrentPosition(),
                         mMediaPlayer.getDuration());
             }
+            mProfiler.endSection(mSeekbarSection);
         } else {
             turnOffGUIMenu();
 
@@ -591,10 +676,10 @@ public class VideoMain extends GVRMain {
         }
 
         if (!mIsUIHidden) {
-            mHeadTracker.getRenderData().setRenderMask(
+            mShadowState.setRenderMask(mHeadTrackerMaskSlot,
                     GVRRenderMaskBit.Left | GVRRenderMaskBit.Right);
         } else {
-            mHeadTracker.getRenderData().setRenderMask(0);
+            mShadowState.setRenderMask(mHeadTrackerMaskSlot, 0);
         }
 
         if (!isUIHiden && isSingleTapped && !isAnythingPointed) {
@@ -623,7 +708,7 @@ public class VideoMain extends GVRMain {
         mBackButton.hide();
         mImaxButton.hide();
         mSelectButton.hide();
-        mButtonBoard.getRenderData().setRenderMask(0);
+        mShadowState.setRenderMask(mButtonBoardMaskSlot, 0);
         mSeekbar.setRenderMask(0);
         mSeekbar.unglow();
     }
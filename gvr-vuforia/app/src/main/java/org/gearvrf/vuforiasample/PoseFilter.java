@@ -0,0 +1,268 @@
+package org.gearvrf.vuforiasample;
+
+/**
+ * Smooths a tracked pose and rides out short tracking gaps.
+ *
+ * Translation goes through a one-euro filter: a low-pass whose cutoff rises
+ * with speed, so a marker at rest is held still while a moving one is
+ * followed with little lag. Rotation is smoothed the same way, slerping
+ * toward each measurement by an amount set from the angular speed. When a
+ * frame brings no measurement, {@link #coast(long)} extrapolates the last
+ * filtered velocities for up to the prediction horizon and holds there
+ * until the loss timeout.
+ *
+ * Poses are column-major matrices with rotation, uniform scale and
+ * translation, as {@link PoseMath} uses them. Nothing is allocated after
+ * construction.
+ */
+public class PoseFilter {
+
+    public static final float DEFAULT_MIN_CUTOFF = .5f;
+    public static final float DEFAULT_BETA = 20f;
+    public static final float DEFAULT_ROTATION_MIN_CUTOFF = .5f;
+    public static final float DEFAULT_ROTATION_BETA = 10f;
+    public static final float DEFAULT_DERIVATIVE_CUTOFF = 2f;
+    public static final long DEFAULT_PREDICTION_HORIZON = 100000000L;
+    public static final long DEFAULT_LOSS_TIMEOUT = 300000000L;
+
+    private static final float NANOS = 1e-9f;
+
+    private float minCutoff = DEFAULT_MIN_CUTOFF;
+    private float beta = DEFAULT_BETA;
+    private float rotationMinCutoff = DEFAULT_ROTATION_MIN_CUTOFF;
+    private float rotationBeta = DEFAULT_ROTATION_BETA;
+    private float derivativeCutoff = DEFAULT_DERIVATIVE_CUTOFF;
+    private long predictionHorizon = DEFAULT_PREDICTION_HORIZON;
+    private long lossTimeout = DEFAULT_LOSS_TIMEOUT;
+
+    private boolean tracking;
+    private long lastTime;
+    private float scale;
+
+    // filtered translation and its filtered velocity, per second
+    private final float[] position = new float[3];
+    private final float[] velocity = new float[3];
+    // filtered rotation x, y, z, w and its filtered angular velocity vector
+    private final float[] rotation = new float[4];
+    private final float[] angularVelocity = new float[3];
+    private float angularSpeed;
+
+    // the pose handed out: filtered, or extrapolated while coasting
+    private final float[] outPosition = new float[3];
+    private final float[] outRotation = new float[4];
+
+    private final float[] measured = new float[4];
+
+    /**
+     * @param minCutoff
+     *            translation cutoff at rest, in Hz. Lower is steadier.
+     * @param beta
+     *            how fast the cutoff rises with speed, in Hz per unit/s.
+     *            Higher lags less.
+     */
+    public void setTranslationFilter(float minCutoff, float beta) {
+        this.minCutoff = minCutoff;
+        this.beta = beta;
+    }
+
+    /**
+     * @param beta
+     *            in Hz per radian/s.
+     */
+    public void setRotationFilter(float minCutoff, float beta) {
+        rotationMinCutoff = minCutoff;
+        rotationBeta = beta;
+    }
+
+    /**
+     * Cutoff of the low-pass on the velocities that drive both the adaptive
+     * cutoffs and prediction, in Hz.
+     */
+    public void setDerivativeCutoff(float cutoff) {
+        derivativeCutoff = cutoff;
+    }
+
+    /**
+     * @param nanos
+     *            how far past the last measurement to extrapolate.
+     */
+    public void setPredictionHorizon(long nanos) {
+        predictionHorizon = nanos;
+    }
+
+    /**
+     * @param nanos
+     *            how long after the last measurement the pose is given up.
+     */
+    public void setLossTimeout(long nanos) {
+        lossTimeout = nanos;
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Forgets the pose; the next measurement is taken as is.
+     */
+    public void reset() {
+        tracking = false;
+    }
+
+    /**
+     * Filters in a measured pose.
+     */
+    public void update(float[] pose, int offset, long timeNanos) {
+        PoseMath.matrixToQuaternion(measured, 0, pose, offset);
+        scale = (float) Math.sqrt(pose[offset] * pose[offset] + pose[offset + 1]
+                * pose[offset + 1] + pose[offset + 2] * pose[offset + 2]);
+
+        float dt = (timeNanos - lastTime) * NANOS;
+        if (!tracking || dt <= 0 || timeNanos - lastTime > lossTimeout) {
+            for (int i = 0; i < 3; ++i) {
+                position[i] = pose[offset + 12 + i];
+                velocity[i] = 0f;
+                angularVelocity[i] = 0f;
+            }
+            System.arraycopy(measured, 0, rotation, 0, 4);
+            angularSpeed = 0f;
+            tracking = true;
+            lastTime = timeNanos;
+            output(0f);
+            return;
+        }
+        lastTime = timeNanos;
+
+        float derivativeAlpha = alpha(derivativeCutoff, dt);
+
+        // translation: one-euro on the vector, so all axes share a cutoff
+        float speed = 0f;
+        for (int i = 0; i < 3; ++i) {
+            float rate = (pose[offset + 12 + i] - position[i]) / dt;
+            velocity[i] += derivativeAlpha * (rate - velocity[i]);
+            speed += velocity[i] * velocity[i];
+        }
+        float alpha = alpha(minCutoff + beta * (float) Math.sqrt(speed), dt);
+        for (int i = 0; i < 3; ++i) {
+            position[i] += alpha * (pose[offset + 12 + i] - position[i]);
+        }
+
+        // rotation: the same on the angle between filtered and measured
+        float dot = rotation[0] * measured[0] + rotation[1] * measured[1] + rotation[2]
+                * measured[2] + rotation[3] * measured[3];
+        if (dot < 0) {
+            for (int i = 0; i < 4; ++i) {
+                measured[i] = -measured[i];
+            }
+            dot = -dot;
+        }
+        float angle = 2 * (float) Math.acos(Math.min(dot, 1f));
+        angularSpeed += derivativeAlpha * (angle / dt - angularSpeed);
+        float rotationAlpha = alpha(rotationMinCutoff + rotationBeta * angularSpeed, dt);
+
+        // the step taken this update, as an axis times angle, for prediction
+        float qx = rotation[0], qy = rotation[1], qz = rotation[2], qw = rotation[3];
+        slerp(rotation, measured, dot, rotationAlpha);
+        float dx = qw * rotation[0] - qx * rotation[3] - qy * rotation[2] + qz * rotation[1];
+        float dy = qw * rotation[1] + qx * rotation[2] - qy * rotation[3] - qz * rotation[0];
+        float dz = qw * rotation[2] - qx * rotation[1] + qy * rotation[0] - qz * rotation[3];
+        float dw = qw * rotation[3] + qx * rotation[0] + qy * rotation[1] + qz * rotation[2];
+        float sin = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float step = sin > 1e-7f ? 2 * (float) Math.atan2(sin, dw) / sin / dt : 0f;
+        angularVelocity[0] += derivativeAlpha * (dx * step - angularVelocity[0]);
+        angularVelocity[1] += derivativeAlpha * (dy * step - angularVelocity[1]);
+        angularVelocity[2] += derivativeAlpha * (dz * step - angularVelocity[2]);
+
+        output(0f);
+    }
+
+    /**
+     * Advances the pose through a frame without a measurement.
+     *
+     * @return false once the last measurement is older than the loss
+     *         timeout; the pose is then stale and should be hidden.
+     */
+    public boolean coast(long timeNanos) {
+        if (!tracking) {
+            return false;
+        }
+        long gap = timeNanos - lastTime;
+        if (gap > lossTimeout) {
+            tracking = false;
+            return false;
+        }
+        output(Math.min(Math.max(gap, 0), predictionHorizon) * NANOS);
+        return true;
+    }
+
+    /**
+     * Writes the current filtered, or predicted, pose.
+     */
+    public void getPose(float[] pose, int offset) {
+        PoseMath.quaternionToMatrix(pose, offset, outRotation, 0);
+        for (int i = 0; i < 11; ++i) {
+            pose[offset + i] *= scale;
+        }
+        pose[offset + 12] = outPosition[0];
+        pose[offset + 13] = outPosition[1];
+        pose[offset + 14] = outPosition[2];
+    }
+
+    /*
+     * Extrapolates the filtered pose by {@code seconds} at constant velocity.
+     */
+    private void output(float seconds) {
+        for (int i = 0; i < 3; ++i) {
+            outPosition[i] = position[i] + velocity[i] * seconds;
+        }
+        float ax = angularVelocity[0] * seconds;
+        float ay = angularVelocity[1] * seconds;
+        float az = angularVelocity[2] * seconds;
+        float angle = (float) Math.sqrt(ax * ax + ay * ay + az * az);
+        if (angle < 1e-7f) {
+            System.arraycopy(rotation, 0, outRotation, 0, 4);
+            return;
+        }
+        // rotation * (angle about the axis), both unit quaternions
+        float s = (float) Math.sin(angle / 2) / angle;
+        float px = ax * s, py = ay * s, pz = az * s;
+        float pw = (float) Math.cos(angle / 2);
+        float x = rotation[0], y = rotation[1], z = rotation[2], w = rotation[3];
+        outRotation[0] = w * px + x * pw + y * pz - z * py;
+        outRotation[1] = w * py - x * pz + y * pw + z * px;
+        outRotation[2] = w * pz + x * py - y * px + z * pw;
+        outRotation[3] = w * pw - x * px - y * py - z * pz;
+    }
+
+    private static float alpha(float cutoff, float dt) {
+        float tau = 1f / (2 * (float) Math.PI * cutoff);
+        return 1f / (1f + tau / dt);
+    }
+
+    /*
+     * Moves {@code q} toward {@code target}, which is on the same hemisphere
+     * ({@code dot} >= 0), by {@code t} of the way.
+     */
+    private static void slerp(float[] q, float[] target, float dot, float t) {
+        float a, b;
+        if (dot > .9995f) {
+            // nearly parallel: lerp and renormalize below
+            a = 1 - t;
+            b = t;
+        } else {
+            float theta = (float) Math.acos(dot);
+            float sin = (float) Math.sin(theta);
+            a = (float) Math.sin((1 - t) * theta) / sin;
+            b = (float) Math.sin(t * theta) / sin;
+        }
+        float length = 0f;
+        for (int i = 0; i < 4; ++i) {
+            q[i] = a * q[i] + b * target[i];
+            length += q[i] * q[i];
+        }
+        length = 1f / (float) Math.sqrt(length);
+        for (int i = 0; i < 4; ++i) {
+            q[i] *= length;
+        }
+    }
+}
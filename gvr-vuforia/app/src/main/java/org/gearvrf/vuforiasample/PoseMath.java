@@ -0,0 +1,294 @@
+package org.gearvrf.vuforiasample;
+
+/**
+ * Allocation-free matrix and quaternion math on plain float arrays, for the
+ * per-frame pose work. Vuforia's own helpers, {@code Tool} and
+ * {@link com.qualcomm.vuforia.misc.VuforiaMath}, return a new object from
+ * every call.
+ *
+ * Matrices are 4x4, column-major, sixteen floats from an offset, the same
+ * layout as {@link android.opengl.Matrix} and Vuforia's GL pose matrices.
+ * Quaternions are four floats x, y, z, w. Points are packed x, y, z.
+ *
+ * Every method keeps its intermediate values in locals rather than shared
+ * scratch arrays, so results may alias inputs and any thread may call in.
+ */
+public final class PoseMath {
+
+    public static final int MATRIX_SIZE = 16;
+    public static final int QUATERNION_SIZE = 4;
+
+    private PoseMath() {
+    }
+
+    public static void setIdentity(float[] m, int offset) {
+        for (int i = 0; i < MATRIX_SIZE; ++i) {
+            m[offset + i] = 0f;
+        }
+        m[offset] = 1f;
+        m[offset + 5] = 1f;
+        m[offset + 10] = 1f;
+        m[offset + 15] = 1f;
+    }
+
+    /**
+     * result = lhs * rhs. {@code result} may be {@code lhs} or {@code rhs}.
+     */
+    public static void multiply(float[] result, int resultOffset, float[] lhs, int lhsOffset,
+            float[] rhs, int rhsOffset) {
+        float l00 = lhs[lhsOffset], l10 = lhs[lhsOffset + 1];
+        float l20 = lhs[lhsOffset + 2], l30 = lhs[lhsOffset + 3];
+        float l01 = lhs[lhsOffset + 4], l11 = lhs[lhsOffset + 5];
+        float l21 = lhs[lhsOffset + 6], l31 = lhs[lhsOffset + 7];
+        float l02 = lhs[lhsOffset + 8], l12 = lhs[lhsOffset + 9];
+        float l22 = lhs[lhsOffset + 10], l32 = lhs[lhsOffset + 11];
+        float l03 = lhs[lhsOffset + 12], l13 = lhs[lhsOffset + 13];
+        float l23 = lhs[lhsOffset + 14], l33 = lhs[lhsOffset + 15];
+
+        // each column of rhs is read before the same column of result is written
+        for (int c = 0; c < 16; c += 4) {
+            float r0 = rhs[rhsOffset + c];
+            float r1 = rhs[rhsOffset + c + 1];
+            float r2 = rhs[rhsOffset + c + 2];
+            float r3 = rhs[rhsOffset + c + 3];
+            result[resultOffset + c] = l00 * r0 + l01 * r1 + l02 * r2 + l03 * r3;
+            result[resultOffset + c + 1] = l10 * r0 + l11 * r1 + l12 * r2 + l13 * r3;
+            result[resultOffset + c + 2] = l20 * r0 + l21 * r1 + l22 * r2 + l23 * r3;
+            result[resultOffset + c + 3] = l30 * r0 + l31 * r1 + l32 * r2 + l33 * r3;
+        }
+    }
+
+    /**
+     * result[i] = lhs * matrices[i] for {@code count} matrices packed one
+     * after the other. {@code result} may be {@code matrices} at the same
+     * offset.
+     */
+    public static void multiplyBatch(float[] result, int resultOffset, float[] lhs,
+            int lhsOffset, float[] matrices, int matricesOffset, int count) {
+        float l00 = lhs[lhsOffset], l10 = lhs[lhsOffset + 1];
+        float l20 = lhs[lhsOffset + 2], l30 = lhs[lhsOffset + 3];
+        float l01 = lhs[lhsOffset + 4], l11 = lhs[lhsOffset + 5];
+        float l21 = lhs[lhsOffset + 6], l31 = lhs[lhsOffset + 7];
+        float l02 = lhs[lhsOffset + 8], l12 = lhs[lhsOffset + 9];
+        float l22 = lhs[lhsOffset + 10], l32 = lhs[lhsOffset + 11];
+        float l03 = lhs[lhsOffset + 12], l13 = lhs[lhsOffset + 13];
+        float l23 = lhs[lhsOffset + 14], l33 = lhs[lhsOffset + 15];
+
+        int end = count * 4;
+        for (int c = 0; c < end; ++c) {
+            int in = matricesOffset + c * 4;
+            int out = resultOffset + c * 4;
+            float r0 = matrices[in];
+            float r1 = matrices[in + 1];
+            float r2 = matrices[in + 2];
+            float r3 = matrices[in + 3];
+            result[out] = l00 * r0 + l01 * r1 + l02 * r2 + l03 * r3;
+            result[out + 1] = l10 * r0 + l11 * r1 + l12 * r2 + l13 * r3;
+            result[out + 2] = l20 * r0 + l21 * r1 + l22 * r2 + l23 * r3;
+            result[out + 3] = l30 * r0 + l31 * r1 + l32 * r2 + l33 * r3;
+        }
+    }
+
+    /**
+     * {@code result} may be {@code m}.
+     */
+    public static void transpose(float[] result, int resultOffset, float[] m, int offset) {
+        for (int i = 0; i < 4; ++i) {
+            // the diagonal stays put; swap each pair above and below it once
+            result[resultOffset + i * 5] = m[offset + i * 5];
+            for (int j = i + 1; j < 4; ++j) {
+                float upper = m[offset + j * 4 + i];
+                float lower = m[offset + i * 4 + j];
+                result[resultOffset + i * 4 + j] = upper;
+                result[resultOffset + j * 4 + i] = lower;
+            }
+        }
+    }
+
+    public static float determinant(float[] m, int offset) {
+        float a0 = m[offset] * m[offset + 5] - m[offset + 1] * m[offset + 4];
+        float a1 = m[offset] * m[offset + 6] - m[offset + 2] * m[offset + 4];
+        float a2 = m[offset] * m[offset + 7] - m[offset + 3] * m[offset + 4];
+        float a3 = m[offset + 1] * m[offset + 6] - m[offset + 2] * m[offset + 5];
+        float a4 = m[offset + 1] * m[offset + 7] - m[offset + 3] * m[offset + 5];
+        float a5 = m[offset + 2] * m[offset + 7] - m[offset + 3] * m[offset + 6];
+        float b0 = m[offset + 8] * m[offset + 13] - m[offset + 9] * m[offset + 12];
+        float b1 = m[offset + 8] * m[offset + 14] - m[offset + 10] * m[offset + 12];
+        float b2 = m[offset + 8] * m[offset + 15] - m[offset + 11] * m[offset + 12];
+        float b3 = m[offset + 9] * m[offset + 14] - m[offset + 10] * m[offset + 13];
+        float b4 = m[offset + 9] * m[offset + 15] - m[offset + 11] * m[offset + 13];
+        float b5 = m[offset + 10] * m[offset + 15] - m[offset + 11] * m[offset + 14];
+        return a0 * b5 - a1 * b4 + a2 * b3 + a3 * b2 - a4 * b1 + a5 * b0;
+    }
+
+    /**
+     * {@code result} may be {@code m}.
+     *
+     * @return false, leaving {@code result} untouched, if {@code m} is
+     *         singular.
+     */
+    public static boolean invert(float[] result, int resultOffset, float[] m, int offset) {
+        float m0 = m[offset], m1 = m[offset + 1], m2 = m[offset + 2], m3 = m[offset + 3];
+        float m4 = m[offset + 4], m5 = m[offset + 5], m6 = m[offset + 6], m7 = m[offset + 7];
+        float m8 = m[offset + 8], m9 = m[offset + 9], m10 = m[offset + 10];
+        float m11 = m[offset + 11], m12 = m[offset + 12], m13 = m[offset + 13];
+        float m14 = m[offset + 14], m15 = m[offset + 15];
+
+        // 2x2 minors of the left and right column pairs
+        float a0 = m0 * m5 - m1 * m4;
+        float a1 = m0 * m6 - m2 * m4;
+        float a2 = m0 * m7 - m3 * m4;
+        float a3 = m1 * m6 - m2 * m5;
+        float a4 = m1 * m7 - m3 * m5;
+        float a5 = m2 * m7 - m3 * m6;
+        float b0 = m8 * m13 - m9 * m12;
+        float b1 = m8 * m14 - m10 * m12;
+        float b2 = m8 * m15 - m11 * m12;
+        float b3 = m9 * m14 - m10 * m13;
+        float b4 = m9 * m15 - m11 * m13;
+        float b5 = m10 * m15 - m11 * m14;
+
+        float det = a0 * b5 - a1 * b4 + a2 * b3 + a3 * b2 - a4 * b1 + a5 * b0;
+        if (det == 0f) {
+            return false;
+        }
+        float inv = 1f / det;
+
+        result[resultOffset] = (m5 * b5 - m6 * b4 + m7 * b3) * inv;
+        result[resultOffset + 1] = (-m1 * b5 + m2 * b4 - m3 * b3) * inv;
+        result[resultOffset + 2] = (m13 * a5 - m14 * a4 + m15 * a3) * inv;
+        result[resultOffset + 3] = (-m9 * a5 + m10 * a4 - m11 * a3) * inv;
+        result[resultOffset + 4] = (-m4 * b5 + m6 * b2 - m7 * b1) * inv;
+        result[resultOffset + 5] = (m0 * b5 - m2 * b2 + m3 * b1) * inv;
+        result[resultOffset + 6] = (-m12 * a5 + m14 * a2 - m15 * a1) * inv;
+        result[resultOffset + 7] = (m8 * a5 - m10 * a2 + m11 * a1) * inv;
+        result[resultOffset + 8] = (m4 * b4 - m5 * b2 + m7 * b0) * inv;
+        result[resultOffset + 9] = (-m0 * b4 + m1 * b2 - m3 * b0) * inv;
+        result[resultOffset + 10] = (m12 * a4 - m13 * a2 + m15 * a0) * inv;
+        result[resultOffset + 11] = (-m8 * a4 + m9 * a2 - m11 * a0) * inv;
+        result[resultOffset + 12] = (-m4 * b3 + m5 * b1 - m6 * b0) * inv;
+        result[resultOffset + 13] = (m0 * b3 - m1 * b1 + m2 * b0) * inv;
+        result[resultOffset + 14] = (-m12 * a3 + m13 * a1 - m14 * a0) * inv;
+        result[resultOffset + 15] = (m8 * a3 - m9 * a1 + m10 * a0) * inv;
+        return true;
+    }
+
+    /**
+     * Transforms {@code count} packed points by the affine matrix {@code m},
+     * taking w as 1 and ignoring the bottom row. {@code result} may be
+     * {@code points} at the same offset.
+     */
+    public static void transformPoints(float[] result, int resultOffset, float[] m, int offset,
+            float[] points, int pointsOffset, int count) {
+        float m0 = m[offset], m1 = m[offset + 1], m2 = m[offset + 2];
+        float m4 = m[offset + 4], m5 = m[offset + 5], m6 = m[offset + 6];
+        float m8 = m[offset + 8], m9 = m[offset + 9], m10 = m[offset + 10];
+        float m12 = m[offset + 12], m13 = m[offset + 13], m14 = m[offset + 14];
+
+        int end = count * 3;
+        for (int i = 0; i < end; i += 3) {
+            float x = points[pointsOffset + i];
+            float y = points[pointsOffset + i + 1];
+            float z = points[pointsOffset + i + 2];
+            result[resultOffset + i] = m0 * x + m4 * y + m8 * z + m12;
+            result[resultOffset + i + 1] = m1 * x + m5 * y + m9 * z + m13;
+            result[resultOffset + i + 2] = m2 * x + m6 * y + m10 * z + m14;
+        }
+    }
+
+    /**
+     * Sets {@code m} to the GL matrix of a Vuforia pose: twelve floats from
+     * {@code poseOffset}, a 3x4 row-major rotation and translation. Does
+     * what {@code Tool.convertPose2GLMatrix} does without the new
+     * {@code Matrix44F} and the copy its {@code getData()} makes.
+     */
+    public static void poseToMatrix(float[] m, int offset, float[] pose, int poseOffset) {
+        for (int row = 0; row < 3; ++row) {
+            for (int column = 0; column < 4; ++column) {
+                m[offset + column * 4 + row] = pose[poseOffset + row * 4 + column];
+            }
+        }
+        m[offset + 3] = 0f;
+        m[offset + 7] = 0f;
+        m[offset + 11] = 0f;
+        m[offset + 15] = 1f;
+    }
+
+    /**
+     * The rotation of {@code m} as a unit quaternion. The upper 3x3 may be
+     * scaled, as long as it isn't sheared or mirrored.
+     */
+    public static void matrixToQuaternion(float[] q, int qOffset, float[] m, int offset) {
+        float sx = length(m[offset], m[offset + 1], m[offset + 2]);
+        float sy = length(m[offset + 4], m[offset + 5], m[offset + 6]);
+        float sz = length(m[offset + 8], m[offset + 9], m[offset + 10]);
+        float r00 = m[offset] / sx, r10 = m[offset + 1] / sx, r20 = m[offset + 2] / sx;
+        float r01 = m[offset + 4] / sy, r11 = m[offset + 5] / sy, r21 = m[offset + 6] / sy;
+        float r02 = m[offset + 8] / sz, r12 = m[offset + 9] / sz, r22 = m[offset + 10] / sz;
+
+        // branch on the largest component so the divisor stays well away from 0
+        float x, y, z, w;
+        float trace = r00 + r11 + r22;
+        if (trace > 0) {
+            float s = (float) Math.sqrt(trace + 1) * 2;
+            w = .25f * s;
+            x = (r21 - r12) / s;
+            y = (r02 - r20) / s;
+            z = (r10 - r01) / s;
+        } else if (r00 > r11 && r00 > r22) {
+            float s = (float) Math.sqrt(1 + r00 - r11 - r22) * 2;
+            w = (r21 - r12) / s;
+            x = .25f * s;
+            y = (r01 + r10) / s;
+            z = (r02 + r20) / s;
+        } else if (r11 > r22) {
+            float s = (float) Math.sqrt(1 + r11 - r00 - r22) * 2;
+            w = (r02 - r20) / s;
+            x = (r01 + r10) / s;
+            y = .25f * s;
+            z = (r12 + r21) / s;
+        } else {
+            float s = (float) Math.sqrt(1 + r22 - r00 - r11) * 2;
+            w = (r10 - r01) / s;
+            x = (r02 + r20) / s;
+            y = (r12 + r21) / s;
+            z = .25f * s;
+        }
+        q[qOffset] = x;
+        q[qOffset + 1] = y;
+        q[qOffset + 2] = z;
+        q[qOffset + 3] = w;
+    }
+
+    /**
+     * Sets {@code m} to the rotation of the unit quaternion {@code q}, with
+     * no translation.
+     */
+    public static void quaternionToMatrix(float[] m, int offset, float[] q, int qOffset) {
+        float x = q[qOffset], y = q[qOffset + 1], z = q[qOffset + 2], w = q[qOffset + 3];
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+
+        m[offset] = 1 - 2 * (yy + zz);
+        m[offset + 1] = 2 * (xy + wz);
+        m[offset + 2] = 2 * (xz - wy);
+        m[offset + 3] = 0f;
+        m[offset + 4] = 2 * (xy - wz);
+        m[offset + 5] = 1 - 2 * (xx + zz);
+        m[offset + 6] = 2 * (yz + wx);
+        m[offset + 7] = 0f;
+        m[offset + 8] = 2 * (xz + wy);
+        m[offset + 9] = 2 * (yz - wx);
+        m[offset + 10] = 1 - 2 * (xx + yy);
+        m[offset + 11] = 0f;
+        m[offset + 12] = 0f;
+        m[offset + 13] = 0f;
+        m[offset + 14] = 0f;
+        m[offset + 15] = 1f;
+    }
+
+    private static float length(float x, float y, float z) {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+}
@@ -19,10 +19,8 @@ import org.gearvrf.GVRTexture;
 import com.vuforia.GLTextureData;
 import com.vuforia.GLTextureUnit;
 import com.vuforia.ImageTarget;
-import com.vuforia.Matrix44F;
 import com.vuforia.Renderer;
 import com.vuforia.State;
-import com.vuforia.Tool;
 import com.vuforia.Trackable;
 import com.vuforia.TrackableResult;
 
@@ -48,6 +46,9 @@ public class VuforiaSampleMain extends GVRMain {
     private float[] convertedMVMatrix;
     private float[] gvrMVMatrix;
     private float[] totalMVMatrix;
+    private final float[] markerMatrix = new float[16];
+    private int markerTrackableId = -1;
+    private final PoseFilter poseFilter = new PoseFilter();
 
     private boolean teapotVisible = false;
     
@@ -155,6 +156,18 @@ public class VuforiaSampleMain extends GVRMain {
     private float[] convertMatrix = { 1f, 0f, 0f, 0f, 0f, -1f, 0f, 0f, 0f, 0f,
             -1f, 0f, 0f, 0f, 0f, 1f };
 
+    /*
+     * Stands the teapot up on the marker and scales it to the marker's size.
+     * Only changes with the trackable, so it's kept out of the per-frame
+     * path along with the size lookup.
+     */
+    private void setMarkerMatrix(ImageTarget target) {
+        float scaleFactor = target.getSize().getData()[0];
+        Matrix.setRotateM(markerMatrix, 0, 90, 1, 0, 0);
+        Matrix.scaleM(markerMatrix, 0, scaleFactor, scaleFactor, scaleFactor);
+        markerTrackableId = target.getId();
+    }
+
     private void showTeapot() {
         if (teapotVisible == false) {
             mainScene.addSceneObject(teapot);
@@ -170,45 +183,48 @@ public class VuforiaSampleMain extends GVRMain {
     }
 
     public void updateObjectPose(State state) {
+        long now = System.nanoTime();
         // did we find any trackables this frame?
         int numDetectedMarkers = state.getNumTrackableResults();
 
-        if (numDetectedMarkers == 0) {
-            hideTeapot();
-            return;
-        }
-
         for (int tIdx = 0; tIdx < numDetectedMarkers; tIdx++) {
             TrackableResult result = state.getTrackableResult(tIdx);
             Trackable trackable = result.getTrackable();
             if (trackable.getId() == 1 || trackable.getId() == 2) {
-                Matrix44F modelViewMatrix_Vuforia = Tool
-                        .convertPose2GLMatrix(result.getPose());
-                vuforiaMVMatrix = modelViewMatrix_Vuforia.getData();
+                PoseMath.poseToMatrix(vuforiaMVMatrix, 0, result.getPose()
+                        .getData(), 0);
 
-                Matrix.multiplyMM(convertedMVMatrix, 0, convertMatrix, 0,
+                if (trackable.getId() != markerTrackableId) {
+                    setMarkerMatrix((ImageTarget) trackable);
+                }
+                PoseMath.multiply(convertedMVMatrix, 0, convertMatrix, 0,
                         vuforiaMVMatrix, 0);
-
-                float scaleFactor = ((ImageTarget) trackable).getSize()
-                        .getData()[0];
-                Matrix.rotateM(convertedMVMatrix, 0, 90, 1, 0, 0);
-                Matrix.scaleM(convertedMVMatrix, 0, scaleFactor, scaleFactor,
-                        scaleFactor);
+                PoseMath.multiply(convertedMVMatrix, 0, convertedMVMatrix, 0,
+                        markerMatrix, 0);
 
                 gvrMVMatrix = gvrContext.getMainScene().getMainCameraRig()
                         .getHeadTransform().getModelMatrix();
 
-                Matrix.multiplyMM(totalMVMatrix, 0, gvrMVMatrix, 0,
+                // filter in world space, where a marker at rest holds still
+                // whatever the head does
+                PoseMath.multiply(totalMVMatrix, 0, gvrMVMatrix, 0,
                         convertedMVMatrix, 0);
+                poseFilter.update(totalMVMatrix, 0, now);
+                poseFilter.getPose(totalMVMatrix, 0);
                 teapot.getTransform().setModelMatrix(totalMVMatrix);
 
                 showTeapot();
-                
-                break;
-            } else {
-                hideTeapot();
+                return;
             }
         }
+
+        // no marker this frame: coast on the prediction through short gaps
+        if (poseFilter.coast(now)) {
+            poseFilter.getPose(totalMVMatrix, 0);
+            teapot.getTransform().setModelMatrix(totalMVMatrix);
+        } else {
+            hideTeapot();
+        }
     }
 
     @SuppressWarnings("unused")
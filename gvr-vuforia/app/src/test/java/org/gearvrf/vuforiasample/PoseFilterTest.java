@@ -0,0 +1,277 @@
+package org.gearvrf.vuforiasample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link PoseFilter} on synthetic marker traces: a known pose path
+ * sampled at the tracker's 30 Hz with Gaussian noise on translation and
+ * rotation. For each trace it bounds the error against the true path and
+ * the frame-to-frame jitter, raw and filtered, and the latency the filter
+ * adds, found as the time shift of the true path that best matches the
+ * filtered one. A last trace drops runs of frames to compare prediction
+ * with holding the last pose, and checks that a long enough gap gives the
+ * pose up. With -Dbenchmark=true it also times the filter's update.
+ */
+public class PoseFilterTest {
+
+    private static final long FRAME = 33333333L;
+    private static final int FRAMES = 900;
+    private static final float POSITION_NOISE = .003f;
+    private static final float ANGLE_NOISE = (float) Math.toRadians(.5);
+    private static final float SCALE = .2f;
+
+    // amplitude in units and degrees, and period in seconds, of the motion
+    private static final float[] AT_REST = { 0, 0, 1 };
+    private static final float[] SLOW_PAN = { .2f, 30, 8 };
+    private static final float[] FAST_SWEEP = { .2f, 60, 2 };
+
+    private static final long BENCHMARK_NANOS = 200000000L;
+
+    private final Random random = new Random(1);
+
+    @Test
+    public void smoothsMarkerAtRest() {
+        // how many times less jitter the trace must show; fast motion opens
+        // the filter up
+        run("at rest", AT_REST, 4);
+    }
+
+    @Test
+    public void smoothsSlowPan() {
+        run("slow pan", SLOW_PAN, 2);
+    }
+
+    @Test
+    public void smoothsFastSweep() {
+        run("fast sweep", FAST_SWEEP, 1.2f);
+    }
+
+    private void run(String name, float[] motion, float minJitterReduction) {
+        PoseFilter filter = new PoseFilter();
+        float[] truth = new float[16 * FRAMES];
+        float[] raw = new float[16 * FRAMES];
+        float[] filtered = new float[16 * FRAMES];
+        for (int f = 0; f < FRAMES; ++f) {
+            long time = f * FRAME;
+            pose(truth, f * 16, motion, time);
+            noisy(raw, f * 16, truth, f * 16, random);
+            filter.update(raw, f * 16, time);
+            filter.getPose(filtered, f * 16);
+        }
+
+        // skip the first second while the filter settles
+        int from = 30;
+        double rawError = positionError(truth, raw, from);
+        double filteredError = positionError(truth, filtered, from);
+        double rawJitter = jitter(truth, raw, from);
+        double filteredJitter = jitter(truth, filtered, from);
+        double rawAngle = angleError(truth, raw, from);
+        double filteredAngle = angleError(truth, filtered, from);
+
+        String latency = "-";
+        if (motion[0] > 0) {
+            // the shift of the true path, in ms, that lines up best with the output
+            int best = 0;
+            double bestError = Double.MAX_VALUE;
+            float[] shifted = new float[16 * FRAMES];
+            for (int shift = 0; shift <= 200; ++shift) {
+                for (int f = 0; f < FRAMES; ++f) {
+                    pose(shifted, f * 16, motion, f * FRAME - shift * 1000000L);
+                }
+                double error = positionError(shifted, filtered, from);
+                if (error < bestError) {
+                    bestError = error;
+                    best = shift;
+                }
+            }
+            latency = Integer.toString(best);
+            assertTrue(name + " latency " + best + " ms", best <= 50);
+            assertTrue(name + " position error", filteredError <= rawError * 1.5);
+        }
+        System.out.println(String.format(
+                "%-11s position error %.2f -> %.2f mm, jitter %.2f -> %.2f mm, "
+                        + "angle error %.3f -> %.3f deg, latency %s ms", name,
+                rawError * 1000, filteredError * 1000, rawJitter * 1000,
+                filteredJitter * 1000, rawAngle, filteredAngle, latency));
+        assertTrue(name + " jitter", filteredJitter * minJitterReduction <= rawJitter);
+        assertTrue(name + " angle error", filteredAngle <= rawAngle * 1.5);
+        assertEquals(SCALE, scale(filtered, (FRAMES - 1) * 16), 1e-4f);
+    }
+
+    /*
+     * The slow pan with runs of 1 to 6 frames dropped every 2 s, then one
+     * gap longer than the loss timeout.
+     */
+    @Test
+    public void predictsThroughGapsAndGivesUpAfterTimeout() {
+        float[] motion = SLOW_PAN;
+        PoseFilter filter = new PoseFilter();
+        float[] truth = new float[16];
+        float[] raw = new float[16];
+        float[] out = new float[16];
+        double predicted = 0;
+        double held = 0;
+        int gapFrames = 0;
+        float[] last = new float[16];
+        for (int f = 0; f < FRAMES; ++f) {
+            long time = f * FRAME;
+            pose(truth, 0, motion, time);
+            int phase = f % 60;
+            if (f >= 60 && phase < 1 + (f / 60) % 6) {
+                assertTrue("pose lost in a short gap at frame " + f, filter.coast(time));
+                filter.getPose(out, 0);
+                predicted += squaredDistance(truth, out);
+                held += squaredDistance(truth, last);
+                ++gapFrames;
+                continue;
+            }
+            noisy(raw, 0, truth, 0, random);
+            filter.update(raw, 0, time);
+            filter.getPose(last, 0);
+        }
+        predicted = Math.sqrt(predicted / gapFrames);
+        held = Math.sqrt(held / gapFrames);
+        System.out.println(String.format(
+                "gaps        %d frames: predicted %.2f mm, holding last %.2f mm", gapFrames,
+                predicted * 1000, held * 1000));
+        assertTrue(predicted < held);
+
+        long end = FRAMES * FRAME;
+        assertTrue(filter.coast(end + PoseFilter.DEFAULT_LOSS_TIMEOUT - FRAME));
+        assertFalse(filter.coast(end + PoseFilter.DEFAULT_LOSS_TIMEOUT + FRAME));
+        assertFalse(filter.isTracking());
+    }
+
+    @Test
+    public void benchmarkUpdate() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        PoseFilter filter = new PoseFilter();
+        float[] raw = new float[16 * 64];
+        float[] truth = new float[16];
+        for (int f = 0; f < 64; ++f) {
+            pose(truth, 0, FAST_SWEEP, f * FRAME);
+            noisy(raw, f * 16, truth, 0, random);
+        }
+        float[] out = new float[16];
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_NANOS;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; ++i) {
+                filter.update(raw, (int) (count & 63) * 16, count * FRAME);
+                filter.getPose(out, 0);
+                ++count;
+            }
+        }
+        System.out.println(String.format("throughput  %,.0f updates/s",
+                count / ((System.nanoTime() - start) / 1e9)));
+    }
+
+    /*
+     * A marker half a unit ahead, sliding side to side and turning about
+     * the vertical.
+     */
+    private static void pose(float[] m, int offset, float[] motion, long time) {
+        double phase = 2 * Math.PI * time * 1e-9 / motion[2];
+        float angle = (float) Math.toRadians(motion[1] * Math.sin(phase) + 20);
+        float[] q = { (float) Math.sin(angle / 2) * .6f, (float) Math.sin(angle / 2) * .8f,
+                0, (float) Math.cos(angle / 2) };
+        PoseMath.quaternionToMatrix(m, offset, q, 0);
+        for (int i = 0; i < 11; ++i) {
+            m[offset + i] *= SCALE;
+        }
+        m[offset + 12] = motion[0] * (float) Math.sin(phase);
+        m[offset + 13] = .1f;
+        m[offset + 14] = -.5f;
+    }
+
+    private static void noisy(float[] out, int outOffset, float[] m, int offset, Random random) {
+        float[] q = new float[4];
+        PoseMath.matrixToQuaternion(q, 0, m, offset);
+        float[] noise = { (float) random.nextGaussian() * ANGLE_NOISE / 2,
+                (float) random.nextGaussian() * ANGLE_NOISE / 2,
+                (float) random.nextGaussian() * ANGLE_NOISE / 2, 1 };
+        float[] rotated = new float[4];
+        rotated[0] = q[3] * noise[0] + q[0] * noise[3] + q[1] * noise[2] - q[2] * noise[1];
+        rotated[1] = q[3] * noise[1] - q[0] * noise[2] + q[1] * noise[3] + q[2] * noise[0];
+        rotated[2] = q[3] * noise[2] + q[0] * noise[1] - q[1] * noise[0] + q[2] * noise[3];
+        rotated[3] = q[3] * noise[3] - q[0] * noise[0] - q[1] * noise[1] - q[2] * noise[2];
+        float length = (float) Math.sqrt(rotated[0] * rotated[0] + rotated[1] * rotated[1]
+                + rotated[2] * rotated[2] + rotated[3] * rotated[3]);
+        for (int i = 0; i < 4; ++i) {
+            rotated[i] /= length;
+        }
+        PoseMath.quaternionToMatrix(out, outOffset, rotated, 0);
+        for (int i = 0; i < 11; ++i) {
+            out[outOffset + i] *= SCALE;
+        }
+        for (int i = 12; i < 15; ++i) {
+            out[outOffset + i] = m[offset + i] + (float) random.nextGaussian() * POSITION_NOISE;
+        }
+    }
+
+    private static double positionError(float[] truth, float[] poses, int from) {
+        double sum = 0;
+        for (int f = from; f < FRAMES; ++f) {
+            for (int i = 12; i < 15; ++i) {
+                double d = poses[f * 16 + i] - truth[f * 16 + i];
+                sum += d * d;
+            }
+        }
+        return Math.sqrt(sum / (FRAMES - from));
+    }
+
+    /*
+     * RMS of the second difference of the error: frame-to-frame wobble,
+     * without the motion itself or a steady lag behind it.
+     */
+    private static double jitter(float[] truth, float[] poses, int from) {
+        double sum = 0;
+        for (int f = from + 2; f < FRAMES; ++f) {
+            for (int i = 12; i < 15; ++i) {
+                double d = error(truth, poses, f, i) - 2 * error(truth, poses, f - 1, i)
+                        + error(truth, poses, f - 2, i);
+                sum += d * d;
+            }
+        }
+        return Math.sqrt(sum / (FRAMES - from - 2));
+    }
+
+    private static double error(float[] truth, float[] poses, int frame, int index) {
+        return poses[frame * 16 + index] - truth[frame * 16 + index];
+    }
+
+    private static double angleError(float[] truth, float[] poses, int from) {
+        float[] a = new float[4];
+        float[] b = new float[4];
+        double sum = 0;
+        for (int f = from; f < FRAMES; ++f) {
+            PoseMath.matrixToQuaternion(a, 0, truth, f * 16);
+            PoseMath.matrixToQuaternion(b, 0, poses, f * 16);
+            double dot = Math.abs(a[0] * b[0] + a[1] * b[1] + a[2] * b[2] + a[3] * b[3]);
+            double angle = Math.toDegrees(2 * Math.acos(Math.min(dot, 1)));
+            sum += angle * angle;
+        }
+        return Math.sqrt(sum / (FRAMES - from));
+    }
+
+    private static double squaredDistance(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 12; i < 15; ++i) {
+            sum += (a[i] - b[i]) * (a[i] - b[i]);
+        }
+        return sum;
+    }
+
+    private static float scale(float[] m, int offset) {
+        return (float) Math.sqrt(m[offset] * m[offset] + m[offset + 1] * m[offset + 1]
+                + m[offset + 2] * m[offset + 2]);
+    }
+}
@@ -0,0 +1,376 @@
+package org.gearvrf.vuforiasample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link PoseMath} on random matrices against double-precision
+ * references: that aliased results match unaliased ones, that quaternions
+ * survive the round trip through a matrix, that a Vuforia pose lands where
+ * the GL layout puts it, and that none of it allocates. With
+ * -Dbenchmark=true it also times the operations.
+ */
+public class PoseMathTest {
+
+    private static final float TOLERANCE = 1e-4f;
+    private static final int TRIALS = 20000;
+    private static final int POINTS = 1000;
+
+    private static final int BENCHMARK_MILLIS = 100;
+
+    private final Random random = new Random(1);
+    private final float[] a = new float[16];
+    private final float[] b = new float[16];
+    private final float[] expected = new float[16];
+    private final float[] actual = new float[16];
+
+    @Test
+    public void multiplyMatchesReference() {
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            randomMatrix(random, a);
+            randomMatrix(random, b);
+            referenceMultiply(expected, a, b);
+            PoseMath.multiply(actual, 0, a, 0, b, 0);
+            assertClose(expected, actual);
+
+            System.arraycopy(a, 0, actual, 0, 16);
+            PoseMath.multiply(actual, 0, actual, 0, b, 0);
+            assertClose(expected, actual);
+            System.arraycopy(b, 0, actual, 0, 16);
+            PoseMath.multiply(actual, 0, a, 0, actual, 0);
+            assertClose(expected, actual);
+        }
+    }
+
+    @Test
+    public void multiplyBatchMatchesMultiply() {
+        float[] batch = new float[POINTS * 16];
+        float[] out = new float[batch.length];
+        for (int i = 0; i < batch.length; ++i) {
+            batch[i] = random.nextFloat() * 2 - 1;
+        }
+        randomMatrix(random, a);
+        PoseMath.multiplyBatch(out, 0, a, 0, batch, 0, POINTS);
+        for (int i = 0; i < POINTS; ++i) {
+            PoseMath.multiply(expected, 0, a, 0, batch, i * 16);
+            for (int j = 0; j < 16; ++j) {
+                assertEquals(expected[j], out[i * 16 + j], 0);
+            }
+        }
+    }
+
+    @Test
+    public void invertGivesIdentity() {
+        float[] identity = new float[16];
+        PoseMath.setIdentity(identity, 0);
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            randomMatrix(random, a);
+            assertTrue(PoseMath.invert(actual, 0, a, 0));
+            referenceMultiply(expected, a, actual);
+            assertClose(identity, expected);
+
+            System.arraycopy(a, 0, expected, 0, 16);
+            assertTrue(PoseMath.invert(expected, 0, expected, 0));
+            assertClose(actual, expected);
+        }
+
+        // a repeated column
+        randomMatrix(random, a);
+        System.arraycopy(a, 0, a, 4, 4);
+        assertFalse(PoseMath.invert(actual, 0, a, 0));
+    }
+
+    @Test
+    public void transposeAndDeterminantMatchReference() {
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            randomMatrix(random, a);
+            PoseMath.transpose(actual, 0, a, 0);
+            for (int c = 0; c < 4; ++c) {
+                for (int r = 0; r < 4; ++r) {
+                    assertEquals(a[r * 4 + c], actual[c * 4 + r], 0);
+                }
+            }
+            System.arraycopy(a, 0, expected, 0, 16);
+            PoseMath.transpose(expected, 0, expected, 0);
+            assertClose(actual, expected);
+
+            double determinant = referenceDeterminant(a);
+            assertEquals(determinant, PoseMath.determinant(a, 0),
+                    TOLERANCE * Math.max(1, Math.abs(determinant)));
+        }
+    }
+
+    @Test
+    public void transformPointsMatchesReference() {
+        float[] q = new float[4];
+        float[] points = new float[POINTS * 3];
+        float[] out = new float[points.length];
+        for (int i = 0; i < points.length; ++i) {
+            points[i] = random.nextFloat() * 2 - 1;
+        }
+        randomPose(random, a, q);
+        PoseMath.transformPoints(out, 0, a, 0, points, 0, POINTS);
+        for (int i = 0; i < POINTS; ++i) {
+            for (int r = 0; r < 3; ++r) {
+                double sum = a[12 + r];
+                for (int k = 0; k < 3; ++k) {
+                    sum += (double) a[k * 4 + r] * points[i * 3 + k];
+                }
+                assertEquals(sum, out[i * 3 + r], TOLERANCE * Math.max(1, Math.abs(sum)));
+            }
+        }
+
+        // in place
+        PoseMath.transformPoints(points, 0, a, 0, points, 0, POINTS);
+        for (int i = 0; i < points.length; ++i) {
+            assertEquals(out[i], points[i], 0);
+        }
+    }
+
+    @Test
+    public void quaternionsSurviveRoundTrip() {
+        float[] q = new float[4];
+        float[] back = new float[4];
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            // rotation, translation and uniform scale
+            randomPose(random, a, q);
+            PoseMath.matrixToQuaternion(back, 0, a, 0);
+            // q and -q are the same rotation
+            float sign = Math.signum(back[0] * q[0] + back[1] * q[1] + back[2] * q[2]
+                    + back[3] * q[3]);
+            for (int i = 0; i < 4; ++i) {
+                assertEquals(q[i], back[i] * sign, TOLERANCE);
+            }
+            PoseMath.quaternionToMatrix(expected, 0, q, 0);
+            PoseMath.quaternionToMatrix(actual, 0, back, 0);
+            assertClose(expected, actual);
+        }
+    }
+
+    /*
+     * Vuforia poses are 3x4 row-major; the GL matrix is the same numbers
+     * down the columns, with 0, 0, 0, 1 as the bottom row.
+     */
+    @Test
+    public void poseLandsInGLLayout() {
+        float[] pose = new float[14];
+        for (int i = 0; i < pose.length; ++i) {
+            pose[i] = i;
+        }
+        PoseMath.poseToMatrix(actual, 0, pose, 2);
+        float[] gl = { 2, 6, 10, 0, 3, 7, 11, 0, 4, 8, 12, 0, 5, 9, 13, 1 };
+        for (int i = 0; i < 16; ++i) {
+            assertEquals(gl[i], actual[i], 0);
+        }
+    }
+
+    @Test
+    public void doesNotAllocate() {
+        float[] q = new float[4];
+        float[] pose = new float[12];
+        float[] points = new float[POINTS * 3];
+        randomMatrix(random, a);
+        randomMatrix(random, b);
+        // warm up first, so what's measured is compiled code
+        for (int i = 0; i < 2; ++i) {
+            long before = allocatedBytes();
+            for (int trial = 0; trial < TRIALS; ++trial) {
+                PoseMath.multiply(actual, 0, a, 0, b, 0);
+                PoseMath.invert(actual, 0, a, 0);
+                PoseMath.transpose(actual, 0, actual, 0);
+                PoseMath.determinant(a, 0);
+                PoseMath.matrixToQuaternion(q, 0, a, 0);
+                PoseMath.quaternionToMatrix(actual, 0, q, 0);
+                PoseMath.poseToMatrix(actual, 0, pose, 0);
+            }
+            PoseMath.transformPoints(points, 0, a, 0, points, 0, POINTS);
+            long allocated = allocatedBytes() - before;
+            if (i > 0) {
+                assertTrue(allocated + " bytes allocated", allocated < 1024);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkOperations() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        final float[] m = new float[16];
+        final float[] other = new float[16];
+        final float[] out = new float[16];
+        randomMatrix(random, m);
+        randomMatrix(random, other);
+        final float[] points = new float[POINTS * 3];
+        for (int i = 0; i < points.length; ++i) {
+            points[i] = random.nextFloat();
+        }
+        final float[] transformed = new float[points.length];
+        final float[] batch = new float[POINTS * 16];
+        for (int i = 0; i < batch.length; ++i) {
+            batch[i] = random.nextFloat();
+        }
+        final float[] batchOut = new float[batch.length];
+
+        System.out.println(String.format("%-18s %16s", "operations/s", "PoseMath"));
+        report("invert", rate(1, new Runnable() {
+            @Override
+            public void run() {
+                PoseMath.invert(out, 0, m, 0);
+                sink(out[0]);
+            }
+        }));
+        report("transpose", rate(1, new Runnable() {
+            @Override
+            public void run() {
+                PoseMath.transpose(out, 0, m, 0);
+                sink(out[0]);
+            }
+        }));
+        report("determinant", rate(1, new Runnable() {
+            @Override
+            public void run() {
+                sink(PoseMath.determinant(m, 0));
+            }
+        }));
+        report("multiply", rate(1, new Runnable() {
+            @Override
+            public void run() {
+                PoseMath.multiply(out, 0, m, 0, other, 0);
+                sink(out[0]);
+            }
+        }));
+        report("multiply batch", rate(POINTS, new Runnable() {
+            @Override
+            public void run() {
+                PoseMath.multiplyBatch(batchOut, 0, m, 0, batch, 0, POINTS);
+                sink(batchOut[0]);
+            }
+        }));
+        report("transform point", rate(POINTS, new Runnable() {
+            @Override
+            public void run() {
+                PoseMath.transformPoints(transformed, 0, m, 0, points, 0, POINTS);
+                sink(transformed[0]);
+            }
+        }));
+    }
+
+    private static float sunk;
+
+    private static void sink(float value) {
+        sunk += value;
+    }
+
+    private static void report(String name, double rate) {
+        System.out.println(String.format("%-18s %,16.0f", name, rate));
+    }
+
+    private static double rate(int operationsPerRun, Runnable run) {
+        for (int i = 0; i < 20000; ++i) {
+            run.run();
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + BENCHMARK_MILLIS * 1000000L;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 100; ++i) {
+                run.run();
+            }
+            count += 100L * operationsPerRun;
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+     * Diagonally dominant, so inverting it doesn't amplify rounding.
+     */
+    private static void randomMatrix(Random random, float[] m) {
+        for (int i = 0; i < 16; ++i) {
+            m[i] = random.nextFloat() * 2 - 1;
+        }
+        for (int i = 0; i < 16; i += 5) {
+            m[i] += 4 * Math.signum(m[i]);
+        }
+    }
+
+    private static void randomPose(Random random, float[] m, float[] q) {
+        float length;
+        do {
+            for (int i = 0; i < 4; ++i) {
+                q[i] = random.nextFloat() * 2 - 1;
+            }
+            length = (float) Math.sqrt(q[0] * q[0] + q[1] * q[1] + q[2] * q[2] + q[3] * q[3]);
+        } while (length < .1f || length > 1);
+        for (int i = 0; i < 4; ++i) {
+            q[i] /= length;
+        }
+        PoseMath.quaternionToMatrix(m, 0, q, 0);
+        float scale = .5f + random.nextFloat() * 2;
+        for (int i = 0; i < 11; ++i) {
+            m[i] *= scale;
+        }
+        m[12] = random.nextFloat() * 20 - 10;
+        m[13] = random.nextFloat() * 20 - 10;
+        m[14] = random.nextFloat() * 20 - 10;
+    }
+
+    private static void referenceMultiply(float[] result, float[] lhs, float[] rhs) {
+        for (int c = 0; c < 4; ++c) {
+            for (int r = 0; r < 4; ++r) {
+                double sum = 0;
+                for (int k = 0; k < 4; ++k) {
+                    sum += (double) lhs[k * 4 + r] * rhs[c * 4 + k];
+                }
+                result[c * 4 + r] = (float) sum;
+            }
+        }
+    }
+
+    /*
+     * Laplace expansion down the first column, in doubles.
+     */
+    private static double referenceDeterminant(float[] m) {
+        double determinant = 0;
+        for (int r = 0; r < 4; ++r) {
+            double[] minor = new double[9];
+            int n = 0;
+            for (int c = 1; c < 4; ++c) {
+                for (int rr = 0; rr < 4; ++rr) {
+                    if (rr != r) {
+                        minor[n++] = m[c * 4 + rr];
+                    }
+                }
+            }
+            double cofactor = minor[0] * (minor[4] * minor[8] - minor[7] * minor[5])
+                    - minor[3] * (minor[1] * minor[8] - minor[7] * minor[2])
+                    + minor[6] * (minor[1] * minor[5] - minor[4] * minor[2]);
+            determinant += (r % 2 == 0 ? 1 : -1) * m[r] * cofactor;
+        }
+        return determinant;
+    }
+
+    /*
+     * Largest difference, relative to the largest expected value.
+     */
+    private static void assertClose(float[] expected, float[] actual) {
+        double scale = 1;
+        double error = 0;
+        for (int i = 0; i < actual.length; ++i) {
+            scale = Math.max(scale, Math.abs(expected[i]));
+            error = Math.max(error, Math.abs(expected[i] - actual[i]));
+        }
+        assertTrue("relative error " + error / scale, error / scale <= TOLERANCE);
+    }
+}
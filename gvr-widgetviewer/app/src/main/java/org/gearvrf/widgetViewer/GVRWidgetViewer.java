@@ -16,9 +16,9 @@
 package org.gearvrf.widgetViewer;
 
 import org.gearvrf.GVRActivity;
-import org.gearvrf.util.VRTouchPadGestureDetector;
-import org.gearvrf.util.VRTouchPadGestureDetector.OnTouchPadGestureListener;
-import org.gearvrf.util.VRTouchPadGestureDetector.SwipeDirection;
+import org.gearvrf.gestures.VRTouchPadGestureDetector;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.OnTouchPadGestureListener;
+import org.gearvrf.gestures.VRTouchPadGestureDetector.SwipeDirection;
 import org.gearvrf.widgetplugin.GVRWidgetPlugin;
 import android.os.Bundle;
 import android.util.DisplayMetrics;